@@ -1,6 +1,11 @@
 "use client";
 
-import type { TelemetryPacket } from "@/lib/wsClient";
+import { useEffect } from "react";
+import {
+  LATENCY_SLA_MS,
+  reportRenderAge,
+  type TelemetryPacket,
+} from "@/lib/wsClient";
 
 interface TelemetryPanelProps {
   cameraId: string;
@@ -13,6 +18,17 @@ export default function TelemetryPanel({
   data,
   telemetryReady,
 }: TelemetryPanelProps) {
+  // Age of the frame as drawn: capture time on the engine to now. Clock skew between the engine
+  // and this browser shifts it by the same amount for every frame.
+  const latency = data?.latency;
+  const ageMillis = data && latency ? Math.max(0, Date.now() - data.timestamp) : null;
+
+  useEffect(() => {
+    if (data?.latency) {
+      reportRenderAge(Date.now() - data.timestamp);
+    }
+  }, [data]);
+
   const status = (() => {
     if (!telemetryReady) return "Waiting for telemetry packets…";
     if (!data) return "No data yet for this camera.";
@@ -32,6 +48,20 @@ export default function TelemetryPanel({
             {telemetryReady && data
               ? new Date(data.timestamp).toLocaleTimeString()
               : "Waiting..."}
+            {latency && ageMillis !== null && (
+              <span
+                className={`ml-2 font-mono ${
+                  ageMillis > LATENCY_SLA_MS ? "text-amber-400" : "text-hud-emerald"
+                }`}
+                title={`Frame #${latency.frameSequence}: read in ${formatMicros(
+                  latency.grabMicros
+                )}, tracked +${formatMicros(latency.processMicros)}, sent +${formatMicros(
+                  latency.dispatchMicros
+                )}`}
+              >
+                {ageMillis.toFixed(0)} ms old
+              </span>
+            )}
           </span>
         </div>
         <p className="text-sm text-slate-400">{status}</p>
@@ -98,3 +128,7 @@ export default function TelemetryPanel({
     </section>
   );
 }
+
+function formatMicros(micros: number) {
+  return `${(micros / 1000).toFixed(1)} ms`;
+}
@@ -14,6 +14,38 @@ export const TELEMETRY_WS_URL =
   process.env.NEXT_PUBLIC_TELEMETRY_URL ||
   `ws://localhost:8081${NORMALIZED_PATH || "/"}`;
 
+/**
+ * Wire formats offered at handshake (WebSocket subprotocols). The server picks the first one it
+ * supports; set NEXT_PUBLIC_TELEMETRY_FORMAT=json to force JSON or =binary to receive full
+ * binary frames instead of deltas.
+ * Must match com.starwatchx.telemetry.TelemetryProtocol.
+ */
+const PROTOCOL_DELTA_V1 = "starwatchx.delta.v1";
+const PROTOCOL_BINARY_V1 = "starwatchx.bin.v1";
+const PROTOCOL_JSON = "starwatchx.json";
+const TELEMETRY_PROTOCOLS =
+  process.env.NEXT_PUBLIC_TELEMETRY_FORMAT === "json"
+    ? [PROTOCOL_JSON]
+    : process.env.NEXT_PUBLIC_TELEMETRY_FORMAT === "binary"
+      ? [PROTOCOL_BINARY_V1, PROTOCOL_JSON]
+      : [PROTOCOL_DELTA_V1, PROTOCOL_BINARY_V1, PROTOCOL_JSON];
+
+const BINARY_MAGIC = 0x5753;
+const BINARY_VERSION = 1;
+const TYPE_FRAME = 1;
+const TYPE_LABELS = 2;
+const TYPE_KEYFRAME = 3;
+const TYPE_DELTA = 4;
+const TYPE_BATCH = 5;
+const CONFIDENCE_SCALE = 65535;
+const POSITION_SCALE = 4;
+const VELOCITY_SCALE = 4;
+const DELTA_FIELDS = 8;
+const TIMING_BYTES = 24;
+
+/** End-to-end latency objective; the telemetry panel flags frames older than this. */
+export const LATENCY_SLA_MS = Number(process.env.NEXT_PUBLIC_LATENCY_SLA_MS ?? 500);
+
 export type TelemetryObject = {
   id: string;
   label: string;
@@ -26,16 +58,133 @@ export type TelemetryObject = {
   vy?: number;
 };
 
+/**
+ * Capture timing of a live frame. Stage times are microseconds after capture, which happened at
+ * the packet's timestamp (engine wall clock), so the age of a frame is Date.now() - timestamp.
+ */
+export type FrameLatency = {
+  frameSequence: number;
+  ptsMillis?: number;
+  grabMicros: number;
+  processMicros: number;
+  dispatchMicros: number;
+};
+
 export type TelemetryPacket = {
   cameraId: string;
   timestamp: number;
   objects: TelemetryObject[];
+  /** Only set for live telemetry; recorded frames carry no timing. */
+  latency?: FrameLatency;
+};
+
+export type TelemetryEvent = {
+  kind: "event";
+  type: string;
+  cameraId: string;
+  timestamp: number;
+  trackId?: string;
+  label?: string;
+  otherTrackId?: string;
+  otherLabel?: string;
+  distance?: number;
+  secondsToClosest?: number;
+  zoneId?: string;
+  dwellMillis?: number;
+};
+
+/**
+ * Playback state reported by the replay server (TelemetryReplayServer) when
+ * NEXT_PUBLIC_TELEMETRY_URL points at it, e.g. ws://localhost:8083/?from=<millis>&speed=4.
+ */
+export type TelemetryReplayStatus = {
+  kind: "replay";
+  timestamp: number;
+  speed: number;
+  paused: boolean;
+  end: boolean;
+};
+
+/** Omitted fields keep their value; a speed of 0 replays as fast as the client keeps up. */
+export type TelemetryReplayControl = {
+  seek?: number;
+  speed?: number;
+  paused?: boolean;
+};
+
+/**
+ * Column-oriented frame decoded from the binary protocol. Arrays are views into the received
+ * message where alignment allows, so treat them as read-only and copy anything kept past the
+ * listener call. Frames rebuilt from delta messages hold the full current state of the camera.
+ */
+export type TelemetryFrame = {
+  cameraId: string;
+  timestamp: number;
+  sequence: number;
+  count: number;
+  trackNumbers: Uint32Array;
+  x: Float32Array;
+  y: Float32Array;
+  width: Float32Array;
+  height: Float32Array;
+  vx: Float32Array;
+  vy: Float32Array;
+  labelIds: Uint16Array;
+  /** Confidence scaled to 0..65535; divide by 65535 for 0..1. */
+  confidence: Uint16Array;
+  latency?: FrameLatency;
+};
+
+/**
+ * Narrows what the server sends; omitted fields mean everything. maxRate is updates per second
+ * per camera.
+ */
+export type TelemetrySubscription = {
+  cameras?: string[];
+  labels?: string[];
+  minConfidence?: number;
+  maxRate?: number;
+};
+
+/** JSON packet as received, before validation. */
+type RawPacket = {
+  cameraId?: unknown;
+  timestamp?: unknown;
+  objects?: unknown;
+  latency?: Partial<FrameLatency> | null;
 };
 
 export type TelemetryListener = (packet: TelemetryPacket) => void;
+export type TelemetryFrameListener = (frame: TelemetryFrame) => void;
+export type TelemetryEventListener = (event: TelemetryEvent) => void;
+export type TelemetryReplayListener = (status: TelemetryReplayStatus) => void;
 
 const listeners = new Set<TelemetryListener>();
+const frameListeners = new Set<TelemetryFrameListener>();
+const eventListeners = new Set<TelemetryEventListener>();
+const replayListeners = new Set<TelemetryReplayListener>();
+const labelNames: string[] = [];
+
+/** Quantized per-track state of one camera in delta mode, keyed by track number. */
+type DeltaState = {
+  sequence: number;
+  tracks: Map<number, Int16Array>;
+};
+const deltaStates = new Map<string, DeltaState>();
+const pendingResyncs = new Set<string>();
+const textDecoder =
+  typeof TextDecoder !== "undefined" ? new TextDecoder("utf-8") : null;
 const RECONNECT_DELAY_MS = 3000;
+// The panels redraw at roughly 10 Hz, so anything faster is wasted bandwidth.
+const DEFAULT_MAX_RATE = Number(process.env.NEXT_PUBLIC_TELEMETRY_MAX_RATE ?? 10);
+
+let subscription: TelemetrySubscription = { maxRate: DEFAULT_MAX_RATE };
+
+// Render ages are sent to the server in batches so it can aggregate latency per client.
+const LATENCY_REPORT_MS = 2000;
+const MAX_PENDING_AGES = 256;
+let pendingAges: number[] = [];
+let latencyReportTimer: ReturnType<typeof setTimeout> | null = null;
 
 let socket: WebSocket | null = null;
 let reconnectTimer: ReturnType<typeof setTimeout> | null = null;
@@ -53,10 +202,19 @@ function ensureConnection() {
     return;
   }
 
-  socket = new WebSocket(TELEMETRY_WS_URL);
+  socket = new WebSocket(TELEMETRY_WS_URL, TELEMETRY_PROTOCOLS);
+  socket.binaryType = "arraybuffer";
 
   socket.onopen = () => {
-    console.info("[Telemetry] Connected to", TELEMETRY_WS_URL);
+    // The server starts every new connection with keyframes.
+    deltaStates.clear();
+    pendingResyncs.clear();
+    sendSubscription();
+    console.info(
+      "[Telemetry] Connected to",
+      TELEMETRY_WS_URL,
+      `(${socket?.protocol || "json"})`
+    );
   };
 
   socket.onerror = (event) => {
@@ -76,42 +234,29 @@ function ensureConnection() {
 
   socket.onmessage = (event) => {
     const payload = event.data;
+    if (payload instanceof ArrayBuffer) {
+      handleBinaryMessage(payload);
+      return;
+    }
     if (typeof payload !== "string") {
-      console.error("[Telemetry] Non-string payload received", payload);
+      console.error("[Telemetry] Unsupported payload received", payload);
       return;
     }
     try {
       const parsed = JSON.parse(payload);
-      if (!parsed || typeof parsed.cameraId !== "string") {
-        console.error("[Telemetry] Invalid packet shape", parsed);
+      if (parsed && parsed.kind === "event") {
+        eventListeners.forEach((listener) => listener(parsed as TelemetryEvent));
         return;
       }
-      const objects = Array.isArray(parsed.objects)
-        ? parsed.objects.map((obj: Partial<TelemetryObject>) => ({
-            id: String(obj.id ?? "untracked"),
-            label: String(obj.label ?? "object"),
-            confidence: Number(obj.confidence ?? 0),
-            x: Number(obj.x ?? 0),
-            y: Number(obj.y ?? 0),
-            width: Number(obj.width ?? 0),
-            height: Number(obj.height ?? 0),
-            vx:
-              obj.vx === undefined || obj.vx === null
-                ? undefined
-                : Number(obj.vx),
-            vy:
-              obj.vy === undefined || obj.vy === null
-                ? undefined
-                : Number(obj.vy),
-          }))
-        : [];
-
-      const packet: TelemetryPacket = {
-        cameraId: parsed.cameraId,
-        timestamp: Number(parsed.timestamp ?? Date.now()),
-        objects,
-      };
-      listeners.forEach((listener) => listener(packet));
+      if (parsed && parsed.kind === "replay") {
+        replayListeners.forEach((listener) => listener(parsed as TelemetryReplayStatus));
+        return;
+      }
+      if (parsed && parsed.kind === "batch" && Array.isArray(parsed.frames)) {
+        parsed.frames.forEach(handlePacket);
+        return;
+      }
+      handlePacket(parsed);
     } catch (err) {
       console.error(
         "[Telemetry] Failed to parse message",
@@ -122,6 +267,443 @@ function ensureConnection() {
   };
 }
 
+/**
+ * Parses one JSON packet, on its own or from a batch, and notifies packet listeners.
+ */
+function handlePacket(parsed: RawPacket | null) {
+  if (!parsed || typeof parsed.cameraId !== "string") {
+    console.error("[Telemetry] Invalid packet shape", parsed);
+    return;
+  }
+  const objects = Array.isArray(parsed.objects)
+    ? parsed.objects.map((obj: Partial<TelemetryObject>) => ({
+        id: String(obj.id ?? "untracked"),
+        label: String(obj.label ?? "object"),
+        confidence: Number(obj.confidence ?? 0),
+        x: Number(obj.x ?? 0),
+        y: Number(obj.y ?? 0),
+        width: Number(obj.width ?? 0),
+        height: Number(obj.height ?? 0),
+        vx:
+          obj.vx === undefined || obj.vx === null
+            ? undefined
+            : Number(obj.vx),
+        vy:
+          obj.vy === undefined || obj.vy === null
+            ? undefined
+            : Number(obj.vy),
+      }))
+    : [];
+
+  const latency = parsed.latency;
+  const packet: TelemetryPacket = {
+    cameraId: parsed.cameraId,
+    timestamp: Number(parsed.timestamp ?? Date.now()),
+    objects,
+    latency:
+      latency && typeof latency === "object"
+        ? {
+            frameSequence: Number(latency.frameSequence ?? 0),
+            ptsMillis:
+              latency.ptsMillis === undefined || latency.ptsMillis === null
+                ? undefined
+                : Number(latency.ptsMillis),
+            grabMicros: Number(latency.grabMicros ?? 0),
+            processMicros: Number(latency.processMicros ?? 0),
+            dispatchMicros: Number(latency.dispatchMicros ?? 0),
+          }
+        : undefined,
+  };
+  listeners.forEach((listener) => listener(packet));
+}
+
+function handleBinaryMessage(buffer: ArrayBuffer) {
+  const parts = splitBatchMessage(buffer);
+  if (parts) {
+    parts.forEach(handleBinaryFrame);
+    return;
+  }
+  handleBinaryFrame(buffer);
+}
+
+function handleBinaryFrame(buffer: ArrayBuffer) {
+  try {
+    const frame = decodeBinaryMessage(buffer, requestResync);
+    if (!frame) {
+      return;
+    }
+    frameListeners.forEach((listener) => listener(frame));
+    if (listeners.size > 0) {
+      const packet = frameToPacket(frame);
+      listeners.forEach((listener) => listener(packet));
+    }
+  } catch (err) {
+    console.error(
+      "[Telemetry] Failed to decode binary message",
+      err instanceof Error ? err : undefined
+    );
+  }
+}
+
+function sendSubscription() {
+  if (socket && socket.readyState === WebSocket.OPEN) {
+    socket.send(JSON.stringify({ type: "subscribe", ...subscription }));
+  }
+}
+
+/**
+ * Replaces the subscription for this and future connections.
+ */
+export function setTelemetrySubscription(next: TelemetrySubscription) {
+  subscription = { ...next };
+  sendSubscription();
+}
+
+/**
+ * Seeks, changes speed or pauses when connected to the replay server; ignored by the live server.
+ */
+export function controlReplay(control: TelemetryReplayControl) {
+  if (socket && socket.readyState === WebSocket.OPEN) {
+    socket.send(JSON.stringify({ type: "replay", ...control }));
+  }
+}
+
+/**
+ * Records how old a live frame was when it was drawn (Date.now() - timestamp, in milliseconds).
+ * Ages are sent to the server every couple of seconds; call it once per rendered frame.
+ */
+export function reportRenderAge(ageMillis: number) {
+  if (!Number.isFinite(ageMillis) || pendingAges.length >= MAX_PENDING_AGES) {
+    return;
+  }
+  pendingAges.push(Math.round(ageMillis * 10) / 10);
+  if (latencyReportTimer === null && typeof window !== "undefined") {
+    latencyReportTimer = window.setTimeout(sendLatencyReport, LATENCY_REPORT_MS);
+  }
+}
+
+function sendLatencyReport() {
+  latencyReportTimer = null;
+  if (pendingAges.length > 0 && socket && socket.readyState === WebSocket.OPEN) {
+    socket.send(JSON.stringify({ type: "latency", ages: pendingAges }));
+  }
+  pendingAges = [];
+}
+
+/**
+ * Asks the server for a keyframe of the camera after a sequence gap; sent once per gap.
+ */
+function requestResync(cameraId: string) {
+  if (pendingResyncs.has(cameraId)) {
+    return;
+  }
+  if (socket && socket.readyState === WebSocket.OPEN) {
+    pendingResyncs.add(cameraId);
+    socket.send(JSON.stringify({ type: "resync", cameraId }));
+  }
+}
+
+/**
+ * Splits a batch message into the messages it carries, in order, or returns null for any other
+ * message. Each part is copied into its own buffer so column views start at offset 0.
+ */
+export function splitBatchMessage(buffer: ArrayBuffer): ArrayBuffer[] | null {
+  const view = new DataView(buffer);
+  if (
+    buffer.byteLength < 8 ||
+    view.getUint16(0, true) !== BINARY_MAGIC ||
+    view.getUint8(2) !== BINARY_VERSION ||
+    view.getUint8(3) !== TYPE_BATCH
+  ) {
+    return null;
+  }
+  const count = view.getUint16(4, true);
+  const parts: ArrayBuffer[] = [];
+  let offset = 8;
+  for (let i = 0; i < count; i += 1) {
+    const length = view.getUint32(offset, true);
+    offset += 4;
+    parts.push(buffer.slice(offset, offset + length));
+    offset += (length + 3) & ~3;
+  }
+  return parts;
+}
+
+/**
+ * Decodes one binary message. Label tables update the shared label names and return null;
+ * frames are returned as typed-array columns. Keyframes and deltas are applied to the camera's
+ * delta state; a delta that does not follow the previous sequence is dropped, reported through
+ * `onGap` and returns null until the next keyframe.
+ */
+export function decodeBinaryMessage(
+  buffer: ArrayBuffer,
+  onGap?: (cameraId: string) => void
+): TelemetryFrame | null {
+  const view = new DataView(buffer);
+  if (
+    view.getUint16(0, true) !== BINARY_MAGIC ||
+    view.getUint8(2) !== BINARY_VERSION
+  ) {
+    throw new Error("Unsupported telemetry message header");
+  }
+  const type = view.getUint8(3);
+  if (type === TYPE_LABELS) {
+    decodeLabels(view);
+    return null;
+  }
+  if (type === TYPE_KEYFRAME || type === TYPE_DELTA) {
+    return decodeDelta(buffer, view, type, onGap);
+  }
+  if (type !== TYPE_FRAME) {
+    throw new Error(`Unknown telemetry message type ${type}`);
+  }
+
+  const cameraLength = view.getUint16(4, true);
+  const cameraId = decodeUtf8(buffer, 6, cameraLength);
+  let offset = (6 + cameraLength + 3) & ~3;
+  const timestamp = view.getFloat64(offset, true);
+  const sequence = view.getUint32(offset + 8, true);
+  const count = view.getUint16(offset + 12, true);
+  offset += 16;
+
+  const trackNumbers = uint32Column(buffer, view, offset, count);
+  offset += count * 4;
+  const columns: Float32Array[] = [];
+  for (let column = 0; column < 6; column += 1) {
+    columns.push(float32Column(buffer, view, offset, count));
+    offset += count * 4;
+  }
+  const labelIds = uint16Column(buffer, view, offset, count);
+  offset += count * 2;
+  const confidence = uint16Column(buffer, view, offset, count);
+  offset += count * 2;
+
+  return {
+    cameraId,
+    timestamp,
+    sequence,
+    count,
+    trackNumbers,
+    x: columns[0],
+    y: columns[1],
+    width: columns[2],
+    height: columns[3],
+    vx: columns[4],
+    vy: columns[5],
+    labelIds,
+    confidence,
+    latency: decodeTiming(view, offset),
+  };
+}
+
+/**
+ * Reads the timing trailer live frames carry after their columns, if the message has one.
+ */
+function decodeTiming(view: DataView, offset: number): FrameLatency | undefined {
+  if (view.byteLength < offset + TIMING_BYTES) {
+    return undefined;
+  }
+  const ptsMillis = view.getFloat64(offset, true);
+  return {
+    ptsMillis: Number.isNaN(ptsMillis) ? undefined : ptsMillis,
+    frameSequence: view.getUint32(offset + 8, true),
+    grabMicros: view.getUint32(offset + 12, true),
+    processMicros: view.getUint32(offset + 16, true),
+    dispatchMicros: view.getUint32(offset + 20, true),
+  };
+}
+
+function decodeDelta(
+  buffer: ArrayBuffer,
+  view: DataView,
+  type: number,
+  onGap?: (cameraId: string) => void
+): TelemetryFrame | null {
+  const cameraLength = view.getUint16(4, true);
+  const cameraId = decodeUtf8(buffer, 6, cameraLength);
+  let offset = (6 + cameraLength + 3) & ~3;
+  const timestamp = view.getFloat64(offset, true);
+  const sequence = view.getUint32(offset + 8, true);
+  const upsertCount = view.getUint16(offset + 12, true);
+  const removedCount = view.getUint16(offset + 14, true);
+  offset += 16;
+
+  let state = deltaStates.get(cameraId);
+  if (type === TYPE_KEYFRAME) {
+    state = { sequence, tracks: new Map() };
+    deltaStates.set(cameraId, state);
+    pendingResyncs.delete(cameraId);
+  } else if (!state || sequence !== ((state.sequence + 1) >>> 0)) {
+    deltaStates.delete(cameraId);
+    onGap?.(cameraId);
+    return null;
+  }
+  state.sequence = sequence;
+
+  const upsertIds = offset;
+  offset += upsertCount * 4;
+  for (let i = 0; i < removedCount; i += 1) {
+    state.tracks.delete(view.getUint32(offset + i * 4, true));
+  }
+  offset += removedCount * 4;
+  for (let i = 0; i < upsertCount; i += 1) {
+    const trackNumber = view.getUint32(upsertIds + i * 4, true);
+    let values = state.tracks.get(trackNumber);
+    if (!values) {
+      values = new Int16Array(DELTA_FIELDS);
+      state.tracks.set(trackNumber, values);
+    }
+    for (let field = 0; field < DELTA_FIELDS; field += 1) {
+      const position = offset + (field * upsertCount + i) * 2;
+      // Label ids and confidences are unsigned; keep their bit patterns and widen on read.
+      values[field] = view.getInt16(position, true);
+    }
+  }
+  offset += upsertCount * DELTA_FIELDS * 2;
+  return deltaStateToFrame(cameraId, timestamp, state, decodeTiming(view, offset));
+}
+
+function deltaStateToFrame(
+  cameraId: string,
+  timestamp: number,
+  state: DeltaState,
+  latency: FrameLatency | undefined
+): TelemetryFrame {
+  const count = state.tracks.size;
+  const frame: TelemetryFrame = {
+    cameraId,
+    timestamp,
+    sequence: state.sequence,
+    count,
+    trackNumbers: new Uint32Array(count),
+    x: new Float32Array(count),
+    y: new Float32Array(count),
+    width: new Float32Array(count),
+    height: new Float32Array(count),
+    vx: new Float32Array(count),
+    vy: new Float32Array(count),
+    labelIds: new Uint16Array(count),
+    confidence: new Uint16Array(count),
+    latency,
+  };
+  let i = 0;
+  state.tracks.forEach((values, trackNumber) => {
+    frame.trackNumbers[i] = trackNumber;
+    frame.x[i] = values[0] / POSITION_SCALE;
+    frame.y[i] = values[1] / POSITION_SCALE;
+    frame.width[i] = values[2] / POSITION_SCALE;
+    frame.height[i] = values[3] / POSITION_SCALE;
+    frame.vx[i] = values[4] / VELOCITY_SCALE;
+    frame.vy[i] = values[5] / VELOCITY_SCALE;
+    frame.labelIds[i] = values[6] & 0xffff;
+    frame.confidence[i] = values[7] & 0xffff;
+    i += 1;
+  });
+  return frame;
+}
+
+/**
+ * Materializes a frame into the object-per-track packet used by the dashboard components.
+ */
+export function frameToPacket(frame: TelemetryFrame): TelemetryPacket {
+  const objects: TelemetryObject[] = new Array(frame.count);
+  for (let i = 0; i < frame.count; i += 1) {
+    objects[i] = {
+      id: String(frame.trackNumbers[i]),
+      label: labelName(frame.labelIds[i]),
+      confidence: frame.confidence[i] / CONFIDENCE_SCALE,
+      x: frame.x[i],
+      y: frame.y[i],
+      width: frame.width[i],
+      height: frame.height[i],
+      vx: frame.vx[i],
+      vy: frame.vy[i],
+    };
+  }
+  return {
+    cameraId: frame.cameraId,
+    timestamp: frame.timestamp,
+    objects,
+    latency: frame.latency,
+  };
+}
+
+export function labelName(labelId: number): string {
+  return labelNames[labelId] ?? "object";
+}
+
+function decodeLabels(view: DataView) {
+  const count = view.getUint16(4, true);
+  let offset = 6;
+  for (let i = 0; i < count; i += 1) {
+    const id = view.getUint16(offset, true);
+    const length = view.getUint8(offset + 2);
+    labelNames[id] = decodeUtf8(view.buffer as ArrayBuffer, offset + 3, length);
+    offset += 3 + length;
+  }
+}
+
+function decodeUtf8(buffer: ArrayBuffer, offset: number, length: number) {
+  const bytes = new Uint8Array(buffer, offset, length);
+  if (textDecoder) {
+    return textDecoder.decode(bytes);
+  }
+  return String.fromCharCode(...Array.from(bytes));
+}
+
+// Typed-array views need the platform to be little-endian (every browser target is); the
+// DataView fallbacks keep decoding correct otherwise.
+const LITTLE_ENDIAN_PLATFORM =
+  new Uint8Array(new Uint16Array([1]).buffer)[0] === 1;
+
+function float32Column(
+  buffer: ArrayBuffer,
+  view: DataView,
+  offset: number,
+  count: number
+) {
+  if (LITTLE_ENDIAN_PLATFORM) {
+    return new Float32Array(buffer, offset, count);
+  }
+  const column = new Float32Array(count);
+  for (let i = 0; i < count; i += 1) {
+    column[i] = view.getFloat32(offset + i * 4, true);
+  }
+  return column;
+}
+
+function uint32Column(
+  buffer: ArrayBuffer,
+  view: DataView,
+  offset: number,
+  count: number
+) {
+  if (LITTLE_ENDIAN_PLATFORM) {
+    return new Uint32Array(buffer, offset, count);
+  }
+  const column = new Uint32Array(count);
+  for (let i = 0; i < count; i += 1) {
+    column[i] = view.getUint32(offset + i * 4, true);
+  }
+  return column;
+}
+
+function uint16Column(
+  buffer: ArrayBuffer,
+  view: DataView,
+  offset: number,
+  count: number
+) {
+  if (LITTLE_ENDIAN_PLATFORM) {
+    return new Uint16Array(buffer, offset, count);
+  }
+  const column = new Uint16Array(count);
+  for (let i = 0; i < count; i += 1) {
+    column[i] = view.getUint16(offset + i * 2, true);
+  }
+  return column;
+}
+
 function scheduleReconnect() {
   if (reconnectTimer !== null) {
     return;
@@ -138,6 +720,11 @@ function teardownConnection() {
     clearTimeout(reconnectTimer);
     reconnectTimer = null;
   }
+  if (latencyReportTimer !== null) {
+    clearTimeout(latencyReportTimer);
+    latencyReportTimer = null;
+  }
+  pendingAges = [];
   if (socket) {
     socket.close();
     socket = null;
@@ -152,8 +739,40 @@ export function subscribeTelemetry(listener: TelemetryListener) {
   }
   return () => {
     listeners.delete(listener);
-    if (listeners.size === 0) {
+    if (listeners.size === 0 && frameListeners.size === 0) {
       teardownConnection();
     }
   };
 }
+
+/**
+ * Receives binary frames as typed-array columns without per-object allocation. Only fires when
+ * the server negotiated the binary protocol.
+ */
+export function subscribeTelemetryFrames(listener: TelemetryFrameListener) {
+  frameListeners.add(listener);
+  if (typeof window !== "undefined") {
+    shouldReconnect = true;
+    ensureConnection();
+  }
+  return () => {
+    frameListeners.delete(listener);
+    if (listeners.size === 0 && frameListeners.size === 0) {
+      teardownConnection();
+    }
+  };
+}
+
+export function subscribeTelemetryEvents(listener: TelemetryEventListener) {
+  eventListeners.add(listener);
+  return () => {
+    eventListeners.delete(listener);
+  };
+}
+
+export function subscribeReplayStatus(listener: TelemetryReplayListener) {
+  replayListeners.add(listener);
+  return () => {
+    replayListeners.delete(listener);
+  };
+}
@@ -0,0 +1,91 @@
+package com.starwatchx.detection;
+
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Output decoding: {@link ONNXModelLoader#toDetectionsArray} transposes a synthetic
+ * {@code [1, attributes, candidates]} tensor into rows, and {@link ObjectDetector#postprocess}
+ * turns rows into detections. About one candidate in a hundred clears the confidence threshold,
+ * as on a busy frame. No model is loaded; ONNX Runtime only holds the tensor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecodeBenchmark {
+
+    /** x, y, w, h, objectness and 80 class scores, the layout postprocess expects. */
+    private static final int ATTRIBUTES = 85;
+
+    /** Candidates of a 320x320 and a 640x640 input. */
+    @Param({"2100", "8400"})
+    public int candidates;
+
+    private ONNXModelLoader loader;
+    private ObjectDetector detector;
+    private OnnxTensor tensor;
+    private float[][] rows;
+
+    @Setup(Level.Trial)
+    public void setUp() throws OrtException {
+        Random random = new Random(42L);
+        float[] output = new float[ATTRIBUTES * candidates];
+        for (int det = 0; det < candidates; det++) {
+            boolean hit = random.nextInt(100) == 0;
+            output[det] = random.nextFloat() * 640f;
+            output[candidates + det] = random.nextFloat() * 640f;
+            output[2 * candidates + det] = 10f + random.nextFloat() * 120f;
+            output[3 * candidates + det] = 10f + random.nextFloat() * 120f;
+            output[4 * candidates + det] = hit ? 0.6f + random.nextFloat() * 0.4f : random.nextFloat() * 0.2f;
+            for (int cls = 5; cls < ATTRIBUTES; cls++) {
+                output[cls * candidates + det] = random.nextFloat() * (hit ? 0.5f : 0.2f);
+            }
+            if (hit) {
+                output[(5 + random.nextInt(ATTRIBUTES - 5)) * candidates + det] = 0.9f;
+            }
+        }
+        loader = new ONNXModelLoader();
+        tensor = OnnxTensor.createTensor(OrtEnvironment.getEnvironment(), FloatBuffer.wrap(output),
+            new long[] {1, ATTRIBUTES, candidates});
+        detector = new ObjectDetector(loader);
+        rows = loader.toDetectionsArray(tensor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tensor.close();
+        loader.close();
+    }
+
+    @Benchmark
+    public float[][] toDetectionsArray() throws OrtException {
+        return loader.toDetectionsArray(tensor);
+    }
+
+    @Benchmark
+    public List<DetectedObject> postprocess() {
+        return detector.postprocess(rows, 1920, 1080, "CAM-1", 0L);
+    }
+}
@@ -0,0 +1,64 @@
+package com.starwatchx.detection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ObjectDetector#applyNms} on candidates that come in clusters of about eight jittered
+ * boxes per object, like raw detector output, so most candidates are suppressed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NmsBenchmark {
+
+    private static final int BOXES_PER_OBJECT = 8;
+
+    @Param({"50", "200", "1000"})
+    public int boxes;
+
+    private ObjectDetector detector;
+    private List<DetectedObject> detections;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42L);
+        detections = new ArrayList<>(boxes);
+        float centerX = 0f;
+        float centerY = 0f;
+        for (int i = 0; i < boxes; i++) {
+            if (i % BOXES_PER_OBJECT == 0) {
+                centerX = random.nextFloat() * 1800f;
+                centerY = random.nextFloat() * 1000f;
+            }
+            float width = 40f + random.nextFloat() * 8f;
+            float height = 80f + random.nextFloat() * 8f;
+            detections.add(new DetectedObject("CAM-1", 0, "person", 0.3f + random.nextFloat() * 0.7f,
+                centerX + random.nextFloat() * 6f, centerY + random.nextFloat() * 6f, width, height, 0L));
+        }
+        detector = new ObjectDetector(null);
+    }
+
+    @Benchmark
+    public List<DetectedObject> applyNms() {
+        return detector.applyNms(detections);
+    }
+}
@@ -0,0 +1,59 @@
+package com.starwatchx.detection;
+
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ObjectDetector#preprocess}: resize to 640x640, BGR to RGB, scale to float and repack
+ * HWC into the model's CHW tensor, on a noise frame of each camera resolution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PreprocessBenchmark {
+
+    @Param({"1280x720", "1920x1080"})
+    public String resolution;
+
+    private ObjectDetector detector;
+    private Mat frame;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] size = resolution.split("x");
+        frame = new Mat(Integer.parseInt(size[1]), Integer.parseInt(size[0]), opencv_core.CV_8UC3);
+        opencv_core.randu(frame, new Mat(1, 1, opencv_core.CV_64F, new Scalar(0.0)),
+            new Mat(1, 1, opencv_core.CV_64F, new Scalar(255.0)));
+        // Preprocessing never touches the model loader.
+        detector = new ObjectDetector(null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        frame.close();
+    }
+
+    @Benchmark
+    public float[] preprocess() {
+        return detector.preprocess(frame);
+    }
+}
@@ -0,0 +1,94 @@
+package com.starwatchx.telemetry;
+
+import com.starwatchx.tracking.TrackTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-frame encodings {@link TelemetryServer} produces before fan-out: the JSON and binary
+ * broadcasts, compressed past the configured threshold, and a delta client's stream. Tables for a
+ * loop of frames with every track moving are built up front and encoded in turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final String CAMERA_ID = "CAM-1";
+    private static final int FRAMES = 16;
+    private static final String[] LABELS = {"person", "car", "bicycle", "truck"};
+
+    @Param({"10", "100", "500"})
+    public int rows;
+
+    private final TrackTable[] tables = new TrackTable[FRAMES];
+    private TelemetryEncoders encoders;
+    private DeltaTelemetryEncoder delta;
+    private int frame;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42L);
+        float[] baseX = new float[rows];
+        float[] baseY = new float[rows];
+        for (int row = 0; row < rows; row++) {
+            baseX[row] = random.nextFloat() * 1800f;
+            baseY[row] = random.nextFloat() * 1000f;
+        }
+        long captureNanos = System.nanoTime();
+        for (int index = 0; index < FRAMES; index++) {
+            TrackTable table = new TrackTable(rows);
+            table.reset(CAMERA_ID, 1_000L + index * 33L, index);
+            table.setCapture(index * 33.0, captureNanos, 2_000_000L);
+            table.setPublishedNanos(captureNanos + 20_000_000L);
+            for (int row = 0; row < rows; row++) {
+                table.addRow(CAMERA_ID + "_" + row, row, row % LABELS.length, LABELS[row % LABELS.length],
+                    0.5f + (row % 50) / 100f, baseX[row] + index * 3f, baseY[row] + index * 2f, 40f, 80f,
+                    90f, 60f, 1_000L + index * 33L, null);
+            }
+            tables[index] = table;
+        }
+        LabelRegistry labels = new LabelRegistry();
+        encoders = new TelemetryEncoders(labels, 0, 150, 1.0f, 2.0f, 0.02f, new MessageCompressor(1024, 1));
+        delta = encoders.newDeltaEncoder(CAMERA_ID);
+    }
+
+    private TrackTable next() {
+        TrackTable table = tables[frame];
+        frame = (frame + 1) % FRAMES;
+        return table;
+    }
+
+    @Benchmark
+    public PreframedMessage json() {
+        return encoders.json(next());
+    }
+
+    @Benchmark
+    public PreframedMessage binary() {
+        TrackTable table = next();
+        return encoders.binary(table, (int) table.getFrameSequence());
+    }
+
+    @Benchmark
+    public ByteBuffer delta() {
+        return delta.encode(next());
+    }
+}
@@ -0,0 +1,81 @@
+package com.starwatchx.tracking;
+
+import com.starwatchx.detection.DetectedObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link TrackerManager#update} plus publish per frame, with every object detected on every
+ * frame. Objects follow sinusoidal paths, so the tracker predicts, associates and corrects a
+ * steady set of tracks; the detection lists for a loop of frames are built up front.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrackerBenchmark {
+
+    private static final String CAMERA_ID = "CAM-1";
+    private static final int FRAMES = 64;
+    private static final long FRAME_MILLIS = 33L;
+
+    @Param({"10", "50", "200"})
+    public int objects;
+
+    private final List<List<DetectedObject>> frames = new ArrayList<>(FRAMES);
+    private TrackerManager trackerManager;
+    private long timestamp;
+    private long frameSequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42L);
+        float[] baseX = new float[objects];
+        float[] baseY = new float[objects];
+        float[] phase = new float[objects];
+        for (int i = 0; i < objects; i++) {
+            baseX[i] = 60f + random.nextFloat() * 1760f;
+            baseY[i] = 60f + random.nextFloat() * 920f;
+            phase[i] = random.nextFloat() * 6.28f;
+        }
+        for (int frame = 0; frame < FRAMES; frame++) {
+            double angle = 2.0 * Math.PI * frame / FRAMES;
+            List<DetectedObject> detections = new ArrayList<>(objects);
+            for (int i = 0; i < objects; i++) {
+                float x = baseX[i] + 40f * (float) Math.sin(angle + phase[i]);
+                float y = baseY[i] + 20f * (float) Math.cos(angle + phase[i]);
+                detections.add(new DetectedObject(CAMERA_ID, 0, "person", 0.8f, x, y, 40f, 80f, 0L));
+            }
+            frames.add(detections);
+        }
+        trackerManager = new TrackerManager();
+        timestamp = 0L;
+        frameSequence = 0L;
+    }
+
+    @Benchmark
+    public TrackTable update() {
+        List<DetectedObject> detections = frames.get((int) (frameSequence % FRAMES));
+        timestamp += FRAME_MILLIS;
+        TrackTable table = trackerManager.update(CAMERA_ID, detections, timestamp, frameSequence++);
+        trackerManager.publish(CAMERA_ID);
+        return table;
+    }
+}
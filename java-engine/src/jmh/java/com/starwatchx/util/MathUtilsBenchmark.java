@@ -0,0 +1,63 @@
+package com.starwatchx.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MathUtils#iou} over a fixed set of box pairs, half of them overlapping, reported per
+ * pair. Summing the results keeps the JIT from dropping any call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MathUtilsBenchmark {
+
+    private static final int PAIRS = 1024;
+
+    /** x, y, width, height of box a, then of box b, per pair. */
+    private final float[] boxes = new float[PAIRS * 8];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42L);
+        for (int pair = 0; pair < PAIRS; pair++) {
+            int base = pair * 8;
+            boxes[base] = random.nextFloat() * 1800f;
+            boxes[base + 1] = random.nextFloat() * 1000f;
+            boxes[base + 2] = 20f + random.nextFloat() * 100f;
+            boxes[base + 3] = 20f + random.nextFloat() * 100f;
+            boolean overlapping = (pair & 1) == 0;
+            boxes[base + 4] = overlapping ? boxes[base] + random.nextFloat() * 20f : random.nextFloat() * 1800f;
+            boxes[base + 5] = overlapping ? boxes[base + 1] + random.nextFloat() * 20f : random.nextFloat() * 1000f;
+            boxes[base + 6] = 20f + random.nextFloat() * 100f;
+            boxes[base + 7] = 20f + random.nextFloat() * 100f;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public float iou() {
+        float sum = 0f;
+        for (int base = 0; base < boxes.length; base += 8) {
+            sum += MathUtils.iou(boxes[base], boxes[base + 1], boxes[base + 2], boxes[base + 3],
+                boxes[base + 4], boxes[base + 5], boxes[base + 6], boxes[base + 7]);
+        }
+        return sum;
+    }
+}
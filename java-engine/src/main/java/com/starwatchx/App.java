@@ -1,15 +1,34 @@
 package com.starwatchx;
 
+import com.starwatchx.analytics.ProximityAlertEngine;
+import com.starwatchx.analytics.ProximityRule;
+import com.starwatchx.analytics.ZoneEngine;
+import com.starwatchx.analytics.ZoneLoader;
 import com.starwatchx.config.EngineConfig;
 import com.starwatchx.detection.ObjectDetector;
 import com.starwatchx.detection.ONNXModelLoader;
+import com.starwatchx.hud.AnnotatedFrameStreamer;
 import com.starwatchx.hud.HUDOverlay;
+import com.starwatchx.metrics.ContinuousRecording;
+import com.starwatchx.metrics.MetricsEndpoint;
+import com.starwatchx.metrics.PipelineMetrics;
+import com.starwatchx.metrics.ProcessMetrics;
+import com.starwatchx.recording.ClipBuffer;
+import com.starwatchx.recording.SegmentedRecorder;
+import com.starwatchx.telemetry.MessageCompressor;
+import com.starwatchx.telemetry.TelemetryLog;
+import com.starwatchx.telemetry.TelemetryReplayServer;
 import com.starwatchx.telemetry.TelemetryServer;
 import com.starwatchx.tracking.TrackerManager;
 import com.starwatchx.trajectory.TrajectoryPredictor;
 import com.starwatchx.video.FrameProcessor;
 import com.starwatchx.video.VideoStreamManager;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Entry point for the StarWatch-X Java engine.
  */
@@ -20,33 +39,107 @@ public final class App {
 
     public static void main(String[] args) {
         EngineConfig config = EngineConfig.loadDefault();
+        ContinuousRecording flightRecording = createFlightRecording(config);
+        if (flightRecording != null) {
+            flightRecording.start();
+        }
 
         ONNXModelLoader modelLoader = new ONNXModelLoader();
         ObjectDetector objectDetector = new ObjectDetector(modelLoader);
         objectDetector.initialize(config.getModelPath());
         objectDetector.setThresholds(config.getDetectionConfidence(), config.getDetectionNms());
 
-        TrackerManager trackerManager = new TrackerManager();
-        TrajectoryPredictor predictor = new TrajectoryPredictor();
+        EngineConfig.TrajectoryConfig trajectoryConfig = config.getTrajectory();
+        TrackerManager trackerManager = new TrackerManager(
+            config.getTrackHistoryDepth(),
+            trajectoryConfig.getFitWindow()
+        );
+        TrajectoryPredictor predictor = new TrajectoryPredictor(
+            trajectoryConfig.getHorizonsSeconds(),
+            trajectoryConfig.getVehicleHorizonsSeconds()
+        );
+        predictor.setMaxAcceleration(trajectoryConfig.getMaxAcceleration());
         HUDOverlay hudOverlay = new HUDOverlay();
-        TelemetryServer telemetryServer = createTelemetryServer(config);
+        PipelineMetrics metrics = createMetrics(config);
+        TelemetryServer telemetryServer = createTelemetryServer(config, trackerManager);
+        telemetryServer.setMetrics(metrics);
+        TelemetryLog telemetryLog = createTelemetryLog(config);
+        telemetryServer.addSink(telemetryLog);
+        TelemetryReplayServer replayServer = createReplayServer(config);
+        AnnotatedFrameStreamer frameStreamer = createFrameStreamer(config, predictor);
+        SegmentedRecorder recorder = createRecorder(config, predictor);
         FrameProcessor frameProcessor = new FrameProcessor(
             objectDetector,
             trackerManager,
             predictor,
             hudOverlay,
-            telemetryServer
+            telemetryServer,
+            frameStreamer,
+            recorder,
+            metrics
         );
-        VideoStreamManager streamManager = createVideoStreamManager(config, frameProcessor);
+        if (!config.getProximityRules().isEmpty()) {
+            frameProcessor.addAnalyzer(createProximityAlertEngine(config, predictor));
+        }
+        ZoneEngine zoneEngine = new ZoneEngine(ZoneLoader.load(config.getZonesPath()));
+        if (zoneEngine.hasZones()) {
+            frameProcessor.addAnalyzer(zoneEngine);
+        }
+        ClipBuffer clipBuffer = createClipBuffer(config);
+        if (clipBuffer != null) {
+            frameProcessor.addEventListener(clipBuffer);
+        }
+        VideoStreamManager streamManager = createVideoStreamManager(config, frameProcessor, clipBuffer, metrics);
+        MetricsEndpoint metricsEndpoint = createMetricsEndpoint(config);
+        if (metricsEndpoint != null) {
+            metricsEndpoint.addSource(metrics);
+            metricsEndpoint.addSource(telemetryServer);
+            metricsEndpoint.addSource(telemetryLog);
+            metricsEndpoint.addSource(frameStreamer);
+            metricsEndpoint.addSource(recorder);
+            metricsEndpoint.addSource(new ProcessMetrics());
+        }
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             System.out.println("[App] Shutting down...");
             streamManager.stopAll();
+            frameStreamer.stop();
+            if (recorder != null) {
+                recorder.stop();
+            }
+            if (clipBuffer != null) {
+                clipBuffer.stop();
+            }
             telemetryServer.stop();
+            if (replayServer != null) {
+                replayServer.stop();
+            }
+            if (telemetryLog != null) {
+                telemetryLog.stop();
+            }
+            if (metricsEndpoint != null) {
+                metricsEndpoint.stop();
+            }
+            metrics.stop();
             modelLoader.close();
+            if (flightRecording != null) {
+                flightRecording.stop();
+            }
         }));
 
+        metrics.start();
+        if (metricsEndpoint != null) {
+            metricsEndpoint.start();
+        }
+
+        if (telemetryLog != null) {
+            telemetryLog.start();
+        }
         telemetryServer.start();
+        if (replayServer != null) {
+            replayServer.start();
+        }
+        frameStreamer.start();
         streamManager.startAll();
 
         try {
@@ -56,12 +149,179 @@ public final class App {
         }
     }
 
-    private static TelemetryServer createTelemetryServer(EngineConfig config) {
-        return new TelemetryServer(config.getTelemetryPort());
+    private static PipelineMetrics createMetrics(EngineConfig config) {
+        EngineConfig.MetricsConfig metricsConfig = config.getMetrics();
+        if (metricsConfig == null) {
+            return new PipelineMetrics(false, 0L, 0L);
+        }
+        return new PipelineMetrics(
+            metricsConfig.isEnabled(),
+            metricsConfig.getWindowSeconds() * 1_000L,
+            metricsConfig.getReportSeconds() * 1_000L
+        );
+    }
+
+    private static ContinuousRecording createFlightRecording(EngineConfig config) {
+        EngineConfig.FlightRecorderConfig recorderConfig = config.getFlightRecorder();
+        if (recorderConfig == null || !recorderConfig.isEnabled()) {
+            return null;
+        }
+        return new ContinuousRecording(
+            recorderConfig.getDirectory(),
+            Duration.ofMinutes(recorderConfig.getMaxAgeMinutes()),
+            recorderConfig.getMaxBytes()
+        );
+    }
+
+    static MetricsEndpoint createMetricsEndpoint(EngineConfig config) {
+        EngineConfig.MetricsConfig metricsConfig = config.getMetrics();
+        if (metricsConfig == null || metricsConfig.getHttpPort() <= 0) {
+            return null;
+        }
+        return new MetricsEndpoint(metricsConfig.getHttpPort());
+    }
+
+    static TelemetryServer createTelemetryServer(EngineConfig config, TrackerManager trackerManager) {
+        EngineConfig.DeltaConfig delta = config.getTelemetryDelta();
+        EngineConfig.ClientQueueConfig clients = config.getTelemetryClients();
+        EngineConfig.CompressionConfig compression = config.getTelemetryCompression();
+        return new TelemetryServer(
+            trackerManager,
+            config.getTelemetryPort(),
+            config.getTelemetryLogEvery(),
+            delta.getKeyframeInterval(),
+            delta.getPositionThreshold(),
+            delta.getVelocityThreshold(),
+            delta.getConfidenceThreshold(),
+            clients.getQueueCapacity(),
+            clients.getMaxBufferedFrames(),
+            clients.getSlowClientTimeoutMs(),
+            compression.isEnabled()
+                ? new MessageCompressor(compression.getThresholdBytes(), compression.getLevel())
+                : null,
+            config.getTelemetryAggregateHz()
+        );
+    }
+
+    private static TelemetryLog createTelemetryLog(EngineConfig config) {
+        EngineConfig.TelemetryLogConfig logConfig = config.getTelemetryLog();
+        if (logConfig == null || !logConfig.isEnabled()) {
+            return null;
+        }
+        return new TelemetryLog(
+            logConfig.getDirectory(),
+            logConfig.getSegmentBytes(),
+            logConfig.getSegmentMinutes() * 60_000L,
+            logConfig.getRetentionHours() * 3_600_000L,
+            logConfig.getMaxBytes(),
+            logConfig.getIndexIntervalMs(),
+            logConfig.getQueueCapacity(),
+            logConfig.getFlushIntervalMs()
+        );
+    }
+
+    private static TelemetryReplayServer createReplayServer(EngineConfig config) {
+        EngineConfig.ReplayConfig replayConfig = config.getTelemetryReplay();
+        if (replayConfig == null || !replayConfig.isEnabled()) {
+            return null;
+        }
+        EngineConfig.CompressionConfig compression = config.getTelemetryCompression();
+        int aggregateHz = config.getTelemetryAggregateHz();
+        return new TelemetryReplayServer(
+            config.getTelemetryLog().getDirectory(),
+            replayConfig.getPort(),
+            aggregateHz > 0 ? Math.round(1_000f / aggregateHz) : 50L,
+            config.getTelemetryClients().getMaxBufferedFrames(),
+            compression.isEnabled()
+                ? new MessageCompressor(compression.getThresholdBytes(), compression.getLevel())
+                : null
+        );
+    }
+
+    static AnnotatedFrameStreamer createFrameStreamer(EngineConfig config,
+                                                      TrajectoryPredictor predictor) {
+        EngineConfig.StreamConfig streamConfig = config.getFrameStream();
+        AnnotatedFrameStreamer frameStreamer = new AnnotatedFrameStreamer(
+            streamConfig.getPort(),
+            streamConfig.getEncoderThreads(),
+            streamConfig.getJpegQuality(),
+            streamConfig.getMaxFps(),
+            streamConfig.getMaxSubscribers(),
+            predictor
+        );
+        for (EngineConfig.CameraConfig camera : config.getCameras()) {
+            frameStreamer.addCamera(camera.getCameraId());
+        }
+        return frameStreamer;
+    }
+
+    private static SegmentedRecorder createRecorder(EngineConfig config, TrajectoryPredictor predictor) {
+        EngineConfig.RecordingConfig recordingConfig = config.getRecording();
+        if (recordingConfig == null || !recordingConfig.isEnabled()) {
+            return null;
+        }
+        SegmentedRecorder recorder = new SegmentedRecorder(
+            recordingConfig.getDirectory(),
+            recordingConfig.isAnnotated(),
+            recordingConfig.getSegmentSeconds() * 1_000L,
+            recordingConfig.getRetentionHours() * 3_600_000L,
+            recordingConfig.getMaxBytesPerCamera(),
+            recordingConfig.getQueueCapacity(),
+            recordingConfig.getFormat(),
+            recordingConfig.getVideoCodec(),
+            recordingConfig.getVideoBitrate()
+        );
+        for (EngineConfig.CameraConfig camera : config.getCameras()) {
+            recorder.addCamera(camera.getCameraId(), camera.getTargetFps());
+        }
+        if (recordingConfig.isAnnotated()) {
+            // Annotated recordings draw predicted paths on every frame.
+            predictor.retainPaths();
+        }
+        return recorder;
+    }
+
+    static ProximityAlertEngine createProximityAlertEngine(EngineConfig config,
+                                                           TrajectoryPredictor predictor) {
+        List<ProximityRule> rules = new ArrayList<>();
+        for (EngineConfig.ProximityRuleConfig ruleConfig : config.getProximityRules()) {
+            rules.add(new ProximityRule(
+                ruleConfig.getLabelA(),
+                ruleConfig.getLabelB(),
+                ruleConfig.getDistance(),
+                ruleConfig.getHorizonSeconds()
+            ));
+        }
+        return new ProximityAlertEngine(
+            predictor,
+            rules,
+            config.getAlertSampleStepSeconds(),
+            config.getAlertCooldownMs()
+        );
+    }
+
+    private static ClipBuffer createClipBuffer(EngineConfig config) {
+        EngineConfig.ClipConfig clipConfig = config.getClips();
+        if (clipConfig == null || !clipConfig.isEnabled()) {
+            return null;
+        }
+        return new ClipBuffer(
+            clipConfig.getDirectory(),
+            clipConfig.getPreRollMs(),
+            clipConfig.getPostRollMs(),
+            clipConfig.getMaxClipMs(),
+            clipConfig.getMaxBytesPerCamera(),
+            clipConfig.getFps(),
+            clipConfig.getJpegQuality(),
+            1,
+            Set.copyOf(clipConfig.getTriggerTypes())
+        );
     }
 
     private static VideoStreamManager createVideoStreamManager(EngineConfig config,
-                                                               FrameProcessor frameProcessor) {
-        return new VideoStreamManager(config, frameProcessor);
+                                                               FrameProcessor frameProcessor,
+                                                               ClipBuffer clipBuffer,
+                                                               PipelineMetrics metrics) {
+        return new VideoStreamManager(config, frameProcessor, clipBuffer, metrics);
     }
 }
@@ -0,0 +1,175 @@
+package com.starwatchx;
+
+import com.starwatchx.config.EngineConfig;
+import com.starwatchx.detection.ONNXModelLoader;
+import com.starwatchx.detection.ObjectDetector;
+import com.starwatchx.hud.AnnotatedFrameStreamer;
+import com.starwatchx.hud.HUDOverlay;
+import com.starwatchx.loadtest.LoadGenerator;
+import com.starwatchx.loadtest.LoadReport;
+import com.starwatchx.metrics.MetricsEndpoint;
+import com.starwatchx.metrics.PipelineMetrics;
+import com.starwatchx.metrics.ProcessMetrics;
+import com.starwatchx.telemetry.TelemetryServer;
+import com.starwatchx.tracking.TrackerManager;
+import com.starwatchx.trajectory.TrajectoryPredictor;
+import com.starwatchx.video.FrameProcessor;
+
+import java.util.List;
+
+/**
+ * Headless soak and scaling test: runs the engine's pipeline on synthetic cameras with simulated
+ * telemetry clients (see {@link LoadGenerator}) and exits with status 0 if the node kept up, 1 if
+ * not. Settings default to {@link EngineConfig#getLoadTest()} and can be overridden as
+ * {@code key=value} arguments:
+ * <pre>
+ * java -cp ... com.starwatchx.LoadTest cameras=16 fps=30 objects=40 clients=100 hud_fps=10 duration=600
+ * </pre>
+ * Keys: {@code cameras, fps, objects, width, height, inference, clients, formats} (comma-separated
+ * {@code delta,binary,json}), {@code hud_fps, warmup, duration, sla_ms, seed}. Ports and the
+ * telemetry, tracking and metrics settings are the engine's own; recording, clips, the telemetry
+ * log and zones are left off.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        EngineConfig config = EngineConfig.loadDefault();
+        EngineConfig.LoadTestConfig load;
+        try {
+            load = parse(args, config.getLoadTest());
+        } catch (IllegalArgumentException e) {
+            System.err.println("[LoadTest] " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        ONNXModelLoader modelLoader = new ONNXModelLoader();
+        LoadGenerator generator = new LoadGenerator(load, modelLoader);
+        ObjectDetector objectDetector = generator.getDetector();
+        if (load.isInference()) {
+            objectDetector.initialize(config.getModelPath());
+            objectDetector.setThresholds(config.getDetectionConfidence(), config.getDetectionNms());
+        }
+
+        EngineConfig.TrajectoryConfig trajectoryConfig = config.getTrajectory();
+        TrackerManager trackerManager = new TrackerManager(
+            config.getTrackHistoryDepth(),
+            trajectoryConfig.getFitWindow()
+        );
+        TrajectoryPredictor predictor = new TrajectoryPredictor(
+            trajectoryConfig.getHorizonsSeconds(),
+            trajectoryConfig.getVehicleHorizonsSeconds()
+        );
+        predictor.setMaxAcceleration(trajectoryConfig.getMaxAcceleration());
+        // The window spans the measurement, so the report's percentiles leave out the warm-up.
+        PipelineMetrics metrics = new PipelineMetrics(true, Math.max(6_000L, load.getDurationSeconds() * 1_000L), 0L);
+        TelemetryServer telemetryServer = App.createTelemetryServer(config, trackerManager);
+        telemetryServer.setMetrics(metrics);
+        AnnotatedFrameStreamer frameStreamer = App.createFrameStreamer(config, predictor);
+        for (String cameraId : generator.getCameraIds()) {
+            frameStreamer.addCamera(cameraId);
+        }
+        FrameProcessor frameProcessor = new FrameProcessor(
+            objectDetector,
+            trackerManager,
+            predictor,
+            new HUDOverlay(),
+            telemetryServer,
+            frameStreamer,
+            null,
+            metrics
+        );
+        if (!config.getProximityRules().isEmpty()) {
+            frameProcessor.addAnalyzer(App.createProximityAlertEngine(config, predictor));
+        }
+        MetricsEndpoint metricsEndpoint = App.createMetricsEndpoint(config);
+        if (metricsEndpoint != null) {
+            metricsEndpoint.addSource(metrics);
+            metricsEndpoint.addSource(telemetryServer);
+            metricsEndpoint.addSource(frameStreamer);
+            metricsEndpoint.addSource(new ProcessMetrics());
+        }
+
+        metrics.start();
+        if (metricsEndpoint != null) {
+            metricsEndpoint.start();
+        }
+        telemetryServer.start();
+        if (load.getHudFps() > 0) {
+            frameStreamer.start();
+        }
+
+        LoadReport report = null;
+        try {
+            report = generator.run(frameProcessor, telemetryServer, metrics,
+                config.getTelemetryPort(), config.getFrameStream().getPort());
+            report.print();
+        } finally {
+            frameStreamer.stop();
+            telemetryServer.stop();
+            if (metricsEndpoint != null) {
+                metricsEndpoint.stop();
+            }
+            metrics.stop();
+            modelLoader.close();
+        }
+        System.exit(report.passed() ? 0 : 1);
+    }
+
+    private static EngineConfig.LoadTestConfig parse(String[] args, EngineConfig.LoadTestConfig defaults) {
+        int cameras = defaults.getCameras();
+        int fps = defaults.getFps();
+        int objects = defaults.getObjectsPerCamera();
+        int width = defaults.getFrameWidth();
+        int height = defaults.getFrameHeight();
+        boolean inference = defaults.isInference();
+        int clients = defaults.getClients();
+        List<String> formats = defaults.getClientFormats();
+        int hudFps = defaults.getHudFps();
+        int warmup = defaults.getWarmupSeconds();
+        int duration = defaults.getDurationSeconds();
+        long slaMs = defaults.getLatencySlaMs();
+        long seed = defaults.getSeed();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            String key = arg.substring(0, separator);
+            String value = arg.substring(separator + 1);
+            try {
+                switch (key) {
+                    case "cameras" -> cameras = Integer.parseInt(value);
+                    case "fps" -> fps = Integer.parseInt(value);
+                    case "objects" -> objects = Integer.parseInt(value);
+                    case "width" -> width = Integer.parseInt(value);
+                    case "height" -> height = Integer.parseInt(value);
+                    case "inference" -> inference = Boolean.parseBoolean(value);
+                    case "clients" -> clients = Integer.parseInt(value);
+                    case "formats" -> formats = List.of(value.split(","));
+                    case "hud_fps" -> hudFps = Integer.parseInt(value);
+                    case "warmup" -> warmup = Integer.parseInt(value);
+                    case "duration" -> duration = Integer.parseInt(value);
+                    case "sla_ms" -> slaMs = Long.parseLong(value);
+                    case "seed" -> seed = Long.parseLong(value);
+                    default -> throw new IllegalArgumentException("Unknown setting: " + key);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number for " + key + ": " + value);
+            }
+        }
+        if (cameras <= 0 || fps <= 0 || objects < 0 || width <= 0 || height <= 0 || clients < 0 || duration <= 0) {
+            throw new IllegalArgumentException("cameras, fps, width, height and duration must be positive");
+        }
+        for (String format : formats) {
+            if (!format.equals("delta") && !format.equals("binary") && !format.equals("json")) {
+                throw new IllegalArgumentException("Unknown client format: " + format);
+            }
+        }
+        return new EngineConfig.LoadTestConfig(cameras, fps, objects, width, height, inference, clients, formats,
+            hudFps, Math.max(0, warmup), duration, slaMs, seed);
+    }
+}
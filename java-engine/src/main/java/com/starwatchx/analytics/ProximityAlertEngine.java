@@ -0,0 +1,247 @@
+package com.starwatchx.analytics;
+
+import com.starwatchx.telemetry.TelemetryEvent;
+import com.starwatchx.tracking.TrackTable;
+import com.starwatchx.trajectory.TrajectoryPredictor;
+import com.starwatchx.util.LongLongHashMap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Warns when predicted paths of two tracks come closer than a rule's distance within its horizon.
+ * <p>
+ * Each frame, every track covered by a rule is sampled along its predicted path on a shared time
+ * grid. A sweep-and-prune pass over the swept bounding boxes (sorted on x, overlap-tested on y)
+ * yields candidate pairs, and only those get the exact closest-approach test on the piecewise
+ * linear paths. Alerts are raised once per pair and re-armed after the pair has been clear for
+ * the cooldown.
+ */
+public class ProximityAlertEngine implements TrackAnalyzer {
+
+    private static final float DEFAULT_SAMPLE_STEP_SECONDS = 0.25f;
+    private static final long DEFAULT_COOLDOWN_MS = 5_000L;
+
+    private final TrajectoryPredictor predictor;
+    private final ProximityRule[] rules;
+    private final float[] sampleTimes;
+    private final float sampleStep;
+    private final int samplesPerTrack;
+    private final float margin;
+    private final long cooldownMs;
+    private final Map<String, CameraState> states = new ConcurrentHashMap<>();
+
+    public ProximityAlertEngine(TrajectoryPredictor predictor, List<ProximityRule> rules) {
+        this(predictor, rules, DEFAULT_SAMPLE_STEP_SECONDS, DEFAULT_COOLDOWN_MS);
+    }
+
+    public ProximityAlertEngine(TrajectoryPredictor predictor,
+                                List<ProximityRule> rules,
+                                float sampleStepSeconds,
+                                long cooldownMs) {
+        if (rules == null || rules.isEmpty()) {
+            throw new IllegalArgumentException("at least one proximity rule is required");
+        }
+        if (sampleStepSeconds <= 0f) {
+            throw new IllegalArgumentException("sampleStepSeconds must be > 0");
+        }
+        this.predictor = predictor;
+        this.rules = rules.toArray(new ProximityRule[0]);
+        this.sampleStep = sampleStepSeconds;
+        this.cooldownMs = cooldownMs;
+
+        float horizon = 0f;
+        float maxDistance = 0f;
+        for (ProximityRule rule : this.rules) {
+            horizon = Math.max(horizon, rule.getHorizonSeconds());
+            maxDistance = Math.max(maxDistance, rule.getDistance());
+        }
+        int steps = (int) Math.ceil(horizon / sampleStepSeconds);
+        this.sampleTimes = new float[steps];
+        for (int i = 0; i < steps; i++) {
+            sampleTimes[i] = Math.min(horizon, (i + 1) * sampleStepSeconds);
+        }
+        this.samplesPerTrack = steps + 1;
+        // Boxes are inflated by half the largest distance so any pair that can get that close overlaps.
+        this.margin = maxDistance / 2f;
+    }
+
+    @Override
+    public void analyze(TrackTable tracks, List<TelemetryEvent> events) {
+        if (tracks == null || tracks.getCameraId() == null) {
+            return;
+        }
+        CameraState state = states.computeIfAbsent(tracks.getCameraId(), key -> new CameraState());
+        state.ensureCapacity(tracks.size(), samplesPerTrack);
+
+        int candidates = 0;
+        for (int row = 0; row < tracks.size(); row++) {
+            String label = tracks.getLabel(row);
+            if (!isCovered(label)) {
+                continue;
+            }
+            int offset = candidates * samplesPerTrack;
+            predictor.predict(tracks, row, predictor.getModel(label), sampleTimes, state.xs, state.ys, offset);
+
+            float minX = Float.POSITIVE_INFINITY;
+            float minY = Float.POSITIVE_INFINITY;
+            float maxX = Float.NEGATIVE_INFINITY;
+            float maxY = Float.NEGATIVE_INFINITY;
+            for (int i = offset; i < offset + samplesPerTrack; i++) {
+                minX = Math.min(minX, state.xs[i]);
+                maxX = Math.max(maxX, state.xs[i]);
+                minY = Math.min(minY, state.ys[i]);
+                maxY = Math.max(maxY, state.ys[i]);
+            }
+            state.rows[candidates] = row;
+            state.minX[candidates] = minX - margin;
+            state.maxX[candidates] = maxX + margin;
+            state.minY[candidates] = minY - margin;
+            state.maxY[candidates] = maxY + margin;
+            state.order[candidates] = ((long) sortableBits(minX - margin) << 32) | candidates;
+            candidates++;
+        }
+
+        // Sweep and prune: walk boxes by min x and only pair those whose x extents overlap.
+        Arrays.sort(state.order, 0, candidates);
+        long now = tracks.getTimestamp();
+        for (int i = 0; i < candidates; i++) {
+            int a = (int) state.order[i];
+            for (int j = i + 1; j < candidates; j++) {
+                int b = (int) state.order[j];
+                if (state.minX[b] > state.maxX[a]) {
+                    break;
+                }
+                if (state.minY[b] > state.maxY[a] || state.minY[a] > state.maxY[b]) {
+                    continue;
+                }
+                testPair(tracks, state, a, b, now, events);
+            }
+        }
+
+        // Pairs that have been clear for the cooldown can alert again.
+        state.activePairs.removeValuesBelow(now - cooldownMs);
+    }
+
+    private void testPair(TrackTable tracks,
+                          CameraState state,
+                          int a,
+                          int b,
+                          long now,
+                          List<TelemetryEvent> events) {
+        int rowA = state.rows[a];
+        int rowB = state.rows[b];
+        ProximityRule rule = ruleFor(tracks.getLabel(rowA), tracks.getLabel(rowB));
+        if (rule == null) {
+            return;
+        }
+
+        float horizon = rule.getHorizonSeconds();
+        int segments = Math.min(samplesPerTrack - 1, (int) Math.ceil(horizon / sampleStep));
+        int offsetA = a * samplesPerTrack;
+        int offsetB = b * samplesPerTrack;
+        float dx0 = state.xs[offsetA] - state.xs[offsetB];
+        float dy0 = state.ys[offsetA] - state.ys[offsetB];
+        float bestDistanceSq = dx0 * dx0 + dy0 * dy0;
+        float bestSeconds = 0f;
+        for (int k = 0; k < segments; k++) {
+            // Both tracks move linearly inside a segment, so their separation is linear too. The
+            // grid covers the longest horizon; a shorter one can end part way into its last segment.
+            float t0 = k == 0 ? 0f : sampleTimes[k - 1];
+            float t1 = sampleTimes[k];
+            float limit = t1 > horizon ? (horizon - t0) / (t1 - t0) : 1f;
+            float dx1 = state.xs[offsetA + k + 1] - state.xs[offsetB + k + 1];
+            float dy1 = state.ys[offsetA + k + 1] - state.ys[offsetB + k + 1];
+            float ex = dx1 - dx0;
+            float ey = dy1 - dy0;
+            float lengthSq = ex * ex + ey * ey;
+            float s = lengthSq > 0f ? Math.max(0f, Math.min(limit, -(dx0 * ex + dy0 * ey) / lengthSq)) : 0f;
+            float cx = dx0 + ex * s;
+            float cy = dy0 + ey * s;
+            float distanceSq = cx * cx + cy * cy;
+            if (distanceSq < bestDistanceSq) {
+                bestDistanceSq = distanceSq;
+                bestSeconds = t0 + (t1 - t0) * s;
+            }
+            dx0 = dx1;
+            dy0 = dy1;
+        }
+
+        float threshold = rule.getDistance();
+        if (bestDistanceSq > threshold * threshold) {
+            return;
+        }
+        int numberA = tracks.getTrackNumber(rowA);
+        int numberB = tracks.getTrackNumber(rowB);
+        long pairKey = ((long) Math.min(numberA, numberB) << 32) | Math.max(numberA, numberB);
+        boolean alreadyActive = state.activePairs.containsKey(pairKey);
+        state.activePairs.put(pairKey, now);
+        if (alreadyActive) {
+            return;
+        }
+
+        TelemetryEvent event = new TelemetryEvent(TelemetryEvent.TYPE_PROXIMITY, tracks.getCameraId(), now);
+        event.setTrackId(tracks.getTrackId(rowA));
+        event.setLabel(tracks.getLabel(rowA));
+        event.setOtherTrackId(tracks.getTrackId(rowB));
+        event.setOtherLabel(tracks.getLabel(rowB));
+        event.setDistance((float) Math.sqrt(bestDistanceSq));
+        event.setSecondsToClosest(bestSeconds);
+        events.add(event);
+    }
+
+    private boolean isCovered(String label) {
+        for (ProximityRule rule : rules) {
+            if (rule.involves(label)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ProximityRule ruleFor(String first, String second) {
+        for (ProximityRule rule : rules) {
+            if (rule.matches(first, second)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Maps a float to an int whose signed ordering matches the float ordering.
+     */
+    private static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+
+    private static final class CameraState {
+        private final LongLongHashMap activePairs = new LongLongHashMap();
+        private int[] rows = new int[0];
+        private long[] order = new long[0];
+        private float[] minX = new float[0];
+        private float[] maxX = new float[0];
+        private float[] minY = new float[0];
+        private float[] maxY = new float[0];
+        private float[] xs = new float[0];
+        private float[] ys = new float[0];
+
+        void ensureCapacity(int tracks, int samplesPerTrack) {
+            if (rows.length >= tracks) {
+                return;
+            }
+            int capacity = Math.max(tracks, rows.length * 2);
+            rows = new int[capacity];
+            order = new long[capacity];
+            minX = new float[capacity];
+            maxX = new float[capacity];
+            minY = new float[capacity];
+            maxY = new float[capacity];
+            xs = new float[capacity * samplesPerTrack];
+            ys = new float[capacity * samplesPerTrack];
+        }
+    }
+}
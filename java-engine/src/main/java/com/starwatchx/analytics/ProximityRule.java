@@ -0,0 +1,59 @@
+package com.starwatchx.analytics;
+
+import java.util.Objects;
+
+/**
+ * Raises an alert when predicted paths of two labels come within {@code distance} pixels
+ * inside {@code horizonSeconds}. {@link #ANY_LABEL} matches every label.
+ */
+public class ProximityRule {
+
+    public static final String ANY_LABEL = "*";
+
+    private final String labelA;
+    private final String labelB;
+    private final float distance;
+    private final float horizonSeconds;
+
+    public ProximityRule(String labelA, String labelB, float distance, float horizonSeconds) {
+        this.labelA = Objects.requireNonNull(labelA, "labelA");
+        this.labelB = Objects.requireNonNull(labelB, "labelB");
+        if (distance <= 0f || horizonSeconds < 0f) {
+            throw new IllegalArgumentException("distance must be > 0 and horizon >= 0");
+        }
+        this.distance = distance;
+        this.horizonSeconds = horizonSeconds;
+    }
+
+    public String getLabelA() {
+        return labelA;
+    }
+
+    public String getLabelB() {
+        return labelB;
+    }
+
+    public float getDistance() {
+        return distance;
+    }
+
+    public float getHorizonSeconds() {
+        return horizonSeconds;
+    }
+
+    public boolean involves(String label) {
+        return labelMatches(labelA, label) || labelMatches(labelB, label);
+    }
+
+    /**
+     * True if the rule applies to the pair in either order.
+     */
+    public boolean matches(String first, String second) {
+        return (labelMatches(labelA, first) && labelMatches(labelB, second))
+            || (labelMatches(labelA, second) && labelMatches(labelB, first));
+    }
+
+    private static boolean labelMatches(String pattern, String label) {
+        return ANY_LABEL.equals(pattern) || pattern.equals(label);
+    }
+}
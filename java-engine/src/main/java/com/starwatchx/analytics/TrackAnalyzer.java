@@ -0,0 +1,18 @@
+package com.starwatchx.analytics;
+
+import com.starwatchx.telemetry.TelemetryEvent;
+import com.starwatchx.tracking.TrackTable;
+
+import java.util.List;
+
+/**
+ * Per-frame consumer of tracker output that may raise {@link TelemetryEvent}s.
+ * Called on the camera's processing thread; implementations keep per-camera state.
+ */
+public interface TrackAnalyzer {
+
+    /**
+     * Evaluates one frame and appends any events it raises to {@code events}.
+     */
+    void analyze(TrackTable tracks, List<TelemetryEvent> events);
+}
@@ -0,0 +1,125 @@
+package com.starwatchx.analytics;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Polygon area of interest in image coordinates for a single camera.
+ */
+public class Zone {
+
+    /**
+     * Semantic kind of a zone; entering a {@link #NO_GO} zone is reported as an intrusion.
+     */
+    public enum Kind {
+        NO_GO,
+        QUEUE,
+        DOOR,
+        GENERIC
+    }
+
+    private final String id;
+    private final Kind kind;
+    private final float[] xs;
+    private final float[] ys;
+    private final long dwellThresholdMs;
+    private final Set<String> labels;
+    private final float minX;
+    private final float minY;
+    private final float maxX;
+    private final float maxY;
+
+    /**
+     * @param xs               polygon vertex x coordinates (implicitly closed)
+     * @param ys               polygon vertex y coordinates
+     * @param dwellThresholdMs time inside before a dwell event fires; {@code <= 0} disables dwell events
+     * @param labels           labels the zone applies to; empty applies to every label
+     */
+    public Zone(String id, Kind kind, float[] xs, float[] ys, long dwellThresholdMs, Set<String> labels) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.kind = kind != null ? kind : Kind.GENERIC;
+        if (xs == null || ys == null || xs.length != ys.length || xs.length < 3) {
+            throw new IllegalArgumentException("zone " + id + " needs at least 3 vertices");
+        }
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        this.dwellThresholdMs = dwellThresholdMs;
+        this.labels = labels != null ? Set.copyOf(labels) : Set.of();
+
+        float x0 = Float.POSITIVE_INFINITY;
+        float y0 = Float.POSITIVE_INFINITY;
+        float x1 = Float.NEGATIVE_INFINITY;
+        float y1 = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < xs.length; i++) {
+            x0 = Math.min(x0, xs[i]);
+            y0 = Math.min(y0, ys[i]);
+            x1 = Math.max(x1, xs[i]);
+            y1 = Math.max(y1, ys[i]);
+        }
+        this.minX = x0;
+        this.minY = y0;
+        this.maxX = x1;
+        this.maxY = y1;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public long getDwellThresholdMs() {
+        return dwellThresholdMs;
+    }
+
+    public boolean appliesTo(String label) {
+        return labels.isEmpty() || labels.contains(label);
+    }
+
+    public int getVertexCount() {
+        return xs.length;
+    }
+
+    public float getVertexX(int index) {
+        return xs[index];
+    }
+
+    public float getVertexY(int index) {
+        return ys[index];
+    }
+
+    public float getMinX() {
+        return minX;
+    }
+
+    public float getMinY() {
+        return minY;
+    }
+
+    public float getMaxX() {
+        return maxX;
+    }
+
+    public float getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * Exact even-odd point-in-polygon test.
+     */
+    public boolean contains(float x, float y) {
+        if (x < minX || x > maxX || y < minY || y > maxY) {
+            return false;
+        }
+        boolean inside = false;
+        for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+            if ((ys[i] > y) != (ys[j] > y)
+                && x < (xs[j] - xs[i]) * (y - ys[i]) / (ys[j] - ys[i]) + xs[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+}
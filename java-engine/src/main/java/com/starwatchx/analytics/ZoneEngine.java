@@ -0,0 +1,170 @@
+package com.starwatchx.analytics;
+
+import com.starwatchx.telemetry.TelemetryEvent;
+import com.starwatchx.tracking.TrackTable;
+import com.starwatchx.util.LongLongHashMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which zones each track occupies and raises enter/intrusion, dwell, and exit events.
+ * A track's ground point (bottom-center of its box) is looked up in the camera's
+ * {@link ZoneIndex}; occupancy records are keyed by track number and zone so a frame costs
+ * one grid lookup per track plus work proportional to the occupancies that actually exist.
+ */
+public class ZoneEngine implements TrackAnalyzer {
+
+    private static final float DEFAULT_CELL_SIZE = 32f;
+
+    private final Map<String, CameraZones> zonesByCamera = new ConcurrentHashMap<>();
+
+    public ZoneEngine(Map<String, List<Zone>> zonesByCamera) {
+        this(zonesByCamera, DEFAULT_CELL_SIZE);
+    }
+
+    public ZoneEngine(Map<String, List<Zone>> zonesByCamera, float cellSize) {
+        for (Map.Entry<String, List<Zone>> entry : zonesByCamera.entrySet()) {
+            if (entry.getValue() != null && !entry.getValue().isEmpty()) {
+                this.zonesByCamera.put(entry.getKey(), new CameraZones(new ZoneIndex(entry.getValue(), cellSize)));
+            }
+        }
+    }
+
+    public boolean hasZones() {
+        return !zonesByCamera.isEmpty();
+    }
+
+    @Override
+    public void analyze(TrackTable tracks, List<TelemetryEvent> events) {
+        if (tracks == null || tracks.getCameraId() == null) {
+            return;
+        }
+        CameraZones camera = zonesByCamera.get(tracks.getCameraId());
+        if (camera == null) {
+            return;
+        }
+        ZoneIndex index = camera.index;
+        long now = tracks.getTimestamp();
+
+        for (int row = 0; row < tracks.size(); row++) {
+            float groundX = tracks.getX(row) + tracks.getWidth(row) / 2f;
+            float groundY = tracks.getY(row) + tracks.getHeight(row);
+            int hits = index.query(groundX, groundY, camera.hits);
+            String label = tracks.getLabel(row);
+            int trackNumber = tracks.getTrackNumber(row);
+
+            for (int h = 0; h < hits; h++) {
+                int zoneIndex = camera.hits[h];
+                Zone zone = index.getZone(zoneIndex);
+                if (!zone.appliesTo(label)) {
+                    continue;
+                }
+                long key = key(trackNumber, zoneIndex);
+                int slot = (int) camera.slotByKey.get(key, -1L);
+                Occupancy occupancy;
+                if (slot < 0) {
+                    occupancy = camera.acquire();
+                    occupancy.trackNumber = trackNumber;
+                    occupancy.zoneIndex = zoneIndex;
+                    occupancy.trackId = tracks.getTrackId(row);
+                    occupancy.enteredAt = now;
+                    occupancy.dwellReported = false;
+                    camera.slotByKey.put(key, camera.occupancies.size());
+                    camera.occupancies.add(occupancy);
+                    String type = zone.getKind() == Zone.Kind.NO_GO
+                        ? TelemetryEvent.TYPE_ZONE_INTRUSION
+                        : TelemetryEvent.TYPE_ZONE_ENTER;
+                    events.add(zoneEvent(type, tracks.getCameraId(), now, occupancy, label, zone));
+                } else {
+                    occupancy = camera.occupancies.get(slot);
+                }
+                occupancy.lastSeen = now;
+                occupancy.label = label;
+
+                long dwell = zone.getDwellThresholdMs();
+                if (!occupancy.dwellReported && dwell > 0 && now - occupancy.enteredAt >= dwell) {
+                    occupancy.dwellReported = true;
+                    TelemetryEvent event = zoneEvent(TelemetryEvent.TYPE_ZONE_DWELL, tracks.getCameraId(), now, occupancy, label, zone);
+                    event.setDwellMillis(now - occupancy.enteredAt);
+                    events.add(event);
+                }
+            }
+        }
+
+        // Anything not refreshed this frame has left its zone (or the track expired).
+        List<Occupancy> occupancies = camera.occupancies;
+        for (int i = occupancies.size() - 1; i >= 0; i--) {
+            Occupancy occupancy = occupancies.get(i);
+            if (occupancy.lastSeen == now) {
+                continue;
+            }
+            Zone zone = index.getZone(occupancy.zoneIndex);
+            TelemetryEvent event = zoneEvent(TelemetryEvent.TYPE_ZONE_EXIT, tracks.getCameraId(), now, occupancy, occupancy.label, zone);
+            event.setDwellMillis(occupancy.lastSeen - occupancy.enteredAt);
+            events.add(event);
+
+            camera.slotByKey.remove(key(occupancy.trackNumber, occupancy.zoneIndex));
+            Occupancy last = occupancies.remove(occupancies.size() - 1);
+            if (last != occupancy) {
+                occupancies.set(i, last);
+                camera.slotByKey.put(key(last.trackNumber, last.zoneIndex), i);
+            }
+            camera.release(occupancy);
+        }
+    }
+
+    private static TelemetryEvent zoneEvent(String type,
+                                            String cameraId,
+                                            long timestamp,
+                                            Occupancy occupancy,
+                                            String label,
+                                            Zone zone) {
+        TelemetryEvent event = new TelemetryEvent(type, cameraId, timestamp);
+        event.setTrackId(occupancy.trackId);
+        event.setLabel(label);
+        event.setZoneId(zone.getId());
+        return event;
+    }
+
+    private static long key(int trackNumber, int zoneIndex) {
+        return ((long) trackNumber << 32) | zoneIndex;
+    }
+
+    private static final class Occupancy {
+        private int trackNumber;
+        private int zoneIndex;
+        private String trackId;
+        private String label;
+        private long enteredAt;
+        private long lastSeen;
+        private boolean dwellReported;
+    }
+
+    private static final class CameraZones {
+        private final ZoneIndex index;
+        private final int[] hits;
+        private final List<Occupancy> occupancies = new ArrayList<>();
+        private final LongLongHashMap slotByKey = new LongLongHashMap();
+        private final ArrayDeque<Occupancy> free = new ArrayDeque<>();
+
+        CameraZones(ZoneIndex index) {
+            this.index = index;
+            this.hits = new int[index.getZoneCount()];
+        }
+
+        Occupancy acquire() {
+            Occupancy occupancy = free.pollFirst();
+            return occupancy != null ? occupancy : new Occupancy();
+        }
+
+        void release(Occupancy occupancy) {
+            occupancy.trackId = null;
+            occupancy.label = null;
+            free.addFirst(occupancy);
+        }
+    }
+}
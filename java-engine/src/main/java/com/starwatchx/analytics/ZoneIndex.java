@@ -0,0 +1,226 @@
+package com.starwatchx.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Uniform grid over a camera's zones with precomputed cell coverage.
+ * <p>
+ * At build time every cell records which zones cover it completely and which only partially
+ * (a polygon edge crosses the cell). A query looks up the point's cell, reports the fully covering
+ * zones directly and runs the exact polygon test only for the partial ones, so lookup cost depends
+ * on how many zones overlap that cell rather than on the total zone count.
+ */
+public class ZoneIndex {
+
+    private static final int MAX_CELLS = 1 << 20;
+
+    private final Zone[] zones;
+    private final float originX;
+    private final float originY;
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] fullStart;
+    private final int[] fullZones;
+    private final int[] partialStart;
+    private final int[] partialZones;
+
+    public ZoneIndex(List<Zone> zones, float cellSize) {
+        if (cellSize <= 0f) {
+            throw new IllegalArgumentException("cellSize must be > 0");
+        }
+        this.zones = zones.toArray(new Zone[0]);
+
+        float minX = Float.POSITIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        for (Zone zone : this.zones) {
+            minX = Math.min(minX, zone.getMinX());
+            minY = Math.min(minY, zone.getMinY());
+            maxX = Math.max(maxX, zone.getMaxX());
+            maxY = Math.max(maxY, zone.getMaxY());
+        }
+        if (this.zones.length == 0) {
+            minX = minY = 0f;
+            maxX = maxY = cellSize;
+        }
+        float size = cellSize;
+        while ((long) cellCount(minX, maxX, size) * cellCount(minY, maxY, size) > MAX_CELLS) {
+            size *= 2f;
+        }
+        this.originX = minX;
+        this.originY = minY;
+        this.cellSize = size;
+        this.columns = cellCount(minX, maxX, size);
+        this.rows = cellCount(minY, maxY, size);
+
+        int cells = columns * rows;
+        List<List<Integer>> full = new ArrayList<>(cells);
+        List<List<Integer>> partial = new ArrayList<>(cells);
+        for (int i = 0; i < cells; i++) {
+            full.add(null);
+            partial.add(null);
+        }
+        for (int z = 0; z < this.zones.length; z++) {
+            classify(z, full, partial);
+        }
+
+        this.fullStart = new int[cells + 1];
+        this.fullZones = pack(full, fullStart);
+        this.partialStart = new int[cells + 1];
+        this.partialZones = pack(partial, partialStart);
+    }
+
+    public int getZoneCount() {
+        return zones.length;
+    }
+
+    public Zone getZone(int index) {
+        return zones[index];
+    }
+
+    /**
+     * Writes the indices of every zone containing the point into {@code out}
+     * (sized at least {@link #getZoneCount()}) and returns how many were written.
+     */
+    public int query(float x, float y, int[] out) {
+        int column = (int) Math.floor((x - originX) / cellSize);
+        int row = (int) Math.floor((y - originY) / cellSize);
+        if (column < 0 || row < 0 || column >= columns || row >= rows) {
+            return 0;
+        }
+        int cell = row * columns + column;
+        int count = 0;
+        for (int i = fullStart[cell]; i < fullStart[cell + 1]; i++) {
+            out[count++] = fullZones[i];
+        }
+        for (int i = partialStart[cell]; i < partialStart[cell + 1]; i++) {
+            int zone = partialZones[i];
+            if (zones[zone].contains(x, y)) {
+                out[count++] = zone;
+            }
+        }
+        return count;
+    }
+
+    private void classify(int zoneIndex, List<List<Integer>> full, List<List<Integer>> partial) {
+        Zone zone = zones[zoneIndex];
+        int c0 = columnOf(zone.getMinX());
+        int c1 = columnOf(zone.getMaxX());
+        int r0 = rowOf(zone.getMinY());
+        int r1 = rowOf(zone.getMaxY());
+        int width = c1 - c0 + 1;
+        boolean[] crossed = new boolean[width * (r1 - r0 + 1)];
+
+        int vertices = zone.getVertexCount();
+        for (int i = 0, j = vertices - 1; i < vertices; j = i++) {
+            float ax = zone.getVertexX(j);
+            float ay = zone.getVertexY(j);
+            float bx = zone.getVertexX(i);
+            float by = zone.getVertexY(i);
+            int ec0 = columnOf(Math.min(ax, bx));
+            int ec1 = columnOf(Math.max(ax, bx));
+            int er0 = rowOf(Math.min(ay, by));
+            int er1 = rowOf(Math.max(ay, by));
+            for (int r = er0; r <= er1; r++) {
+                for (int c = ec0; c <= ec1; c++) {
+                    float left = originX + c * cellSize;
+                    float top = originY + r * cellSize;
+                    if (segmentIntersectsRect(ax, ay, bx, by, left, top, left + cellSize, top + cellSize)) {
+                        crossed[(r - r0) * width + (c - c0)] = true;
+                    }
+                }
+            }
+        }
+
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * columns + c;
+                if (crossed[(r - r0) * width + (c - c0)]) {
+                    add(partial, cell, zoneIndex);
+                } else if (zone.contains(originX + (c + 0.5f) * cellSize, originY + (r + 0.5f) * cellSize)) {
+                    add(full, cell, zoneIndex);
+                }
+            }
+        }
+    }
+
+    private int columnOf(float x) {
+        return clamp((int) Math.floor((x - originX) / cellSize), columns);
+    }
+
+    private int rowOf(float y) {
+        return clamp((int) Math.floor((y - originY) / cellSize), rows);
+    }
+
+    private static int clamp(int value, int limit) {
+        return Math.max(0, Math.min(limit - 1, value));
+    }
+
+    private static int cellCount(float min, float max, float size) {
+        return Math.max(1, (int) Math.floor((max - min) / size) + 1);
+    }
+
+    private static void add(List<List<Integer>> cells, int cell, int zoneIndex) {
+        List<Integer> list = cells.get(cell);
+        if (list == null) {
+            list = new ArrayList<>(2);
+            cells.set(cell, list);
+        }
+        list.add(zoneIndex);
+    }
+
+    private static int[] pack(List<List<Integer>> cells, int[] start) {
+        int total = 0;
+        for (int i = 0; i < cells.size(); i++) {
+            start[i] = total;
+            List<Integer> list = cells.get(i);
+            total += list != null ? list.size() : 0;
+        }
+        start[cells.size()] = total;
+        int[] packed = new int[total];
+        for (int i = 0; i < cells.size(); i++) {
+            List<Integer> list = cells.get(i);
+            if (list == null) {
+                continue;
+            }
+            for (int k = 0; k < list.size(); k++) {
+                packed[start[i] + k] = list.get(k);
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Liang-Barsky clip of the segment against an axis-aligned rectangle.
+     */
+    private static boolean segmentIntersectsRect(float ax, float ay, float bx, float by,
+                                                 float left, float top, float right, float bottom) {
+        float dx = bx - ax;
+        float dy = by - ay;
+        float[] p = {-dx, dx, -dy, dy};
+        float[] q = {ax - left, right - ax, ay - top, bottom - ay};
+        float t0 = 0f;
+        float t1 = 1f;
+        for (int i = 0; i < 4; i++) {
+            if (p[i] == 0f) {
+                if (q[i] < 0f) {
+                    return false;
+                }
+                continue;
+            }
+            float t = q[i] / p[i];
+            if (p[i] < 0f) {
+                t0 = Math.max(t0, t);
+            } else {
+                t1 = Math.min(t1, t);
+            }
+            if (t0 > t1) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
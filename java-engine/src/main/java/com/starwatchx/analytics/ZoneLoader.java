@@ -0,0 +1,109 @@
+package com.starwatchx.analytics;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads per-camera zone polygons from a JSON file keyed by camera ID, e.g.
+ * {@code {"CAM-1": [{"id": "dock", "kind": "no_go", "polygon": [[0,0],[200,0],[200,150]],
+ * "dwellSeconds": 10, "labels": ["person"]}]}}.
+ */
+public final class ZoneLoader {
+
+    private static final Type FILE_TYPE = new TypeToken<Map<String, List<ZoneDefinition>>>() { }.getType();
+
+    private ZoneLoader() {
+        // Utility class
+    }
+
+    /**
+     * Loads zones from {@code path}; returns an empty map if the file is missing or invalid.
+     */
+    public static Map<String, List<Zone>> load(String path) {
+        if (path == null || path.isBlank()) {
+            return Collections.emptyMap();
+        }
+        Path resolved = Paths.get(path);
+        if (!Files.exists(resolved)) {
+            return Collections.emptyMap();
+        }
+        try (Reader reader = Files.newBufferedReader(resolved, StandardCharsets.UTF_8)) {
+            Map<String, List<ZoneDefinition>> definitions = new Gson().fromJson(reader, FILE_TYPE);
+            Map<String, List<Zone>> zones = new HashMap<>();
+            if (definitions == null) {
+                return zones;
+            }
+            for (Map.Entry<String, List<ZoneDefinition>> entry : definitions.entrySet()) {
+                if (entry.getValue() == null) {
+                    throw new IllegalArgumentException("camera " + entry.getKey() + " has no zone list");
+                }
+                List<Zone> cameraZones = new ArrayList<>();
+                for (ZoneDefinition definition : entry.getValue()) {
+                    if (definition == null) {
+                        throw new IllegalArgumentException("camera " + entry.getKey() + " has an empty zone entry");
+                    }
+                    cameraZones.add(definition.toZone());
+                }
+                zones.put(entry.getKey(), cameraZones);
+            }
+            System.out.println("[Zones] Loaded zones for " + zones.size() + " camera(s) from " + resolved);
+            return zones;
+        } catch (IOException | JsonParseException | IllegalArgumentException e) {
+            System.err.println("[Zones] Unable to load zones from " + path + ": " + e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    private static final class ZoneDefinition {
+        private String id;
+        private String kind;
+        private float[][] polygon;
+        private float dwellSeconds;
+        private List<String> labels;
+
+        Zone toZone() {
+            if (id == null || id.isBlank()) {
+                throw new IllegalArgumentException("a zone has no id");
+            }
+            if (polygon == null) {
+                throw new IllegalArgumentException("zone " + id + " has no polygon");
+            }
+            float[] xs = new float[polygon.length];
+            float[] ys = new float[polygon.length];
+            for (int i = 0; i < polygon.length; i++) {
+                if (polygon[i] == null || polygon[i].length < 2) {
+                    throw new IllegalArgumentException("zone " + id + " has an invalid vertex");
+                }
+                xs[i] = polygon[i][0];
+                ys[i] = polygon[i][1];
+            }
+            Zone.Kind zoneKind = kind == null
+                ? Zone.Kind.GENERIC
+                : Zone.Kind.valueOf(kind.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            return new Zone(
+                id,
+                zoneKind,
+                xs,
+                ys,
+                Math.round(dwellSeconds * 1000f),
+                labels != null ? new HashSet<>(labels) : null
+            );
+        }
+    }
+}
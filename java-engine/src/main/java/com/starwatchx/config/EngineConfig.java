@@ -10,19 +10,76 @@ public class EngineConfig {
 
     private final String modelPath;
     private final int telemetryPort;
+    private final int telemetryLogEvery;
+    private final int telemetryAggregateHz;
+    private final DeltaConfig telemetryDelta;
+    private final ClientQueueConfig telemetryClients;
+    private final CompressionConfig telemetryCompression;
     private final float detectionConfidence;
     private final float detectionNms;
+    private final int trackHistoryDepth;
+    private final TrajectoryConfig trajectory;
+    private final List<ProximityRuleConfig> proximityRules;
+    private final long alertCooldownMs;
+    private final float alertSampleStepSeconds;
+    private final String zonesPath;
+    private final StreamConfig frameStream;
+    private final RecordingConfig recording;
+    private final ClipConfig clips;
+    private final TelemetryLogConfig telemetryLog;
+    private final ReplayConfig telemetryReplay;
+    private final MetricsConfig metrics;
+    private final FlightRecorderConfig flightRecorder;
+    private final LoadTestConfig loadTest;
     private final List<CameraConfig> cameras;
 
     private EngineConfig(String modelPath,
                          int telemetryPort,
+                         int telemetryLogEvery,
+                         int telemetryAggregateHz,
+                         DeltaConfig telemetryDelta,
+                         ClientQueueConfig telemetryClients,
+                         CompressionConfig telemetryCompression,
                          float detectionConfidence,
                          float detectionNms,
+                         int trackHistoryDepth,
+                         TrajectoryConfig trajectory,
+                         List<ProximityRuleConfig> proximityRules,
+                         long alertCooldownMs,
+                         float alertSampleStepSeconds,
+                         String zonesPath,
+                         StreamConfig frameStream,
+                         RecordingConfig recording,
+                         ClipConfig clips,
+                         TelemetryLogConfig telemetryLog,
+                         ReplayConfig telemetryReplay,
+                         MetricsConfig metrics,
+                         FlightRecorderConfig flightRecorder,
+                         LoadTestConfig loadTest,
                          List<CameraConfig> cameras) {
         this.modelPath = modelPath;
         this.telemetryPort = telemetryPort;
+        this.telemetryLogEvery = telemetryLogEvery;
+        this.telemetryAggregateHz = telemetryAggregateHz;
+        this.telemetryDelta = telemetryDelta;
+        this.telemetryClients = telemetryClients;
+        this.telemetryCompression = telemetryCompression;
         this.detectionConfidence = detectionConfidence;
         this.detectionNms = detectionNms;
+        this.trackHistoryDepth = trackHistoryDepth;
+        this.trajectory = trajectory;
+        this.proximityRules = proximityRules;
+        this.alertCooldownMs = alertCooldownMs;
+        this.alertSampleStepSeconds = alertSampleStepSeconds;
+        this.zonesPath = zonesPath;
+        this.frameStream = frameStream;
+        this.recording = recording;
+        this.clips = clips;
+        this.telemetryLog = telemetryLog;
+        this.telemetryReplay = telemetryReplay;
+        this.metrics = metrics;
+        this.flightRecorder = flightRecorder;
+        this.loadTest = loadTest;
         this.cameras = cameras;
     }
 
@@ -30,8 +87,47 @@ public class EngineConfig {
         return new EngineConfig(
             "src/main/resources/model/starwatchx_yolov8.onnx",
             8081,
+            0,
+            20,
+            new DeltaConfig(150, 1.0f, 2.0f, 0.02f),
+            new ClientQueueConfig(64, 8, 5_000L),
+            new CompressionConfig(true, 1_024, 1),
             0.25f,
             0.45f,
+            64,
+            new TrajectoryConfig(
+                20,
+                new float[]{0.5f, 1.0f},
+                new float[]{0.5f, 1.0f, 2.0f, 3.0f},
+                1_500f
+            ),
+            List.of(
+                new ProximityRuleConfig("person", "car", 80f, 2.0f),
+                new ProximityRuleConfig("person", "truck", 100f, 2.0f),
+                new ProximityRuleConfig("person", "bus", 100f, 2.0f),
+                new ProximityRuleConfig("person", "forklift", 100f, 2.0f)
+            ),
+            5_000L,
+            0.25f,
+            "zones.json",
+            new StreamConfig(8082, 2, 75, 15, 16),
+            new RecordingConfig(false, "recordings", false, 300, 24, 10L << 30, 30, "mp4", "mpeg4", 4_000_000),
+            new ClipConfig(
+                true,
+                "clips",
+                10_000L,
+                10_000L,
+                60_000L,
+                32L << 20,
+                10,
+                70,
+                List.of("proximity", "zone_intrusion", "zone_dwell")
+            ),
+            new TelemetryLogConfig(false, "telemetry-log", 256L << 20, 60, 168, 500L << 30, 1_000L, 8_192, 1_000L),
+            new ReplayConfig(false, 8083),
+            new MetricsConfig(true, 60, 60, 9464),
+            new FlightRecorderConfig(true, "recordings/jfr", 360, 256L << 20),
+            new LoadTestConfig(8, 30, 25, 1280, 720, false, 20, List.of("delta", "binary", "json"), 0, 10, 60, 500L, 42L),
             List.of(
                 new CameraConfig("CAM-1", "CAM-1", 30),
                 new CameraConfig("CAM-2", "CAM-2", 30),
@@ -48,6 +144,33 @@ public class EngineConfig {
         return telemetryPort;
     }
 
+    /**
+     * Log the full payload of one telemetry packet in this many; 0 disables payload logging.
+     */
+    public int getTelemetryLogEvery() {
+        return telemetryLogEvery;
+    }
+
+    /**
+     * Ticks per second at which the latest frames of all cameras go out as one message per
+     * client; 0 sends each camera's frame as soon as it is ready.
+     */
+    public int getTelemetryAggregateHz() {
+        return telemetryAggregateHz;
+    }
+
+    public DeltaConfig getTelemetryDelta() {
+        return telemetryDelta;
+    }
+
+    public ClientQueueConfig getTelemetryClients() {
+        return telemetryClients;
+    }
+
+    public CompressionConfig getTelemetryCompression() {
+        return telemetryCompression;
+    }
+
     public float getDetectionConfidence() {
         return detectionConfidence;
     }
@@ -56,10 +179,806 @@ public class EngineConfig {
         return detectionNms;
     }
 
+    /**
+     * Samples retained per track in its history ring buffer.
+     */
+    public int getTrackHistoryDepth() {
+        return trackHistoryDepth;
+    }
+
+    public TrajectoryConfig getTrajectory() {
+        return trajectory;
+    }
+
+    /**
+     * Label pairs whose predicted paths must stay apart; empty disables proximity alerts.
+     */
+    public List<ProximityRuleConfig> getProximityRules() {
+        return proximityRules;
+    }
+
+    /**
+     * Quiet period before an alert for the same pair can fire again.
+     */
+    public long getAlertCooldownMs() {
+        return alertCooldownMs;
+    }
+
+    /**
+     * Step at which predicted paths are sampled when searching for the closest approach.
+     */
+    public float getAlertSampleStepSeconds() {
+        return alertSampleStepSeconds;
+    }
+
+    /**
+     * JSON file with per-camera zone polygons; zone evaluation is disabled if it does not exist.
+     */
+    public String getZonesPath() {
+        return zonesPath;
+    }
+
+    public StreamConfig getFrameStream() {
+        return frameStream;
+    }
+
+    public RecordingConfig getRecording() {
+        return recording;
+    }
+
+    public ClipConfig getClips() {
+        return clips;
+    }
+
+    public TelemetryLogConfig getTelemetryLog() {
+        return telemetryLog;
+    }
+
+    public ReplayConfig getTelemetryReplay() {
+        return telemetryReplay;
+    }
+
+    public MetricsConfig getMetrics() {
+        return metrics;
+    }
+
+    public FlightRecorderConfig getFlightRecorder() {
+        return flightRecorder;
+    }
+
+    /**
+     * Defaults of the headless synthetic load generator ({@code com.starwatchx.LoadTest}).
+     */
+    public LoadTestConfig getLoadTest() {
+        return loadTest;
+    }
+
     public List<CameraConfig> getCameras() {
         return cameras;
     }
 
+    /**
+     * Keyframe cadence and change thresholds for delta-encoded telemetry clients.
+     */
+    public static class DeltaConfig {
+        private final int keyframeInterval;
+        private final float positionThreshold;
+        private final float velocityThreshold;
+        private final float confidenceThreshold;
+
+        public DeltaConfig(int keyframeInterval,
+                           float positionThreshold,
+                           float velocityThreshold,
+                           float confidenceThreshold) {
+            this.keyframeInterval = keyframeInterval;
+            this.positionThreshold = positionThreshold;
+            this.velocityThreshold = velocityThreshold;
+            this.confidenceThreshold = confidenceThreshold;
+        }
+
+        /**
+         * Frames per camera between full keyframes.
+         */
+        public int getKeyframeInterval() {
+            return keyframeInterval;
+        }
+
+        /**
+         * Pixels a box edge must move before a delta resends the track.
+         */
+        public float getPositionThreshold() {
+            return positionThreshold;
+        }
+
+        /**
+         * Pixels per second a velocity component must change before a delta resends the track.
+         */
+        public float getVelocityThreshold() {
+            return velocityThreshold;
+        }
+
+        /**
+         * Confidence change (0..1) before a delta resends the track.
+         */
+        public float getConfidenceThreshold() {
+            return confidenceThreshold;
+        }
+    }
+
+    /**
+     * Per-connection send queue limits and the slow-client disconnect policy.
+     */
+    public static class ClientQueueConfig {
+        private final int queueCapacity;
+        private final int maxBufferedFrames;
+        private final long slowClientTimeoutMs;
+
+        public ClientQueueConfig(int queueCapacity, int maxBufferedFrames, long slowClientTimeoutMs) {
+            this.queueCapacity = queueCapacity;
+            this.maxBufferedFrames = maxBufferedFrames;
+            this.slowClientTimeoutMs = slowClientTimeoutMs;
+        }
+
+        /**
+         * Events queued per client before new ones are dropped; frames are coalesced instead.
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * Messages a client may have in the socket buffer before its writer stops sending.
+         */
+        public int getMaxBufferedFrames() {
+            return maxBufferedFrames;
+        }
+
+        /**
+         * How long a client may stay backed up before it is disconnected; 0 keeps it connected.
+         */
+        public long getSlowClientTimeoutMs() {
+            return slowClientTimeoutMs;
+        }
+    }
+
+    /**
+     * permessage-deflate for telemetry clients that offer it (remote dashboards on slow links).
+     */
+    public static class CompressionConfig {
+        private final boolean enabled;
+        private final int thresholdBytes;
+        private final int level;
+
+        public CompressionConfig(boolean enabled, int thresholdBytes, int level) {
+            this.enabled = enabled;
+            this.thresholdBytes = thresholdBytes;
+            this.level = level;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Messages smaller than this are sent uncompressed.
+         */
+        public int getThresholdBytes() {
+            return thresholdBytes;
+        }
+
+        /**
+         * Deflate level, 1 (fastest) to 9 (smallest).
+         */
+        public int getLevel() {
+            return level;
+        }
+    }
+
+    /**
+     * Annotated-frame (MJPEG) endpoint settings.
+     */
+    public static class StreamConfig {
+        private final int port;
+        private final int encoderThreads;
+        private final int jpegQuality;
+        private final int maxFps;
+        private final int maxSubscribers;
+
+        public StreamConfig(int port, int encoderThreads, int jpegQuality, int maxFps, int maxSubscribers) {
+            this.port = port;
+            this.encoderThreads = encoderThreads;
+            this.jpegQuality = jpegQuality;
+            this.maxFps = maxFps;
+            this.maxSubscribers = maxSubscribers;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public int getEncoderThreads() {
+            return encoderThreads;
+        }
+
+        public int getJpegQuality() {
+            return jpegQuality;
+        }
+
+        /**
+         * Upper bound on the frame rate a subscriber may request.
+         */
+        public int getMaxFps() {
+            return maxFps;
+        }
+
+        /**
+         * Concurrent MJPEG subscribers across all cameras; each holds a thread.
+         */
+        public int getMaxSubscribers() {
+            return maxSubscribers;
+        }
+    }
+
+    /**
+     * Background recording of camera feeds into time-segmented files.
+     */
+    public static class RecordingConfig {
+        private final boolean enabled;
+        private final String directory;
+        private final boolean annotated;
+        private final int segmentSeconds;
+        private final int retentionHours;
+        private final long maxBytesPerCamera;
+        private final int queueCapacity;
+        private final String format;
+        private final String videoCodec;
+        private final int videoBitrate;
+
+        public RecordingConfig(boolean enabled,
+                               String directory,
+                               boolean annotated,
+                               int segmentSeconds,
+                               int retentionHours,
+                               long maxBytesPerCamera,
+                               int queueCapacity,
+                               String format,
+                               String videoCodec,
+                               int videoBitrate) {
+            this.enabled = enabled;
+            this.directory = Objects.requireNonNull(directory, "directory");
+            this.annotated = annotated;
+            this.segmentSeconds = segmentSeconds;
+            this.retentionHours = retentionHours;
+            this.maxBytesPerCamera = maxBytesPerCamera;
+            this.queueCapacity = queueCapacity;
+            this.format = Objects.requireNonNull(format, "format");
+            this.videoCodec = Objects.requireNonNull(videoCodec, "videoCodec");
+            this.videoBitrate = videoBitrate;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        /**
+         * Record frames with the HUD drawn on them instead of the raw capture.
+         */
+        public boolean isAnnotated() {
+            return annotated;
+        }
+
+        public int getSegmentSeconds() {
+            return segmentSeconds;
+        }
+
+        /**
+         * Segments older than this are deleted; 0 keeps them until the size budget is hit.
+         */
+        public int getRetentionHours() {
+            return retentionHours;
+        }
+
+        /**
+         * Disk budget per camera; oldest segments are deleted first. 0 disables the limit.
+         */
+        public long getMaxBytesPerCamera() {
+            return maxBytesPerCamera;
+        }
+
+        /**
+         * Frames buffered per camera before new frames are dropped.
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * FFmpeg container name; also used as the file extension.
+         */
+        public String getFormat() {
+            return format;
+        }
+
+        /**
+         * FFmpeg encoder name, e.g. {@code mpeg4} or {@code libx264} when available.
+         */
+        public String getVideoCodec() {
+            return videoCodec;
+        }
+
+        public int getVideoBitrate() {
+            return videoBitrate;
+        }
+    }
+
+    /**
+     * Persistent, seekable log of every telemetry frame ({@code TelemetryLog}).
+     */
+    public static class TelemetryLogConfig {
+        private final boolean enabled;
+        private final String directory;
+        private final long segmentBytes;
+        private final int segmentMinutes;
+        private final int retentionHours;
+        private final long maxBytes;
+        private final long indexIntervalMs;
+        private final int queueCapacity;
+        private final long flushIntervalMs;
+
+        public TelemetryLogConfig(boolean enabled,
+                                  String directory,
+                                  long segmentBytes,
+                                  int segmentMinutes,
+                                  int retentionHours,
+                                  long maxBytes,
+                                  long indexIntervalMs,
+                                  int queueCapacity,
+                                  long flushIntervalMs) {
+            this.enabled = enabled;
+            this.directory = Objects.requireNonNull(directory, "directory");
+            this.segmentBytes = segmentBytes;
+            this.segmentMinutes = segmentMinutes;
+            this.retentionHours = retentionHours;
+            this.maxBytes = maxBytes;
+            this.indexIntervalMs = indexIntervalMs;
+            this.queueCapacity = queueCapacity;
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        /**
+         * Size a segment is mapped at; it rolls over once full (at most 2 GiB).
+         */
+        public long getSegmentBytes() {
+            return segmentBytes;
+        }
+
+        public int getSegmentMinutes() {
+            return segmentMinutes;
+        }
+
+        /**
+         * Segments older than this are deleted; 0 keeps them until the size budget is hit.
+         */
+        public int getRetentionHours() {
+            return retentionHours;
+        }
+
+        /**
+         * Disk budget for the whole log; oldest segments are deleted first. 0 disables the limit.
+         */
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        /**
+         * Spacing of index entries; a seek reads at most this much of the log past the target.
+         */
+        public long getIndexIntervalMs() {
+            return indexIntervalMs;
+        }
+
+        /**
+         * Records waiting for the writer before new ones are dropped.
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+    }
+
+    /**
+     * WebSocket server that plays the telemetry log back ({@code TelemetryReplayServer}).
+     */
+    public static class ReplayConfig {
+        private final boolean enabled;
+        private final int port;
+
+        public ReplayConfig(boolean enabled, int port) {
+            this.enabled = enabled;
+            this.port = port;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public int getPort() {
+            return port;
+        }
+    }
+
+    /**
+     * Per-stage latency histograms of the frame pipeline ({@code PipelineMetrics}).
+     */
+    public static class MetricsConfig {
+        private final boolean enabled;
+        private final int windowSeconds;
+        private final int reportSeconds;
+        private final int httpPort;
+
+        public MetricsConfig(boolean enabled, int windowSeconds, int reportSeconds, int httpPort) {
+            this.enabled = enabled;
+            this.windowSeconds = windowSeconds;
+            this.reportSeconds = reportSeconds;
+            this.httpPort = httpPort;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Rolling window the percentiles cover.
+         */
+        public int getWindowSeconds() {
+            return windowSeconds;
+        }
+
+        /**
+         * How often percentiles are logged; 0 disables the log line.
+         */
+        public int getReportSeconds() {
+            return reportSeconds;
+        }
+
+        /**
+         * Port of the Prometheus {@code /metrics} endpoint; 0 disables it.
+         */
+        public int getHttpPort() {
+            return httpPort;
+        }
+    }
+
+    /**
+     * Continuous Flight Recorder recording with the frame pipeline events ({@code ContinuousRecording}).
+     */
+    public static class FlightRecorderConfig {
+        private final boolean enabled;
+        private final String directory;
+        private final int maxAgeMinutes;
+        private final long maxBytes;
+
+        public FlightRecorderConfig(boolean enabled, String directory, int maxAgeMinutes, long maxBytes) {
+            this.enabled = enabled;
+            this.directory = directory;
+            this.maxAgeMinutes = maxAgeMinutes;
+            this.maxBytes = maxBytes;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Where the recording is written when the engine stops.
+         */
+        public String getDirectory() {
+            return directory;
+        }
+
+        public int getMaxAgeMinutes() {
+            return maxAgeMinutes;
+        }
+
+        /**
+         * Disk space the recording may use while running; older data is discarded first.
+         */
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+    }
+
+    /**
+     * Pre-roll buffer and event clip settings.
+     */
+    public static class ClipConfig {
+        private final boolean enabled;
+        private final String directory;
+        private final long preRollMs;
+        private final long postRollMs;
+        private final long maxClipMs;
+        private final long maxBytesPerCamera;
+        private final int fps;
+        private final int jpegQuality;
+        private final List<String> triggerTypes;
+
+        public ClipConfig(boolean enabled,
+                          String directory,
+                          long preRollMs,
+                          long postRollMs,
+                          long maxClipMs,
+                          long maxBytesPerCamera,
+                          int fps,
+                          int jpegQuality,
+                          List<String> triggerTypes) {
+            this.enabled = enabled;
+            this.directory = Objects.requireNonNull(directory, "directory");
+            this.preRollMs = preRollMs;
+            this.postRollMs = postRollMs;
+            this.maxClipMs = maxClipMs;
+            this.maxBytesPerCamera = maxBytesPerCamera;
+            this.fps = fps;
+            this.jpegQuality = jpegQuality;
+            this.triggerTypes = List.copyOf(triggerTypes);
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public long getPreRollMs() {
+            return preRollMs;
+        }
+
+        public long getPostRollMs() {
+            return postRollMs;
+        }
+
+        /**
+         * Upper bound on a clip that keeps being extended by new events.
+         */
+        public long getMaxClipMs() {
+            return maxClipMs;
+        }
+
+        /**
+         * Hard cap on compressed pre-roll bytes held per camera.
+         */
+        public long getMaxBytesPerCamera() {
+            return maxBytesPerCamera;
+        }
+
+        /**
+         * Rate at which frames are sampled into the pre-roll.
+         */
+        public int getFps() {
+            return fps;
+        }
+
+        public int getJpegQuality() {
+            return jpegQuality;
+        }
+
+        /**
+         * Event types that start a clip.
+         */
+        public List<String> getTriggerTypes() {
+            return triggerTypes;
+        }
+    }
+
+    /**
+     * Minimum allowed predicted separation (pixels) between two labels within a time horizon.
+     */
+    public static class ProximityRuleConfig {
+        private final String labelA;
+        private final String labelB;
+        private final float distance;
+        private final float horizonSeconds;
+
+        public ProximityRuleConfig(String labelA, String labelB, float distance, float horizonSeconds) {
+            this.labelA = Objects.requireNonNull(labelA, "labelA");
+            this.labelB = Objects.requireNonNull(labelB, "labelB");
+            this.distance = distance;
+            this.horizonSeconds = horizonSeconds;
+        }
+
+        public String getLabelA() {
+            return labelA;
+        }
+
+        public String getLabelB() {
+            return labelB;
+        }
+
+        public float getDistance() {
+            return distance;
+        }
+
+        public float getHorizonSeconds() {
+            return horizonSeconds;
+        }
+    }
+
+    /**
+     * Trajectory fit window, prediction horizons, and acceleration limit.
+     */
+    public static class TrajectoryConfig {
+        private final int fitWindow;
+        private final float[] horizonsSeconds;
+        private final float[] vehicleHorizonsSeconds;
+        private final float maxAcceleration;
+
+        public TrajectoryConfig(int fitWindow,
+                                float[] horizonsSeconds,
+                                float[] vehicleHorizonsSeconds,
+                                float maxAcceleration) {
+            this.fitWindow = fitWindow;
+            this.horizonsSeconds = Objects.requireNonNull(horizonsSeconds, "horizonsSeconds").clone();
+            this.vehicleHorizonsSeconds = Objects.requireNonNull(vehicleHorizonsSeconds, "vehicleHorizonsSeconds").clone();
+            this.maxAcceleration = maxAcceleration;
+        }
+
+        /**
+         * Newest history samples used for least-squares fits.
+         */
+        public int getFitWindow() {
+            return fitWindow;
+        }
+
+        public float[] getHorizonsSeconds() {
+            return horizonsSeconds.clone();
+        }
+
+        public float[] getVehicleHorizonsSeconds() {
+            return vehicleHorizonsSeconds.clone();
+        }
+
+        /**
+         * Upper bound on fitted acceleration, in pixels per second squared.
+         */
+        public float getMaxAcceleration() {
+            return maxAcceleration;
+        }
+    }
+
+    /**
+     * Synthetic cameras, scene density and simulated telemetry clients of a load test run.
+     */
+    public static class LoadTestConfig {
+        private final int cameras;
+        private final int fps;
+        private final int objectsPerCamera;
+        private final int frameWidth;
+        private final int frameHeight;
+        private final boolean inference;
+        private final int clients;
+        private final List<String> clientFormats;
+        private final int hudFps;
+        private final int warmupSeconds;
+        private final int durationSeconds;
+        private final long latencySlaMs;
+        private final long seed;
+
+        public LoadTestConfig(int cameras,
+                              int fps,
+                              int objectsPerCamera,
+                              int frameWidth,
+                              int frameHeight,
+                              boolean inference,
+                              int clients,
+                              List<String> clientFormats,
+                              int hudFps,
+                              int warmupSeconds,
+                              int durationSeconds,
+                              long latencySlaMs,
+                              long seed) {
+            this.cameras = cameras;
+            this.fps = fps;
+            this.objectsPerCamera = objectsPerCamera;
+            this.frameWidth = frameWidth;
+            this.frameHeight = frameHeight;
+            this.inference = inference;
+            this.clients = clients;
+            this.clientFormats = List.copyOf(Objects.requireNonNull(clientFormats, "clientFormats"));
+            this.hudFps = hudFps;
+            this.warmupSeconds = warmupSeconds;
+            this.durationSeconds = durationSeconds;
+            this.latencySlaMs = latencySlaMs;
+            this.seed = seed;
+        }
+
+        public int getCameras() {
+            return cameras;
+        }
+
+        public int getFps() {
+            return fps;
+        }
+
+        public int getObjectsPerCamera() {
+            return objectsPerCamera;
+        }
+
+        public int getFrameWidth() {
+            return frameWidth;
+        }
+
+        public int getFrameHeight() {
+            return frameHeight;
+        }
+
+        /**
+         * Runs the detector on every synthetic frame for its cost; tracking still gets the scene's
+         * own detections.
+         */
+        public boolean isInference() {
+            return inference;
+        }
+
+        /**
+         * Simulated telemetry WebSocket clients.
+         */
+        public int getClients() {
+            return clients;
+        }
+
+        /**
+         * Wire formats handed to the clients in turn: {@code delta}, {@code binary} or {@code json}.
+         */
+        public List<String> getClientFormats() {
+            return clientFormats;
+        }
+
+        /**
+         * Rate of one MJPEG subscriber per camera, which makes the HUD render; 0 renders no HUD.
+         */
+        public int getHudFps() {
+            return hudFps;
+        }
+
+        /**
+         * Time given to the JIT and the tracker before measuring.
+         */
+        public int getWarmupSeconds() {
+            return warmupSeconds;
+        }
+
+        public int getDurationSeconds() {
+            return durationSeconds;
+        }
+
+        /**
+         * Render age the p99 of every client must stay under for the run to pass.
+         */
+        public long getLatencySlaMs() {
+            return latencySlaMs;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+    }
+
     /**
      * Represents a single camera/video source definition.
      */
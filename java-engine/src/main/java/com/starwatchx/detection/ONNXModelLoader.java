@@ -144,7 +144,10 @@ public class ONNXModelLoader implements AutoCloseable {
         }
     }
 
-    private float[][] toDetectionsArray(OnnxTensor tensor) throws OrtException {
+    /**
+     * Copies the output tensor into one row per candidate. Package-private for the benchmarks.
+     */
+    float[][] toDetectionsArray(OnnxTensor tensor) throws OrtException {
         long[] shape = tensor.getInfo().getShape();
         FloatBuffer buffer = tensor.getFloatBuffer();
         float[] flattened = new float[buffer.remaining()];
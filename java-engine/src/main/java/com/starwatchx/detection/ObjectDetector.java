@@ -1,5 +1,8 @@
 package com.starwatchx.detection;
 
+import com.starwatchx.metrics.InferenceEvent;
+import com.starwatchx.metrics.PipelineMetrics;
+import com.starwatchx.metrics.PipelineStage;
 import com.starwatchx.util.MathUtils;
 import org.bytedeco.javacpp.indexer.FloatIndexer;
 import org.bytedeco.opencv.global.opencv_core;
@@ -65,6 +68,19 @@ public class ObjectDetector {
     }
 
     public List<DetectedObject> detect(Mat frame, String cameraId, long timestamp) {
+        return detect(frame, cameraId, timestamp, 0L, PipelineMetrics.Recorder.NONE);
+    }
+
+    /**
+     * Detects objects and records the preprocess, inference, decode and NMS stages of the model
+     * path; synthetic fallback detections are not timed. The model call is also recorded as an
+     * {@link InferenceEvent} of frame {@code frameSequence}.
+     */
+    public List<DetectedObject> detect(Mat frame,
+                                       String cameraId,
+                                       long timestamp,
+                                       long frameSequence,
+                                       PipelineMetrics.Recorder metrics) {
         if (frame == null || frame.empty()) {
             return Collections.emptyList();
         }
@@ -75,11 +91,20 @@ public class ObjectDetector {
         }
 
         try {
+            long started = System.nanoTime();
             float[] inputTensor = preprocess(frame);
+            started = metrics.record(PipelineStage.PREPROCESS, started);
             long[] inputShape = new long[]{1, INPUT_CHANNELS, INPUT_HEIGHT, INPUT_WIDTH};
+            InferenceEvent event = new InferenceEvent();
+            event.begin();
             float[][] rawOutput = modelLoader.runInference(inputTensor, inputShape);
+            event.end();
+            event.commit(cameraId, frameSequence);
+            started = metrics.record(PipelineStage.INFERENCE, started);
             List<DetectedObject> detections = postprocess(rawOutput, frame.cols(), frame.rows(), cameraId, timestamp);
+            started = metrics.record(PipelineStage.DECODE, started);
             List<DetectedObject> result = applyNms(detections);
+            metrics.record(PipelineStage.NMS, started);
             
             // If real model returns nothing, use fallback for demo purposes
             if (result.isEmpty()) {
@@ -92,7 +117,11 @@ public class ObjectDetector {
         }
     }
 
-    private float[] preprocess(Mat frame) {
+    /**
+     * Resizes and converts the frame into the model's CHW float input. Package-private, like
+     * {@link #postprocess} and {@link #applyNms}, for the benchmarks in {@code src/jmh}.
+     */
+    float[] preprocess(Mat frame) {
         try (Mat resized = new Mat();
              Mat rgb = new Mat();
              Mat floatMat = new Mat()) {
@@ -120,11 +149,11 @@ public class ObjectDetector {
         }
     }
 
-    private List<DetectedObject> postprocess(float[][] rawOutput,
-                                             int frameWidth,
-                                             int frameHeight,
-                                             String cameraId,
-                                             long timestamp) {
+    List<DetectedObject> postprocess(float[][] rawOutput,
+                                     int frameWidth,
+                                     int frameHeight,
+                                     String cameraId,
+                                     long timestamp) {
         List<DetectedObject> detections = new ArrayList<>();
         if (rawOutput == null || rawOutput.length == 0) {
             return detections;
@@ -189,7 +218,7 @@ public class ObjectDetector {
         return detections;
     }
 
-    private List<DetectedObject> applyNms(List<DetectedObject> detections) {
+    List<DetectedObject> applyNms(List<DetectedObject> detections) {
         if (detections.isEmpty()) {
             return detections;
         }
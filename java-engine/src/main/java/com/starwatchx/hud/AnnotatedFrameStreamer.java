@@ -0,0 +1,393 @@
+package com.starwatchx.hud;
+
+import com.starwatchx.metrics.MetricsSource;
+import com.starwatchx.metrics.MetricsWriter;
+import com.starwatchx.trajectory.TrajectoryPredictor;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.IntPointer;
+import org.bytedeco.opencv.global.opencv_imgcodecs;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves HUD-annotated frames as MJPEG streams over a local HTTP endpoint
+ * ({@code GET /frames/<cameraId>?fps=N}).
+ * <p>
+ * Camera threads ask {@link #tryAcquireCanvas(String)} for a canvas before rendering; it returns
+ * none whenever a camera has no subscribers or none of them is due, so HUD drawing and JPEG
+ * encoding are skipped entirely. Canvases come from a small per-camera pool and are JPEG-encoded
+ * on a separate bounded pool; if either is busy the frame is dropped rather than delaying capture. Each
+ * subscriber always receives the newest encoded frame at its own rate.
+ * <p>
+ * Only cameras registered through {@link #addCamera(String)} can be subscribed to; other ids get
+ * a 404, methods other than GET a 405, and subscribers beyond the configured cap a 503. Each
+ * subscriber holds one thread of a pool sized to that cap.
+ */
+public class AnnotatedFrameStreamer implements MetricsSource, AutoCloseable {
+
+    private static final String BOUNDARY = "starwatchx-frame";
+    private static final int CANVASES_PER_CAMERA = 2;
+    private static final int DEFAULT_FPS = 10;
+    private static final long SUBSCRIBER_WAIT_MS = 1_000L;
+
+    private final int port;
+    private final int maxFps;
+    private final int jpegQuality;
+    private final int maxSubscribers;
+    private final TrajectoryPredictor trajectoryPredictor;
+    private final ThreadPoolExecutor encoderPool;
+    private final Map<String, CameraChannel> channels = new ConcurrentHashMap<>();
+    private final ThreadLocal<IntPointer> encodeParams;
+    private HttpServer httpServer;
+    private ThreadPoolExecutor subscriberExecutor;
+    private volatile boolean running;
+
+    public AnnotatedFrameStreamer(int port,
+                                  int encoderThreads,
+                                  int jpegQuality,
+                                  int maxFps,
+                                  int maxSubscribers,
+                                  TrajectoryPredictor trajectoryPredictor) {
+        this.port = port;
+        this.maxFps = Math.max(1, maxFps);
+        this.jpegQuality = Math.max(1, Math.min(100, jpegQuality));
+        this.maxSubscribers = Math.max(1, maxSubscribers);
+        this.trajectoryPredictor = trajectoryPredictor;
+        int threads = Math.max(1, encoderThreads);
+        this.encoderPool = new ThreadPoolExecutor(
+            threads,
+            threads,
+            30L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(threads * 2),
+            runnable -> {
+                Thread thread = new Thread(runnable, "hud-encoder");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        this.encodeParams = ThreadLocal.withInitial(
+            () -> new IntPointer(opencv_imgcodecs.IMWRITE_JPEG_QUALITY, this.jpegQuality));
+    }
+
+    /**
+     * Registers a camera that subscribers may request; call before {@link #start()}.
+     */
+    public void addCamera(String cameraId) {
+        channels.computeIfAbsent(cameraId, CameraChannel::new);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        try {
+            httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            System.err.println("[HUDStream] Unable to bind port " + port + ": " + e.getMessage());
+            return;
+        }
+        // One thread per subscriber plus one to turn away requests over the cap; when all are
+        // busy the server closes new connections instead of queueing them.
+        subscriberExecutor = new ThreadPoolExecutor(
+            maxSubscribers + 1,
+            maxSubscribers + 1,
+            30L,
+            TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "hud-subscriber");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        subscriberExecutor.allowCoreThreadTimeOut(true);
+        httpServer.setExecutor(subscriberExecutor);
+        httpServer.createContext("/frames/", this::handleSubscriber);
+        httpServer.start();
+        running = true;
+        System.out.println("[HUDStream] MJPEG endpoint on http://localhost:" + port + "/frames/<cameraId>");
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        httpServer.stop(0);
+        subscriberExecutor.shutdownNow();
+        encoderPool.shutdownNow();
+        for (CameraChannel channel : channels.values()) {
+            channel.wakeSubscribers();
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    /**
+     * Borrows a canvas Mat if at least one subscriber of this camera is due for a new frame, or
+     * returns {@code null}. Cheap enough to call on every frame; the frame counts as rendered only
+     * when a canvas is handed out. A borrowed canvas must be handed back through
+     * {@link #submit(String, Mat)} or {@link #release(String, Mat)}.
+     */
+    public Mat tryAcquireCanvas(String cameraId) {
+        CameraChannel channel = channels.get(cameraId);
+        if (channel == null || channel.subscribers.isEmpty()) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - channel.lastRenderNanos < channel.minIntervalNanos) {
+            return null;
+        }
+        Mat canvas = channel.canvases.poll();
+        if (canvas == null) {
+            channel.droppedFrames++;
+            return null;
+        }
+        channel.lastRenderNanos = now;
+        return canvas;
+    }
+
+    /**
+     * Returns a canvas that was not submitted, e.g. because drawing failed.
+     */
+    public void release(String cameraId, Mat canvas) {
+        CameraChannel channel = channels.get(cameraId);
+        if (channel != null && canvas != null) {
+            channel.canvases.offer(canvas);
+        }
+    }
+
+    /**
+     * Queues a rendered canvas for JPEG encoding; drops the frame if the encoder pool is saturated.
+     */
+    public void submit(String cameraId, Mat canvas) {
+        CameraChannel channel = channels.get(cameraId);
+        if (channel == null || canvas == null) {
+            return;
+        }
+        try {
+            encoderPool.execute(() -> encode(channel, canvas));
+        } catch (RejectedExecutionException e) {
+            channel.droppedFrames++;
+            channel.canvases.offer(canvas);
+        }
+    }
+
+    @Override
+    public void writeMetrics(MetricsWriter out) {
+        out.gauge("starwatchx_hud_encoder_queue_depth", "Annotated frames waiting for a JPEG encoder.")
+            .sample(encoderPool.getQueue().size());
+        out.gauge("starwatchx_hud_stream_subscribers", "MJPEG subscribers per camera.");
+        for (CameraChannel channel : channels.values()) {
+            out.sample(channel.subscribers.size(), "camera", channel.cameraId);
+        }
+        out.counter("starwatchx_hud_stream_dropped_frames_total", "Annotated frames dropped because the encoders were busy.");
+        for (CameraChannel channel : channels.values()) {
+            out.sample(channel.droppedFrames, "camera", channel.cameraId);
+        }
+    }
+
+    private void encode(CameraChannel channel, Mat canvas) {
+        try (BytePointer buffer = new BytePointer()) {
+            if (opencv_imgcodecs.imencode(".jpg", canvas, buffer, encodeParams.get())) {
+                byte[] jpeg = new byte[(int) buffer.limit()];
+                buffer.get(jpeg);
+                channel.publish(jpeg);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("[HUDStream] Encoding failed for " + channel.cameraId + ": " + e.getMessage());
+        } finally {
+            channel.canvases.offer(canvas);
+        }
+    }
+
+    private void handleSubscriber(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "GET");
+            reject(exchange, 405);
+            return;
+        }
+        URI uri = exchange.getRequestURI();
+        String cameraId = uri.getPath().substring("/frames/".length());
+        CameraChannel channel = channels.get(cameraId);
+        if (channel == null) {
+            reject(exchange, 404);
+            return;
+        }
+        int fps = Math.min(maxFps, parseFps(uri.getQuery()));
+        Subscriber subscriber = new Subscriber(1_000_000_000L / fps);
+        if (!addSubscriber(channel, subscriber)) {
+            System.err.println("[HUDStream] Rejected subscriber for " + cameraId + ": "
+                + maxSubscribers + " subscribers already connected");
+            reject(exchange, 503);
+            return;
+        }
+        System.out.println("[HUDStream] Subscriber for " + cameraId + " at " + fps + " fps");
+
+        exchange.getResponseHeaders().set("Content-Type", "multipart/x-mixed-replace; boundary=" + BOUNDARY);
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        long lastSequence = 0L;
+        try (OutputStream out = exchange.getResponseBody()) {
+            while (running) {
+                long started = System.nanoTime();
+                Frame frame = channel.awaitNewer(lastSequence, SUBSCRIBER_WAIT_MS);
+                if (frame == null) {
+                    continue;
+                }
+                lastSequence = frame.sequence;
+                out.write(("--" + BOUNDARY + "\r\nContent-Type: image/jpeg\r\nContent-Length: "
+                    + frame.jpeg.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.write(frame.jpeg);
+                out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                long remaining = subscriber.intervalNanos - (System.nanoTime() - started);
+                if (remaining > 0) {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                }
+            }
+        } catch (IOException e) {
+            // Subscriber went away.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            removeSubscriber(channel, subscriber);
+            exchange.close();
+            System.out.println("[HUDStream] Subscriber left " + cameraId);
+        }
+    }
+
+    private static void reject(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    /**
+     * Adds the subscriber unless the cap is reached; returns false if it was not added.
+     */
+    private synchronized boolean addSubscriber(CameraChannel channel, Subscriber subscriber) {
+        int total = totalSubscribers();
+        if (total >= maxSubscribers) {
+            return false;
+        }
+        if (total == 0 && trajectoryPredictor != null) {
+            trajectoryPredictor.retainPaths();
+        }
+        channel.subscribers.add(subscriber);
+        channel.updateInterval();
+        return true;
+    }
+
+    private synchronized void removeSubscriber(CameraChannel channel, Subscriber subscriber) {
+        if (!channel.subscribers.remove(subscriber)) {
+            return;
+        }
+        channel.updateInterval();
+        if (channel.subscribers.isEmpty()) {
+            // Otherwise the next subscriber would first be sent a frame from whenever this one left.
+            channel.clearLatest();
+        }
+        if (totalSubscribers() == 0 && trajectoryPredictor != null) {
+            trajectoryPredictor.releasePaths();
+        }
+    }
+
+    private int totalSubscribers() {
+        int total = 0;
+        for (CameraChannel channel : channels.values()) {
+            total += channel.subscribers.size();
+        }
+        return total;
+    }
+
+    private static int parseFps(String query) {
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith("fps=")) {
+                    try {
+                        return Math.max(1, Integer.parseInt(parameter.substring(4)));
+                    } catch (NumberFormatException ignored) {
+                        return DEFAULT_FPS;
+                    }
+                }
+            }
+        }
+        return DEFAULT_FPS;
+    }
+
+    private record Frame(long sequence, byte[] jpeg) {}
+
+    private static final class Subscriber {
+        private final long intervalNanos;
+
+        Subscriber(long intervalNanos) {
+            this.intervalNanos = intervalNanos;
+        }
+    }
+
+    private static final class CameraChannel {
+        private final String cameraId;
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        private final ArrayBlockingQueue<Mat> canvases = new ArrayBlockingQueue<>(CANVASES_PER_CAMERA);
+        private volatile long minIntervalNanos = Long.MAX_VALUE;
+        private long lastRenderNanos;
+        private volatile long droppedFrames;
+        private long publishedFrames;
+        private Frame latest;
+
+        CameraChannel(String cameraId) {
+            this.cameraId = cameraId;
+            for (int i = 0; i < CANVASES_PER_CAMERA; i++) {
+                canvases.offer(new Mat());
+            }
+        }
+
+        void updateInterval() {
+            long min = Long.MAX_VALUE;
+            for (Subscriber subscriber : subscribers) {
+                min = Math.min(min, subscriber.intervalNanos);
+            }
+            minIntervalNanos = min;
+        }
+
+        synchronized void publish(byte[] jpeg) {
+            latest = new Frame(++publishedFrames, jpeg);
+            notifyAll();
+        }
+
+        synchronized Frame awaitNewer(long sequence, long timeoutMs) throws InterruptedException {
+            if (latest == null || latest.sequence <= sequence) {
+                wait(timeoutMs);
+            }
+            return latest != null && latest.sequence > sequence ? latest : null;
+        }
+
+        synchronized void clearLatest() {
+            latest = null;
+        }
+
+        synchronized void wakeSubscribers() {
+            notifyAll();
+        }
+    }
+}
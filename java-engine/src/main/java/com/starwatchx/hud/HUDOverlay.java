@@ -1,19 +1,25 @@
 package com.starwatchx.hud;
 
-import com.starwatchx.tracking.TrackerManager;
-import com.starwatchx.trajectory.TrajectoryPredictor;
+import com.starwatchx.tracking.TrackTable;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.IntPointer;
+import org.bytedeco.javacpp.LongPointer;
+import org.bytedeco.javacpp.PointerPointer;
 import org.bytedeco.opencv.global.opencv_imgproc;
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_core.Point;
 import org.bytedeco.opencv.opencv_core.Scalar;
 import org.bytedeco.opencv.opencv_core.Size;
 
-import java.util.Collections;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Renders heads-up display elements on processed frames.
+ * <p>
+ * Steady-state rendering does not allocate: label strings and their text sizes are cached per
+ * track, confidence suffixes are precomputed, native points are reused per thread, and all
+ * predicted paths of a frame are drawn with a single {@code polylines} call.
  */
 public class HUDOverlay {
 
@@ -22,100 +28,214 @@ public class HUDOverlay {
     private static final Scalar COLOR_TEXT = new Scalar((double) 255, (double) 255, (double) 255, 0.0);
     private static final Scalar COLOR_PATH = new Scalar((double) 255, (double) 255, (double) 0, 0.0);
 
-    public HUDOverlay() {
+    private static final int FONT = opencv_imgproc.FONT_HERSHEY_SIMPLEX;
+    private static final double FONT_SCALE = 0.5;
+    private static final int TEXT_THICKNESS = 1;
+    /** Tracks narrower or shorter than this (pixels) are not drawn. */
+    private static final int MIN_TRACK_SIZE = 4;
+    private static final int LABEL_CACHE_SIZE = 1024;
+
+    /** "0%" .. "100%" with their rendered widths; the text height and baseline do not depend on the string. */
+    private static final BytePointer[] PERCENT_TEXT = new BytePointer[101];
+    private static final int[] PERCENT_WIDTH = new int[101];
+    private static final int TEXT_HEIGHT;
+    private static final int TEXT_BASELINE;
+
+    static {
+        int[] baseline = new int[1];
+        int height = 0;
+        for (int percent = 0; percent <= 100; percent++) {
+            PERCENT_TEXT[percent] = new BytePointer(percent + "%");
+            try (Size size = opencv_imgproc.getTextSize(PERCENT_TEXT[percent], FONT, FONT_SCALE, TEXT_THICKNESS, baseline)) {
+                PERCENT_WIDTH[percent] = size.width();
+                height = size.height();
+            }
+        }
+        TEXT_HEIGHT = height;
+        TEXT_BASELINE = baseline[0];
     }
 
-    public Mat draw(Mat frame, List<TrackerManager.TrackerSnapshot> trackers) {
-        return draw(frame, trackers, Collections.emptyMap());
+    private final ThreadLocal<RenderContext> contexts = ThreadLocal.withInitial(RenderContext::new);
+
+    public HUDOverlay() {
     }
 
-    public Mat draw(Mat frame,
-                    List<TrackerManager.TrackerSnapshot> trackers,
-                    Map<String, List<TrajectoryPredictor.Point>> predictedPaths) {
-        if (frame == null || trackers == null) {
+    public Mat draw(Mat frame, TrackTable tracks) {
+        if (frame == null || tracks == null) {
             return frame;
         }
 
-        for (TrackerManager.TrackerSnapshot snapshot : trackers) {
-            drawTracker(frame, snapshot);
-
-            List<TrajectoryPredictor.Point> path = predictedPaths != null
-                ? predictedPaths.get(snapshot.getTrackId())
-                : null;
-            if (path != null && path.size() > 1) {
-                drawPredictedPath(frame, path);
+        RenderContext context = contexts.get();
+        int frameWidth = frame.cols();
+        int frameHeight = frame.rows();
+        context.beginPaths(tracks.size() * tracks.getPathStride());
+        for (int row = 0; row < tracks.size(); row++) {
+            if (!isVisible(tracks, row, frameWidth, frameHeight)) {
+                continue;
+            }
+            drawTracker(frame, tracks, row, context);
+            if (tracks.getPathLength(row) > 1) {
+                addPredictedPath(tracks, row, context);
             }
         }
+        context.drawPaths(frame);
         return frame;
     }
 
-    private void drawTracker(Mat frame, TrackerManager.TrackerSnapshot snapshot) {
-        double x1 = snapshot.getX();
-        double y1 = snapshot.getY();
-        double x2 = x1 + snapshot.getWidth();
-        double y2 = y1 + snapshot.getHeight();
-        Point topLeft = new Point((int) Math.round(x1), (int) Math.round(y1));
-        Point bottomRight = new Point((int) Math.round(x2), (int) Math.round(y2));
-        opencv_imgproc.rectangle(frame, topLeft, bottomRight, COLOR_BOX, 2, opencv_imgproc.LINE_8, 0);
-
-        String trackShortId = snapshot.getTrackId().length() > 6
-            ? snapshot.getTrackId().substring(0, 6)
-            : snapshot.getTrackId();
-        String label = String.format("#%s %s %.0f%%",
-            trackShortId,
-            snapshot.getLabel(),
-            snapshot.getConfidence() * 100f
-        );
+    private static boolean isVisible(TrackTable tracks, int row, int frameWidth, int frameHeight) {
+        float width = tracks.getWidth(row);
+        float height = tracks.getHeight(row);
+        if (width < MIN_TRACK_SIZE || height < MIN_TRACK_SIZE) {
+            return false;
+        }
+        float x = tracks.getX(row);
+        float y = tracks.getY(row);
+        return x + width >= 0 && y + height >= 0 && x < frameWidth && y < frameHeight;
+    }
 
-        double fontScale = 0.5;
-        int thickness = 1;
-        int[] baseline = new int[1];
-        Size textSize = opencv_imgproc.getTextSize(label, opencv_imgproc.FONT_HERSHEY_SIMPLEX, fontScale, thickness, baseline);
-        double textX = x1;
-        double textY = Math.max(15, y1 - 5);
-        Point textOrigin = new Point((int) Math.round(textX), (int) Math.round(textY));
-        Point backgroundPt2 = new Point(
-            (int) Math.round(textX + textSize.width()),
-            (int) Math.round(textY + textSize.height() + baseline[0])
-        );
+    private void drawTracker(Mat frame, TrackTable tracks, int row, RenderContext context) {
+        int x1 = Math.round(tracks.getX(row));
+        int y1 = Math.round(tracks.getY(row));
+        int x2 = Math.round(tracks.getX(row) + tracks.getWidth(row));
+        int y2 = Math.round(tracks.getY(row) + tracks.getHeight(row));
+        opencv_imgproc.rectangle(frame, context.point(0, x1, y1), context.point(1, x2, y2),
+            COLOR_BOX, 2, opencv_imgproc.LINE_8, 0);
 
-        opencv_imgproc.rectangle(frame, textOrigin, backgroundPt2, COLOR_TEXT_BG, opencv_imgproc.FILLED, 0, 0);
-        opencv_imgproc.putText(
+        LabelText prefix = context.labelText(tracks.getTrackId(row), tracks.getLabel(row));
+        int percent = Math.max(0, Math.min(100, Math.round(tracks.getConfidence(row) * 100f)));
+        int textY = Math.max(15, y1 - 5);
+        opencv_imgproc.rectangle(
             frame,
-            label,
-            new Point(
-                (int) Math.round(textX),
-                (int) Math.round(textY + textSize.height())
-            ),
-            opencv_imgproc.FONT_HERSHEY_SIMPLEX,
-            fontScale,
-            COLOR_TEXT,
-            thickness,
-            opencv_imgproc.LINE_AA,
-            false
+            context.point(0, x1, textY),
+            context.point(1, x1 + prefix.width + PERCENT_WIDTH[percent], textY + TEXT_HEIGHT + TEXT_BASELINE),
+            COLOR_TEXT_BG,
+            opencv_imgproc.FILLED,
+            0,
+            0
         );
+        int baselineY = textY + TEXT_HEIGHT;
+        opencv_imgproc.putText(frame, prefix.text, context.point(0, x1, baselineY),
+            FONT, FONT_SCALE, COLOR_TEXT, TEXT_THICKNESS, opencv_imgproc.LINE_AA, false);
+        opencv_imgproc.putText(frame, PERCENT_TEXT[percent], context.point(1, x1 + prefix.width, baselineY),
+            FONT, FONT_SCALE, COLOR_TEXT, TEXT_THICKNESS, opencv_imgproc.LINE_AA, false);
     }
 
-    private void drawPredictedPath(Mat frame, List<TrajectoryPredictor.Point> path) {
-        for (int i = 0; i < path.size() - 1; i++) {
-            TrajectoryPredictor.Point from = path.get(i);
-            TrajectoryPredictor.Point to = path.get(i + 1);
-            opencv_imgproc.line(
-                frame,
-                new Point(
-                    (int) Math.round(from.getX()),
-                    (int) Math.round(from.getY())
-                ),
-                new Point(
-                    (int) Math.round(to.getX()),
-                    (int) Math.round(to.getY())
-                ),
-                COLOR_PATH,
-                1,
-                opencv_imgproc.LINE_8,
-                0
+    private void addPredictedPath(TrackTable tracks, int row, RenderContext context) {
+        int length = tracks.getPathLength(row);
+        context.beginContour();
+        for (int i = 0; i < length; i++) {
+            context.addPathPoint(
+                Math.round(tracks.getPathX(row, i)),
+                Math.round(tracks.getPathY(row, i))
             );
         }
     }
-}
 
+    /**
+     * Cached "#id label " prefix of a track's caption.
+     */
+    private static final class LabelText {
+        private final String label;
+        private final BytePointer text;
+        private final int width;
+
+        LabelText(String trackId, String label) {
+            String shortId = trackId.length() > 6 ? trackId.substring(0, 6) : trackId;
+            this.label = label;
+            this.text = new BytePointer("#" + shortId + " " + label + " ");
+            int[] baseline = new int[1];
+            try (Size size = opencv_imgproc.getTextSize(text, FONT, FONT_SCALE, TEXT_THICKNESS, baseline)) {
+                this.width = size.width();
+            }
+        }
+    }
+
+    /**
+     * Per-thread native scratch state reused across frames.
+     */
+    private static final class RenderContext {
+        private final Point[] points = {new Point(), new Point()};
+        private final Map<String, LabelText> labels = new LinkedHashMap<>(LABEL_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LabelText> eldest) {
+                if (size() > LABEL_CACHE_SIZE) {
+                    eldest.getValue().text.close();
+                    return true;
+                }
+                return false;
+            }
+        };
+        private Point pathPoints;
+        private IntPointer contourLengths;
+        private LongPointer contourAddresses;
+        private PointerPointer<Point> contours;
+        private int pointCapacity;
+        private int contourCapacity;
+        private int pointCount;
+        private int contourCount;
+
+        Point point(int index, int x, int y) {
+            return points[index].x(x).y(y);
+        }
+
+        LabelText labelText(String trackId, String label) {
+            LabelText cached = labels.get(trackId);
+            if (cached == null || !cached.label.equals(label)) {
+                if (cached != null) {
+                    cached.text.close();
+                }
+                cached = new LabelText(trackId, label);
+                labels.put(trackId, cached);
+            }
+            return cached;
+        }
+
+        void beginPaths(int maxPoints) {
+            pointCount = 0;
+            contourCount = 0;
+            if (maxPoints > pointCapacity) {
+                pointCapacity = Math.max(maxPoints, pointCapacity * 2);
+                // Free the old buffers now, like the label texts, rather than when the GC gets to them.
+                if (pathPoints != null) {
+                    pathPoints.close();
+                }
+                pathPoints = new Point(pointCapacity);
+            }
+            // A contour has at least two points.
+            int maxContours = maxPoints / 2 + 1;
+            if (maxContours > contourCapacity) {
+                contourCapacity = Math.max(maxContours, contourCapacity * 2);
+                if (contours != null) {
+                    contours.close();
+                    contourAddresses.close();
+                    contourLengths.close();
+                }
+                contourLengths = new IntPointer(contourCapacity);
+                contourAddresses = new LongPointer(contourCapacity);
+                contours = new PointerPointer<>(contourAddresses);
+            }
+        }
+
+        void beginContour() {
+            contourAddresses.put(contourCount, pathPoints.address() + (long) pointCount * pathPoints.sizeof());
+            contourLengths.put(contourCount, 0);
+            contourCount++;
+        }
+
+        void addPathPoint(int x, int y) {
+            pathPoints.position(pointCount).x(x).y(y);
+            pointCount++;
+            int contour = contourCount - 1;
+            contourLengths.put(contour, contourLengths.get(contour) + 1);
+        }
+
+        void drawPaths(Mat frame) {
+            if (contourCount == 0) {
+                return;
+            }
+            pathPoints.position(0);
+            opencv_imgproc.polylines(frame, contours, contourLengths, contourCount, false,
+                COLOR_PATH, 1, opencv_imgproc.LINE_8, 0);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.starwatchx.loadtest;
+
+import com.starwatchx.util.ThreadUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads one camera's MJPEG stream from the annotated-frame endpoint and throws it away, so the
+ * engine renders the HUD and encodes JPEGs for that camera as it would for an operator.
+ */
+final class HudSubscriber {
+
+    private final URL url;
+    private final AtomicLong bytes = new AtomicLong();
+    private volatile boolean running;
+
+    HudSubscriber(URL url) {
+        this.url = url;
+    }
+
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        Thread thread = ThreadUtils.createNamedThread(this::run, "loadtest-hud", true);
+        thread.start();
+    }
+
+    /**
+     * Lets the reader go at its next chunk or when the streamer closes the stream. Disconnecting
+     * from here would block on the stream the reader is parked in.
+     */
+    synchronized void stop() {
+        running = false;
+    }
+
+    /**
+     * MJPEG bytes received so far.
+     */
+    long getBytes() {
+        return bytes.get();
+    }
+
+    private void run() {
+        byte[] buffer = new byte[64 * 1024];
+        try {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            try (InputStream in = connection.getInputStream()) {
+                int read;
+                while (running && (read = in.read(buffer)) >= 0) {
+                    bytes.addAndGet(read);
+                }
+            }
+        } catch (IOException e) {
+            if (running) {
+                System.err.println("[LoadTest] HUD stream " + url + " failed: " + e.getMessage());
+            }
+        }
+    }
+}
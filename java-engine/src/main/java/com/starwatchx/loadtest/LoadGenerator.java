@@ -0,0 +1,252 @@
+package com.starwatchx.loadtest;
+
+import com.starwatchx.config.EngineConfig;
+import com.starwatchx.detection.ONNXModelLoader;
+import com.starwatchx.detection.ObjectDetector;
+import com.starwatchx.metrics.PipelineMetrics;
+import com.starwatchx.telemetry.TelemetryServer;
+import com.starwatchx.video.FrameProcessor;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the real frame pipeline with synthetic cameras and simulated telemetry clients to find
+ * the load a node sustains: {@code N} virtual cameras at a fixed rate with {@code M} crossing and
+ * occluding objects each, optional inference on the synthetic frames, optional HUD rendering
+ * through one MJPEG subscriber per camera, and {@code K} WebSocket clients spread over the wire
+ * formats. After a warm-up it measures for the configured duration, logging progress every
+ * {@value #PROGRESS_SECONDS} s, and prints a {@link LoadReport}.
+ * <p>
+ * The clients run in the engine's process and share its CPUs; their decoding is light, but on a
+ * saturated node the report errs on the pessimistic side.
+ */
+public final class LoadGenerator {
+
+    private static final int PROGRESS_SECONDS = 10;
+    private static final long CONNECT_TIMEOUT_MS = 5_000L;
+    /** The server binds on its own thread, so the first clients may arrive before it listens. */
+    private static final int CONNECT_ATTEMPTS = 3;
+    private static final long CONNECT_RETRY_MS = 500L;
+
+    private final EngineConfig.LoadTestConfig config;
+    private final SyntheticDetector detector;
+    private final List<SyntheticScene> scenes = new ArrayList<>();
+    private final List<String> cameraIds = new ArrayList<>();
+
+    /**
+     * @param modelLoader loader for the model run when inference is on; unused otherwise
+     */
+    public LoadGenerator(EngineConfig.LoadTestConfig config, ONNXModelLoader modelLoader) {
+        this.config = config;
+        this.detector = new SyntheticDetector(modelLoader, config.isInference());
+        for (int i = 0; i < config.getCameras(); i++) {
+            String cameraId = String.format(Locale.ROOT, "SIM-%02d", i + 1);
+            SyntheticScene scene = new SyntheticScene(cameraId, config.getFrameWidth(), config.getFrameHeight(),
+                config.getObjectsPerCamera(), config.getSeed() + i);
+            scenes.add(scene);
+            cameraIds.add(cameraId);
+            detector.addScene(scene);
+        }
+    }
+
+    /**
+     * Detector to build the {@link FrameProcessor} with; initialize it only if inference is on.
+     */
+    public ObjectDetector getDetector() {
+        return detector;
+    }
+
+    /**
+     * Ids of the virtual cameras, {@code SIM-01} onwards.
+     */
+    public List<String> getCameraIds() {
+        return List.copyOf(cameraIds);
+    }
+
+    /**
+     * Connects the clients, starts the cameras, and blocks for the warm-up and the measurement.
+     *
+     * @param telemetryPort port the telemetry server listens on
+     * @param hudPort       port of the annotated-frame streamer, which must be running if the HUD
+     *                      rate is above zero
+     * @return the report of the measured period
+     */
+    public LoadReport run(FrameProcessor frameProcessor,
+                          TelemetryServer telemetryServer,
+                          PipelineMetrics metrics,
+                          int telemetryPort,
+                          int hudPort) throws InterruptedException {
+        List<SimulatedClient> clients = connectClients(telemetryPort);
+        List<HudSubscriber> hudSubscribers = startHudSubscribers(hudPort);
+        VirtualCameras cameras = new VirtualCameras(scenes, frameProcessor, config.getFps(),
+            config.isInference() || config.getHudFps() > 0);
+        System.out.println("[LoadTest] " + describe() + "; warming up for " + config.getWarmupSeconds() + " s");
+        cameras.start();
+        try {
+            TimeUnit.SECONDS.sleep(config.getWarmupSeconds());
+            Sample start = sample(cameras, clients, hudSubscribers);
+            Sample previous = start;
+            long end = start.nanos + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+            while (true) {
+                long remaining = end - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.SECONDS.toNanos(PROGRESS_SECONDS)));
+                Sample current = sample(cameras, clients, hudSubscribers);
+                printProgress(start, previous, current, clients);
+                previous = current;
+            }
+            // Client stats are gone once a client disconnects, so the report is built first.
+            return new LoadReport(config, describe(), cameraIds, start, previous, metrics.summarize(),
+                telemetryServer.getClientStats(), clients.size(), countLost(clients));
+        } finally {
+            cameras.stop();
+            for (HudSubscriber subscriber : hudSubscribers) {
+                subscriber.stop();
+            }
+            for (SimulatedClient client : clients) {
+                client.close();
+            }
+        }
+    }
+
+    private String describe() {
+        return String.format(Locale.ROOT,
+            "%d cameras x %d objects at %d fps (%dx%d), inference %s, HUD %s, %d clients (%s)",
+            config.getCameras(), config.getObjectsPerCamera(), config.getFps(),
+            config.getFrameWidth(), config.getFrameHeight(),
+            config.isInference() ? "on" : "off",
+            config.getHudFps() > 0 ? "at " + config.getHudFps() + " fps" : "off",
+            config.getClients(), String.join("/", config.getClientFormats()));
+    }
+
+    private List<SimulatedClient> connectClients(int telemetryPort) throws InterruptedException {
+        List<SimulatedClient> clients = new ArrayList<>(config.getClients());
+        URI uri = URI.create("ws://localhost:" + telemetryPort + "/");
+        List<String> formats = config.getClientFormats();
+        for (int i = 0; i < config.getClients(); i++) {
+            SimulatedClient client = new SimulatedClient(uri, formats.get(i % formats.size()));
+            boolean connected = client.connectBlocking(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            for (int attempt = 1; !connected && attempt < CONNECT_ATTEMPTS; attempt++) {
+                TimeUnit.MILLISECONDS.sleep(CONNECT_RETRY_MS);
+                connected = client.reconnectBlocking();
+            }
+            if (connected) {
+                clients.add(client);
+            } else {
+                System.err.println("[LoadTest] Client " + (i + 1) + " could not connect to " + uri);
+            }
+        }
+        System.out.println("[LoadTest] Connected " + clients.size() + " of " + config.getClients() + " clients");
+        return clients;
+    }
+
+    private List<HudSubscriber> startHudSubscribers(int hudPort) {
+        List<HudSubscriber> subscribers = new ArrayList<>();
+        if (config.getHudFps() <= 0) {
+            return subscribers;
+        }
+        for (String cameraId : cameraIds) {
+            try {
+                HudSubscriber subscriber = new HudSubscriber(
+                    new URL("http://localhost:" + hudPort + "/frames/" + cameraId + "?fps=" + config.getHudFps()));
+                subscriber.start();
+                subscribers.add(subscriber);
+            } catch (MalformedURLException e) {
+                System.err.println("[LoadTest] Invalid HUD stream URL for " + cameraId + ": " + e.getMessage());
+            }
+        }
+        return subscribers;
+    }
+
+    private void printProgress(Sample start, Sample previous, Sample current, List<SimulatedClient> clients) {
+        double seconds = (current.nanos - previous.nanos) / 1_000_000_000.0;
+        System.out.println(String.format(Locale.ROOT,
+            "[LoadTest] %3d s: %.1f fps per camera, %d late frames, %d/%d clients, %.0f msg/s, %.2f MB/s",
+            Math.round((current.nanos - start.nanos) / 1_000_000_000.0),
+            (current.totalFrames() - previous.totalFrames()) / seconds / Math.max(1, cameraIds.size()),
+            current.totalLateFrames() - previous.totalLateFrames(),
+            clients.size() - countLost(clients), clients.size(),
+            (current.clientMessages - previous.clientMessages) / seconds,
+            (current.clientBytes - previous.clientBytes) / seconds / (1 << 20)));
+    }
+
+    private static int countLost(List<SimulatedClient> clients) {
+        int lost = 0;
+        for (SimulatedClient client : clients) {
+            if (client.isLost()) {
+                lost++;
+            }
+        }
+        return lost;
+    }
+
+    private static Sample sample(VirtualCameras cameras, List<SimulatedClient> clients, List<HudSubscriber> hudSubscribers) {
+        long messages = 0;
+        long bytes = 0;
+        long frames = 0;
+        long resyncs = 0;
+        for (SimulatedClient client : clients) {
+            messages += client.getMessages();
+            bytes += client.getBytes();
+            frames += client.getFrames();
+            resyncs += client.getResyncs();
+        }
+        long hudBytes = 0;
+        for (HudSubscriber subscriber : hudSubscribers) {
+            hudBytes += subscriber.getBytes();
+        }
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0L, collector.getCollectionCount());
+            gcMillis += Math.max(0L, collector.getCollectionTime());
+        }
+        long cpuNanos = ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os
+            ? os.getProcessCpuTime()
+            : -1L;
+        return new Sample(System.nanoTime(), cameras.getFrames(), cameras.getLateFrames(),
+            messages, bytes, frames, resyncs, hudBytes, gcCount, gcMillis, cpuNanos);
+    }
+
+    /**
+     * Cumulative counters at one instant; the report works on the difference of two.
+     */
+    record Sample(long nanos,
+                  long[] frames,
+                  long[] lateFrames,
+                  long clientMessages,
+                  long clientBytes,
+                  long clientFrames,
+                  long clientResyncs,
+                  long hudBytes,
+                  long gcCount,
+                  long gcMillis,
+                  long cpuNanos) {
+
+        long totalFrames() {
+            long total = 0;
+            for (long count : frames) {
+                total += count;
+            }
+            return total;
+        }
+
+        long totalLateFrames() {
+            long total = 0;
+            for (long count : lateFrames) {
+                total += count;
+            }
+            return total;
+        }
+    }
+}
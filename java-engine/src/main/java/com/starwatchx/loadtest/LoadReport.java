@@ -0,0 +1,184 @@
+package com.starwatchx.loadtest;
+
+import com.starwatchx.config.EngineConfig;
+import com.starwatchx.metrics.PipelineMetrics;
+import com.starwatchx.metrics.PipelineStage;
+import com.starwatchx.telemetry.TelemetryClientStats;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Throughput and latency of a {@link LoadGenerator} run. Stage percentiles are those of the
+ * worst camera in the metrics window, which the load test sizes to the measurement; client
+ * ages are the median and the worst client. The run passes if every camera kept at least
+ * {@value #MIN_RATE_PERCENT}% of the target rate, no client was lost, and every client's p99
+ * render age stayed within the SLA.
+ */
+public final class LoadReport {
+
+    private static final int MIN_RATE_PERCENT = 95;
+
+    private final EngineConfig.LoadTestConfig config;
+    private final List<String> lines = new ArrayList<>();
+    private final List<String> failures = new ArrayList<>();
+
+    LoadReport(EngineConfig.LoadTestConfig config,
+               String description,
+               List<String> cameraIds,
+               LoadGenerator.Sample start,
+               LoadGenerator.Sample end,
+               List<PipelineMetrics.StageSummary> stages,
+               List<TelemetryClientStats> clientStats,
+               int clients,
+               int lostClients) {
+        this.config = config;
+        double seconds = Math.max(1e-9, (end.nanos() - start.nanos()) / 1_000_000_000.0);
+        lines.add(description + ", measured over " + Math.round(seconds) + " s");
+        addFrames(cameraIds, start, end, seconds);
+        addStages(Set.copyOf(cameraIds), stages);
+        addClients(start, end, seconds, clientStats, clients, lostClients);
+        if (end.hudBytes() > start.hudBytes()) {
+            lines.add(String.format(Locale.ROOT, "HUD streams: %.2f MB/s of MJPEG",
+                (end.hudBytes() - start.hudBytes()) / seconds / (1 << 20)));
+        }
+        addProcess(start, end, seconds);
+    }
+
+    /**
+     * True if the node sustained the load; see the class comment.
+     */
+    public boolean passed() {
+        return failures.isEmpty();
+    }
+
+    public void print() {
+        System.out.println("[LoadTest] ==== Load test report ====");
+        for (String line : lines) {
+            System.out.println("[LoadTest] " + line);
+        }
+        System.out.println("[LoadTest] Result: " + (passed() ? "PASS" : "FAIL - " + String.join("; ", failures)));
+    }
+
+    private void addFrames(List<String> cameraIds, LoadGenerator.Sample start, LoadGenerator.Sample end, double seconds) {
+        double slowest = Double.MAX_VALUE;
+        String slowestCamera = "-";
+        for (int i = 0; i < cameraIds.size(); i++) {
+            double fps = (end.frames()[i] - start.frames()[i]) / seconds;
+            if (fps < slowest) {
+                slowest = fps;
+                slowestCamera = cameraIds.get(i);
+            }
+        }
+        if (cameraIds.isEmpty()) {
+            slowest = 0.0;
+        }
+        long frames = end.totalFrames() - start.totalFrames();
+        double perCamera = frames / seconds / Math.max(1, cameraIds.size());
+        lines.add(String.format(Locale.ROOT,
+            "Frames: %d processed, %.1f fps per camera (%.1f%% of %d), slowest %s at %.1f fps, %d late frames skipped",
+            frames, perCamera, 100.0 * perCamera / config.getFps(), config.getFps(), slowestCamera, slowest,
+            end.totalLateFrames() - start.totalLateFrames()));
+        if (slowest < config.getFps() * MIN_RATE_PERCENT / 100.0) {
+            failures.add(String.format(Locale.ROOT, "%s fell to %.1f fps", slowestCamera, slowest));
+        }
+    }
+
+    private void addStages(Set<String> cameraIds, List<PipelineMetrics.StageSummary> stages) {
+        lines.add("Stage latency, worst camera p50/p99/max ms (count):");
+        for (PipelineStage stage : PipelineStage.values()) {
+            PipelineMetrics.StageSummary worst = null;
+            long count = 0;
+            for (PipelineMetrics.StageSummary summary : stages) {
+                if (summary.stage() != stage || !cameraIds.contains(summary.scope())) {
+                    continue;
+                }
+                count += summary.count();
+                if (worst == null || summary.p99Nanos() > worst.p99Nanos()) {
+                    worst = summary;
+                }
+            }
+            if (worst != null) {
+                lines.add(String.format(Locale.ROOT, "  %-10s %s/%s/%s (%d)", stage.label(),
+                    millis(worst.p50Nanos()), millis(worst.p99Nanos()), millis(worst.maxNanos()), count));
+            }
+        }
+        for (PipelineMetrics.StageSummary summary : stages) {
+            if (PipelineMetrics.TELEMETRY.equals(summary.scope())) {
+                lines.add(String.format(Locale.ROOT, "  %-10s %s/%s/%s (%d, all cameras)", summary.stage().label(),
+                    millis(summary.p50Nanos()), millis(summary.p99Nanos()), millis(summary.maxNanos()), summary.count()));
+            }
+        }
+    }
+
+    private void addClients(LoadGenerator.Sample start,
+                            LoadGenerator.Sample end,
+                            double seconds,
+                            List<TelemetryClientStats> clientStats,
+                            int clients,
+                            int lostClients) {
+        long coalesced = 0;
+        long dropped = 0;
+        List<Long> delivery = new ArrayList<>();
+        List<Long> render = new ArrayList<>();
+        for (TelemetryClientStats client : clientStats) {
+            coalesced += client.coalescedFrames();
+            dropped += client.droppedMessages();
+            if (client.delivery() != null) {
+                delivery.add(client.delivery().p99Nanos());
+            }
+            if (client.render() != null) {
+                render.add(client.render().p99Nanos());
+            }
+        }
+        lines.add(String.format(Locale.ROOT,
+            "Clients: %d of %d connected, %.0f msg/s, %.2f MB/s, %.0f frames/s received, %d delta resyncs",
+            clients - lostClients, config.getClients(),
+            (end.clientMessages() - start.clientMessages()) / seconds,
+            (end.clientBytes() - start.clientBytes()) / seconds / (1 << 20),
+            (end.clientFrames() - start.clientFrames()) / seconds,
+            end.clientResyncs() - start.clientResyncs()));
+        lines.add("Server: " + coalesced + " frames coalesced for slow clients, " + dropped + " events dropped");
+        lines.add("Delivery age p99 ms: " + spread(delivery));
+        lines.add("Render age p99 ms: " + spread(render) + ", SLA " + config.getLatencySlaMs() + " ms");
+        if (clients < config.getClients() || lostClients > 0) {
+            failures.add((config.getClients() - clients + lostClients) + " clients not connected at the end");
+        }
+        long worstRender = render.isEmpty() ? 0L : Collections.max(render);
+        if (worstRender > config.getLatencySlaMs() * 1_000_000L) {
+            failures.add("p99 render age " + millis(worstRender) + " ms over the SLA");
+        }
+    }
+
+    private void addProcess(LoadGenerator.Sample start, LoadGenerator.Sample end, double seconds) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        String cpu = start.cpuNanos() >= 0 && end.cpuNanos() >= 0
+            ? String.format(Locale.ROOT, "%.0f%% of %d cores",
+                100.0 * (end.cpuNanos() - start.cpuNanos()) / (seconds * 1_000_000_000.0 * cores), cores)
+            : "unavailable";
+        lines.add(String.format(Locale.ROOT, "Process: CPU %s, %d GCs taking %d ms, heap %d MB used",
+            cpu, end.gcCount() - start.gcCount(), end.gcMillis() - start.gcMillis(),
+            ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20));
+    }
+
+    /**
+     * Median and worst of per-client values.
+     */
+    private static String spread(List<Long> values) {
+        if (values.isEmpty()) {
+            return "none reported";
+        }
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return "median client " + millis(sorted.get(sorted.size() / 2))
+            + ", worst client " + millis(sorted.get(sorted.size() - 1));
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,222 @@
+package com.starwatchx.loadtest;
+
+import com.starwatchx.telemetry.TelemetryProtocol;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.handshake.ServerHandshake;
+import org.java_websocket.protocols.Protocol;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A telemetry client that behaves like the dashboard on the wire: it offers permessage-deflate,
+ * decodes just enough of every frame to know its camera, sequence and capture time, asks for a
+ * keyframe when a delta stream has a gap, and reports the age of the frames it received the way
+ * the dashboard reports the frames it drew, so the server's delivery and render percentiles cover
+ * it. It renders nothing, so it only costs the engine's host the decoding.
+ */
+final class SimulatedClient extends WebSocketClient {
+
+    private static final long REPORT_INTERVAL_MS = 2_000L;
+    private static final int MAX_REPORTED_AGES = 256;
+    private static final String JSON_PACKET = "{\"cameraId\":";
+    private static final String JSON_TIMESTAMP = ",\"timestamp\":";
+
+    private final String format;
+    private final boolean delta;
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+    /** Last delta-stream sequence by camera, -1 while waiting for a keyframe; socket thread only. */
+    private final Map<String, Integer> sequences = new HashMap<>();
+    /** Uniform sample of the ages received since the last report; socket thread only. */
+    private final long[] ages = new long[MAX_REPORTED_AGES];
+    private int ageCount;
+    private long agesSeen;
+    private long nextReport = System.currentTimeMillis() + REPORT_INTERVAL_MS;
+    private volatile boolean closed;
+
+    /**
+     * @param format {@code delta}, {@code binary} or {@code json}
+     */
+    SimulatedClient(URI uri, String format) {
+        super(uri, new Draft_6455(List.of(new PerMessageDeflateExtension()), List.of(new Protocol(protocol(format)))));
+        this.format = format;
+        this.delta = "delta".equals(format);
+        setConnectionLostTimeout(0);
+    }
+
+    static String protocol(String format) {
+        return switch (format) {
+            case "delta" -> TelemetryProtocol.DELTA_V1;
+            case "binary" -> TelemetryProtocol.BINARY_V1;
+            case "json" -> TelemetryProtocol.JSON;
+            default -> throw new IllegalArgumentException("Unknown client format: " + format);
+        };
+    }
+
+    String getFormat() {
+        return format;
+    }
+
+    long getMessages() {
+        return messages.get();
+    }
+
+    long getBytes() {
+        return bytes.get();
+    }
+
+    long getFrames() {
+        return frames.get();
+    }
+
+    long getResyncs() {
+        return resyncs.get();
+    }
+
+    /**
+     * True once the server closed the connection or it failed.
+     */
+    boolean isLost() {
+        return closed;
+    }
+
+    @Override
+    public void onOpen(ServerHandshake handshake) {
+    }
+
+    @Override
+    public void onMessage(String message) {
+        messages.incrementAndGet();
+        bytes.addAndGet(message.length());
+        int packet = message.indexOf(JSON_PACKET);
+        while (packet >= 0) {
+            int start = message.indexOf(JSON_TIMESTAMP, packet);
+            if (start < 0) {
+                break;
+            }
+            start += JSON_TIMESTAMP.length();
+            int end = start;
+            while (end < message.length() && message.charAt(end) != ',' && message.charAt(end) != '}') {
+                end++;
+            }
+            received((long) Double.parseDouble(message.substring(start, end)));
+            packet = message.indexOf(JSON_PACKET, end);
+        }
+        reportAges();
+    }
+
+    @Override
+    public void onMessage(ByteBuffer message) {
+        messages.incrementAndGet();
+        bytes.addAndGet(message.remaining());
+        ByteBuffer buffer = message.order(ByteOrder.LITTLE_ENDIAN);
+        read(buffer, buffer.position());
+        reportAges();
+    }
+
+    @Override
+    public void onClose(int code, String reason, boolean remote) {
+        closed = true;
+    }
+
+    @Override
+    public void onError(Exception ex) {
+        System.err.println("[LoadTest] Client error: " + ex.getMessage());
+    }
+
+    private void read(ByteBuffer buffer, int offset) {
+        int type = buffer.get(offset + 3) & 0xFF;
+        switch (type) {
+            case TelemetryProtocol.TYPE_FRAME, TelemetryProtocol.TYPE_KEYFRAME, TelemetryProtocol.TYPE_DELTA -> {
+                int cameraLength = buffer.getShort(offset + TelemetryProtocol.HEADER_BYTES) & 0xFFFF;
+                int prefix = TelemetryProtocol.HEADER_BYTES + 2 + cameraLength;
+                int timestampAt = offset + prefix + ((4 - (prefix & 3)) & 3);
+                if (delta && type != TelemetryProtocol.TYPE_FRAME
+                    && !inSequence(buffer, offset, cameraLength, type, buffer.getInt(timestampAt + 8))) {
+                    return;
+                }
+                received((long) buffer.getDouble(timestampAt));
+            }
+            case TelemetryProtocol.TYPE_BATCH -> {
+                int count = buffer.getShort(offset + TelemetryProtocol.HEADER_BYTES) & 0xFFFF;
+                int position = offset + TelemetryProtocol.HEADER_BYTES + 4;
+                for (int i = 0; i < count; i++) {
+                    int length = buffer.getInt(position);
+                    read(buffer, position + 4);
+                    position += 4 + ((length + 3) & ~3);
+                }
+            }
+            default -> {
+                // Label tables carry no frame.
+            }
+        }
+    }
+
+    /**
+     * Applies the dashboard's rule: a delta only counts on top of the previous sequence of its
+     * camera; after a gap, deltas are skipped and a keyframe is requested.
+     */
+    private boolean inSequence(ByteBuffer buffer, int offset, int cameraLength, int type, int sequence) {
+        byte[] camera = new byte[cameraLength];
+        buffer.get(offset + TelemetryProtocol.HEADER_BYTES + 2, camera);
+        String cameraId = new String(camera, StandardCharsets.UTF_8);
+        Integer previous = sequences.get(cameraId);
+        if (type == TelemetryProtocol.TYPE_KEYFRAME || (previous != null && previous != -1 && sequence == previous + 1)) {
+            sequences.put(cameraId, sequence);
+            return true;
+        }
+        if (previous == null || previous != -1) {
+            sequences.put(cameraId, -1);
+            resyncs.incrementAndGet();
+            send("{\"type\":\"" + TelemetryProtocol.RESYNC + "\",\"cameraId\":\"" + cameraId + "\"}");
+        }
+        return false;
+    }
+
+    private void received(long timestamp) {
+        frames.incrementAndGet();
+        long age = Math.max(0L, System.currentTimeMillis() - timestamp);
+        agesSeen++;
+        if (ageCount < ages.length) {
+            ages[ageCount++] = age;
+        } else {
+            long slot = ThreadLocalRandom.current().nextLong(agesSeen);
+            if (slot < ages.length) {
+                ages[(int) slot] = age;
+            }
+        }
+    }
+
+    private void reportAges() {
+        long now = System.currentTimeMillis();
+        if (now < nextReport || ageCount == 0) {
+            return;
+        }
+        nextReport = now + REPORT_INTERVAL_MS;
+        StringBuilder report = new StringBuilder(32 + ageCount * 4)
+            .append("{\"type\":\"").append(TelemetryProtocol.LATENCY).append("\",\"ages\":[");
+        for (int i = 0; i < ageCount; i++) {
+            if (i > 0) {
+                report.append(',');
+            }
+            report.append(ages[i]);
+        }
+        ageCount = 0;
+        agesSeen = 0;
+        if (isOpen()) {
+            send(report.append("]}").toString());
+        }
+    }
+}
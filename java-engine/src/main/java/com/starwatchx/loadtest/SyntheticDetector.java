@@ -0,0 +1,45 @@
+package com.starwatchx.loadtest;
+
+import com.starwatchx.detection.DetectedObject;
+import com.starwatchx.detection.ONNXModelLoader;
+import com.starwatchx.detection.ObjectDetector;
+import com.starwatchx.metrics.PipelineMetrics;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports the detections of each virtual camera's scene, as advanced by the camera thread, instead
+ * of what the model sees in the frame. With inference on, the model still runs on every frame and
+ * its stages are recorded, but its detections are discarded: flat boxes on a gray frame would not
+ * give the tracker a realistic load.
+ */
+final class SyntheticDetector extends ObjectDetector {
+
+    private final Map<String, SyntheticScene> scenes = new ConcurrentHashMap<>();
+    private final boolean inference;
+
+    SyntheticDetector(ONNXModelLoader modelLoader, boolean inference) {
+        super(modelLoader);
+        this.inference = inference;
+    }
+
+    void addScene(SyntheticScene scene) {
+        scenes.put(scene.getCameraId(), scene);
+    }
+
+    @Override
+    public List<DetectedObject> detect(Mat frame,
+                                       String cameraId,
+                                       long timestamp,
+                                       long frameSequence,
+                                       PipelineMetrics.Recorder metrics) {
+        if (inference) {
+            super.detect(frame, cameraId, timestamp, frameSequence, metrics);
+        }
+        SyntheticScene scene = scenes.get(cameraId);
+        return scene != null ? scene.getDetections() : List.of();
+    }
+}
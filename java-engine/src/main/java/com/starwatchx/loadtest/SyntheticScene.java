@@ -0,0 +1,203 @@
+package com.starwatchx.loadtest;
+
+import com.starwatchx.detection.DetectedObject;
+import com.starwatchx.util.MathUtils;
+import org.bytedeco.opencv.global.opencv_imgproc;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Point;
+import org.bytedeco.opencv.opencv_core.Scalar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Moving objects of one virtual camera and the detections a detector would report for them.
+ * <p>
+ * Half of the objects drive along horizontal lanes and the rest wander diagonally, all bouncing
+ * off the frame edges, so paths cross all the time. An object is not detected while its center
+ * is behind one of two pillars, while it mostly overlaps an object closer to the camera (lower in
+ * the frame), or on a random miss; detected boxes are jittered by a pixel or two. That keeps the
+ * tracker busy with coasting, re-association and crossing tracks rather than a clean 1:1 match.
+ * Owned by its camera thread.
+ */
+final class SyntheticScene {
+
+    private static final String[] LABELS = {"person", "car", "person", "truck", "bicycle"};
+    private static final int[] CLASS_IDS = {0, 2, 0, 7, 1};
+    /** Box size at 720 lines, by label index. */
+    private static final float[][] SIZES = {{40f, 90f}, {120f, 70f}, {40f, 90f}, {180f, 100f}, {50f, 60f}};
+    private static final float PILLAR_WIDTH = 0.05f;
+    private static final float[] PILLAR_CENTERS = {0.3f, 0.7f};
+    private static final float OCCLUSION_IOU = 0.4f;
+    private static final float MISS_PROBABILITY = 0.02f;
+    private static final float JITTER_PX = 1.5f;
+    private static final float MAX_STEP_SECONDS = 0.2f;
+
+    private static final Scalar BACKGROUND = new Scalar(64.0, 64.0, 64.0, 0.0);
+    private static final Scalar PILLAR = new Scalar(32.0, 32.0, 32.0, 0.0);
+    private static final Scalar[] COLORS = {
+        new Scalar(40.0, 160.0, 220.0, 0.0),
+        new Scalar(200.0, 80.0, 40.0, 0.0),
+        new Scalar(40.0, 160.0, 220.0, 0.0),
+        new Scalar(60.0, 60.0, 200.0, 0.0),
+        new Scalar(80.0, 200.0, 80.0, 0.0)
+    };
+
+    private final String cameraId;
+    private final int width;
+    private final int height;
+    private final Random random;
+    private final int[] kinds;
+    private final float[] x;
+    private final float[] y;
+    private final float[] boxWidth;
+    private final float[] boxHeight;
+    private final float[] velocityX;
+    private final float[] velocityY;
+    private final boolean[] visible;
+    private final Point first = new Point();
+    private final Point second = new Point();
+    private List<DetectedObject> detections = List.of();
+    private long lastTimestamp = -1L;
+
+    SyntheticScene(String cameraId, int width, int height, int objects, long seed) {
+        this.cameraId = cameraId;
+        this.width = width;
+        this.height = height;
+        this.random = new Random(seed);
+        this.kinds = new int[objects];
+        this.x = new float[objects];
+        this.y = new float[objects];
+        this.boxWidth = new float[objects];
+        this.boxHeight = new float[objects];
+        this.velocityX = new float[objects];
+        this.velocityY = new float[objects];
+        this.visible = new boolean[objects];
+        float scale = height / 720f;
+        for (int i = 0; i < objects; i++) {
+            int kind = i % LABELS.length;
+            kinds[i] = kind;
+            boxWidth[i] = SIZES[kind][0] * scale;
+            boxHeight[i] = SIZES[kind][1] * scale;
+            x[i] = random.nextFloat() * (width - boxWidth[i]);
+            y[i] = random.nextFloat() * (height - boxHeight[i]);
+            float speed = (60f + random.nextFloat() * 180f) * scale;
+            if (i % 2 == 0) {
+                velocityX[i] = random.nextBoolean() ? speed : -speed;
+            } else {
+                double angle = random.nextDouble() * 2.0 * Math.PI;
+                velocityX[i] = (float) (speed * Math.cos(angle));
+                velocityY[i] = (float) (speed * Math.sin(angle));
+            }
+        }
+    }
+
+    String getCameraId() {
+        return cameraId;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Detections of the positions at the last {@link #advance(long)}.
+     */
+    List<DetectedObject> getDetections() {
+        return detections;
+    }
+
+    /**
+     * Moves every object to {@code timestamp} and detects them at the new positions.
+     */
+    void advance(long timestamp) {
+        float seconds = lastTimestamp < 0 ? 0f : Math.min(MAX_STEP_SECONDS, (timestamp - lastTimestamp) / 1_000f);
+        lastTimestamp = timestamp;
+        for (int i = 0; i < x.length; i++) {
+            x[i] += velocityX[i] * seconds;
+            y[i] += velocityY[i] * seconds;
+            if (x[i] < 0f || x[i] > width - boxWidth[i]) {
+                velocityX[i] = -velocityX[i];
+                x[i] = Math.max(0f, Math.min(width - boxWidth[i], x[i]));
+            }
+            if (y[i] < 0f || y[i] > height - boxHeight[i]) {
+                velocityY[i] = -velocityY[i];
+                y[i] = Math.max(0f, Math.min(height - boxHeight[i], y[i]));
+            }
+        }
+        markVisible();
+
+        detections = new ArrayList<>(x.length);
+        for (int i = 0; i < x.length; i++) {
+            if (!visible[i] || random.nextFloat() < MISS_PROBABILITY) {
+                continue;
+            }
+            int kind = kinds[i];
+            detections.add(new DetectedObject(
+                cameraId,
+                CLASS_IDS[kind],
+                LABELS[kind],
+                0.6f + random.nextFloat() * 0.35f,
+                x[i] + (float) random.nextGaussian() * JITTER_PX,
+                y[i] + (float) random.nextGaussian() * JITTER_PX,
+                boxWidth[i],
+                boxHeight[i],
+                timestamp
+            ));
+        }
+    }
+
+    /**
+     * Paints the pillars and the visible objects as flat boxes, for a detector or the HUD to see.
+     */
+    void draw(Mat frame) {
+        frame.put(BACKGROUND);
+        for (float center : PILLAR_CENTERS) {
+            fill(frame, (center - PILLAR_WIDTH / 2f) * width, 0f, (center + PILLAR_WIDTH / 2f) * width, height, PILLAR);
+        }
+        for (int i = 0; i < x.length; i++) {
+            if (visible[i]) {
+                fill(frame, x[i], y[i], x[i] + boxWidth[i], y[i] + boxHeight[i], COLORS[kinds[i]]);
+            }
+        }
+    }
+
+    private void markVisible() {
+        for (int i = 0; i < x.length; i++) {
+            visible[i] = !behindPillar(x[i] + boxWidth[i] / 2f);
+        }
+        for (int i = 0; i < x.length; i++) {
+            for (int j = i + 1; j < x.length; j++) {
+                if (MathUtils.iou(x[i], y[i], boxWidth[i], boxHeight[i],
+                    x[j], y[j], boxWidth[j], boxHeight[j]) > OCCLUSION_IOU) {
+                    // The object whose bottom edge is higher is further away.
+                    if (y[i] + boxHeight[i] < y[j] + boxHeight[j]) {
+                        visible[i] = false;
+                    } else {
+                        visible[j] = false;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean behindPillar(float centerX) {
+        for (float center : PILLAR_CENTERS) {
+            if (Math.abs(centerX / width - center) < PILLAR_WIDTH / 2f) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void fill(Mat frame, float x1, float y1, float x2, float y2, Scalar color) {
+        first.x(Math.round(x1)).y(Math.round(y1));
+        second.x(Math.round(x2)).y(Math.round(y2));
+        opencv_imgproc.rectangle(frame, first, second, color, opencv_imgproc.FILLED, opencv_imgproc.LINE_8, 0);
+    }
+}
@@ -0,0 +1,135 @@
+package com.starwatchx.loadtest;
+
+import com.starwatchx.util.ThreadUtils;
+import com.starwatchx.video.FrameProcessor;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One thread per synthetic scene that hands frames to the {@link FrameProcessor} at a fixed
+ * rate, the way a camera delivers them whether or not the engine keeps up. A frame whose slot
+ * has already passed when the previous one finishes is counted as late and skipped, so late
+ * frames mean the node cannot sustain the rate. There is no decode: the frame is a preallocated
+ * Mat, painted with the scene only if something looks at the pixels.
+ */
+final class VirtualCameras {
+
+    private static final Scalar BACKGROUND = new Scalar(64.0, 64.0, 64.0, 0.0);
+
+    private final List<SyntheticScene> scenes;
+    private final FrameProcessor frameProcessor;
+    private final long intervalNanos;
+    private final double intervalMillis;
+    private final boolean drawFrames;
+    private final AtomicLongArray frames;
+    private final AtomicLongArray lateFrames;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    /**
+     * @param drawFrames paint every frame with its scene, for inference or the HUD
+     */
+    VirtualCameras(List<SyntheticScene> scenes, FrameProcessor frameProcessor, int fps, boolean drawFrames) {
+        this.scenes = scenes;
+        this.frameProcessor = frameProcessor;
+        this.intervalNanos = 1_000_000_000L / Math.max(1, fps);
+        this.intervalMillis = intervalNanos / 1_000_000.0;
+        this.drawFrames = drawFrames;
+        this.frames = new AtomicLongArray(scenes.size());
+        this.lateFrames = new AtomicLongArray(scenes.size());
+    }
+
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < scenes.size(); i++) {
+            int index = i;
+            Thread thread = ThreadUtils.createNamedThread(() -> run(index),
+                "loadtest-" + scenes.get(i).getCameraId(), true);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    synchronized void stop() {
+        running = false;
+        for (Thread thread : threads) {
+            try {
+                thread.join(5_000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        threads.clear();
+    }
+
+    /**
+     * Frames processed by each camera so far, in scene order.
+     */
+    long[] getFrames() {
+        return snapshot(frames);
+    }
+
+    /**
+     * Frames each camera skipped because the previous one was still being processed.
+     */
+    long[] getLateFrames() {
+        return snapshot(lateFrames);
+    }
+
+    private void run(int index) {
+        SyntheticScene scene = scenes.get(index);
+        String cameraId = scene.getCameraId();
+        Mat frame = new Mat(scene.getHeight(), scene.getWidth(), opencv_core.CV_8UC3, BACKGROUND);
+        long sequence = 0;
+        long due = System.nanoTime();
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                if (now < due) {
+                    LockSupport.parkNanos(due - now);
+                    continue;
+                }
+                long missed = (now - due) / intervalNanos;
+                if (missed > 0) {
+                    lateFrames.addAndGet(index, missed);
+                    sequence += missed;
+                    due += missed * intervalNanos;
+                }
+                due += intervalNanos;
+                sequence++;
+
+                long timestamp = System.currentTimeMillis();
+                long captured = System.nanoTime();
+                scene.advance(timestamp);
+                if (drawFrames) {
+                    scene.draw(frame);
+                }
+                frameProcessor.processFrame(frame, cameraId, timestamp, sequence, sequence * intervalMillis, captured, 0L);
+                frames.incrementAndGet(index);
+            }
+        } catch (Throwable t) {
+            System.err.println("[LoadTest] Camera " + cameraId + " stopped: " + t);
+            t.printStackTrace();
+        } finally {
+            frame.close();
+        }
+    }
+
+    private static long[] snapshot(AtomicLongArray counters) {
+        long[] values = new long[counters.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = counters.get(i);
+        }
+        return values;
+    }
+}
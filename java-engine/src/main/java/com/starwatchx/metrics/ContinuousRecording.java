@@ -0,0 +1,110 @@
+package com.starwatchx.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Always-on Flight Recorder recording of the JDK's default events plus the frame pipeline events
+ * and extra settings of the bundled {@code starwatchx.jfc}.
+ * <p>
+ * The recording is kept on disk, bounded by age and size, and is written to
+ * {@code <directory>/starwatchx-<start time>.jfr} when the engine stops. To capture a spike while
+ * the engine keeps running, dump it with
+ * {@code jcmd <pid> JFR.dump name=starwatchx filename=spike.jfr}.
+ */
+public class ContinuousRecording implements AutoCloseable {
+
+    public static final String NAME = "starwatchx";
+    private static final String SETTINGS_RESOURCE = "/starwatchx.jfc";
+    private static final DateTimeFormatter FILE_TIME =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneId.systemDefault());
+
+    private final File directory;
+    private final Duration maxAge;
+    private final long maxBytes;
+    private Recording recording;
+
+    /**
+     * @param directory where the recording is written when the engine stops
+     * @param maxAge    oldest data kept in the recording
+     * @param maxBytes  disk space the recording may use; older chunks are discarded first
+     */
+    public ContinuousRecording(String directory, Duration maxAge, long maxBytes) {
+        this.directory = new File(directory);
+        this.maxAge = maxAge;
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized void start() {
+        if (recording != null) {
+            return;
+        }
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            settings.putAll(bundledSettings().getSettings());
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                System.err.println("[JFR] Cannot create " + directory.getPath());
+                return;
+            }
+            Recording started = new Recording(settings);
+            started.setName(NAME);
+            started.setToDisk(true);
+            started.setMaxAge(maxAge);
+            started.setMaxSize(maxBytes);
+            started.setDumpOnExit(true);
+            started.setDestination(new File(directory,
+                NAME + "-" + FILE_TIME.format(Instant.now()) + ".jfr").toPath());
+            started.start();
+            recording = started;
+            System.out.println("[JFR] Continuous recording '" + NAME + "' started, keeping " + maxAge.toMinutes()
+                + " min / " + (maxBytes >> 20) + " MiB, written to " + started.getDestination() + " on stop");
+        } catch (IOException | ParseException | IllegalStateException e) {
+            System.err.println("[JFR] Unable to start recording: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the recording, which writes it to its destination.
+     */
+    public synchronized void stop() {
+        if (recording == null) {
+            return;
+        }
+        try {
+            recording.stop();
+            System.out.println("[JFR] Recording written to " + recording.getDestination());
+        } catch (IllegalStateException e) {
+            System.err.println("[JFR] Unable to stop recording: " + e.getMessage());
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private static Configuration bundledSettings() throws IOException, ParseException {
+        try (InputStream in = ContinuousRecording.class.getResourceAsStream(SETTINGS_RESOURCE)) {
+            if (in == null) {
+                throw new IOException(SETTINGS_RESOURCE + " not on the classpath");
+            }
+            return Configuration.create(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+}
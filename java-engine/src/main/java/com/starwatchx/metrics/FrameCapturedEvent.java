@@ -0,0 +1,44 @@
+package com.starwatchx.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timestamp;
+
+/**
+ * Flight Recorder event spanning the grab of one camera frame; starts every frame's timeline.
+ */
+@Name(FrameCapturedEvent.NAME)
+@Label("Frame Captured")
+@Category({"StarWatch-X", "Frame Pipeline"})
+@Description("A camera frame was grabbed from its source")
+@StackTrace(false)
+public final class FrameCapturedEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.starwatchx.FrameCaptured";
+
+    @Label("Camera")
+    private String camera;
+
+    @Label("Frame")
+    @Description("Per-camera frame sequence, starting at 1")
+    private long frame;
+
+    @Label("Capture Time")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    private long captureTime;
+
+    /**
+     * Fills in the frame and commits the event if the recording wants it.
+     */
+    public void commit(String camera, long frame, long captureTime) {
+        if (shouldCommit()) {
+            this.camera = camera;
+            this.frame = frame;
+            this.captureTime = captureTime;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.starwatchx.metrics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Rebuilds per-frame timelines from a Flight Recorder recording and prints the slowest frames
+ * together with the GC pauses, safepoints and native method samples that overlapped them:
+ * <pre>
+ * java -cp target/classes com.starwatchx.metrics.FrameTimelineAnalyzer recording.jfr [slowest] [camera]
+ * </pre>
+ * A frame runs from the start of its {@link FrameCapturedEvent} to the end of its
+ * {@link TelemetrySentEvent}, or of its {@link TrackingEvent} if it was never sent.
+ */
+public final class FrameTimelineAnalyzer {
+
+    private static final int DEFAULT_SLOWEST = 20;
+    private static final int NATIVE_METHODS_SHOWN = 3;
+
+    private FrameTimelineAnalyzer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: FrameTimelineAnalyzer <recording.jfr> [slowest frames, default "
+                + DEFAULT_SLOWEST + "] [camera]");
+            System.exit(2);
+        }
+        int slowest = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SLOWEST;
+        String camera = args.length > 2 ? args[2] : null;
+
+        Map<String, Timeline> timelines = new LinkedHashMap<>();
+        List<Span> pauses = new ArrayList<>();
+        List<RecordedEvent> nativeSamples = new ArrayList<>();
+        try (RecordingFile recording = new RecordingFile(Path.of(args[0]))) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String type = event.getEventType().getName();
+                switch (type) {
+                    case FrameCapturedEvent.NAME, InferenceEvent.NAME, TrackingEvent.NAME, TelemetrySentEvent.NAME -> {
+                        String eventCamera = event.getString("camera");
+                        if (camera == null || camera.equals(eventCamera)) {
+                            timelines.computeIfAbsent(eventCamera + "#" + event.getLong("frame"),
+                                key -> new Timeline(eventCamera, event.getLong("frame"))).add(type, event);
+                        }
+                    }
+                    case "jdk.GCPhasePause" -> pauses.add(new Span(event.getString("name"), event));
+                    case "jdk.SafepointBegin" -> pauses.add(new Span("safepoint", event));
+                    case "jdk.NativeMethodSample" -> nativeSamples.add(event);
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        List<Timeline> complete = new ArrayList<>();
+        int unsent = 0;
+        for (Timeline timeline : timelines.values()) {
+            if (timeline.captured == null || timeline.end() == null) {
+                continue;
+            }
+            complete.add(timeline);
+            if (timeline.sent == null) {
+                unsent++;
+            }
+        }
+        if (complete.isEmpty()) {
+            System.out.println("No frame pipeline events" + (camera != null ? " for " + camera : "")
+                + "; record with starwatchx.jfc.");
+            return;
+        }
+        complete.sort(Comparator.comparing(Timeline::total));
+        System.out.printf(Locale.ROOT, "%d frames (%d not sent, replaced by newer frames), end to end p50 %s  p99 %s  max %s%n",
+            complete.size(), unsent,
+            millis(complete.get(complete.size() / 2).total()),
+            millis(complete.get((int) Math.min(complete.size() - 1L, Math.round(complete.size() * 0.99))).total()),
+            millis(complete.get(complete.size() - 1).total()));
+
+        pauses.sort(Comparator.comparing(span -> span.start));
+        List<Timeline> slowestFrames = complete.subList(Math.max(0, complete.size() - slowest), complete.size());
+        for (int i = slowestFrames.size() - 1; i >= 0; i--) {
+            print(slowestFrames.get(i), pauses, nativeSamples);
+        }
+    }
+
+    private static void print(Timeline frame, List<Span> pauses, List<RecordedEvent> nativeSamples) {
+        Instant start = frame.captured.getStartTime();
+        Instant end = frame.end();
+        System.out.printf(Locale.ROOT, "%n%s frame %d at %s: %s%n", frame.camera, frame.frame, start, millis(frame.total()));
+        step("capture", frame.captured, start);
+        step("inference", frame.inference, start);
+        step("tracking", frame.tracking, start);
+        step("sent", frame.sent, start);
+        for (Span pause : pauses) {
+            if (pause.start.isAfter(end)) {
+                break;
+            }
+            if (pause.end.isAfter(start)) {
+                System.out.printf(Locale.ROOT, "  %-10s +%s  %s%n", pause.what,
+                    millis(Duration.between(start, pause.start)), millis(Duration.between(pause.start, pause.end)));
+            }
+        }
+        Map<String, Integer> methods = new TreeMap<>();
+        long cameraThread = frame.captured.getThread() != null ? frame.captured.getThread().getJavaThreadId() : -1L;
+        for (RecordedEvent sample : nativeSamples) {
+            RecordedThread thread = sample.getThread("sampledThread");
+            Instant time = sample.getStartTime();
+            if (thread == null || thread.getJavaThreadId() != cameraThread || time.isBefore(start) || time.isAfter(end)) {
+                continue;
+            }
+            methods.merge(topMethod(sample.getStackTrace()), 1, Integer::sum);
+        }
+        methods.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .limit(NATIVE_METHODS_SHOWN)
+            .forEach(entry -> System.out.printf(Locale.ROOT, "  native     %s x%d%n", entry.getKey(), entry.getValue()));
+    }
+
+    private static void step(String name, RecordedEvent event, Instant frameStart) {
+        if (event == null) {
+            System.out.printf(Locale.ROOT, "  %-10s -%n", name);
+            return;
+        }
+        System.out.printf(Locale.ROOT, "  %-10s +%s  %s%n", name,
+            millis(Duration.between(frameStart, event.getStartTime())), millis(event.getDuration()));
+    }
+
+    private static String topMethod(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "?";
+        }
+        RecordedFrame top = stackTrace.getFrames().get(0);
+        return top.getMethod().getType().getName() + "." + top.getMethod().getName();
+    }
+
+    private static String millis(Duration duration) {
+        return String.format(Locale.ROOT, "%.2f ms", duration.toNanos() / 1_000_000.0);
+    }
+
+    private static final class Timeline {
+        private final String camera;
+        private final long frame;
+        private RecordedEvent captured;
+        private RecordedEvent inference;
+        private RecordedEvent tracking;
+        private RecordedEvent sent;
+
+        Timeline(String camera, long frame) {
+            this.camera = camera;
+            this.frame = frame;
+        }
+
+        void add(String type, RecordedEvent event) {
+            switch (type) {
+                case FrameCapturedEvent.NAME -> captured = event;
+                case InferenceEvent.NAME -> inference = event;
+                case TrackingEvent.NAME -> tracking = event;
+                case TelemetrySentEvent.NAME -> sent = event;
+                default -> {
+                }
+            }
+        }
+
+        Instant end() {
+            RecordedEvent last = sent != null ? sent : tracking;
+            return last != null ? last.getEndTime() : null;
+        }
+
+        Duration total() {
+            return Duration.between(captured.getStartTime(), end());
+        }
+    }
+
+    private static final class Span {
+        private final String what;
+        private final Instant start;
+        private final Instant end;
+
+        Span(String what, RecordedEvent event) {
+            this.what = what;
+            this.start = event.getStartTime();
+            this.end = event.getEndTime();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.starwatchx.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one ONNX Runtime call, from the start to the end of inference.
+ */
+@Name(InferenceEvent.NAME)
+@Label("Inference")
+@Category({"StarWatch-X", "Frame Pipeline"})
+@Description("The detection model ran on a frame")
+@StackTrace(false)
+public final class InferenceEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.starwatchx.Inference";
+
+    @Label("Camera")
+    private String camera;
+
+    @Label("Frame")
+    private long frame;
+
+    public void commit(String camera, long frame) {
+        if (shouldCommit()) {
+            this.camera = camera;
+            this.frame = frame;
+            commit();
+        }
+    }
+}
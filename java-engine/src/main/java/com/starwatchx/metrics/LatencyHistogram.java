@@ -0,0 +1,104 @@
+package com.starwatchx.metrics;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free latency histogram with log-linear buckets in the style of HdrHistogram: every power
+ * of two is split into {@code 2^SUB_BUCKET_BITS} equal buckets, so any value is known to within
+ * about 3% from 32 ns up to about 68 s, and recording is one atomic increment.
+ * <p>
+ * Counts are kept per time slot; {@link PipelineMetrics} points all writers at the current slot
+ * and clears the oldest one as it rotates, which turns the slots into a rolling window.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Values of {@code 2^MAX_EXPONENT} ns and more all land in the last bucket. */
+    private static final int MAX_EXPONENT = 36;
+    static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicIntegerArray counts;
+    private final int slots;
+
+    LatencyHistogram(int slots) {
+        this.slots = slots;
+        this.counts = new AtomicIntegerArray(slots * BUCKETS);
+    }
+
+    void record(int slot, long nanos) {
+        counts.getAndIncrement(slot * BUCKETS + bucket(nanos));
+    }
+
+    void clear(int slot) {
+        int start = slot * BUCKETS;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(start + i, 0);
+        }
+    }
+
+    /**
+     * Adds the counts of every slot into {@code totals} (of length {@link #BUCKETS}) and returns
+     * the number of values.
+     */
+    long sum(long[] totals) {
+        long count = 0L;
+        for (int slot = 0; slot < slots; slot++) {
+            int start = slot * BUCKETS;
+            for (int i = 0; i < BUCKETS; i++) {
+                int value = counts.get(start + i);
+                totals[i] += value;
+                count += value;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Value at {@code quantile} of summed counts, reported as the middle of its bucket.
+     */
+    static long valueAt(long[] totals, long count, double quantile) {
+        if (count == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(quantile * count));
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += totals[i];
+            if (seen >= rank) {
+                return middle(i);
+            }
+        }
+        return middle(BUCKETS - 1);
+    }
+
+    static long max(long[] totals) {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (totals[i] > 0) {
+                return middle(i);
+            }
+        }
+        return 0L;
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(0L, nanos);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((nanos >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    private static long middle(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long lowest = (long) (SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+        return lowest + ((1L << shift) >> 1);
+    }
+}
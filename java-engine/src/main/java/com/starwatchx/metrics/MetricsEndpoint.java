@@ -0,0 +1,143 @@
+package com.starwatchx.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves the metrics of every registered {@link MetricsSource} in the Prometheus text format on
+ * {@code GET /metrics}.
+ * <p>
+ * Scrapes are answered one at a time on a single thread. A rendered page is reused for
+ * {@value #REUSE_MILLIS} ms, so several scrapers polling every second cost one rendering, and
+ * it is gzip-compressed once for scrapers that accept it. Sources only read counters the
+ * pipeline keeps anyway, so scraping never slows down capture or telemetry.
+ */
+public class MetricsEndpoint implements AutoCloseable {
+
+    static final long REUSE_MILLIS = 500L;
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final int port;
+    private final List<MetricsSource> sources = new CopyOnWriteArrayList<>();
+    private HttpServer httpServer;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    // Endpoint thread only.
+    private final StringBuilder text = new StringBuilder(16 * 1024);
+    private long renderedAt;
+    private byte[] plain;
+    private byte[] gzipped;
+
+    public MetricsEndpoint(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Adds a source; sources are written in the order they were added.
+     */
+    public void addSource(MetricsSource source) {
+        if (source != null) {
+            sources.add(source);
+        }
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        try {
+            httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            System.err.println("[Metrics] Unable to bind port " + port + ": " + e.getMessage());
+            return;
+        }
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-endpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(executor);
+        httpServer.createContext("/metrics", this::handleScrape);
+        httpServer.start();
+        running = true;
+        System.out.println("[Metrics] Prometheus endpoint on http://localhost:" + port + "/metrics");
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        httpServer.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private void handleScrape(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (plain == null || now - renderedAt >= REUSE_MILLIS) {
+                plain = render();
+                gzipped = null;
+                renderedAt = now;
+            }
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            byte[] body = plain;
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                if (gzipped == null) {
+                    gzipped = gzip(plain);
+                }
+                body = gzipped;
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private byte[] render() {
+        text.setLength(0);
+        MetricsWriter out = new MetricsWriter(text);
+        for (MetricsSource source : sources) {
+            try {
+                source.writeMetrics(out);
+            } catch (RuntimeException e) {
+                System.err.println("[Metrics] " + source.getClass().getSimpleName() + " failed: " + e.getMessage());
+            }
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,11 @@
+package com.starwatchx.metrics;
+
+/**
+ * A component that exposes its counters and gauges on the {@link MetricsEndpoint}.
+ * Called on the endpoint's thread for every scrape, so implementations must only read counters
+ * they already keep, never take locks held on hot paths.
+ */
+public interface MetricsSource {
+
+    void writeMetrics(MetricsWriter out);
+}
@@ -0,0 +1,95 @@
+package com.starwatchx.metrics;
+
+/**
+ * Writes metric families in the Prometheus text exposition format (version 0.0.4).
+ * <p>
+ * Each family is started once with {@link #counter}, {@link #gauge} or {@link #summary} and is
+ * followed by all of its samples; labels are given as name/value pairs:
+ * {@code out.counter("x_total", "help").sample(42, "camera", "CAM-1");}
+ */
+public final class MetricsWriter {
+
+    private final StringBuilder text;
+    private String family;
+
+    MetricsWriter(StringBuilder text) {
+        this.text = text;
+    }
+
+    public MetricsWriter counter(String name, String help) {
+        return family(name, "counter", help);
+    }
+
+    public MetricsWriter gauge(String name, String help) {
+        return family(name, "gauge", help);
+    }
+
+    /**
+     * A summary: samples with a {@code quantile} label plus {@code _sum} and {@code _count}
+     * samples written through {@link #sample(String, double, String...)}.
+     */
+    public MetricsWriter summary(String name, String help) {
+        return family(name, "summary", help);
+    }
+
+    public MetricsWriter sample(double value, String... labels) {
+        return sample("", value, labels);
+    }
+
+    /**
+     * A sample named after the current family plus {@code suffix}, such as {@code _count}.
+     */
+    public MetricsWriter sample(String suffix, double value, String... labels) {
+        text.append(family).append(suffix);
+        if (labels.length > 0) {
+            text.append('{');
+            for (int i = 0; i + 1 < labels.length; i += 2) {
+                if (i > 0) {
+                    text.append(',');
+                }
+                text.append(labels[i]).append("=\"");
+                escape(labels[i + 1]);
+                text.append('"');
+            }
+            text.append('}');
+        }
+        text.append(' ');
+        appendValue(value);
+        text.append('\n');
+        return this;
+    }
+
+    private MetricsWriter family(String name, String type, String help) {
+        family = name;
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    private void appendValue(double value) {
+        if (Double.isNaN(value)) {
+            text.append("NaN");
+        } else if (Double.isInfinite(value)) {
+            text.append(value > 0 ? "+Inf" : "-Inf");
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            text.append((long) value);
+        } else {
+            text.append(value);
+        }
+    }
+
+    private void escape(String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> text.append("\\\\");
+                case '"' -> text.append("\\\"");
+                case '\n' -> text.append("\\n");
+                default -> text.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.starwatchx.metrics;
+
+import java.util.Locale;
+
+/**
+ * Timed steps of the frame pipeline, in the order a frame passes through them. The first ones
+ * run on the camera thread; {@link #SERIALIZE} and {@link #SEND} run in the telemetry server.
+ * {@link #DELIVERY} and {@link #RENDER} are end-to-end ages rather than steps: from capture until
+ * the frame was handed to a client's socket, and until the client drew it.
+ */
+public enum PipelineStage {
+    GRAB,
+    CLONE,
+    PREPROCESS,
+    INFERENCE,
+    DECODE,
+    NMS,
+    TRACKING,
+    TRAJECTORY,
+    HUD,
+    ANALYTICS,
+    SERIALIZE,
+    SEND,
+    DELIVERY,
+    RENDER;
+
+    private final String label = name().toLowerCase(Locale.ROOT);
+
+    public String label() {
+        return label;
+    }
+}
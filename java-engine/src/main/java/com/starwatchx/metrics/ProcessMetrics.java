@@ -0,0 +1,46 @@
+package com.starwatchx.metrics;
+
+import org.bytedeco.javacpp.Pointer;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+
+/**
+ * Memory and garbage collection of the engine process: heap, direct and mapped buffers, native
+ * memory allocated through JavaCPP (OpenCV Mats, ONNX tensors) and the resident set size.
+ * <p>
+ * GC time is what each collector reports as its accumulated collection time; for the default
+ * G1 and for Parallel that is stop-the-world pause time.
+ */
+public final class ProcessMetrics implements MetricsSource {
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final List<BufferPoolMXBean> bufferPools = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class);
+
+    @Override
+    public void writeMetrics(MetricsWriter out) {
+        out.gauge("starwatchx_jvm_heap_used_bytes", "Java heap in use.")
+            .sample(memory.getHeapMemoryUsage().getUsed());
+        out.gauge("starwatchx_jvm_buffer_pool_used_bytes", "Memory used by NIO buffer pools.");
+        for (BufferPoolMXBean pool : bufferPools) {
+            out.sample(pool.getMemoryUsed(), "pool", pool.getName());
+        }
+        out.gauge("starwatchx_native_allocated_bytes", "Native memory allocated through JavaCPP and not yet freed.")
+            .sample(Pointer.totalBytes());
+        out.gauge("starwatchx_process_resident_bytes", "Physical memory used by the process.")
+            .sample(Pointer.physicalBytes());
+
+        out.counter("starwatchx_jvm_gc_collections_total", "Garbage collections by collector.");
+        for (GarbageCollectorMXBean collector : collectors) {
+            out.sample(Math.max(0L, collector.getCollectionCount()), "gc", collector.getName());
+        }
+        out.counter("starwatchx_jvm_gc_pause_seconds_total", "Time spent in garbage collection by collector.");
+        for (GarbageCollectorMXBean collector : collectors) {
+            out.sample(Math.max(0L, collector.getCollectionTime()) / 1_000.0, "gc", collector.getName());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.starwatchx.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning the encoding of a frame's track table and its hand-off to every
+ * subscribed client; ends a frame's timeline. Frames replaced by a newer one before the
+ * dispatcher got to them have no such event.
+ */
+@Name(TelemetrySentEvent.NAME)
+@Label("Telemetry Sent")
+@Category({"StarWatch-X", "Frame Pipeline"})
+@Description("A frame's tracks were encoded and queued for the telemetry clients")
+@StackTrace(false)
+public final class TelemetrySentEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.starwatchx.TelemetrySent";
+
+    @Label("Camera")
+    private String camera;
+
+    @Label("Frame")
+    private long frame;
+
+    @Label("Tracks")
+    private int tracks;
+
+    public void commit(String camera, long frame, int tracks) {
+        if (shouldCommit()) {
+            this.camera = camera;
+            this.frame = frame;
+            this.tracks = tracks;
+            commit();
+        }
+    }
+}
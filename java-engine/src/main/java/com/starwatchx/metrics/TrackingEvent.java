@@ -0,0 +1,42 @@
+package com.starwatchx.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one tracker update; it ends when tracking is done.
+ */
+@Name(TrackingEvent.NAME)
+@Label("Tracking")
+@Category({"StarWatch-X", "Frame Pipeline"})
+@Description("Detections of a frame were associated with tracks")
+@StackTrace(false)
+public final class TrackingEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.starwatchx.Tracking";
+
+    @Label("Camera")
+    private String camera;
+
+    @Label("Frame")
+    private long frame;
+
+    @Label("Detections")
+    private int detections;
+
+    @Label("Tracks")
+    private int tracks;
+
+    public void commit(String camera, long frame, int detections, int tracks) {
+        if (shouldCommit()) {
+            this.camera = camera;
+            this.frame = frame;
+            this.detections = detections;
+            this.tracks = tracks;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.starwatchx.recording;
+
+import com.starwatchx.telemetry.TelemetryEvent;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.IntPointer;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.FrameRecorder;
+import org.bytedeco.javacv.OpenCVFrameConverter;
+import org.bytedeco.opencv.global.opencv_core;
+import org.bytedeco.opencv.global.opencv_imgcodecs;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.File;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a short, JPEG-compressed pre-roll of every camera and writes event clips.
+ * <p>
+ * Capture threads offer frames at a reduced sampling rate; they are copied into a pooled Mat and
+ * JPEG-encoded on a small bounded pool, dropping frames if it is busy. Each camera keeps the
+ * encoded frames of the last pre-roll window in a ring capped by a byte budget. When a triggering
+ * event arrives, the ring's frames are captured into a clip that keeps collecting frames for the
+ * post-roll window; the finished clip is decoded and written to a video file on a background
+ * thread. Events that arrive while a clip is open extend it up to {@code maxClipMillis}.
+ * <p>
+ * Memory is bounded per camera: the ring holds at most {@code maxBytesPerCamera} of JPEGs, and the
+ * open clip together with the camera's clips waiting for or being written holds at most another
+ * {@code maxBytesPerCamera}. A clip that would exceed that budget is trimmed or not captured, and
+ * at most {@value #MAX_QUEUED_CLIPS} finished clips wait for the writer; beyond that they are
+ * dropped and logged.
+ */
+public class ClipBuffer implements Consumer<TelemetryEvent>, AutoCloseable {
+
+    private static final DateTimeFormatter FILE_TIME =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneId.systemDefault());
+    private static final int BUFFERS_PER_CAMERA = 2;
+    private static final int MAX_QUEUED_CLIPS = 4;
+
+    private final File directory;
+    private final long preRollMillis;
+    private final long postRollMillis;
+    private final long maxClipMillis;
+    private final long maxBytesPerCamera;
+    private final long sampleIntervalMillis;
+    private final double clipFps;
+    private final Set<String> triggerTypes;
+    private final ThreadPoolExecutor encoderPool;
+    private final ThreadPoolExecutor writerExecutor;
+    private final ThreadLocal<IntPointer> encodeParams;
+    private final Map<String, CameraRing> rings = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    public ClipBuffer(String directory,
+                      long preRollMillis,
+                      long postRollMillis,
+                      long maxClipMillis,
+                      long maxBytesPerCamera,
+                      int clipFps,
+                      int jpegQuality,
+                      int encoderThreads,
+                      Set<String> triggerTypes) {
+        this.directory = new File(directory);
+        this.preRollMillis = preRollMillis;
+        this.postRollMillis = postRollMillis;
+        this.maxClipMillis = Math.max(maxClipMillis, preRollMillis + postRollMillis);
+        this.maxBytesPerCamera = maxBytesPerCamera;
+        this.clipFps = Math.max(1, clipFps);
+        this.sampleIntervalMillis = Math.round(1_000.0 / this.clipFps);
+        this.triggerTypes = Set.copyOf(triggerTypes);
+        int threads = Math.max(1, encoderThreads);
+        this.encoderPool = new ThreadPoolExecutor(
+            threads,
+            threads,
+            30L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(threads * 2),
+            runnable -> {
+                Thread thread = new Thread(runnable, "clip-encoder");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        this.writerExecutor = new ThreadPoolExecutor(
+            1,
+            1,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_CLIPS),
+            runnable -> {
+                Thread thread = new Thread(runnable, "clip-writer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        int quality = Math.max(1, Math.min(100, jpegQuality));
+        this.encodeParams = ThreadLocal.withInitial(
+            () -> new IntPointer(opencv_imgcodecs.IMWRITE_JPEG_QUALITY, quality));
+    }
+
+    /**
+     * Samples a captured frame into the camera's pre-roll; never blocks the caller.
+     */
+    public void offer(String cameraId, Mat frame, long timestamp) {
+        if (!running || frame == null || frame.empty()) {
+            return;
+        }
+        CameraRing ring = rings.computeIfAbsent(cameraId, CameraRing::new);
+        if (timestamp - ring.lastSampleTimestamp < sampleIntervalMillis) {
+            return;
+        }
+        Mat buffer = ring.buffers.poll();
+        if (buffer == null) {
+            return;
+        }
+        ring.lastSampleTimestamp = timestamp;
+        frame.copyTo(buffer);
+        try {
+            encoderPool.execute(() -> encode(ring, buffer, timestamp));
+        } catch (RejectedExecutionException e) {
+            ring.buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Opens (or extends) a clip for the event's camera if its type is a trigger.
+     */
+    @Override
+    public void accept(TelemetryEvent event) {
+        if (!running || event == null || !triggerTypes.contains(event.getType())) {
+            return;
+        }
+        CameraRing ring = rings.get(event.getCameraId());
+        if (ring != null) {
+            ring.trigger(event);
+        }
+    }
+
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        encoderPool.shutdown();
+        try {
+            encoderPool.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (CameraRing ring : rings.values()) {
+            ring.flush();
+        }
+        writerExecutor.shutdown();
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private void encode(CameraRing ring, Mat buffer, long timestamp) {
+        try (BytePointer jpeg = new BytePointer()) {
+            if (opencv_imgcodecs.imencode(".jpg", buffer, jpeg, encodeParams.get())) {
+                byte[] bytes = new byte[(int) jpeg.limit()];
+                jpeg.get(bytes);
+                ring.append(new ClipFrame(timestamp, bytes));
+            }
+        } catch (RuntimeException e) {
+            System.err.println("[ClipBuffer] Encoding failed for " + ring.cameraId + ": " + e.getMessage());
+        } finally {
+            ring.buffers.offer(buffer);
+        }
+    }
+
+    private void writeClip(CameraRing ring, Clip clip) {
+        try {
+            writeFrames(clip);
+        } finally {
+            ring.release(clip);
+        }
+    }
+
+    private void writeFrames(Clip clip) {
+        List<ClipFrame> frames = clip.frames;
+        if (frames.isEmpty()) {
+            return;
+        }
+        frames.sort(Comparator.comparingLong(ClipFrame::timestamp));
+        File cameraDirectory = new File(directory, clip.cameraId);
+        if (!cameraDirectory.isDirectory() && !cameraDirectory.mkdirs()) {
+            System.err.println("[ClipBuffer] Cannot create " + cameraDirectory.getPath());
+            return;
+        }
+        File file = new File(cameraDirectory, clip.cameraId + "_"
+            + FILE_TIME.format(Instant.ofEpochMilli(clip.triggerTimestamp)) + "_" + clip.type + ".mp4");
+        long firstTimestamp = frames.get(0).timestamp();
+        FFmpegFrameRecorder recorder = null;
+        int lastFrameNumber = -1;
+        try (OpenCVFrameConverter.ToMat converter = new OpenCVFrameConverter.ToMat()) {
+            for (ClipFrame frame : frames) {
+                try (BytePointer data = new BytePointer(frame.jpeg());
+                     Mat encoded = new Mat(1, frame.jpeg().length, opencv_core.CV_8UC1, data);
+                     Mat decoded = opencv_imgcodecs.imdecode(encoded, opencv_imgcodecs.IMREAD_COLOR)) {
+                    if (decoded.empty()) {
+                        continue;
+                    }
+                    if (recorder == null) {
+                        recorder = new FFmpegFrameRecorder(file, decoded.cols(), decoded.rows(), 0);
+                        recorder.setFormat("mp4");
+                        recorder.setVideoCodecName("mpeg4");
+                        recorder.setVideoQuality(4);
+                        recorder.setPixelFormat(avutil.AV_PIX_FMT_YUV420P);
+                        recorder.setFrameRate(clipFps);
+                        recorder.start();
+                    }
+                    int frameNumber = (int) Math.round((frame.timestamp() - firstTimestamp) * clipFps / 1_000.0);
+                    if (frameNumber <= lastFrameNumber) {
+                        continue;
+                    }
+                    recorder.setFrameNumber(frameNumber);
+                    recorder.record(converter.convert(decoded));
+                    lastFrameNumber = frameNumber;
+                }
+            }
+            if (recorder != null) {
+                recorder.stop();
+                System.out.println("[ClipBuffer] Wrote " + file.getPath() + " (" + frames.size() + " frames)");
+            }
+        } catch (FrameRecorder.Exception | RuntimeException e) {
+            System.err.println("[ClipBuffer] Failed to write " + file.getPath() + ": " + e.getMessage());
+        } finally {
+            if (recorder != null) {
+                try {
+                    recorder.release();
+                } catch (FrameRecorder.Exception e) {
+                    System.err.println("[ClipBuffer] Failed to release encoder: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private record ClipFrame(long timestamp, byte[] jpeg) {}
+
+    /**
+     * Clip being collected; holds references to the same encoded frames as the ring.
+     */
+    private static final class Clip {
+        private final String cameraId;
+        private final String type;
+        private final long triggerTimestamp;
+        private final long startTimestamp;
+        private final List<ClipFrame> frames = new ArrayList<>();
+        private long endTimestamp;
+        private long bytes;
+
+        Clip(String cameraId, String type, long triggerTimestamp, long startTimestamp, long endTimestamp) {
+            this.cameraId = cameraId;
+            this.type = type;
+            this.triggerTimestamp = triggerTimestamp;
+            this.startTimestamp = startTimestamp;
+            this.endTimestamp = endTimestamp;
+        }
+    }
+
+    private final class CameraRing {
+        private final String cameraId;
+        private final ArrayBlockingQueue<Mat> buffers = new ArrayBlockingQueue<>(BUFFERS_PER_CAMERA);
+        private final ArrayDeque<ClipFrame> frames = new ArrayDeque<>();
+        private long bytes;
+        private long lastSampleTimestamp = Long.MIN_VALUE / 2;
+        private Clip activeClip;
+        /** JPEG bytes held by the open clip and this camera's clips waiting for or in the writer. */
+        private long clipBytes;
+
+        CameraRing(String cameraId) {
+            this.cameraId = cameraId;
+            for (int i = 0; i < BUFFERS_PER_CAMERA; i++) {
+                buffers.offer(new Mat());
+            }
+        }
+
+        synchronized void append(ClipFrame frame) {
+            frames.addLast(frame);
+            bytes += frame.jpeg().length;
+            while (!frames.isEmpty()
+                && (bytes > maxBytesPerCamera || frame.timestamp() - frames.peekFirst().timestamp() > preRollMillis)) {
+                bytes -= frames.removeFirst().jpeg().length;
+            }
+
+            Clip clip = activeClip;
+            if (clip == null) {
+                return;
+            }
+            if (frame.timestamp() > clip.endTimestamp) {
+                finish();
+            } else if (clipBytes + frame.jpeg().length <= maxBytesPerCamera) {
+                add(clip, frame);
+            }
+        }
+
+        synchronized void trigger(TelemetryEvent event) {
+            long timestamp = event.getTimestamp();
+            if (activeClip != null) {
+                activeClip.endTimestamp = Math.min(
+                    activeClip.startTimestamp + maxClipMillis,
+                    Math.max(activeClip.endTimestamp, timestamp + postRollMillis)
+                );
+                return;
+            }
+            if (clipBytes >= maxBytesPerCamera) {
+                System.err.println("[ClipBuffer] Clip budget of " + cameraId + " used by pending clips, skipping "
+                    + event.getType() + " clip");
+                return;
+            }
+            Clip clip = new Clip(cameraId, event.getType(), timestamp,
+                timestamp - preRollMillis, timestamp + postRollMillis);
+            // Newest first, so a tight budget trims the start of the pre-roll; the writer sorts.
+            Iterator<ClipFrame> iterator = frames.descendingIterator();
+            while (iterator.hasNext()) {
+                ClipFrame frame = iterator.next();
+                if (frame.timestamp() < clip.startTimestamp || clipBytes + frame.jpeg().length > maxBytesPerCamera) {
+                    break;
+                }
+                add(clip, frame);
+            }
+            activeClip = clip;
+            System.out.println("[ClipBuffer] Capturing " + event.getType() + " clip for " + cameraId);
+        }
+
+        synchronized void flush() {
+            if (activeClip != null) {
+                finish();
+            }
+        }
+
+        synchronized void release(Clip clip) {
+            clipBytes -= clip.bytes;
+        }
+
+        private void add(Clip clip, ClipFrame frame) {
+            clip.frames.add(frame);
+            clip.bytes += frame.jpeg().length;
+            clipBytes += frame.jpeg().length;
+        }
+
+        private void finish() {
+            Clip clip = activeClip;
+            activeClip = null;
+            try {
+                writerExecutor.execute(() -> writeClip(this, clip));
+            } catch (RejectedExecutionException e) {
+                release(clip);
+                System.err.println(writerExecutor.isShutdown()
+                    ? "[ClipBuffer] Writer stopped, discarding clip for " + cameraId
+                    : "[ClipBuffer] " + MAX_QUEUED_CLIPS + " clips already waiting for the writer, dropping "
+                        + clip.type + " clip for " + cameraId);
+            }
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.starwatchx.recording;
+
+import com.starwatchx.metrics.MetricsSource;
+import com.starwatchx.metrics.MetricsWriter;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.FrameRecorder;
+import org.bytedeco.javacv.OpenCVFrameConverter;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.File;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records camera frames into time-segmented video files in the background.
+ * <p>
+ * Camera threads hand frames to {@link #record(String, Mat, long)}, which copies them into a
+ * pooled Mat and enqueues it without blocking; if the camera's pool is exhausted because the
+ * encoder is behind, the frame is dropped and counted. Each camera has its own writer thread that
+ * rolls over to a new file every segment and prunes old segments by age and total size.
+ * Encoding uses the bundled FFmpeg through {@link FFmpegFrameRecorder}; frames are stamped from
+ * their capture timestamps, so dropped frames show up as gaps rather than as faster playback.
+ */
+public class SegmentedRecorder implements MetricsSource, AutoCloseable {
+
+    private static final DateTimeFormatter FILE_TIME =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneId.systemDefault());
+    private static final long DROP_LOG_INTERVAL = 100L;
+
+    private final File directory;
+    private final boolean annotated;
+    private final long segmentMillis;
+    private final long retentionMillis;
+    private final long maxBytesPerCamera;
+    private final int queueCapacity;
+    private final String format;
+    private final String videoCodec;
+    private final int videoBitrate;
+    private final String extension;
+    private final Map<String, CameraRecorder> recorders = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    public SegmentedRecorder(String directory,
+                             boolean annotated,
+                             long segmentMillis,
+                             long retentionMillis,
+                             long maxBytesPerCamera,
+                             int queueCapacity,
+                             String format,
+                             String videoCodec,
+                             int videoBitrate) {
+        this.directory = new File(directory);
+        this.annotated = annotated;
+        this.segmentMillis = Math.max(1_000L, segmentMillis);
+        this.retentionMillis = retentionMillis;
+        this.maxBytesPerCamera = maxBytesPerCamera;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.format = format;
+        this.videoCodec = videoCodec;
+        this.videoBitrate = videoBitrate;
+        this.extension = "." + format;
+    }
+
+    /**
+     * Registers a camera so its frames are recorded at the given nominal frame rate.
+     */
+    public void addCamera(String cameraId, double fps) {
+        recorders.computeIfAbsent(cameraId, id -> {
+            CameraRecorder recorder = new CameraRecorder(id, fps > 0 ? fps : 30.0);
+            Thread thread = new Thread(recorder, "recorder-" + id);
+            thread.setDaemon(true);
+            thread.start();
+            System.out.println("[Recorder] Recording " + id + " to " + new File(directory, id).getPath());
+            return recorder;
+        });
+    }
+
+    /**
+     * True if frames should be recorded after the HUD is drawn rather than straight from capture.
+     */
+    public boolean isAnnotated() {
+        return annotated;
+    }
+
+    public boolean isRecording(String cameraId) {
+        return running && recorders.containsKey(cameraId);
+    }
+
+    /**
+     * Borrows a pooled frame buffer for the camera, or {@code null} if none is free, in which case
+     * the frame is counted as dropped. A borrowed Mat must be handed back through {@link #submit}
+     * or {@link #release}.
+     */
+    public Mat acquireFrame(String cameraId) {
+        CameraRecorder recorder = running ? recorders.get(cameraId) : null;
+        if (recorder == null) {
+            return null;
+        }
+        Mat mat = recorder.free.poll();
+        if (mat == null) {
+            recorder.dropped();
+        }
+        return mat;
+    }
+
+    /**
+     * Queues a filled frame buffer obtained from {@link #acquireFrame(String)}.
+     */
+    public void submit(String cameraId, Mat mat, long timestamp) {
+        CameraRecorder recorder = recorders.get(cameraId);
+        if (recorder == null || mat == null) {
+            return;
+        }
+        recorder.pending.offer(new PendingFrame(mat, timestamp));
+    }
+
+    /**
+     * Returns a frame buffer that was not submitted, e.g. because drawing into it failed.
+     */
+    public void release(String cameraId, Mat mat) {
+        CameraRecorder recorder = recorders.get(cameraId);
+        if (recorder != null && mat != null) {
+            recorder.free.offer(mat);
+        }
+    }
+
+    /**
+     * Copies {@code frame} into the camera's queue; never blocks.
+     */
+    public void record(String cameraId, Mat frame, long timestamp) {
+        Mat mat = acquireFrame(cameraId);
+        if (mat != null) {
+            frame.copyTo(mat);
+            submit(cameraId, mat, timestamp);
+        }
+    }
+
+    @Override
+    public void writeMetrics(MetricsWriter out) {
+        out.gauge("starwatchx_recorder_queue_depth", "Frames waiting for the camera's encoder.");
+        for (CameraRecorder recorder : recorders.values()) {
+            out.sample(recorder.pending.size(), "camera", recorder.cameraId);
+        }
+        out.counter("starwatchx_recorder_dropped_frames_total", "Frames not recorded because the encoder was behind.");
+        for (CameraRecorder recorder : recorders.values()) {
+            out.sample(recorder.droppedFrames, "camera", recorder.cameraId);
+        }
+    }
+
+    public void stop() {
+        running = false;
+        for (CameraRecorder recorder : recorders.values()) {
+            recorder.pending.offer(PendingFrame.POISON);
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private record PendingFrame(Mat mat, long timestamp) {
+        static final PendingFrame POISON = new PendingFrame(null, 0L);
+    }
+
+    private final class CameraRecorder implements Runnable {
+        private final String cameraId;
+        private final double fps;
+        private final File cameraDirectory;
+        private final ArrayBlockingQueue<Mat> free;
+        private final ArrayBlockingQueue<PendingFrame> pending;
+        private final OpenCVFrameConverter.ToMat converter = new OpenCVFrameConverter.ToMat();
+        private FFmpegFrameRecorder writer;
+        private int frameWidth;
+        private int frameHeight;
+        private long segmentStart;
+        private long retryAfter;
+        private int lastFrameNumber;
+        private volatile long droppedFrames;
+
+        CameraRecorder(String cameraId, double fps) {
+            this.cameraId = cameraId;
+            this.fps = fps;
+            this.cameraDirectory = new File(directory, cameraId);
+            this.free = new ArrayBlockingQueue<>(queueCapacity);
+            // One extra slot so the shutdown marker always fits.
+            this.pending = new ArrayBlockingQueue<>(queueCapacity + 1);
+            for (int i = 0; i < queueCapacity; i++) {
+                free.offer(new Mat());
+            }
+        }
+
+        synchronized void dropped() {
+            droppedFrames++;
+            if (droppedFrames % DROP_LOG_INTERVAL == 1) {
+                System.err.println("[Recorder] " + cameraId + " encoder behind, dropped " + droppedFrames + " frames");
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    PendingFrame frame = pending.poll(1, TimeUnit.SECONDS);
+                    if (frame == PendingFrame.POISON) {
+                        break;
+                    }
+                    if (frame == null) {
+                        continue;
+                    }
+                    try {
+                        write(frame.mat(), frame.timestamp());
+                    } catch (FrameRecorder.Exception | RuntimeException e) {
+                        System.err.println("[Recorder] Failed to write frame for " + cameraId + ": " + e.getMessage());
+                        closeSegment();
+                        // Back off like a failed open rather than starting a new file every frame.
+                        retryAfter = frame.timestamp() + segmentMillis;
+                    } finally {
+                        free.offer(frame.mat());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                closeSegment();
+                System.out.println("[Recorder] Stopped " + cameraId + " (" + droppedFrames + " frames dropped)");
+            }
+        }
+
+        private void write(Mat mat, long timestamp) throws FrameRecorder.Exception {
+            if (mat.empty()) {
+                return;
+            }
+            boolean sizeChanged = writer != null && (frameWidth != mat.cols() || frameHeight != mat.rows());
+            if (sizeChanged || timestamp - segmentStart >= segmentMillis) {
+                closeSegment();
+            }
+            if (writer == null) {
+                if (timestamp < retryAfter) {
+                    return;
+                }
+                openSegment(mat, timestamp);
+                if (writer == null) {
+                    return;
+                }
+            }
+            // Frame numbers follow capture time; a frame landing on an already written slot is skipped.
+            int frameNumber = (int) Math.round((timestamp - segmentStart) * fps / 1_000.0);
+            if (lastFrameNumber >= 0 && frameNumber <= lastFrameNumber) {
+                return;
+            }
+            writer.setFrameNumber(frameNumber);
+            writer.record(converter.convert(mat));
+            lastFrameNumber = frameNumber;
+        }
+
+        private void openSegment(Mat mat, long timestamp) {
+            if (!cameraDirectory.isDirectory() && !cameraDirectory.mkdirs()) {
+                System.err.println("[Recorder] Cannot create " + cameraDirectory.getPath());
+                retryAfter = timestamp + segmentMillis;
+                return;
+            }
+            String name = cameraId + "_" + FILE_TIME.format(Instant.ofEpochMilli(timestamp));
+            File file = new File(cameraDirectory, name + extension);
+            // Never overwrite a finished segment, even if two open in the same millisecond.
+            for (int suffix = 1; file.exists(); suffix++) {
+                file = new File(cameraDirectory, name + "_" + suffix + extension);
+            }
+            FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(file, mat.cols(), mat.rows(), 0);
+            recorder.setFormat(format);
+            recorder.setVideoCodecName(videoCodec);
+            recorder.setVideoBitrate(videoBitrate);
+            recorder.setPixelFormat(avutil.AV_PIX_FMT_YUV420P);
+            recorder.setFrameRate(fps);
+            recorder.setGopSize((int) Math.max(1, Math.round(fps * 2)));
+            try {
+                recorder.start();
+            } catch (FrameRecorder.Exception e) {
+                System.err.println("[Recorder] Unable to open " + file.getPath() + ": " + e.getMessage());
+                releaseQuietly(recorder);
+                retryAfter = timestamp + segmentMillis;
+                return;
+            }
+            writer = recorder;
+            frameWidth = mat.cols();
+            frameHeight = mat.rows();
+            segmentStart = timestamp;
+            lastFrameNumber = -1;
+            System.out.println("[Recorder] New segment " + file.getPath());
+            applyRetention(timestamp, file);
+        }
+
+        private void closeSegment() {
+            if (writer != null) {
+                try {
+                    writer.stop();
+                } catch (FrameRecorder.Exception e) {
+                    System.err.println("[Recorder] Failed to finish segment for " + cameraId + ": " + e.getMessage());
+                }
+                releaseQuietly(writer);
+                writer = null;
+            }
+        }
+
+        private void releaseQuietly(FFmpegFrameRecorder recorder) {
+            try {
+                recorder.release();
+            } catch (FrameRecorder.Exception e) {
+                System.err.println("[Recorder] Failed to release encoder for " + cameraId + ": " + e.getMessage());
+            }
+        }
+
+        /**
+         * Deletes finished segments older than the retention period, then oldest-first until the
+         * camera directory fits the size budget. The segment being written is never deleted.
+         */
+        private void applyRetention(long now, File current) {
+            File[] files = cameraDirectory.listFiles((dir, name) -> name.endsWith(extension));
+            if (files == null) {
+                return;
+            }
+            Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+            long totalBytes = 0L;
+            for (File file : files) {
+                totalBytes += file.length();
+            }
+            for (File file : files) {
+                if (file.equals(current)) {
+                    continue;
+                }
+                boolean expired = retentionMillis > 0 && now - file.lastModified() > retentionMillis;
+                boolean overBudget = maxBytesPerCamera > 0 && totalBytes > maxBytesPerCamera;
+                if (!expired && !overBudget) {
+                    break;
+                }
+                long length = file.length();
+                if (file.delete()) {
+                    totalBytes -= length;
+                    System.out.println("[Recorder] Retention removed " + file.getName());
+                }
+            }
+        }
+    }
+}
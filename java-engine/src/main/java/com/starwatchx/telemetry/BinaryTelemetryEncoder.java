@@ -0,0 +1,197 @@
+package com.starwatchx.telemetry;
+
+import com.starwatchx.tracking.TrackTable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the {@link TelemetryProtocol#BINARY_V1} format into a reused little-endian buffer.
+ * Not thread-safe; use one encoder per thread.
+ */
+public final class BinaryTelemetryEncoder {
+
+    /** Bytes per object across all columns. */
+    public static final int BYTES_PER_OBJECT = 4 + 6 * Float.BYTES + 2 + 2;
+
+    private final LabelRegistry labels;
+    private final Map<String, byte[]> cameraIds = new HashMap<>();
+    private ByteBuffer buffer;
+
+    public BinaryTelemetryEncoder(LabelRegistry labels) {
+        this(labels, 4096);
+    }
+
+    public BinaryTelemetryEncoder(LabelRegistry labels, int initialCapacity) {
+        this.labels = labels;
+        this.buffer = ByteBuffer.allocate(Math.max(64, initialCapacity)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Encodes one frame of the tracker table; the result stays valid until the next call.
+     * Labels are registered as a side effect, so check the registry size afterwards.
+     */
+    public BinaryTelemetryEncoder encodeTracks(TrackTable tracks, int sequence) {
+        int count = tracks.size();
+        beginFrame(tracks.getCameraId(), tracks.getTimestamp(), sequence, count);
+        for (int row = 0; row < count; row++) {
+            buffer.putInt(tracks.getTrackNumber(row));
+        }
+        for (int row = 0; row < count; row++) {
+            buffer.putFloat(tracks.getX(row));
+        }
+        for (int row = 0; row < count; row++) {
+            buffer.putFloat(tracks.getY(row));
+        }
+        for (int row = 0; row < count; row++) {
+            buffer.putFloat(tracks.getWidth(row));
+        }
+        for (int row = 0; row < count; row++) {
+            buffer.putFloat(tracks.getHeight(row));
+        }
+        for (int row = 0; row < count; row++) {
+            buffer.putFloat(tracks.getVelocityX(row));
+        }
+        for (int row = 0; row < count; row++) {
+            buffer.putFloat(tracks.getVelocityY(row));
+        }
+        for (int row = 0; row < count; row++) {
+            buffer.putShort((short) labels.idOf(tracks.getLabel(row)));
+        }
+        for (int row = 0; row < count; row++) {
+            buffer.putShort(quantizeConfidence(tracks.getConfidence(row)));
+        }
+        return this;
+    }
+
+    /**
+     * Appends the capture timing trailer to the frame just encoded. Only live telemetry carries
+     * it; recorded frames are written without.
+     */
+    BinaryTelemetryEncoder appendTiming(FrameTiming timing) {
+        ensure(FrameTiming.BYTES);
+        timing.write(buffer);
+        return this;
+    }
+
+    /**
+     * Encodes a packet that was not built from a tracker table. Such packets carry no track
+     * numbers, so objects are numbered by position.
+     */
+    public BinaryTelemetryEncoder encodePacket(TelemetryPacket packet, int sequence) {
+        List<TelemetryPacket.ObjectTelemetry> objects = packet.getObjects();
+        int count = objects.size();
+        beginFrame(packet.getCameraId(), packet.getTimestamp(), sequence, count);
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(i + 1);
+        }
+        for (TelemetryPacket.ObjectTelemetry object : objects) {
+            buffer.putFloat(object.getX());
+        }
+        for (TelemetryPacket.ObjectTelemetry object : objects) {
+            buffer.putFloat(object.getY());
+        }
+        for (TelemetryPacket.ObjectTelemetry object : objects) {
+            buffer.putFloat(object.getWidth());
+        }
+        for (TelemetryPacket.ObjectTelemetry object : objects) {
+            buffer.putFloat(object.getHeight());
+        }
+        for (TelemetryPacket.ObjectTelemetry object : objects) {
+            buffer.putFloat(object.getVx());
+        }
+        for (TelemetryPacket.ObjectTelemetry object : objects) {
+            buffer.putFloat(object.getVy());
+        }
+        for (TelemetryPacket.ObjectTelemetry object : objects) {
+            buffer.putShort((short) labels.idOf(object.getLabel()));
+        }
+        for (TelemetryPacket.ObjectTelemetry object : objects) {
+            buffer.putShort(quantizeConfidence(object.getConfidence()));
+        }
+        return this;
+    }
+
+    /**
+     * Encodes the labels with ids in {@code [fromId, toId)}.
+     */
+    public BinaryTelemetryEncoder encodeLabels(int fromId, int toId) {
+        buffer.clear();
+        ensure(TelemetryProtocol.HEADER_BYTES + 2);
+        putHeader(TelemetryProtocol.TYPE_LABELS);
+        buffer.putShort((short) (toId - fromId));
+        for (int id = fromId; id < toId; id++) {
+            byte[] label = utf8(labels.labelOf(id), 255);
+            ensure(3 + label.length);
+            buffer.putShort((short) id);
+            buffer.put((byte) label.length);
+            buffer.put(label);
+        }
+        return this;
+    }
+
+    public int length() {
+        return buffer.position();
+    }
+
+    /**
+     * Copies the encoded bytes into a buffer the caller may keep.
+     */
+    public ByteBuffer toByteBuffer() {
+        ByteBuffer copy = ByteBuffer.allocate(buffer.position());
+        copy.put(buffer.array(), 0, buffer.position());
+        return copy.flip();
+    }
+
+    private void beginFrame(String cameraId, long timestamp, int sequence, int count) {
+        if (count > 0xFFFF) {
+            throw new IllegalArgumentException("Too many objects for one frame: " + count);
+        }
+        byte[] camera = cameraIds.computeIfAbsent(cameraId != null ? cameraId : "", id -> utf8(id, 0xFFFF));
+        int padding = (4 - ((TelemetryProtocol.HEADER_BYTES + 2 + camera.length) & 3)) & 3;
+        buffer.clear();
+        ensure(TelemetryProtocol.HEADER_BYTES + 2 + camera.length + padding + 16 + count * BYTES_PER_OBJECT);
+        putHeader(TelemetryProtocol.TYPE_FRAME);
+        buffer.putShort((short) camera.length);
+        buffer.put(camera);
+        for (int i = 0; i < padding; i++) {
+            buffer.put((byte) 0);
+        }
+        buffer.putDouble(timestamp);
+        buffer.putInt(sequence);
+        buffer.putShort((short) count);
+        buffer.putShort((short) 0);
+    }
+
+    private void putHeader(int type) {
+        buffer.putShort((short) TelemetryProtocol.MAGIC);
+        buffer.put((byte) TelemetryProtocol.VERSION);
+        buffer.put((byte) type);
+    }
+
+    private void ensure(int additional) {
+        if (buffer.remaining() < additional) {
+            int capacity = Math.max(buffer.capacity() * 2, buffer.position() + additional);
+            ByteBuffer grown = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+            grown.put(buffer.array(), 0, buffer.position());
+            buffer = grown;
+        }
+    }
+
+    static short quantizeConfidence(float confidence) {
+        float clamped = Float.isFinite(confidence) ? Math.max(0f, Math.min(1f, confidence)) : 0f;
+        return (short) Math.round(clamped * TelemetryProtocol.CONFIDENCE_SCALE);
+    }
+
+    static byte[] utf8(String value, int maxLength) {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxLength) {
+            throw new IllegalArgumentException("String too long for the binary protocol: " + value);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,257 @@
+package com.starwatchx.telemetry;
+
+import com.starwatchx.metrics.PipelineMetrics;
+import com.starwatchx.metrics.PipelineStage;
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+import org.java_websocket.framing.CloseFrame;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Outbound side of one telemetry connection, drained by its own writer thread.
+ * <p>
+ * Frames are coalesced per camera: only the newest unsent frame of each camera is kept, and a
+ * frame replaced before it was written counts as coalesced. Other messages (events) go through a
+ * bounded queue and are dropped when it is full. The writer only hands a message to
+ * Java-WebSocket once the connection's own outbound buffer is below {@code maxBufferedFrames};
+ * a client that stays above it for {@code slowClientTimeoutMs} is disconnected.
+ * <p>
+ * The age of every frame it sends, from capture until it was handed to the socket, is recorded
+ * as the client's {@link PipelineStage#DELIVERY} latency.
+ */
+final class ClientOutbox implements Runnable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long BACKOFF_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final WebSocket connection;
+    private final LabelRegistry labels;
+    private final BinaryTelemetryEncoder labelEncoder;
+    private final ArrayBlockingQueue<PreframedMessage> messages;
+    private final Map<String, PreframedMessage> latestFrames = new ConcurrentHashMap<>();
+    private final int maxBufferedFrames;
+    private final long slowClientTimeoutMs;
+    private final PipelineMetrics.Recorder metrics;
+    private final PipelineMetrics.Recorder latency;
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
+    private final AtomicLong coalescedFrames = new AtomicLong();
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private volatile Thread writer;
+    private volatile boolean closed;
+    /** Number of label ids, starting at 0, already sent; only touched by the writer. */
+    private int sentLabels;
+
+    ClientOutbox(WebSocket connection,
+                 LabelRegistry labels,
+                 int queueCapacity,
+                 int maxBufferedFrames,
+                 long slowClientTimeoutMs,
+                 PipelineMetrics.Recorder metrics,
+                 PipelineMetrics.Recorder latency) {
+        this.connection = connection;
+        this.labels = labels;
+        this.labelEncoder = new BinaryTelemetryEncoder(labels, 256);
+        this.messages = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.maxBufferedFrames = Math.max(1, maxBufferedFrames);
+        this.slowClientTimeoutMs = slowClientTimeoutMs;
+        this.metrics = metrics;
+        this.latency = latency;
+    }
+
+    void start(String name) {
+        Thread thread = new Thread(this, name);
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    void close() {
+        closed = true;
+        wake();
+    }
+
+    /**
+     * Makes {@code frame} the next frame sent for the camera. If an older frame of the camera was
+     * still waiting it is discarded; when {@code replacement} is given it is sent instead of
+     * {@code frame} in that case (delta clients need a keyframe once a delta is lost).
+     */
+    void offerFrame(String cameraId, PreframedMessage frame, Supplier<PreframedMessage> replacement) {
+        if (closed) {
+            return;
+        }
+        latestFrames.compute(cameraId, (id, previous) -> {
+            if (previous == null) {
+                return frame;
+            }
+            coalescedFrames.incrementAndGet();
+            return replacement != null ? replacement.get() : frame;
+        });
+        wake();
+    }
+
+    /**
+     * Queues a message that must not be coalesced; dropped and counted if the queue is full.
+     */
+    void offerMessage(PreframedMessage message) {
+        if (closed) {
+            return;
+        }
+        if (!messages.offer(message)) {
+            droppedMessages.incrementAndGet();
+        }
+        wake();
+    }
+
+    /**
+     * End-to-end latency of this client: delivery ages, and render ages the client reports.
+     */
+    PipelineMetrics.Recorder getLatency() {
+        return latency;
+    }
+
+    long getSentMessages() {
+        return sentMessages.get();
+    }
+
+    /**
+     * Payload bytes handed to the socket, before permessage-deflate.
+     */
+    long getSentBytes() {
+        return sentBytes.get();
+    }
+
+    /**
+     * Frames and events waiting for the writer.
+     */
+    int getQueuedMessages() {
+        return messages.size() + latestFrames.size();
+    }
+
+    long getCoalescedFrames() {
+        return coalescedFrames.get();
+    }
+
+    long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+
+    /**
+     * Messages handed to Java-WebSocket but not yet written to the socket.
+     */
+    int getBufferedFrames() {
+        return connection instanceof WebSocketImpl impl ? impl.outQueue.size() : 0;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!closed) {
+                boolean sent = false;
+                PreframedMessage message;
+                while ((message = messages.poll()) != null) {
+                    if (!awaitCapacity()) {
+                        return;
+                    }
+                    send(message);
+                    sent = true;
+                }
+                Iterator<String> cameras = latestFrames.keySet().iterator();
+                while (cameras.hasNext()) {
+                    PreframedMessage frame = latestFrames.remove(cameras.next());
+                    if (frame == null) {
+                        continue;
+                    }
+                    if (!awaitCapacity()) {
+                        return;
+                    }
+                    send(frame);
+                    sent = true;
+                }
+                if (!sent) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            }
+        } catch (WebsocketNotConnectedException e) {
+            // The server's onClose closes the outbox; nothing left to write to.
+        } finally {
+            closed = true;
+            latestFrames.clear();
+            messages.clear();
+        }
+    }
+
+    private void wake() {
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Waits until the connection's outbound buffer has room. Returns false if the outbox was
+     * closed meanwhile or the client was disconnected for being too slow.
+     */
+    private boolean awaitCapacity() {
+        long backedUpSince = 0L;
+        while (getBufferedFrames() >= maxBufferedFrames) {
+            if (closed || !connection.isOpen()) {
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            if (backedUpSince == 0L) {
+                backedUpSince = now;
+            } else if (slowClientTimeoutMs > 0 && now - backedUpSince > slowClientTimeoutMs) {
+                System.err.println("[Telemetry] Disconnecting slow client " + connection.getRemoteSocketAddress()
+                    + " (" + getBufferedFrames() + " frames buffered for " + (now - backedUpSince) + " ms)");
+                closed = true;
+                connection.closeConnection(CloseFrame.TRY_AGAIN_LATER, "client too slow");
+                return false;
+            }
+            LockSupport.parkNanos(this, BACKOFF_PARK_NANOS);
+        }
+        return !closed;
+    }
+
+    /**
+     * The message bytes are shared with every other client; the draft only duplicates them. The
+     * send stage is the time to hand them to Java-WebSocket, after waiting for capacity.
+     */
+    private void send(PreframedMessage message) {
+        long started = System.nanoTime();
+        if (!message.isText()) {
+            sendLabels();
+        }
+        connection.sendFrame(message.framedata());
+        long sent = metrics.record(PipelineStage.SEND, started);
+        if (message.captureNanos() != 0L) {
+            latency.recordNanos(PipelineStage.DELIVERY, sent - message.captureNanos());
+        }
+        sentMessages.incrementAndGet();
+        sentBytes.addAndGet(message.payloadLength());
+    }
+
+    /**
+     * Sends the labels registered since the last binary message. Only the writer sends, so the
+     * labels always precede the first frame that uses them.
+     */
+    private void sendLabels() {
+        int known = labels.size();
+        if (sentLabels < known) {
+            ByteBuffer table = labelEncoder.encodeLabels(sentLabels, known).toByteBuffer();
+            sentBytes.addAndGet(table.remaining());
+            connection.send(table);
+            sentLabels = known;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.starwatchx.telemetry;
+
+import org.java_websocket.WebSocket;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-connection state kept as the WebSocket attachment.
+ */
+final class ClientSession {
+
+    private final WebSocket connection;
+    private final WireFormat format;
+    private final ClientOutbox outbox;
+    private final Set<String> syncedCameras = ConcurrentHashMap.newKeySet();
+    private volatile TelemetrySubscription subscription = TelemetrySubscription.ALL;
+    private SubscriptionGroup group;
+
+    ClientSession(WebSocket connection, WireFormat format, ClientOutbox outbox) {
+        this.connection = connection;
+        this.format = format;
+        this.outbox = outbox;
+    }
+
+    WebSocket getConnection() {
+        return connection;
+    }
+
+    ClientOutbox getOutbox() {
+        return outbox;
+    }
+
+    WireFormat getFormat() {
+        return format;
+    }
+
+    boolean isDelta() {
+        return format == WireFormat.DELTA;
+    }
+
+    TelemetrySubscription getSubscription() {
+        return subscription;
+    }
+
+    void setSubscription(TelemetrySubscription subscription) {
+        this.subscription = subscription;
+    }
+
+    /**
+     * Group the session currently receives frames through; guarded by the session lock.
+     */
+    synchronized SubscriptionGroup getGroup() {
+        return group;
+    }
+
+    synchronized void setGroup(SubscriptionGroup group) {
+        this.group = group;
+    }
+
+    /**
+     * True if the client holds the delta state of the camera, i.e. it has had a keyframe and no
+     * resync was requested since.
+     */
+    boolean isSynced(String cameraId) {
+        return syncedCameras.contains(cameraId);
+    }
+
+    void markSynced(String cameraId) {
+        syncedCameras.add(cameraId);
+    }
+
+    /**
+     * Forces a keyframe on the next frame of the camera, or of every camera if {@code null}.
+     */
+    void requestResync(String cameraId) {
+        if (cameraId == null) {
+            syncedCameras.clear();
+        } else {
+            syncedCameras.remove(cameraId);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.starwatchx.telemetry;
+
+import com.starwatchx.tracking.TrackTable;
+import com.starwatchx.util.LongLongHashMap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Produces the {@link TelemetryProtocol#DELTA_V1} stream of one camera.
+ * <p>
+ * Keeps the quantized state that delta clients hold for the camera. Each frame compares the
+ * tracker table against that state: tracks that are new, relabelled or moved by at least a
+ * threshold are upserted, tracks that disappeared are removed, and everything else is left out
+ * so the client keeps its last value. Because the reference only moves when a change is sent,
+ * small movements never accumulate into drift. Every {@code keyframeInterval} frames the whole
+ * state is refreshed from the table and sent as a keyframe; newly connected or resyncing clients
+ * get an on-demand keyframe of the reference state. The encoder is shared by every delta client
+ * of the camera and must only be used from one thread at a time.
+ */
+final class DeltaTelemetryEncoder {
+
+    private static final int FIELDS = 8;
+    private static final int X = 0;
+    private static final int Y = 1;
+    private static final int WIDTH = 2;
+    private static final int HEIGHT = 3;
+    private static final int VX = 4;
+    private static final int VY = 5;
+    private static final int LABEL = 6;
+    private static final int CONFIDENCE = 7;
+    private static final int PREFIX_BYTES = 8 + 4 + 2 + 2;
+
+    private final String cameraId;
+    private final byte[] cameraBytes;
+    private final int cameraPadding;
+    private final LabelRegistry labels;
+    private final int keyframeInterval;
+    private final int positionThreshold;
+    private final int velocityThreshold;
+    private final int confidenceThreshold;
+
+    private final LongLongHashMap slots = new LongLongHashMap(64);
+    private int[] reference = new int[64 * FIELDS];
+    private int[] trackNumbers = new int[64];
+    private long[] lastSeen = new long[64];
+    private boolean[] used = new boolean[64];
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int slotLimit;
+    private int[] upserts = new int[64];
+    private int[] removed = new int[64];
+    private final int[] current = new int[FIELDS];
+    private final FrameTiming timing = new FrameTiming();
+
+    private ByteBuffer buffer = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+    private int sequence;
+    private long timestamp;
+    private boolean keyframe;
+    private ByteBuffer cachedKeyframe;
+    private int cachedKeyframeSequence = -1;
+
+    DeltaTelemetryEncoder(String cameraId,
+                          LabelRegistry labels,
+                          int keyframeInterval,
+                          float positionThreshold,
+                          float velocityThreshold,
+                          float confidenceThreshold) {
+        this.cameraId = cameraId != null ? cameraId : "";
+        this.cameraBytes = BinaryTelemetryEncoder.utf8(this.cameraId, 0xFFFF);
+        this.cameraPadding = (4 - ((TelemetryProtocol.HEADER_BYTES + 2 + cameraBytes.length) & 3)) & 3;
+        this.labels = labels;
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+        this.positionThreshold = Math.max(1, Math.round(positionThreshold * TelemetryProtocol.POSITION_SCALE));
+        this.velocityThreshold = Math.max(1, Math.round(velocityThreshold * TelemetryProtocol.VELOCITY_SCALE));
+        this.confidenceThreshold = Math.max(1, Math.round(confidenceThreshold * TelemetryProtocol.CONFIDENCE_SCALE));
+    }
+
+    String getCameraId() {
+        return cameraId;
+    }
+
+    /**
+     * Sequence of the last encoded frame; consecutive frames of the camera differ by one.
+     */
+    int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * {@code System.nanoTime()} the last encoded frame was captured at; 0 if unknown.
+     */
+    long getCaptureNanos() {
+        return timing.captureNanos();
+    }
+
+    /**
+     * True if the last frame was encoded as a periodic keyframe rather than a delta.
+     */
+    boolean isKeyframe() {
+        return keyframe;
+    }
+
+    /**
+     * Folds the next tracker frame into the reference state and returns the message every
+     * in-sync client should receive: a delta, or a keyframe every {@code keyframeInterval} frames.
+     */
+    ByteBuffer encode(TrackTable tracks) {
+        sequence++;
+        timestamp = tracks.getTimestamp();
+        timing.set(tracks, System.nanoTime());
+        keyframe = sequence % keyframeInterval == 1 || keyframeInterval == 1;
+        int count = tracks.size();
+        if (upserts.length < count) {
+            upserts = new int[Math.max(count, upserts.length * 2)];
+        }
+        int upsertCount = 0;
+        for (int row = 0; row < count; row++) {
+            quantize(tracks, row);
+            long key = tracks.getTrackNumber(row) & 0xFFFFFFFFL;
+            int slot = (int) slots.get(key, -1L);
+            boolean changed;
+            if (slot < 0) {
+                slot = allocateSlot(tracks.getTrackNumber(row));
+                slots.put(key, slot);
+                changed = true;
+            } else {
+                changed = keyframe || exceedsThresholds(slot);
+            }
+            lastSeen[slot] = sequence;
+            if (changed) {
+                System.arraycopy(current, 0, reference, slot * FIELDS, FIELDS);
+                upserts[upsertCount++] = slot;
+            }
+        }
+        int removedCount = 0;
+        for (int slot = 0; slot < slotLimit; slot++) {
+            if (used[slot] && lastSeen[slot] != sequence) {
+                if (removed.length == removedCount) {
+                    removed = Arrays.copyOf(removed, removedCount * 2);
+                }
+                removed[removedCount++] = trackNumbers[slot];
+                slots.remove(trackNumbers[slot] & 0xFFFFFFFFL);
+                releaseSlot(slot);
+            }
+        }
+        if (keyframe) {
+            return encodeKeyframe();
+        }
+        writePrefix(TelemetryProtocol.TYPE_DELTA, upsertCount, removedCount);
+        for (int i = 0; i < upsertCount; i++) {
+            buffer.putInt(trackNumbers[upserts[i]]);
+        }
+        for (int i = 0; i < removedCount; i++) {
+            buffer.putInt(removed[i]);
+        }
+        writeColumns(upserts, upsertCount);
+        writeTiming();
+        return copy();
+    }
+
+    /**
+     * Keyframe of the reference state as of the last encoded frame, for clients that are not in
+     * sync. Encoded once per frame no matter how many clients need it.
+     */
+    ByteBuffer keyframe() {
+        if (cachedKeyframeSequence != sequence) {
+            encodeKeyframe();
+        }
+        return cachedKeyframe.duplicate();
+    }
+
+    private ByteBuffer encodeKeyframe() {
+        int count = slots.size();
+        if (upserts.length < count) {
+            upserts = new int[Math.max(count, upserts.length * 2)];
+        }
+        int n = 0;
+        for (int slot = 0; slot < slotLimit; slot++) {
+            if (used[slot]) {
+                upserts[n++] = slot;
+            }
+        }
+        writePrefix(TelemetryProtocol.TYPE_KEYFRAME, n, 0);
+        for (int i = 0; i < n; i++) {
+            buffer.putInt(trackNumbers[upserts[i]]);
+        }
+        writeColumns(upserts, n);
+        writeTiming();
+        cachedKeyframe = copy();
+        cachedKeyframeSequence = sequence;
+        return cachedKeyframe.duplicate();
+    }
+
+    private void quantize(TrackTable tracks, int row) {
+        current[X] = clampShort(tracks.getX(row) * TelemetryProtocol.POSITION_SCALE);
+        current[Y] = clampShort(tracks.getY(row) * TelemetryProtocol.POSITION_SCALE);
+        current[WIDTH] = clampShort(tracks.getWidth(row) * TelemetryProtocol.POSITION_SCALE);
+        current[HEIGHT] = clampShort(tracks.getHeight(row) * TelemetryProtocol.POSITION_SCALE);
+        current[VX] = clampShort(tracks.getVelocityX(row) * TelemetryProtocol.VELOCITY_SCALE);
+        current[VY] = clampShort(tracks.getVelocityY(row) * TelemetryProtocol.VELOCITY_SCALE);
+        current[LABEL] = labels.idOf(tracks.getLabel(row));
+        current[CONFIDENCE] = BinaryTelemetryEncoder.quantizeConfidence(tracks.getConfidence(row)) & 0xFFFF;
+    }
+
+    private boolean exceedsThresholds(int slot) {
+        int base = slot * FIELDS;
+        return reference[base + LABEL] != current[LABEL]
+            || Math.abs(reference[base + X] - current[X]) >= positionThreshold
+            || Math.abs(reference[base + Y] - current[Y]) >= positionThreshold
+            || Math.abs(reference[base + WIDTH] - current[WIDTH]) >= positionThreshold
+            || Math.abs(reference[base + HEIGHT] - current[HEIGHT]) >= positionThreshold
+            || Math.abs(reference[base + VX] - current[VX]) >= velocityThreshold
+            || Math.abs(reference[base + VY] - current[VY]) >= velocityThreshold
+            || Math.abs(reference[base + CONFIDENCE] - current[CONFIDENCE]) >= confidenceThreshold;
+    }
+
+    private int allocateSlot(int trackNumber) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotLimit == trackNumbers.length) {
+                int capacity = slotLimit * 2;
+                reference = Arrays.copyOf(reference, capacity * FIELDS);
+                trackNumbers = Arrays.copyOf(trackNumbers, capacity);
+                lastSeen = Arrays.copyOf(lastSeen, capacity);
+                used = Arrays.copyOf(used, capacity);
+                freeSlots = Arrays.copyOf(freeSlots, capacity);
+            }
+            slot = slotLimit++;
+        }
+        used[slot] = true;
+        trackNumbers[slot] = trackNumber;
+        return slot;
+    }
+
+    private void releaseSlot(int slot) {
+        used[slot] = false;
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void writePrefix(int type, int upsertCount, int removedCount) {
+        if (upsertCount > 0xFFFF || removedCount > 0xFFFF) {
+            throw new IllegalArgumentException("Too many tracks for one frame: " + upsertCount + "/" + removedCount);
+        }
+        int size = TelemetryProtocol.HEADER_BYTES + 2 + cameraBytes.length + cameraPadding + PREFIX_BYTES
+            + upsertCount * (4 + 6 * Short.BYTES + 2 + 2) + removedCount * 4 + FrameTiming.BYTES;
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        buffer.clear();
+        buffer.putShort((short) TelemetryProtocol.MAGIC);
+        buffer.put((byte) TelemetryProtocol.VERSION);
+        buffer.put((byte) type);
+        buffer.putShort((short) cameraBytes.length);
+        buffer.put(cameraBytes);
+        for (int i = 0; i < cameraPadding; i++) {
+            buffer.put((byte) 0);
+        }
+        buffer.putDouble(timestamp);
+        buffer.putInt(sequence);
+        buffer.putShort((short) upsertCount);
+        buffer.putShort((short) removedCount);
+    }
+
+    private void writeColumns(int[] slotList, int count) {
+        for (int field = 0; field < FIELDS; field++) {
+            for (int i = 0; i < count; i++) {
+                buffer.putShort((short) reference[slotList[i] * FIELDS + field]);
+            }
+        }
+    }
+
+    /**
+     * Deltas and keyframes both carry the timing of the last encoded frame.
+     */
+    private void writeTiming() {
+        if (timing.isKnown()) {
+            timing.write(buffer);
+        }
+    }
+
+    private ByteBuffer copy() {
+        ByteBuffer copy = ByteBuffer.allocate(buffer.position());
+        copy.put(buffer.array(), 0, buffer.position());
+        return copy.flip();
+    }
+
+    private static int clampShort(float value) {
+        if (!Float.isFinite(value)) {
+            return 0;
+        }
+        return Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(value)));
+    }
+}
@@ -0,0 +1,87 @@
+package com.starwatchx.telemetry;
+
+import com.starwatchx.tracking.TrackTable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Capture timing of one frame as it goes on the wire: the timing trailer of binary frames and
+ * the {@code latency} object of JSON packets (see {@link TelemetryProtocol}). Stage times are
+ * offsets from the capture instant, so they stay meaningful on a client whose clock differs from
+ * the engine's. Reused frame after frame by its encoder.
+ */
+final class FrameTiming {
+
+    /** Size of the binary trailer. */
+    static final int BYTES = TelemetryProtocol.TIMING_BYTES;
+
+    private long frameSequence;
+    private double ptsMillis = Double.NaN;
+    private long captureNanos;
+    private long grabMicros;
+    private long processMicros;
+    private long dispatchMicros;
+
+    /**
+     * Takes the timing of {@code tracks}, dispatched at {@code dispatchedNanos}. Returns false,
+     * and forgets the previous frame's timing, if the table was never stamped with a capture.
+     */
+    boolean set(TrackTable tracks, long dispatchedNanos) {
+        captureNanos = tracks.getCaptureNanos();
+        if (captureNanos == 0L) {
+            return false;
+        }
+        frameSequence = tracks.getFrameSequence();
+        ptsMillis = tracks.getPtsMillis();
+        grabMicros = micros(tracks.getGrabNanos());
+        processMicros = tracks.getPublishedNanos() != 0L ? micros(tracks.getPublishedNanos() - captureNanos) : 0L;
+        dispatchMicros = micros(dispatchedNanos - captureNanos);
+        return true;
+    }
+
+    boolean isKnown() {
+        return captureNanos != 0L;
+    }
+
+    /**
+     * {@code System.nanoTime()} the frame was captured at; 0 if unknown.
+     */
+    long captureNanos() {
+        return captureNanos;
+    }
+
+    long frameSequence() {
+        return frameSequence;
+    }
+
+    double ptsMillis() {
+        return ptsMillis;
+    }
+
+    long grabMicros() {
+        return grabMicros;
+    }
+
+    long processMicros() {
+        return processMicros;
+    }
+
+    long dispatchMicros() {
+        return dispatchMicros;
+    }
+
+    /**
+     * Writes the {@value #BYTES}-byte trailer into a little-endian buffer.
+     */
+    void write(ByteBuffer out) {
+        out.putDouble(ptsMillis);
+        out.putInt((int) frameSequence);
+        out.putInt((int) grabMicros);
+        out.putInt((int) processMicros);
+        out.putInt((int) dispatchMicros);
+    }
+
+    private static long micros(long nanos) {
+        return Math.max(0L, Math.min(0xFFFF_FFFFL, nanos / 1_000L));
+    }
+}
@@ -0,0 +1,40 @@
+package com.starwatchx.telemetry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Append-only mapping from class labels to the small ids used on the binary wire.
+ * Ids are assigned on first use and never change for the lifetime of the server.
+ */
+public final class LabelRegistry {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<String> labels = new CopyOnWriteArrayList<>();
+
+    public int idOf(String label) {
+        String key = label != null ? label : "";
+        Integer id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(key);
+            if (id == null) {
+                id = labels.size();
+                labels.add(key);
+                ids.put(key, id);
+            }
+            return id;
+        }
+    }
+
+    public int size() {
+        return labels.size();
+    }
+
+    public String labelOf(int id) {
+        return labels.get(id);
+    }
+}
@@ -0,0 +1,58 @@
+package com.starwatchx.telemetry;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * permessage-deflate (RFC 7692) compression of outgoing telemetry messages.
+ * <p>
+ * The server always negotiates {@code server_no_context_takeover}, so every message is compressed
+ * on its own and the result is valid for any client that negotiated the extension. That is what
+ * lets a {@link PreframedMessage} compress once and share the bytes across all such clients.
+ * Messages smaller than {@code thresholdBytes} are sent uncompressed.
+ */
+public final class MessageCompressor {
+
+    private static final int SYNC_FLUSH_TAIL = 4;
+
+    private final int thresholdBytes;
+    private final Deflater deflater;
+    private byte[] output = new byte[4096];
+
+    /**
+     * @param thresholdBytes smallest payload worth compressing
+     * @param level          {@link Deflater} level, 1 (fastest) to 9 (smallest)
+     */
+    public MessageCompressor(int thresholdBytes, int level) {
+        this.thresholdBytes = Math.max(0, thresholdBytes);
+        this.deflater = new Deflater(Math.max(Deflater.BEST_SPEED, Math.min(Deflater.BEST_COMPRESSION, level)), true);
+    }
+
+    public int getThresholdBytes() {
+        return thresholdBytes;
+    }
+
+    boolean worthCompressing(int payloadBytes) {
+        return payloadBytes >= thresholdBytes;
+    }
+
+    /**
+     * Returns the raw deflate stream of {@code payload} with the trailing empty stored block
+     * removed, as the extension requires. Writers may call this concurrently, so it is serialized
+     * on the shared {@link Deflater}.
+     */
+    synchronized byte[] compress(ByteBuffer payload) {
+        deflater.reset();
+        deflater.setInput(payload.duplicate());
+        int length = 0;
+        while (true) {
+            length += deflater.deflate(output, length, output.length - length, Deflater.SYNC_FLUSH);
+            if (length < output.length) {
+                break;
+            }
+            output = Arrays.copyOf(output, output.length * 2);
+        }
+        return Arrays.copyOf(output, Math.max(0, length - SYNC_FLUSH_TAIL));
+    }
+}
@@ -0,0 +1,48 @@
+package com.starwatchx.telemetry;
+
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.extensions.IExtension;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.protocols.IProtocol;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 6455 draft that sends {@link PreframedMessage}s as-is instead of framing (and possibly
+ * compressing) them again for every connection. All other frames, such as control frames and
+ * per-client label tables, go through the regular path.
+ */
+final class PreframedDraft extends Draft_6455 {
+
+    PreframedDraft(List<IExtension> extensions, List<IProtocol> protocols) {
+        super(extensions, protocols);
+    }
+
+    @Override
+    public ByteBuffer createBinaryFrame(Framedata framedata) {
+        if (framedata instanceof PreframedMessage.Frame frame) {
+            return frame.getMessage().wireFrame(getExtension() instanceof PerMessageDeflateExtension);
+        }
+        return super.createBinaryFrame(framedata);
+    }
+
+    /**
+     * Each connection gets its own copy; the base class would return a plain {@link Draft_6455}.
+     */
+    @Override
+    public Draft copyInstance() {
+        List<IExtension> extensions = new ArrayList<>();
+        for (IExtension extension : getKnownExtensions()) {
+            extensions.add(extension.copyInstance());
+        }
+        List<IProtocol> protocols = new ArrayList<>();
+        for (IProtocol protocol : getKnownProtocols()) {
+            protocols.add(protocol.copyInstance());
+        }
+        return new PreframedDraft(extensions, protocols);
+    }
+}
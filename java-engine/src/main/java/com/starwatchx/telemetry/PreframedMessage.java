@@ -0,0 +1,137 @@
+package com.starwatchx.telemetry;
+
+import org.java_websocket.enums.Opcode;
+import org.java_websocket.framing.DataFrame;
+import org.java_websocket.framing.Framedata;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An outgoing message serialized and framed once, then shared by every client that receives it.
+ * <p>
+ * The complete WebSocket frame (header and payload) is built up front. Clients that negotiated
+ * permessage-deflate get a compressed frame instead, built by the first writer that needs it and
+ * reused by the others. {@link PreframedDraft} hands each connection a duplicate of these bytes,
+ * so a message costs the same to encode whether one client or fifty receive it.
+ */
+final class PreframedMessage {
+
+    private static final byte FIN = (byte) 0x80;
+    private static final byte RSV1 = 0x40;
+    private static final byte OPCODE_TEXT = 0x1;
+    private static final byte OPCODE_BINARY = 0x2;
+
+    private final boolean text;
+    private final ByteBuffer frame;
+    private final int headerLength;
+    private final MessageCompressor compressor;
+    private final Framedata framedata;
+    private final long captureNanos;
+    /** Guarded by {@code this}; built on first use by a deflate client. */
+    private ByteBuffer deflatedFrame;
+
+    /**
+     * @param payload    UTF-8 JSON when {@code text}, otherwise a binary telemetry message
+     * @param compressor compression for deflate clients, or {@code null} to always send plain
+     */
+    PreframedMessage(ByteBuffer payload, boolean text, MessageCompressor compressor) {
+        this(payload, text, compressor, 0L);
+    }
+
+    /**
+     * @param captureNanos {@code System.nanoTime()} the oldest frame in the message was captured
+     *                     at; 0 for messages that carry no frame or an unstamped one
+     */
+    PreframedMessage(ByteBuffer payload, boolean text, MessageCompressor compressor, long captureNanos) {
+        this.text = text;
+        this.captureNanos = captureNanos;
+        this.frame = frame(payload, text, false);
+        this.headerLength = frame.remaining() - payload.remaining();
+        this.compressor = compressor != null && compressor.worthCompressing(payload.remaining()) ? compressor : null;
+        this.framedata = new Frame(this);
+    }
+
+    boolean isText() {
+        return text;
+    }
+
+    /**
+     * The frame to pass to {@code WebSocket.sendFrame}; it is the same object for every client.
+     */
+    Framedata framedata() {
+        return framedata;
+    }
+
+    long captureNanos() {
+        return captureNanos;
+    }
+
+    int payloadLength() {
+        return frame.remaining() - headerLength;
+    }
+
+    /**
+     * Read-only view of the unframed payload, e.g. to embed it in a batch.
+     */
+    ByteBuffer payload() {
+        return frame.asReadOnlyBuffer().position(headerLength).slice();
+    }
+
+    /**
+     * A private view of the wire bytes for one connection.
+     */
+    ByteBuffer wireFrame(boolean deflate) {
+        if (!deflate || compressor == null) {
+            return frame.duplicate();
+        }
+        synchronized (this) {
+            if (deflatedFrame == null) {
+                deflatedFrame = deflate();
+            }
+            return deflatedFrame.duplicate();
+        }
+    }
+
+    private ByteBuffer deflate() {
+        ByteBuffer payload = frame.duplicate().position(headerLength);
+        byte[] compressed = compressor.compress(payload);
+        // Sending uncompressed is always allowed; do so when deflate does not pay off.
+        return compressed.length < payload.remaining() ? frame(ByteBuffer.wrap(compressed), text, true) : frame;
+    }
+
+    private static ByteBuffer frame(ByteBuffer payload, boolean text, boolean compressed) {
+        int length = payload.remaining();
+        int header = length < 126 ? 2 : length <= 0xFFFF ? 4 : 10;
+        ByteBuffer out = ByteBuffer.allocate(header + length);
+        out.put((byte) (FIN | (compressed ? RSV1 : 0) | (text ? OPCODE_TEXT : OPCODE_BINARY)));
+        if (length < 126) {
+            out.put((byte) length);
+        } else if (length <= 0xFFFF) {
+            out.put((byte) 126);
+            out.putShort((short) length);
+        } else {
+            out.put((byte) 127);
+            out.putLong(length);
+        }
+        out.put(payload.duplicate());
+        return out.flip();
+    }
+
+    /**
+     * Marker frame recognized by {@link PreframedDraft}; its payload is only there for code that
+     * inspects frames, the wire bytes come from the message.
+     */
+    static final class Frame extends DataFrame {
+        private final PreframedMessage message;
+
+        private Frame(PreframedMessage message) {
+            super(message.text ? Opcode.TEXT : Opcode.BINARY);
+            this.message = message;
+            setPayload(message.frame.duplicate().position(message.headerLength).slice());
+        }
+
+        PreframedMessage getMessage() {
+            return message;
+        }
+    }
+}
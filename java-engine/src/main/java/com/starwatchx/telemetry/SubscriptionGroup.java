@@ -0,0 +1,383 @@
+package com.starwatchx.telemetry;
+
+import com.starwatchx.tracking.TrackTable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Supplier;
+
+/**
+ * Clients that receive byte-identical frames: same wire format, row filter and rate limit.
+ * <p>
+ * Each frame is filtered, downsampled and encoded once for the whole group, then offered to the
+ * members that subscribed to the camera. Delta groups own their own {@link DeltaTelemetryEncoder}
+ * per camera, because a delta stream only makes sense at one filter and rate. Members share the
+ * group's {@link PreframedMessage}s byte for byte. Membership changes on WebSocket threads;
+ * everything else is only touched by the dispatcher thread.
+ * <p>
+ * In aggregation mode ({@code batched}) frames are collected until {@link #flush} and each member
+ * gets one batch message per tick holding every camera it subscribed to, so the message count no
+ * longer grows with the number of cameras.
+ * <p>
+ * The group keeps the latest encoded state of every camera its members want (the last full
+ * frame, or the current keyframe for delta groups), so a member that joins gets a snapshot right
+ * away ({@link #sendSnapshot}) instead of a blank view until each camera's next frame. Snapshot
+ * batches are cached per camera selection until the next frame changes them, so a reconnect
+ * storm costs one batch per distinct subscription rather than one per client.
+ */
+final class SubscriptionGroup {
+
+    /**
+     * Everything that shapes the encoded bytes; the camera list only decides who receives them.
+     */
+    record Key(WireFormat format, Set<String> labels, float minConfidence, float maxRate) {
+
+        static Key of(WireFormat format, TelemetrySubscription subscription) {
+            return new Key(format, subscription.labels(), subscription.minConfidence(), subscription.maxRate());
+        }
+    }
+
+    /** Outbox slot of batch messages; camera ids are the slots in per-frame mode. */
+    private static final String BATCH_SLOT = "\u0000batch";
+
+    private final Key key;
+    private final boolean batched;
+    private final TelemetrySubscription filter;
+    private final long minIntervalMillis;
+    private final Set<ClientSession> members = new CopyOnWriteArraySet<>();
+    private final Map<String, CameraState> cameras = new LinkedHashMap<>();
+    private final TrackTable filtered = new TrackTable();
+    private final List<Part> pending = new ArrayList<>();
+    /** Snapshot batches by subscribed camera set; cleared whenever camera state changes. */
+    private final Map<Set<String>, PreframedMessage> snapshots = new HashMap<>();
+
+    SubscriptionGroup(Key key, boolean batched) {
+        this.key = key;
+        this.batched = batched;
+        this.filter = new TelemetrySubscription(Set.of(), key.labels(), key.minConfidence(), key.maxRate());
+        this.minIntervalMillis = filter.minIntervalMillis();
+    }
+
+    Key getKey() {
+        return key;
+    }
+
+    void add(ClientSession session) {
+        members.add(session);
+    }
+
+    /**
+     * Removes the session and returns true if the group is now empty.
+     */
+    boolean remove(ClientSession session) {
+        members.remove(session);
+        return members.isEmpty();
+    }
+
+    void dispatchTracks(TrackTable tracks, TelemetryEncoders encoders) {
+        String cameraId = tracks.getCameraId() != null ? tracks.getCameraId() : "";
+        if (!anyMemberWants(cameraId)) {
+            forget(cameraId);
+            return;
+        }
+        CameraState state = cameras.computeIfAbsent(cameraId, id -> new CameraState());
+        if (!state.due(tracks.getTimestamp())) {
+            return;
+        }
+        snapshots.clear();
+        TrackTable view = filter.filtersRows() ? filter(tracks) : tracks;
+        if (key.format() == WireFormat.DELTA) {
+            if (state.delta == null) {
+                state.delta = encoders.newDeltaEncoder(cameraId);
+            }
+            dispatchDelta(cameraId, state, view, encoders);
+            return;
+        }
+        PreframedMessage frame = key.format() == WireFormat.JSON
+            ? encoders.json(view)
+            : encoders.binary(view, ++state.sequence);
+        state.latest = frame;
+        if (batched) {
+            pending.add(new Part(cameraId, frame, null, false));
+            return;
+        }
+        for (ClientSession member : members) {
+            if (member.getSubscription().includesCamera(cameraId)) {
+                member.getOutbox().offerFrame(cameraId, frame, null);
+            }
+        }
+    }
+
+    /**
+     * Forwards a packet that did not come from the tracker. Delta members get it as a full frame
+     * and restart from a keyframe, since it may displace one of their pending deltas.
+     */
+    void dispatchPacket(TelemetryPacket packet, TelemetryEncoders encoders) {
+        String cameraId = packet.getCameraId() != null ? packet.getCameraId() : "";
+        if (!anyMemberWants(cameraId)) {
+            forget(cameraId);
+            return;
+        }
+        CameraState state = cameras.computeIfAbsent(cameraId, id -> new CameraState());
+        snapshots.clear();
+        PreframedMessage frame = key.format() == WireFormat.JSON
+            ? encoders.json(packet)
+            : encoders.binary(packet, ++state.sequence);
+        if (key.format() != WireFormat.DELTA) {
+            state.latest = frame;
+        }
+        if (batched) {
+            pending.add(new Part(cameraId, frame, null, key.format() == WireFormat.DELTA));
+            return;
+        }
+        for (ClientSession member : members) {
+            if (member.getSubscription().includesCamera(cameraId)) {
+                if (key.format() == WireFormat.DELTA) {
+                    member.requestResync(cameraId);
+                }
+                member.getOutbox().offerFrame(cameraId, frame, null);
+            }
+        }
+    }
+
+    private void dispatchDelta(String cameraId, CameraState state, TrackTable view, TelemetryEncoders encoders) {
+        DeltaTelemetryEncoder delta = state.delta;
+        PreframedMessage frame = encoders.message(delta.encode(view), false, delta.getCaptureNanos());
+        Supplier<PreframedMessage> keyframe = () -> state.keyframe(encoders);
+        if (batched) {
+            pending.add(new Part(cameraId, frame, keyframe, false));
+            return;
+        }
+        for (ClientSession member : members) {
+            if (!member.getSubscription().includesCamera(cameraId)) {
+                continue;
+            }
+            boolean inSync = delta.isKeyframe() || member.isSynced(cameraId);
+            member.markSynced(cameraId);
+            member.getOutbox().offerFrame(cameraId, inSync ? frame : keyframe.get(), keyframe);
+        }
+    }
+
+    /**
+     * Sends the frames collected since the last tick, one batch message per member. Members that
+     * pick the same parts (same cameras, same delta sync state) share one encoded batch. A batch
+     * the client has not taken yet is replaced by a snapshot of every camera's latest state,
+     * keyframes for delta members, so nothing is lost when batches are coalesced.
+     */
+    void flush(TelemetryEncoders encoders) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<List<PreframedMessage>, PreframedMessage> batches = new HashMap<>();
+        for (ClientSession member : members) {
+            List<PreframedMessage> parts = new ArrayList<>(pending.size());
+            for (Part part : pending) {
+                if (!member.getSubscription().includesCamera(part.cameraId())) {
+                    continue;
+                }
+                boolean inSync = part.keyframe() == null || member.isSynced(part.cameraId());
+                parts.add(inSync ? part.frame() : part.keyframe().get());
+                member.markSynced(part.cameraId());
+                if (part.resyncAfter()) {
+                    member.requestResync(part.cameraId());
+                }
+            }
+            if (parts.isEmpty()) {
+                continue;
+            }
+            PreframedMessage batch = batches.computeIfAbsent(parts, p -> encoders.batch(p, key.format() == WireFormat.JSON));
+            member.getOutbox().offerFrame(BATCH_SLOT, batch, () -> snapshot(member, encoders));
+        }
+        pending.clear();
+    }
+
+    /**
+     * Encodes a camera's latest table for a group that has no state for it yet, e.g. one created
+     * for a new subscription, without sending it. Cameras the group already follows are left
+     * alone: advancing their delta streams here would desynchronize the members.
+     */
+    void seed(TrackTable tracks, TelemetryEncoders encoders) {
+        String cameraId = tracks.getCameraId() != null ? tracks.getCameraId() : "";
+        if (cameras.containsKey(cameraId) || !anyMemberWants(cameraId)) {
+            return;
+        }
+        CameraState state = new CameraState();
+        cameras.put(cameraId, state);
+        snapshots.clear();
+        TrackTable view = filter.filtersRows() ? filter(tracks) : tracks;
+        if (key.format() == WireFormat.DELTA) {
+            state.delta = encoders.newDeltaEncoder(cameraId);
+            state.delta.encode(view);
+        } else {
+            state.latest = key.format() == WireFormat.JSON
+                ? encoders.json(view)
+                : encoders.binary(view, ++state.sequence);
+        }
+    }
+
+    /**
+     * Queues the latest state of every camera the member subscribed to, as one batch when
+     * aggregating and per camera otherwise. Delta members count as synced afterwards, so the next
+     * deltas apply on top of the snapshot's keyframes.
+     */
+    void sendSnapshot(ClientSession member, TelemetryEncoders encoders) {
+        if (!members.contains(member)) {
+            return;
+        }
+        if (batched) {
+            if (hasStateFor(member)) {
+                member.getOutbox().offerFrame(BATCH_SLOT, snapshot(member, encoders), () -> snapshot(member, encoders));
+            }
+            return;
+        }
+        for (Map.Entry<String, CameraState> entry : cameras.entrySet()) {
+            String cameraId = entry.getKey();
+            CameraState state = entry.getValue();
+            PreframedMessage part = state.snapshot(encoders);
+            if (part == null || !member.getSubscription().includesCamera(cameraId)) {
+                continue;
+            }
+            member.markSynced(cameraId);
+            member.getOutbox().offerFrame(cameraId, part, state.delta != null ? () -> state.keyframe(encoders) : null);
+        }
+    }
+
+    /**
+     * Latest state of every camera the member subscribed to, as one batch shared with every member
+     * that picked the same cameras.
+     */
+    private PreframedMessage snapshot(ClientSession member, TelemetryEncoders encoders) {
+        Set<String> selection = member.getSubscription().cameras();
+        PreframedMessage cached = snapshots.get(selection);
+        List<PreframedMessage> parts = cached == null ? new ArrayList<>(cameras.size()) : null;
+        for (Map.Entry<String, CameraState> entry : cameras.entrySet()) {
+            PreframedMessage part = entry.getValue().snapshot(encoders);
+            if (part == null || !member.getSubscription().includesCamera(entry.getKey())) {
+                continue;
+            }
+            if (entry.getValue().delta != null) {
+                member.markSynced(entry.getKey());
+            }
+            if (parts != null) {
+                parts.add(part);
+            }
+        }
+        if (cached == null) {
+            cached = encoders.batch(parts, key.format() == WireFormat.JSON);
+            snapshots.put(selection, cached);
+        }
+        return cached;
+    }
+
+    private boolean hasStateFor(ClientSession member) {
+        for (Map.Entry<String, CameraState> entry : cameras.entrySet()) {
+            CameraState state = entry.getValue();
+            if ((state.delta != null || state.latest != null) && member.getSubscription().includesCamera(entry.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drops the state of a camera no member wants any more, so a later snapshot never shows a
+     * stale frame and a later subscriber starts a fresh delta stream.
+     */
+    private void forget(String cameraId) {
+        if (cameras.remove(cameraId) != null) {
+            snapshots.clear();
+        }
+    }
+
+    private boolean anyMemberWants(String cameraId) {
+        for (ClientSession member : members) {
+            if (member.getSubscription().includesCamera(cameraId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TrackTable filter(TrackTable tracks) {
+        filtered.reset(tracks.getCameraId(), tracks.getTimestamp(), tracks.getFrameSequence());
+        filtered.copyTimingFrom(tracks);
+        for (int row = 0; row < tracks.size(); row++) {
+            if (filter.accepts(tracks.getLabel(row), tracks.getConfidence(row))) {
+                filtered.addRow(
+                    tracks.getTrackId(row),
+                    tracks.getTrackNumber(row),
+                    tracks.getClassId(row),
+                    tracks.getLabel(row),
+                    tracks.getConfidence(row),
+                    tracks.getX(row),
+                    tracks.getY(row),
+                    tracks.getWidth(row),
+                    tracks.getHeight(row),
+                    tracks.getVelocityX(row),
+                    tracks.getVelocityY(row),
+                    tracks.getLastUpdateTimestamp(row),
+                    null
+                );
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * One camera's frame in the next batch. Delta parts carry the keyframe for members that lost
+     * sync; {@code resyncAfter} parts are full frames that delta members must follow with a
+     * keyframe.
+     */
+    private record Part(String cameraId,
+                        PreframedMessage frame,
+                        Supplier<PreframedMessage> keyframe,
+                        boolean resyncAfter) {
+    }
+
+    private final class CameraState {
+        private long lastEmitted = Long.MIN_VALUE;
+        private int sequence;
+        private DeltaTelemetryEncoder delta;
+        private PreframedMessage keyframe;
+        private int keyframeSequence;
+        /** Last full frame (JSON or binary formats), for snapshots. */
+        private PreframedMessage latest;
+
+        /**
+         * What a member needs to show the camera's current state, or {@code null} if nothing was
+         * encoded yet.
+         */
+        PreframedMessage snapshot(TelemetryEncoders encoders) {
+            return delta != null ? keyframe(encoders) : latest;
+        }
+
+        /**
+         * Rate limit on capture time. A tenth of the interval is tolerated so capture jitter does
+         * not push a 30 fps feed limited to 10 Hz down to every fourth frame.
+         */
+        boolean due(long timestamp) {
+            if (minIntervalMillis > 0 && lastEmitted != Long.MIN_VALUE && timestamp >= lastEmitted
+                && timestamp - lastEmitted < minIntervalMillis - minIntervalMillis / 10) {
+                return false;
+            }
+            lastEmitted = timestamp;
+            return true;
+        }
+
+        /**
+         * Keyframe of the current delta sequence, framed once no matter how many members need it.
+         */
+        PreframedMessage keyframe(TelemetryEncoders encoders) {
+            if (keyframe == null || keyframeSequence != delta.getSequence()) {
+                keyframe = encoders.message(delta.keyframe(), false, delta.getCaptureNanos());
+                keyframeSequence = delta.getSequence();
+            }
+            return keyframe;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.starwatchx.telemetry;
+
+import com.starwatchx.metrics.PipelineMetrics;
+
+/**
+ * Delivery counters and end-to-end latency of one telemetry connection.
+ *
+ * @param address          remote address of the client
+ * @param protocol         negotiated wire format
+ * @param sentMessages     messages handed to the socket
+ * @param sentBytes        payload bytes handed to the socket, before permessage-deflate
+ * @param coalescedFrames  frames replaced by a newer frame of the same camera before being sent
+ * @param droppedMessages  events dropped because the client's queue was full
+ * @param queuedMessages   frames and events currently waiting for the client's writer
+ * @param bufferedFrames   messages currently waiting in the socket's outbound buffer
+ * @param delivery         age of frames from capture until handed to the socket, over the metrics
+ *                         window as of its last rotation; {@code null} if none was sent in it or
+ *                         metrics are off
+ * @param render           age of frames from capture until drawn, as reported by the client, over
+ *                         the same window; {@code null} if it reported none
+ */
+public record TelemetryClientStats(String address,
+                                   String protocol,
+                                   long sentMessages,
+                                   long sentBytes,
+                                   long coalescedFrames,
+                                   long droppedMessages,
+                                   int queuedMessages,
+                                   int bufferedFrames,
+                                   PipelineMetrics.StageSummary delivery,
+                                   PipelineMetrics.StageSummary render) {
+}
@@ -0,0 +1,172 @@
+package com.starwatchx.telemetry;
+
+import com.starwatchx.tracking.TrackTable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encoders and delta settings owned by the telemetry dispatcher thread. Every
+ * {@link SubscriptionGroup} encodes through the same instances, so a frame costs one encoder
+ * pass per group that actually receives it. Results come back as {@link PreframedMessage}s that
+ * the group's members share.
+ */
+final class TelemetryEncoders {
+
+    private static final byte[] JSON_BATCH_START =
+        ("{\"kind\":\"" + TelemetryProtocol.BATCH + "\",\"frames\":[").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] JSON_BATCH_END = {']', '}'};
+    private static final int BINARY_BATCH_HEADER_BYTES = TelemetryProtocol.HEADER_BYTES + 4;
+
+    private final LabelRegistry labels;
+    private final TelemetryJsonEncoder json = new TelemetryJsonEncoder();
+    private final BinaryTelemetryEncoder binary;
+    private final MessageCompressor compressor;
+    private final FrameTiming timing = new FrameTiming();
+    private final int payloadLogEvery;
+    private final int keyframeInterval;
+    private final float positionThreshold;
+    private final float velocityThreshold;
+    private final float confidenceThreshold;
+    private long jsonPayloads;
+
+    TelemetryEncoders(LabelRegistry labels,
+                      int payloadLogEvery,
+                      int keyframeInterval,
+                      float positionThreshold,
+                      float velocityThreshold,
+                      float confidenceThreshold,
+                      MessageCompressor compressor) {
+        this.labels = labels;
+        this.binary = new BinaryTelemetryEncoder(labels);
+        this.payloadLogEvery = payloadLogEvery;
+        this.keyframeInterval = keyframeInterval;
+        this.positionThreshold = positionThreshold;
+        this.velocityThreshold = velocityThreshold;
+        this.confidenceThreshold = confidenceThreshold;
+        this.compressor = compressor;
+    }
+
+    PreframedMessage json(TrackTable tracks) {
+        timing.set(tracks, System.nanoTime());
+        return message(jsonPayload(json.encodeTracks(tracks, timing), "packet"), true, timing.captureNanos());
+    }
+
+    PreframedMessage json(TelemetryPacket packet) {
+        return message(jsonPayload(json.encodePacket(packet), "packet"), true);
+    }
+
+    PreframedMessage json(TelemetryEvent event) {
+        return message(jsonPayload(json.encodeEvent(event), "event"), true);
+    }
+
+    PreframedMessage binary(TrackTable tracks, int sequence) {
+        binary.encodeTracks(tracks, sequence);
+        if (timing.set(tracks, System.nanoTime())) {
+            binary.appendTiming(timing);
+        }
+        return message(binary.toByteBuffer(), false, timing.captureNanos());
+    }
+
+    PreframedMessage binary(TelemetryPacket packet, int sequence) {
+        return message(binary.encodePacket(packet, sequence).toByteBuffer(), false);
+    }
+
+    /**
+     * Frames an already encoded payload, e.g. a delta or keyframe.
+     */
+    PreframedMessage message(ByteBuffer payload, boolean text) {
+        return message(payload, text, 0L);
+    }
+
+    /**
+     * Frames an encoded payload whose frame was captured at {@code captureNanos} (0 if unknown).
+     */
+    PreframedMessage message(ByteBuffer payload, boolean text, long captureNanos) {
+        return new PreframedMessage(payload, text, compressor, captureNanos);
+    }
+
+    /**
+     * Combines already encoded frames into one message: a JSON {@code {"kind":"batch","frames":[...]}}
+     * or a binary {@link TelemetryProtocol#TYPE_BATCH} message. Its age is that of its oldest frame.
+     */
+    PreframedMessage batch(List<PreframedMessage> parts, boolean text) {
+        long oldestCapture = 0L;
+        for (PreframedMessage part : parts) {
+            long captureNanos = part.captureNanos();
+            if (captureNanos != 0L && (oldestCapture == 0L || captureNanos - oldestCapture < 0L)) {
+                oldestCapture = captureNanos;
+            }
+        }
+        if (text) {
+            return message(jsonBatch(parts), true, oldestCapture);
+        }
+        List<ByteBuffer> payloads = new ArrayList<>(parts.size());
+        for (PreframedMessage part : parts) {
+            payloads.add(part.payload());
+        }
+        return message(binaryBatch(payloads), false, oldestCapture);
+    }
+
+    DeltaTelemetryEncoder newDeltaEncoder(String cameraId) {
+        return new DeltaTelemetryEncoder(
+            cameraId, labels, keyframeInterval, positionThreshold, velocityThreshold, confidenceThreshold);
+    }
+
+    private static ByteBuffer jsonBatch(List<PreframedMessage> parts) {
+        int size = JSON_BATCH_START.length + JSON_BATCH_END.length + Math.max(0, parts.size() - 1);
+        for (PreframedMessage part : parts) {
+            size += part.payloadLength();
+        }
+        ByteBuffer out = ByteBuffer.allocate(size).put(JSON_BATCH_START);
+        for (int i = 0; i < parts.size(); i++) {
+            if (i > 0) {
+                out.put((byte) ',');
+            }
+            out.put(parts.get(i).payload());
+        }
+        return out.put(JSON_BATCH_END).flip();
+    }
+
+    /**
+     * Binary {@link TelemetryProtocol#TYPE_BATCH} payload carrying the given messages, in order.
+     */
+    static ByteBuffer binaryBatch(List<ByteBuffer> parts) {
+        if (parts.size() > 0xFFFF) {
+            throw new IllegalArgumentException("Too many frames for one batch: " + parts.size());
+        }
+        int size = BINARY_BATCH_HEADER_BYTES;
+        for (ByteBuffer part : parts) {
+            size += 4 + align4(part.remaining());
+        }
+        ByteBuffer out = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putShort((short) TelemetryProtocol.MAGIC)
+            .put((byte) TelemetryProtocol.VERSION)
+            .put((byte) TelemetryProtocol.TYPE_BATCH)
+            .putShort((short) parts.size())
+            .putShort((short) 0);
+        for (ByteBuffer part : parts) {
+            int length = part.remaining();
+            out.putInt(length).put(part.duplicate());
+            out.position(out.position() + align4(length) - length);
+        }
+        return out.flip();
+    }
+
+    private static int align4(int length) {
+        return (length + 3) & ~3;
+    }
+
+    /**
+     * Logs one in {@code payloadLogEvery} JSON payloads, packets and events alike.
+     */
+    private ByteBuffer jsonPayload(TelemetryJsonEncoder encoder, String kind) {
+        if (payloadLogEvery > 0 && jsonPayloads++ % payloadLogEvery == 0) {
+            System.out.println("[Telemetry] Sending " + kind + ": " + encoder);
+        }
+        return encoder.toByteBuffer();
+    }
+}
@@ -0,0 +1,130 @@
+package com.starwatchx.telemetry;
+
+/**
+ * Discrete analytics event (proximity alert, zone transition, ...) broadcast next to the
+ * per-frame telemetry packets. Serialized with {@code "kind": "event"} so clients can tell it
+ * apart from frame packets; optional fields stay {@code null} and are omitted from the JSON.
+ */
+public class TelemetryEvent {
+
+    public static final String KIND = "event";
+    public static final String TYPE_PROXIMITY = "proximity";
+    public static final String TYPE_ZONE_ENTER = "zone_enter";
+    public static final String TYPE_ZONE_INTRUSION = "zone_intrusion";
+    public static final String TYPE_ZONE_DWELL = "zone_dwell";
+    public static final String TYPE_ZONE_EXIT = "zone_exit";
+
+    private final String kind = KIND;
+    private String type;
+    private String cameraId;
+    private long timestamp;
+    private String trackId;
+    private String label;
+    private String otherTrackId;
+    private String otherLabel;
+    private Float distance;
+    private Float secondsToClosest;
+    private String zoneId;
+    private Long dwellMillis;
+
+    public TelemetryEvent() {
+    }
+
+    public TelemetryEvent(String type, String cameraId, long timestamp) {
+        this.type = type;
+        this.cameraId = cameraId;
+        this.timestamp = timestamp;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getCameraId() {
+        return cameraId;
+    }
+
+    public void setCameraId(String cameraId) {
+        this.cameraId = cameraId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getTrackId() {
+        return trackId;
+    }
+
+    public void setTrackId(String trackId) {
+        this.trackId = trackId;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public String getOtherTrackId() {
+        return otherTrackId;
+    }
+
+    public void setOtherTrackId(String otherTrackId) {
+        this.otherTrackId = otherTrackId;
+    }
+
+    public String getOtherLabel() {
+        return otherLabel;
+    }
+
+    public void setOtherLabel(String otherLabel) {
+        this.otherLabel = otherLabel;
+    }
+
+    public Float getDistance() {
+        return distance;
+    }
+
+    public void setDistance(Float distance) {
+        this.distance = distance;
+    }
+
+    public Float getSecondsToClosest() {
+        return secondsToClosest;
+    }
+
+    public void setSecondsToClosest(Float secondsToClosest) {
+        this.secondsToClosest = secondsToClosest;
+    }
+
+    public String getZoneId() {
+        return zoneId;
+    }
+
+    public void setZoneId(String zoneId) {
+        this.zoneId = zoneId;
+    }
+
+    public Long getDwellMillis() {
+        return dwellMillis;
+    }
+
+    public void setDwellMillis(Long dwellMillis) {
+        this.dwellMillis = dwellMillis;
+    }
+}
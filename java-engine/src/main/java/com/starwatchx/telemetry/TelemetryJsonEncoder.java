@@ -0,0 +1,364 @@
+package com.starwatchx.telemetry;
+
+import com.starwatchx.tracking.TrackTable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes telemetry JSON as UTF-8 straight into a reused byte buffer.
+ * <p>
+ * Field names and punctuation are pre-encoded, strings are escaped inline and floats are written
+ * in fixed point without going through {@link Float#toString}. Produces the same shapes as the
+ * Gson serialization of {@link TelemetryPacket} and {@link TelemetryEvent} (null fields omitted,
+ * non-finite numbers written as 0). Not thread-safe; use one encoder per thread.
+ */
+public final class TelemetryJsonEncoder {
+
+    /** Decimals for pixel coordinates, sizes and velocities. */
+    private static final int POSITION_DECIMALS = 2;
+    /** Decimals for confidences. */
+    private static final int CONFIDENCE_DECIMALS = 4;
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L};
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] PACKET_CAMERA = ascii("{\"cameraId\":");
+    private static final byte[] PACKET_TIMESTAMP = ascii(",\"timestamp\":");
+    private static final byte[] PACKET_OBJECTS = ascii(",\"objects\":[");
+    private static final byte[] PACKET_LATENCY = ascii(",\"latency\":{\"frameSequence\":");
+    private static final byte[] LATENCY_PTS = ascii(",\"ptsMillis\":");
+    private static final byte[] LATENCY_GRAB = ascii(",\"grabMicros\":");
+    private static final byte[] LATENCY_PROCESS = ascii(",\"processMicros\":");
+    private static final byte[] LATENCY_DISPATCH = ascii(",\"dispatchMicros\":");
+    private static final byte[] OBJECT_ID = ascii("{\"id\":");
+    private static final byte[] OBJECT_X = ascii(",\"x\":");
+    private static final byte[] OBJECT_Y = ascii(",\"y\":");
+    private static final byte[] OBJECT_WIDTH = ascii(",\"width\":");
+    private static final byte[] OBJECT_HEIGHT = ascii(",\"height\":");
+    private static final byte[] OBJECT_VX = ascii(",\"vx\":");
+    private static final byte[] OBJECT_VY = ascii(",\"vy\":");
+    private static final byte[] OBJECT_LABEL = ascii(",\"label\":");
+    private static final byte[] OBJECT_CONFIDENCE = ascii(",\"confidence\":");
+    private static final byte[] EVENT_KIND = ascii("{\"kind\":\"" + TelemetryEvent.KIND + "\"");
+    private static final byte[] EVENT_TYPE = ascii(",\"type\":");
+    private static final byte[] EVENT_CAMERA = ascii(",\"cameraId\":");
+    private static final byte[] EVENT_TIMESTAMP = ascii(",\"timestamp\":");
+    private static final byte[] EVENT_TRACK = ascii(",\"trackId\":");
+    private static final byte[] EVENT_LABEL = ascii(",\"label\":");
+    private static final byte[] EVENT_OTHER_TRACK = ascii(",\"otherTrackId\":");
+    private static final byte[] EVENT_OTHER_LABEL = ascii(",\"otherLabel\":");
+    private static final byte[] EVENT_DISTANCE = ascii(",\"distance\":");
+    private static final byte[] EVENT_SECONDS = ascii(",\"secondsToClosest\":");
+    private static final byte[] EVENT_ZONE = ascii(",\"zoneId\":");
+    private static final byte[] EVENT_DWELL = ascii(",\"dwellMillis\":");
+    private static final byte[] NULL = ascii("null");
+
+    private byte[] buffer;
+    private int length;
+
+    public TelemetryJsonEncoder() {
+        this(8192);
+    }
+
+    public TelemetryJsonEncoder(int initialCapacity) {
+        this.buffer = new byte[Math.max(256, initialCapacity)];
+    }
+
+    /**
+     * Encodes one frame of the tracker table; the result stays valid until the next call.
+     */
+    public TelemetryJsonEncoder encodeTracks(TrackTable tracks) {
+        return encodeTracks(tracks, null);
+    }
+
+    /**
+     * Encodes one frame with its capture timing as a {@code latency} object; live telemetry only.
+     */
+    TelemetryJsonEncoder encodeTracks(TrackTable tracks, FrameTiming timing) {
+        length = 0;
+        write(PACKET_CAMERA);
+        writeString(tracks.getCameraId());
+        write(PACKET_TIMESTAMP);
+        writeLong(tracks.getTimestamp());
+        write(PACKET_OBJECTS);
+        for (int row = 0; row < tracks.size(); row++) {
+            if (row > 0) {
+                writeByte(',');
+            }
+            writeObject(
+                tracks.getTrackId(row),
+                tracks.getX(row),
+                tracks.getY(row),
+                tracks.getWidth(row),
+                tracks.getHeight(row),
+                tracks.getVelocityX(row),
+                tracks.getVelocityY(row),
+                tracks.getLabel(row),
+                tracks.getConfidence(row)
+            );
+        }
+        writeByte(']');
+        if (timing != null && timing.isKnown()) {
+            writeLatency(timing);
+        }
+        writeByte('}');
+        return this;
+    }
+
+    public TelemetryJsonEncoder encodePacket(TelemetryPacket packet) {
+        length = 0;
+        write(PACKET_CAMERA);
+        writeString(packet.getCameraId());
+        write(PACKET_TIMESTAMP);
+        writeLong(packet.getTimestamp());
+        write(PACKET_OBJECTS);
+        boolean first = true;
+        for (TelemetryPacket.ObjectTelemetry object : packet.getObjects()) {
+            if (!first) {
+                writeByte(',');
+            }
+            first = false;
+            writeObject(
+                object.getId(),
+                object.getX(),
+                object.getY(),
+                object.getWidth(),
+                object.getHeight(),
+                object.getVx(),
+                object.getVy(),
+                object.getLabel(),
+                object.getConfidence()
+            );
+        }
+        writeByte(']');
+        writeByte('}');
+        return this;
+    }
+
+    public TelemetryJsonEncoder encodeEvent(TelemetryEvent event) {
+        length = 0;
+        write(EVENT_KIND);
+        writeOptionalString(EVENT_TYPE, event.getType());
+        writeOptionalString(EVENT_CAMERA, event.getCameraId());
+        write(EVENT_TIMESTAMP);
+        writeLong(event.getTimestamp());
+        writeOptionalString(EVENT_TRACK, event.getTrackId());
+        writeOptionalString(EVENT_LABEL, event.getLabel());
+        writeOptionalString(EVENT_OTHER_TRACK, event.getOtherTrackId());
+        writeOptionalString(EVENT_OTHER_LABEL, event.getOtherLabel());
+        if (event.getDistance() != null) {
+            write(EVENT_DISTANCE);
+            writeFloat(event.getDistance(), POSITION_DECIMALS);
+        }
+        if (event.getSecondsToClosest() != null) {
+            write(EVENT_SECONDS);
+            writeFloat(event.getSecondsToClosest(), POSITION_DECIMALS);
+        }
+        writeOptionalString(EVENT_ZONE, event.getZoneId());
+        if (event.getDwellMillis() != null) {
+            write(EVENT_DWELL);
+            writeLong(event.getDwellMillis());
+        }
+        writeByte('}');
+        return this;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Backing array; only the first {@link #length()} bytes are valid.
+     */
+    public byte[] array() {
+        return buffer;
+    }
+
+    /**
+     * Copies the encoded bytes into a buffer the caller may keep.
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(Arrays.copyOf(buffer, length));
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void writeObject(String id,
+                             float x,
+                             float y,
+                             float width,
+                             float height,
+                             float vx,
+                             float vy,
+                             String label,
+                             float confidence) {
+        write(OBJECT_ID);
+        writeString(id);
+        write(OBJECT_X);
+        writeFloat(x, POSITION_DECIMALS);
+        write(OBJECT_Y);
+        writeFloat(y, POSITION_DECIMALS);
+        write(OBJECT_WIDTH);
+        writeFloat(width, POSITION_DECIMALS);
+        write(OBJECT_HEIGHT);
+        writeFloat(height, POSITION_DECIMALS);
+        write(OBJECT_VX);
+        writeFloat(vx, POSITION_DECIMALS);
+        write(OBJECT_VY);
+        writeFloat(vy, POSITION_DECIMALS);
+        write(OBJECT_LABEL);
+        writeString(label);
+        write(OBJECT_CONFIDENCE);
+        writeFloat(confidence, CONFIDENCE_DECIMALS);
+        writeByte('}');
+    }
+
+    private void writeLatency(FrameTiming timing) {
+        write(PACKET_LATENCY);
+        writeLong(timing.frameSequence());
+        if (!Double.isNaN(timing.ptsMillis())) {
+            write(LATENCY_PTS);
+            writeLong(Math.round(timing.ptsMillis()));
+        }
+        write(LATENCY_GRAB);
+        writeLong(timing.grabMicros());
+        write(LATENCY_PROCESS);
+        writeLong(timing.processMicros());
+        write(LATENCY_DISPATCH);
+        writeLong(timing.dispatchMicros());
+        writeByte('}');
+    }
+
+    private void writeOptionalString(byte[] name, String value) {
+        if (value != null) {
+            write(name);
+            writeString(value);
+        }
+    }
+
+    private void writeString(String value) {
+        if (value == null) {
+            write(NULL);
+            return;
+        }
+        // Worst case is six bytes per char (\\u00XX); reserve once instead of per char.
+        ensure(value.length() * 6 + 2);
+        byte[] out = buffer;
+        int position = length;
+        out[position++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                out[position++] = (byte) c;
+            } else if (c == '"' || c == '\\') {
+                out[position++] = '\\';
+                out[position++] = (byte) c;
+            } else if (c < 0x20) {
+                out[position++] = '\\';
+                out[position++] = 'u';
+                out[position++] = '0';
+                out[position++] = '0';
+                out[position++] = HEX[c >> 4];
+                out[position++] = HEX[c & 0xF];
+            } else if (c < 0x800) {
+                out[position++] = (byte) (0xC0 | (c >> 6));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out[position++] = (byte) (0xF0 | (codePoint >> 18));
+                out[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                out[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                out[position++] = (byte) (0xE0 | (c >> 12));
+                out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        out[position++] = '"';
+        length = position;
+    }
+
+    /**
+     * Fixed-point float with at most {@code decimals} fraction digits and trailing zeros removed.
+     */
+    private void writeFloat(float value, int decimals) {
+        if (!Float.isFinite(value)) {
+            writeByte('0');
+            return;
+        }
+        long scale = POWERS_OF_TEN[decimals];
+        long scaled = Math.round(Math.abs((double) value) * scale);
+        if (scaled == 0L) {
+            writeByte('0');
+            return;
+        }
+        if (value < 0f) {
+            writeByte('-');
+        }
+        writeLong(scaled / scale);
+        long fraction = scaled % scale;
+        if (fraction == 0L) {
+            return;
+        }
+        int digits = decimals;
+        while (fraction % 10L == 0L) {
+            fraction /= 10L;
+            digits--;
+        }
+        ensure(digits + 1);
+        buffer[length++] = '.';
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[length + i] = (byte) ('0' + fraction % 10L);
+            fraction /= 10L;
+        }
+        length += digits;
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            write(ascii(Long.toString(value)));
+            return;
+        }
+        ensure(20);
+        if (value < 0L) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10L; v /= 10L) {
+            digits++;
+        }
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[length + i] = (byte) ('0' + value % 10L);
+            value /= 10L;
+        }
+        length += digits;
+    }
+
+    private void write(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeByte(char c) {
+        ensure(1);
+        buffer[length++] = (byte) c;
+    }
+
+    private void ensure(int additional) {
+        if (length + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + additional));
+        }
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
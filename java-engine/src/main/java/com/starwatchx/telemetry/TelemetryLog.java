@@ -0,0 +1,443 @@
+package com.starwatchx.telemetry;
+
+import com.starwatchx.metrics.MetricsSource;
+import com.starwatchx.metrics.MetricsWriter;
+import com.starwatchx.tracking.TrackTable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only telemetry log in memory-mapped, segmented files, read back by
+ * {@link TelemetryLogReader}.
+ * <p>
+ * Tracker frames are stored as {@link TelemetryProtocol#TYPE_KEYFRAME} messages (quantized
+ * 16-bit columns, about 20 bytes per object) and other packets as {@link TelemetryProtocol#TYPE_FRAME}
+ * messages, so every record decodes on its own. The dispatcher thread encodes them
+ * ({@link TelemetrySink}) and queues them without blocking; a writer thread appends them in
+ * batches and forces the mapping to disk every {@code flushIntervalMillis}. A full queue drops
+ * records and counts them rather than slowing the dispatcher down.
+ * <p>
+ * Segment {@code telemetry-<first record millis>.log} starts with {@code u32 magic, u16 version,
+ * u16 reserved, i64 start millis}; each record is {@code u32 length, u32 crc32c, payload}, and a
+ * zero length marks the end. Every {@code indexIntervalMillis} the writer emits a sync point: the
+ * full label table as a {@link TelemetryProtocol#TYPE_LABELS} record, indexed in
+ * {@code telemetry-<millis>.idx} as {@code i64 timestamp, u32 offset}. Readers start at a sync
+ * point, so a seek is a binary search over segments and then over one sparse index. Segments roll
+ * over by size or age, and old segments are deleted by age and total size like video segments.
+ */
+public class TelemetryLog implements TelemetrySink, MetricsSource, AutoCloseable {
+
+    static final int MAGIC = 0x4C545753;
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER_BYTES = 16;
+    static final int RECORD_HEADER_BYTES = 8;
+    static final int INDEX_ENTRY_BYTES = 12;
+    static final String PREFIX = "telemetry-";
+    static final String SEGMENT_SUFFIX = ".log";
+    static final String INDEX_SUFFIX = ".idx";
+
+    private static final int WRITE_BATCH = 1024;
+    private static final long DROP_LOG_INTERVAL = 1_000L;
+
+    private final File directory;
+    private final int segmentBytes;
+    private final long segmentMillis;
+    private final long retentionMillis;
+    private final long maxBytes;
+    private final long indexIntervalMillis;
+    private final long flushIntervalMillis;
+    private final ArrayBlockingQueue<PendingRecord> pending;
+
+    // Dispatcher thread only.
+    private final LabelRegistry labels = new LabelRegistry();
+    private final BinaryTelemetryEncoder encoder = new BinaryTelemetryEncoder(labels);
+    private final Map<String, DeltaTelemetryEncoder> cameras = new HashMap<>();
+    private final Map<String, Integer> packetSequences = new HashMap<>();
+    private int loggedLabels;
+    /** Full label table for sync points; replaced by the dispatcher, read by the writer. */
+    private volatile ByteBuffer labelTable;
+
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private Thread writer;
+    private volatile boolean running;
+
+    /**
+     * @param directory           where segments and their indexes are written
+     * @param segmentBytes        size each segment is mapped at; capped at 2 GiB
+     * @param segmentMillis       age after which a segment is rolled over
+     * @param retentionMillis     segments older than this are deleted; 0 keeps them
+     * @param maxBytes            total size of all segments before the oldest are deleted; 0 is unbounded
+     * @param indexIntervalMillis spacing of sync points (index entries)
+     * @param queueCapacity       records waiting for the writer before new ones are dropped
+     * @param flushIntervalMillis how often written records are forced to disk
+     */
+    public TelemetryLog(String directory,
+                        long segmentBytes,
+                        long segmentMillis,
+                        long retentionMillis,
+                        long maxBytes,
+                        long indexIntervalMillis,
+                        int queueCapacity,
+                        long flushIntervalMillis) {
+        this.directory = new File(directory);
+        this.segmentBytes = (int) Math.max(1L << 20, Math.min(Integer.MAX_VALUE, segmentBytes));
+        this.segmentMillis = Math.max(1_000L, segmentMillis);
+        this.retentionMillis = retentionMillis;
+        this.maxBytes = maxBytes;
+        this.indexIntervalMillis = Math.max(1L, indexIntervalMillis);
+        this.flushIntervalMillis = Math.max(1L, flushIntervalMillis);
+        // One extra slot so the shutdown marker always fits.
+        this.pending = new ArrayBlockingQueue<>(Math.max(1, queueCapacity) + 1);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "telemetry-log");
+        writer.setDaemon(true);
+        writer.start();
+        System.out.println("[TelemetryLog] Logging telemetry to " + directory.getPath());
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        pending.offer(PendingRecord.POISON);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    @Override
+    public void onTracks(TrackTable tracks) {
+        if (!running) {
+            return;
+        }
+        String cameraId = tracks.getCameraId() != null ? tracks.getCameraId() : "";
+        DeltaTelemetryEncoder camera = cameras.computeIfAbsent(cameraId,
+            id -> new DeltaTelemetryEncoder(id, labels, 1, 1f, 1f, 0f));
+        ByteBuffer record = camera.encode(tracks);
+        enqueue(tracks.getTimestamp(), record);
+    }
+
+    @Override
+    public void onPacket(TelemetryPacket packet) {
+        if (!running) {
+            return;
+        }
+        String cameraId = packet.getCameraId() != null ? packet.getCameraId() : "";
+        int sequence = packetSequences.merge(cameraId, 1, Integer::sum);
+        ByteBuffer record = encoder.encodePacket(packet, sequence).toByteBuffer();
+        enqueue(packet.getTimestamp(), record);
+    }
+
+    /**
+     * Records dropped because the writer fell behind.
+     */
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    @Override
+    public void writeMetrics(MetricsWriter out) {
+        out.gauge("starwatchx_telemetry_log_queue_depth", "Records waiting for the telemetry log writer.")
+            .sample(pending.size());
+        out.counter("starwatchx_telemetry_log_dropped_records_total", "Records dropped because the log writer was behind.")
+            .sample(getDroppedRecords());
+    }
+
+    private void enqueue(long timestamp, ByteBuffer record) {
+        int known = labels.size();
+        if (loggedLabels < known) {
+            // Labels first, so a reader that did not start at a sync point can still name them.
+            labelTable = encoder.encodeLabels(0, known).toByteBuffer();
+            offer(new PendingRecord(timestamp, encoder.encodeLabels(loggedLabels, known).toByteBuffer()));
+            loggedLabels = known;
+        }
+        offer(new PendingRecord(timestamp, record));
+    }
+
+    private void offer(PendingRecord record) {
+        if (pending.remainingCapacity() > 1 && pending.offer(record)) {
+            return;
+        }
+        long dropped = droppedRecords.incrementAndGet();
+        if (dropped % DROP_LOG_INTERVAL == 1) {
+            System.err.println("[TelemetryLog] Writer behind, dropped " + dropped + " records");
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingRecord> batch = new ArrayList<>(WRITE_BATCH);
+        Segment segment = null;
+        long lastForce = System.currentTimeMillis();
+        boolean dirty = false;
+        try {
+            boolean stopping = false;
+            while (!stopping) {
+                PendingRecord first = pending.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                batch.clear();
+                if (first != null) {
+                    batch.add(first);
+                    pending.drainTo(batch, WRITE_BATCH - 1);
+                }
+                for (PendingRecord record : batch) {
+                    if (record == PendingRecord.POISON) {
+                        stopping = true;
+                        break;
+                    }
+                    try {
+                        segment = append(segment, record);
+                        dirty = true;
+                    } catch (IOException e) {
+                        System.err.println("[TelemetryLog] Failed to write record: " + e.getMessage());
+                        closeQuietly(segment);
+                        segment = null;
+                    }
+                }
+                long now = System.currentTimeMillis();
+                if (dirty && segment != null && now - lastForce >= flushIntervalMillis) {
+                    segment.force();
+                    lastForce = now;
+                    dirty = false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeQuietly(segment);
+            System.out.println("[TelemetryLog] Stopped (" + getDroppedRecords() + " records dropped)");
+        }
+    }
+
+    private Segment append(Segment segment, PendingRecord record) throws IOException {
+        int size = RECORD_HEADER_BYTES + record.payload().remaining();
+        if (size > segmentBytes - SEGMENT_HEADER_BYTES - labelTableBytes() - 2 * RECORD_HEADER_BYTES) {
+            throw new IOException("record of " + size + " bytes does not fit a segment");
+        }
+        if (segment != null && (record.timestamp() - segment.startMillis >= segmentMillis
+            || segment.remaining() < size + labelTableBytes() + 2 * RECORD_HEADER_BYTES)) {
+            segment.close();
+            segment = null;
+        }
+        if (segment == null) {
+            segment = Segment.open(directory, record.timestamp(), segmentBytes);
+            applyRetention(record.timestamp(), segment.file);
+        }
+        if (segment.needsSyncPoint(record.timestamp(), indexIntervalMillis)) {
+            segment.syncPoint(record.timestamp(), labelTable);
+        }
+        segment.append(record.payload());
+        return segment;
+    }
+
+    private int labelTableBytes() {
+        ByteBuffer table = labelTable;
+        return table != null ? table.remaining() : 0;
+    }
+
+    private void closeQuietly(Segment segment) {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            System.err.println("[TelemetryLog] Failed to close " + segment.file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes finished segments older than the retention period, then oldest-first until the log
+     * fits the size budget. The segment being written is never deleted.
+     */
+    private void applyRetention(long now, File current) {
+        File[] files = segmentFiles(directory);
+        long totalBytes = 0L;
+        for (File file : files) {
+            totalBytes += file.length();
+        }
+        for (File file : files) {
+            if (file.equals(current)) {
+                continue;
+            }
+            boolean expired = retentionMillis > 0 && now - file.lastModified() > retentionMillis;
+            boolean overBudget = maxBytes > 0 && totalBytes > maxBytes;
+            if (!expired && !overBudget) {
+                break;
+            }
+            long length = file.length();
+            File index = indexFile(file);
+            if (file.delete()) {
+                totalBytes -= length;
+                if (index.exists() && !index.delete()) {
+                    System.err.println("[TelemetryLog] Could not delete " + index.getName());
+                }
+                System.out.println("[TelemetryLog] Retention removed " + file.getName());
+            }
+        }
+    }
+
+    /**
+     * Segment files of the log, oldest first.
+     */
+    static File[] segmentFiles(File directory) {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(startMillis(a), startMillis(b)));
+        return files;
+    }
+
+    static long startMillis(File segment) {
+        String name = segment.getName();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    static File indexFile(File segment) {
+        String name = segment.getName();
+        return new File(segment.getParentFile(),
+            name.substring(0, name.length() - SEGMENT_SUFFIX.length()) + INDEX_SUFFIX);
+    }
+
+    private record PendingRecord(long timestamp, ByteBuffer payload) {
+        static final PendingRecord POISON = new PendingRecord(0L, ByteBuffer.allocate(0));
+    }
+
+    /**
+     * The segment being written: a mapped log file and its append-only index.
+     */
+    private static final class Segment {
+        private final File file;
+        private final long startMillis;
+        private final FileChannel channel;
+        private final FileChannel index;
+        private final MappedByteBuffer map;
+        private final ByteBuffer indexEntry = ByteBuffer.allocate(INDEX_ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C crc = new CRC32C();
+        private long lastSyncPoint = Long.MIN_VALUE;
+
+        private Segment(File file, long startMillis, FileChannel channel, FileChannel index, MappedByteBuffer map) {
+            this.file = file;
+            this.startMillis = startMillis;
+            this.channel = channel;
+            this.index = index;
+            this.map = map;
+        }
+
+        static Segment open(File directory, long startMillis, int size) throws IOException {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("cannot create " + directory.getPath());
+            }
+            File file = new File(directory, PREFIX + startMillis + SEGMENT_SUFFIX);
+            FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            FileChannel index = null;
+            try {
+                index = FileChannel.open(indexFile(file).toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                map.order(ByteOrder.LITTLE_ENDIAN);
+                map.putInt(MAGIC).putShort((short) VERSION).putShort((short) 0).putLong(startMillis);
+                System.out.println("[TelemetryLog] New segment " + file.getPath());
+                return new Segment(file, startMillis, channel, index, map);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                if (index != null) {
+                    index.close();
+                }
+                throw e;
+            }
+        }
+
+        int remaining() {
+            return map.remaining();
+        }
+
+        boolean needsSyncPoint(long timestamp, long interval) {
+            return lastSyncPoint == Long.MIN_VALUE || timestamp - lastSyncPoint >= interval;
+        }
+
+        /**
+         * Writes the label table and indexes its offset, so readers can start right here. Index
+         * timestamps never go backwards, even when cameras' clocks interleave slightly.
+         */
+        void syncPoint(long timestamp, ByteBuffer labelTable) throws IOException {
+            timestamp = Math.max(timestamp, lastSyncPoint);
+            int offset = map.position();
+            if (labelTable != null) {
+                append(labelTable.duplicate());
+            }
+            indexEntry.clear();
+            indexEntry.putLong(timestamp).putInt(offset).flip();
+            while (indexEntry.hasRemaining()) {
+                index.write(indexEntry);
+            }
+            lastSyncPoint = timestamp;
+        }
+
+        void append(ByteBuffer payload) {
+            crc.reset();
+            crc.update(payload.duplicate());
+            // Length last: until it is set the record reads as the end of the log.
+            int start = map.position();
+            map.position(start + RECORD_HEADER_BYTES);
+            map.put(payload);
+            map.putInt(start + 4, (int) crc.getValue());
+            map.putInt(start, map.position() - start - RECORD_HEADER_BYTES);
+        }
+
+        void force() {
+            map.force();
+        }
+
+        /**
+         * Flushes and trims the file to what was written. The mapping itself is released by the GC.
+         */
+        void close() throws IOException {
+            int written = map.position();
+            try {
+                map.force();
+                if (written + 4 <= map.capacity()) {
+                    map.putInt(written, 0);
+                    written += 4;
+                }
+                channel.truncate(written);
+            } finally {
+                channel.close();
+                index.close();
+            }
+        }
+    }
+}
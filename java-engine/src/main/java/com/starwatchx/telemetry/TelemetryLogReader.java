@@ -0,0 +1,258 @@
+package com.starwatchx.telemetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads a {@link TelemetryLog} directory, including the segment still being written.
+ * <p>
+ * {@link #seek(long)} picks the segment by its start time and the sync point from the segment's
+ * sparse index, both by binary search, then skips ahead to the first frame at or after the
+ * requested time. Reading stops at the end of the written data or at the first damaged record.
+ */
+public final class TelemetryLogReader {
+
+    private final File directory;
+
+    public TelemetryLogReader(String directory) {
+        this.directory = new File(directory);
+    }
+
+    /**
+     * Time of the first record in the log, or {@code Long.MIN_VALUE} if it is empty.
+     */
+    public long getStartMillis() {
+        File[] segments = TelemetryLog.segmentFiles(directory);
+        return segments.length > 0 ? TelemetryLog.startMillis(segments[0]) : Long.MIN_VALUE;
+    }
+
+    /**
+     * Opens a cursor positioned at the first frame at or after {@code timestamp}. Label tables
+     * found on the way are still returned, so the caller always learns the label names.
+     */
+    public Cursor seek(long timestamp) throws IOException {
+        File[] segments = TelemetryLog.segmentFiles(directory);
+        int low = 0;
+        int high = segments.length - 1;
+        int segment = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (TelemetryLog.startMillis(segments[mid]) <= timestamp) {
+                segment = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        Cursor cursor = new Cursor(directory, segments, segment);
+        cursor.position(timestamp);
+        return cursor;
+    }
+
+    /**
+     * One record: a binary telemetry message as described in {@link TelemetryProtocol}.
+     *
+     * @param payload read-only view, valid while the cursor is open
+     */
+    public record LogRecord(ByteBuffer payload) {
+
+        public int type() {
+            return payload.get(payload.position() + 3) & 0xFF;
+        }
+
+        public boolean isLabels() {
+            return type() == TelemetryProtocol.TYPE_LABELS;
+        }
+
+        public String cameraId() {
+            if (isLabels()) {
+                return null;
+            }
+            int start = payload.position();
+            int length = payload.getShort(start + TelemetryProtocol.HEADER_BYTES) & 0xFFFF;
+            byte[] bytes = new byte[length];
+            payload.get(start + TelemetryProtocol.HEADER_BYTES + 2, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Capture time of a frame, or {@code Long.MIN_VALUE} for a label table.
+         */
+        public long timestamp() {
+            if (isLabels()) {
+                return Long.MIN_VALUE;
+            }
+            int start = payload.position();
+            int length = payload.getShort(start + TelemetryProtocol.HEADER_BYTES) & 0xFFFF;
+            int offset = (TelemetryProtocol.HEADER_BYTES + 2 + length + 3) & ~3;
+            return (long) payload.getDouble(start + offset);
+        }
+    }
+
+    /**
+     * Forward iterator over records, moving on to later segments as it reaches their ends,
+     * including segments the writer started after the cursor was opened.
+     */
+    public static final class Cursor implements AutoCloseable {
+        private final File directory;
+        private final CRC32C crc = new CRC32C();
+        private File[] segments;
+        private int segment;
+        private ByteBuffer map;
+        /** Set once a damaged record ends the current segment early. */
+        private boolean damaged;
+        private boolean closed;
+        /** Records found while seeking, returned before reading on. */
+        private final Deque<LogRecord> queued = new ArrayDeque<>();
+
+        private Cursor(File directory, File[] segments, int segment) throws IOException {
+            this.directory = directory;
+            this.segments = segments;
+            this.segment = segment;
+            if (segment < segments.length) {
+                map = open(segments[segment]);
+            }
+        }
+
+        /**
+         * Next record, or {@code null} once the written end of the log is reached. A later call
+         * may return records the writer appended since.
+         */
+        public LogRecord next() throws IOException {
+            if (!queued.isEmpty()) {
+                return queued.poll();
+            }
+            while (!closed) {
+                LogRecord record = map != null && !damaged ? read() : null;
+                if (record != null) {
+                    return record;
+                }
+                if (segment + 1 >= segments.length && !refresh()) {
+                    return null;
+                }
+                map = open(segments[++segment]);
+                damaged = false;
+            }
+            return null;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            map = null;
+            queued.clear();
+        }
+
+        /**
+         * Picks up segments created since the cursor last listed the directory. A segment is only
+         * created after the previous one was closed, so the current one has no more records then.
+         */
+        private boolean refresh() {
+            long current = map != null ? TelemetryLog.startMillis(segments[segment]) : Long.MIN_VALUE;
+            File[] latest = TelemetryLog.segmentFiles(directory);
+            for (int i = 0; i < latest.length; i++) {
+                if (TelemetryLog.startMillis(latest[i]) > current) {
+                    segments = latest;
+                    segment = i - 1;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void position(long timestamp) throws IOException {
+            if (map == null) {
+                return;
+            }
+            map.position(syncPointBefore(segments[segment], timestamp));
+            List<LogRecord> labelTables = new ArrayList<>();
+            LogRecord record;
+            while ((record = next()) != null) {
+                if (record.isLabels()) {
+                    labelTables.add(record);
+                } else if (record.timestamp() >= timestamp) {
+                    queued.addAll(labelTables);
+                    queued.add(record);
+                    return;
+                }
+            }
+            queued.addAll(labelTables);
+        }
+
+        private LogRecord read() {
+            int start = map.position();
+            if (start + TelemetryLog.RECORD_HEADER_BYTES > map.limit()) {
+                return null;
+            }
+            int length = map.getInt(start);
+            if (length <= 0 || start + TelemetryLog.RECORD_HEADER_BYTES + length > map.limit()) {
+                return null;
+            }
+            ByteBuffer payload = map.duplicate().order(ByteOrder.LITTLE_ENDIAN)
+                .position(start + TelemetryLog.RECORD_HEADER_BYTES)
+                .limit(start + TelemetryLog.RECORD_HEADER_BYTES + length)
+                .slice()
+                .order(ByteOrder.LITTLE_ENDIAN);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != map.getInt(start + 4)) {
+                System.err.println("[TelemetryLog] Damaged record at " + start + " of " + segments[segment].getName());
+                damaged = true;
+                return null;
+            }
+            map.position(start + TelemetryLog.RECORD_HEADER_BYTES + length);
+            return new LogRecord(payload);
+        }
+
+        private static ByteBuffer open(File file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                map.order(ByteOrder.LITTLE_ENDIAN);
+                if (map.limit() < TelemetryLog.SEGMENT_HEADER_BYTES || map.getInt(0) != TelemetryLog.MAGIC) {
+                    throw new IOException("not a telemetry log segment: " + file.getName());
+                }
+                map.position(TelemetryLog.SEGMENT_HEADER_BYTES);
+                return map;
+            }
+        }
+
+        /**
+         * Offset of the last sync point at or before {@code timestamp}, by binary search over the
+         * segment's index; the first record if there is none.
+         */
+        private static int syncPointBefore(File segment, long timestamp) throws IOException {
+            File indexFile = TelemetryLog.indexFile(segment);
+            if (!indexFile.exists()) {
+                return TelemetryLog.SEGMENT_HEADER_BYTES;
+            }
+            ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexFile.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+            int entries = index.limit() / TelemetryLog.INDEX_ENTRY_BYTES;
+            int low = 0;
+            int high = entries - 1;
+            int offset = TelemetryLog.SEGMENT_HEADER_BYTES;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int entry = mid * TelemetryLog.INDEX_ENTRY_BYTES;
+                if (index.getLong(entry) <= timestamp) {
+                    offset = index.getInt(entry + 8);
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.starwatchx.telemetry;
+
+/**
+ * Wire constants shared by the telemetry server and the dashboard decoder
+ * ({@code dashboard/lib/wsClient.ts}).
+ * <p>
+ * Clients pick a format through the WebSocket subprotocol header: {@link #BINARY_V1} selects the
+ * binary format below, {@link #DELTA_V1} the same messages plus delta frames, and {@link #JSON} or
+ * no subprotocol selects JSON text frames. Analytics events are always sent as JSON text.
+ * <p>
+ * Binary messages are little-endian. Every message starts with {@code u16 magic, u8 version,
+ * u8 type}. A {@link #TYPE_FRAME} message continues with {@code u16 cameraIdLength, cameraId
+ * UTF-8 bytes, zero padding to a 4-byte boundary, f64 timestamp, u32 sequence, u16 objectCount,
+ * u16 reserved} followed by column arrays of {@code objectCount} entries each: {@code u32
+ * trackNumber, f32 x, f32 y, f32 width, f32 height, f32 vx, f32 vy, u16 labelId, u16 confidence}
+ * (confidence scaled to 0..65535). Columns stay 4-byte aligned so clients can view them as typed
+ * arrays without copying. A {@link #TYPE_LABELS} message continues with {@code u16 count} and
+ * {@code count} entries of {@code u16 labelId, u8 length, UTF-8 bytes}; it is sent before any
+ * frame that uses a label the client has not seen.
+ * <p>
+ * {@link #DELTA_V1} clients receive {@link #TYPE_KEYFRAME} and {@link #TYPE_DELTA} messages for
+ * tracker frames. Both share the frame prefix up to the sequence, then {@code u16 upsertCount,
+ * u16 removedCount, u32 trackNumber[upsertCount], u32 removedTrackNumber[removedCount]} and
+ * upsert columns {@code i16 x, y, width, height} in 1/{@link #POSITION_SCALE} pixels, {@code i16
+ * vx, vy} in 1/{@link #VELOCITY_SCALE} pixels per second, {@code u16 labelId, u16 confidence}. A
+ * keyframe replaces the client's state for the camera; a delta adds or overwrites the upserted
+ * tracks and drops the removed ones, and only applies on top of the previous sequence of that
+ * camera. Tracks that moved less than the server's thresholds are left out of deltas. A client
+ * that sees a gap discards deltas and sends {@code {"type":"resync","cameraId":"..."}} as text
+ * (omit {@code cameraId} for every camera); the next frame of that camera is then a keyframe.
+ * <p>
+ * Live frames, keyframes and deltas end with a {@value #TIMING_BYTES}-byte timing trailer after
+ * the columns: {@code f64 ptsMillis} (presentation time reported by the source, NaN if unknown),
+ * {@code u32 frameSequence} (per-camera capture sequence, which unlike the message sequence counts
+ * every captured frame) and {@code u32 grabMicros, processMicros, dispatchMicros}: how long the
+ * read took, and how long after capture the tracker published the frame and the server encoded
+ * it. The frame's {@code timestamp} is its wall-clock capture time, so a client's age at render is
+ * its clock minus the timestamp. Clients recognize the trailer by the message being longer than
+ * its columns; recorded telemetry has none. JSON packets carry the same values as {@code
+ * "latency":{"frameSequence":..,"ptsMillis":..,"grabMicros":..,"processMicros":..,
+ * "dispatchMicros":..}}. Clients may send {@code {"type":"latency","ages":[<millis>, ...]}} with
+ * the ages of frames they drew, which the server aggregates per client.
+ * <p>
+ * Any client may send {@code {"type":"subscribe","cameras":[...],"labels":[...],
+ * "minConfidence":0.5,"maxRate":10}} to narrow what it receives; omitted fields mean everything,
+ * and each subscribe replaces the previous one. Until then a client receives every camera at the
+ * full frame rate.
+ * <p>
+ * When the server aggregates on a fixed tick, frames of all cameras collected during the tick
+ * arrive as one message: JSON clients get {@code {"kind":"batch","frames":[packet, ...]}} and
+ * binary clients a {@link #TYPE_BATCH} message with {@code u16 count, u16 reserved} and
+ * {@code count} entries of {@code u32 length} followed by a complete message of any of the types
+ * above, zero-padded to a 4-byte boundary. Each embedded message is decoded exactly as if it had
+ * arrived on its own, in order.
+ * <p>
+ * {@link TelemetryReplayServer} speaks the same binary formats for recorded telemetry. Its clients
+ * send {@code {"type":"replay","seek":<epoch millis>,"speed":<x>,"paused":<bool>}} to control
+ * playback and receive {@code {"kind":"replay","timestamp":...,"speed":...,"paused":...,"end":...}}
+ * text messages whenever the playback state changes.
+ */
+public final class TelemetryProtocol {
+
+    public static final String BINARY_V1 = "starwatchx.bin.v1";
+    public static final String DELTA_V1 = "starwatchx.delta.v1";
+    public static final String JSON = "starwatchx.json";
+
+    public static final int MAGIC = 0x5753;
+    public static final int VERSION = 1;
+    public static final int TYPE_FRAME = 1;
+    public static final int TYPE_LABELS = 2;
+    public static final int TYPE_KEYFRAME = 3;
+    public static final int TYPE_DELTA = 4;
+    public static final int TYPE_BATCH = 5;
+
+    public static final int HEADER_BYTES = 4;
+    public static final int TIMING_BYTES = 24;
+    public static final float CONFIDENCE_SCALE = 65_535f;
+    public static final float POSITION_SCALE = 4f;
+    public static final float VELOCITY_SCALE = 4f;
+
+    /** Text message a client sends to ask for a keyframe. */
+    public static final String RESYNC = "resync";
+    /** Text message a client sends to choose cameras, labels, minimum confidence and rate. */
+    public static final String SUBSCRIBE = "subscribe";
+    /** {@code kind} of a JSON message that carries several camera packets. */
+    public static final String BATCH = "batch";
+    /** Text message a client sends to report how old frames were when it drew them. */
+    public static final String LATENCY = "latency";
+    /** Replay control message ({@code type}) and replay status message ({@code kind}). */
+    public static final String REPLAY = "replay";
+
+    private TelemetryProtocol() {
+    }
+}
@@ -0,0 +1,440 @@
+package com.starwatchx.telemetry;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+import org.java_websocket.extensions.IExtension;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.protocols.IProtocol;
+import org.java_websocket.protocols.Protocol;
+import org.java_websocket.server.WebSocketServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays a {@link TelemetryLog} back to dashboards over the live telemetry protocol.
+ * <p>
+ * Each connection gets its own {@link TelemetryLogReader.Cursor} and playback thread. Records are
+ * read in place from the memory-mapped segments and sent as they are: logged tracker frames are
+ * keyframes, so {@link TelemetryProtocol#DELTA_V1} and {@link TelemetryProtocol#BINARY_V1} clients
+ * decode them unchanged (JSON is not offered). Records that fall due together are sent as one
+ * {@link TelemetryProtocol#TYPE_BATCH} message every {@code batchMillis}, like the live server's
+ * aggregation tick.
+ * <p>
+ * Playback starts at {@code ?from=<epoch millis>} (default: the start of the log) at
+ * {@code ?speed=<x>} (default 1). Clients control it with
+ * {@code {"type":"replay","seek":<millis>,"speed":<x>,"paused":<bool>}}, all fields optional; a
+ * speed of 0 plays as fast as the client reads, otherwise it is clamped to 0.25..32. The server
+ * answers every change, and reaching the end of the log, with
+ * {@code {"kind":"replay","timestamp":...,"speed":...,"paused":...,"end":...}}; at the end it keeps
+ * following the log as it is written. A {@code subscribe} message narrows the cameras and the
+ * rate per camera; label and confidence filters are not applied to recorded frames.
+ */
+public class TelemetryReplayServer implements AutoCloseable {
+
+    private static final double MIN_SPEED = 0.25;
+    private static final double MAX_SPEED = 32.0;
+    private static final int MAX_BATCH_RECORDS = 1_024;
+    /** Log time skipped instead of waited through, e.g. while the engine was down. */
+    private static final long MAX_GAP_MILLIS = 5_000L;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long BACKOFF_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final TelemetryLogReader reader;
+    private final int port;
+    private final long batchMillis;
+    private final int maxBufferedFrames;
+    private final MessageCompressor compressor;
+    private ReplayServer server;
+    private volatile boolean running;
+
+    /**
+     * @param directory         log directory written by {@link TelemetryLog}
+     * @param batchMillis       playback time gathered into one message
+     * @param maxBufferedFrames messages a client may have in flight before playback waits for it
+     * @param compressor        offers permessage-deflate to clients when set
+     */
+    public TelemetryReplayServer(String directory,
+                                 int port,
+                                 long batchMillis,
+                                 int maxBufferedFrames,
+                                 MessageCompressor compressor) {
+        this.reader = new TelemetryLogReader(directory);
+        this.port = port;
+        this.batchMillis = Math.max(1L, batchMillis);
+        this.maxBufferedFrames = Math.max(1, maxBufferedFrames);
+        this.compressor = compressor;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        server = new ReplayServer(new InetSocketAddress(port), compressor);
+        server.start();
+        running = true;
+        System.out.println("[Replay] WebSocket server listening on port " + port);
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            server.stop();
+        } catch (InterruptedException e) {
+            System.err.println("[Replay] Error stopping server: " + e.getMessage());
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private static double clampSpeed(double speed) {
+        if (!Double.isFinite(speed) || speed <= 0) {
+            return 0;
+        }
+        return Math.max(MIN_SPEED, Math.min(MAX_SPEED, speed));
+    }
+
+    /**
+     * Query parameters of the handshake's request URI, e.g. {@code /?from=...&speed=2}.
+     */
+    private static Map<String, String> query(String resource) {
+        Map<String, String> values = new HashMap<>();
+        int start = resource != null ? resource.indexOf('?') : -1;
+        if (start < 0) {
+            return values;
+        }
+        for (String pair : resource.substring(start + 1).split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                values.put(pair.substring(0, equals), pair.substring(equals + 1));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Playback state of one connection. Controls arrive on the WebSocket thread and are picked up
+     * by the playback thread, which owns the cursor.
+     */
+    private final class ReplaySession implements Runnable {
+        private final WebSocket connection;
+        private final Map<String, Long> lastSentNanos = new HashMap<>();
+        private final List<ByteBuffer> batch = new ArrayList<>();
+        private volatile TelemetrySubscription subscription = TelemetrySubscription.ALL;
+        private volatile boolean closed;
+        private Thread thread;
+
+        // Guarded by this.
+        private Long seekTo;
+        private double speed;
+        private boolean paused;
+        private boolean changed = true;
+
+        ReplaySession(WebSocket connection, long from, double speed) {
+            this.connection = connection;
+            this.seekTo = from;
+            this.speed = speed;
+        }
+
+        void start() {
+            thread = new Thread(this, "telemetry-replay-" + connection.getRemoteSocketAddress());
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void close() {
+            closed = true;
+            LockSupport.unpark(thread);
+        }
+
+        void setSubscription(TelemetrySubscription subscription) {
+            this.subscription = subscription;
+        }
+
+        synchronized void control(Long seek, Double newSpeed, Boolean newPaused) {
+            if (seek != null) {
+                seekTo = seek;
+            }
+            if (newSpeed != null) {
+                speed = clampSpeed(newSpeed);
+            }
+            if (newPaused != null) {
+                paused = newPaused;
+            }
+            changed = true;
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void run() {
+            TelemetryLogReader.Cursor cursor = null;
+            TelemetryLogReader.LogRecord next = null;
+            double currentSpeed = 1;
+            boolean currentPaused = false;
+            boolean ended = false;
+            long position = 0L;
+            long anchorMillis = 0L;
+            long anchorNanos = 0L;
+            try {
+                while (!closed) {
+                    Long seek = null;
+                    boolean controlled = false;
+                    synchronized (this) {
+                        if (changed) {
+                            changed = false;
+                            controlled = true;
+                            seek = seekTo;
+                            seekTo = null;
+                            currentSpeed = speed;
+                            currentPaused = paused;
+                        }
+                    }
+                    if (seek != null) {
+                        if (cursor != null) {
+                            cursor.close();
+                        }
+                        cursor = reader.seek(seek);
+                        next = null;
+                        position = seek;
+                        ended = false;
+                        lastSentNanos.clear();
+                    }
+                    if (controlled) {
+                        anchorMillis = position;
+                        anchorNanos = System.nanoTime();
+                        sendStatus(position, currentSpeed, currentPaused, ended);
+                    }
+                    if (currentPaused) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                        continue;
+                    }
+
+                    long now = System.nanoTime();
+                    long due = currentSpeed > 0
+                        ? anchorMillis + (long) ((now - anchorNanos) / 1_000_000.0 * currentSpeed)
+                        : Long.MAX_VALUE;
+                    boolean reachedEnd = false;
+                    boolean full = false;
+                    while (!(full = batch.size() >= MAX_BATCH_RECORDS)) {
+                        if (next == null && (next = cursor.next()) == null) {
+                            reachedEnd = true;
+                            break;
+                        }
+                        long timestamp = next.timestamp();
+                        if (timestamp != Long.MIN_VALUE) {
+                            if (timestamp > due) {
+                                break;
+                            }
+                            position = Math.max(position, timestamp);
+                        }
+                        if (wants(next, now)) {
+                            batch.add(next.payload());
+                        }
+                        next = null;
+                    }
+                    if (!batch.isEmpty()) {
+                        if (!awaitCapacity()) {
+                            return;
+                        }
+                        send();
+                    }
+                    if (reachedEnd != ended) {
+                        ended = reachedEnd;
+                        if (ended) {
+                            sendStatus(position, currentSpeed, false, true);
+                        }
+                    }
+                    if (ended) {
+                        // Follow the log as it grows.
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    } else if (currentSpeed > 0 && next != null && !full) {
+                        long ahead = next.timestamp() - due;
+                        if (ahead > MAX_GAP_MILLIS) {
+                            anchorMillis = next.timestamp();
+                            anchorNanos = System.nanoTime();
+                        } else {
+                            long waitMillis = Math.max(batchMillis, (long) (ahead / currentSpeed));
+                            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(Math.min(waitMillis, 1_000L)));
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("[Replay] Failed to read telemetry log: " + e.getMessage());
+                connection.close(1011, "telemetry log unreadable");
+            } catch (WebsocketNotConnectedException e) {
+                // onClose closes the session.
+            } finally {
+                if (cursor != null) {
+                    cursor.close();
+                }
+            }
+        }
+
+        /**
+         * Label tables always pass; frames only for subscribed cameras and at most at the
+         * subscribed rate, measured in wall time.
+         */
+        private boolean wants(TelemetryLogReader.LogRecord record, long now) {
+            if (record.isLabels()) {
+                return true;
+            }
+            TelemetrySubscription current = subscription;
+            String cameraId = record.cameraId();
+            if (!current.includesCamera(cameraId)) {
+                return false;
+            }
+            long interval = TimeUnit.MILLISECONDS.toNanos(current.minIntervalMillis());
+            if (interval > 0) {
+                Long last = lastSentNanos.get(cameraId);
+                if (last != null && now - last < interval) {
+                    return false;
+                }
+                lastSentNanos.put(cameraId, now);
+            }
+            return true;
+        }
+
+        private void send() {
+            ByteBuffer payload = batch.size() == 1 ? batch.get(0) : TelemetryEncoders.binaryBatch(batch);
+            batch.clear();
+            connection.sendFrame(new PreframedMessage(payload, false, compressor).framedata());
+        }
+
+        private void sendStatus(long timestamp, double speed, boolean paused, boolean end) {
+            connection.send(String.format(Locale.ROOT,
+                "{\"kind\":\"%s\",\"timestamp\":%d,\"speed\":%s,\"paused\":%b,\"end\":%b}",
+                TelemetryProtocol.REPLAY, timestamp, speed, paused, end));
+        }
+
+        /**
+         * Waits until the connection's outbound buffer has room, which is what paces
+         * as-fast-as-possible playback.
+         */
+        private boolean awaitCapacity() {
+            while (connection instanceof WebSocketImpl impl && impl.outQueue.size() >= maxBufferedFrames) {
+                if (closed || !connection.isOpen()) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, BACKOFF_PARK_NANOS);
+            }
+            return !closed;
+        }
+    }
+
+    private class ReplayServer extends WebSocketServer {
+
+        ReplayServer(InetSocketAddress address, MessageCompressor compressor) {
+            super(address, List.of(draft(compressor)));
+        }
+
+        private static Draft draft(MessageCompressor compressor) {
+            List<IProtocol> protocols = List.of(
+                new Protocol(TelemetryProtocol.DELTA_V1),
+                new Protocol(TelemetryProtocol.BINARY_V1)
+            );
+            List<IExtension> extensions = compressor != null
+                ? List.of(new PerMessageDeflateExtension())
+                : Collections.emptyList();
+            return new PreframedDraft(extensions, protocols);
+        }
+
+        @Override
+        public void onOpen(WebSocket conn, ClientHandshake handshake) {
+            Map<String, String> query = query(handshake.getResourceDescriptor());
+            long from;
+            double speed;
+            try {
+                long start = reader.getStartMillis();
+                // An empty log is followed from now on.
+                from = query.containsKey("from") ? Long.parseLong(query.get("from"))
+                    : start != Long.MIN_VALUE ? start : System.currentTimeMillis();
+                speed = query.containsKey("speed") ? clampSpeed(Double.parseDouble(query.get("speed"))) : 1;
+            } catch (NumberFormatException e) {
+                conn.close(1008, "invalid replay parameters");
+                return;
+            }
+            ReplaySession session = new ReplaySession(conn, from, speed);
+            conn.setAttachment(session);
+            session.start();
+            System.out.println("[Replay] Client connected: " + conn.getRemoteSocketAddress()
+                + " (from " + from + " at " + (speed > 0 ? speed + "x" : "full speed") + ")");
+        }
+
+        @Override
+        public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+            ReplaySession session = conn.getAttachment();
+            if (session != null) {
+                session.close();
+                System.out.println("[Replay] Client disconnected: " + conn.getRemoteSocketAddress());
+            }
+        }
+
+        @Override
+        public void onMessage(WebSocket conn, String message) {
+            ReplaySession session = conn.getAttachment();
+            if (session == null) {
+                return;
+            }
+            try {
+                JsonElement parsed = JsonParser.parseString(message);
+                if (!parsed.isJsonObject()) {
+                    return;
+                }
+                JsonObject request = parsed.getAsJsonObject();
+                JsonElement type = request.get("type");
+                String requestType = type != null && type.isJsonPrimitive() ? type.getAsString() : "";
+                if (TelemetryProtocol.REPLAY.equals(requestType)) {
+                    JsonElement seek = request.get("seek");
+                    JsonElement speed = request.get("speed");
+                    JsonElement paused = request.get("paused");
+                    session.control(
+                        seek != null && !seek.isJsonNull() ? seek.getAsLong() : null,
+                        speed != null && !speed.isJsonNull() ? speed.getAsDouble() : null,
+                        paused != null && !paused.isJsonNull() ? paused.getAsBoolean() : null);
+                } else if (TelemetryProtocol.SUBSCRIBE.equals(requestType)) {
+                    session.setSubscription(TelemetrySubscription.fromJson(request));
+                }
+                // Resync requests need nothing: every recorded frame is a keyframe.
+            } catch (JsonParseException | IllegalStateException | UnsupportedOperationException
+                     | NumberFormatException e) {
+                System.err.println("[Replay] Ignoring malformed client message: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void onError(WebSocket conn, Exception ex) {
+            System.err.println("[Replay] WebSocket error: " + ex.getMessage());
+        }
+
+        @Override
+        public void onStart() {
+            setConnectionLostTimeout(30);
+        }
+    }
+}
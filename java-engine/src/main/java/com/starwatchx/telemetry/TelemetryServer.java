@@ -1,51 +1,166 @@
 package com.starwatchx.telemetry;
 
-import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.starwatchx.metrics.MetricsSource;
+import com.starwatchx.metrics.MetricsWriter;
+import com.starwatchx.metrics.PipelineMetrics;
+import com.starwatchx.metrics.PipelineStage;
+import com.starwatchx.metrics.TelemetrySentEvent;
+import com.starwatchx.tracking.TrackTable;
+import com.starwatchx.tracking.TrackerManager;
 import org.java_websocket.WebSocket;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.extensions.IExtension;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
 import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.protocols.IProtocol;
+import org.java_websocket.protocols.Protocol;
 import org.java_websocket.server.WebSocketServer;
 
-import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * WebSocket server responsible for broadcasting telemetry packets.
  * The Next.js dashboard connects to ws://localhost:PORT by default.
  * Update NEXT_PUBLIC_TELEMETRY_URL if you forward the port.
+ * Clients negotiate the wire format through the WebSocket subprotocol (see
+ * {@link TelemetryProtocol}). Full JSON payloads are only logged for one packet in every
+ * {@code payloadLogEvery} (0 disables it).
+ * <p>
+ * Camera threads only flag that a camera has a new frame ({@link #frameReady(String)}); a single
+ * dispatcher thread polls the latest published {@link TrackTable}, encodes it and hands it to
+ * each client's {@link ClientOutbox}, whose writer thread does the network I/O. Frames are
+ * coalesced per camera along the way, so a slow client only ever sees fewer, newer frames.
+ * <p>
+ * Clients may send a {@link TelemetrySubscription} to pick cameras and labels, a minimum
+ * confidence and a maximum rate. Clients with the same format, filter and rate share a
+ * {@link SubscriptionGroup}, so each frame is filtered and encoded once per group rather than
+ * once per client, and only for groups that want the camera. Each encoded message is also framed
+ * once ({@link PreframedMessage}) and, for clients that negotiated permessage-deflate, compressed
+ * once, so adding clients to a group costs no extra encoding work.
+ * <p>
+ * A client that connects or subscribes gets the latest state of its cameras straight away: the
+ * dispatcher keeps a copy of each camera's last table and the group's cached snapshot is queued
+ * before any new frame, so dashboards are never blank after a reconnect.
+ * <p>
+ * Live frames carry their capture timing (see {@link TelemetryProtocol}). The server records per
+ * client how old each frame was when it reached the socket, and how old the client says it was
+ * when drawn, so end-to-end latency can be watched per dashboard rather than as a frame rate.
  */
-public class TelemetryServer implements AutoCloseable {
+public class TelemetryServer implements MetricsSource, AutoCloseable {
 
+    private static final int WORK_QUEUE_CAPACITY = 4096;
+    /** Render ages read from one client report; the dashboard sends far fewer. */
+    private static final int MAX_REPORTED_AGES = 512;
+    /** The only stages recorded per client; other stages are per camera. */
+    private static final EnumSet<PipelineStage> CLIENT_STAGES = EnumSet.of(PipelineStage.DELIVERY, PipelineStage.RENDER);
+
+    private final TrackerManager trackerManager;
     private final int port;
-    private final Gson gson = new Gson();
+    private final int clientQueueCapacity;
+    private final int maxBufferedFrames;
+    private final long slowClientTimeoutMs;
+    private final LabelRegistry labels = new LabelRegistry();
+    private final TelemetryEncoders encoders;
+    private final MessageCompressor compressor;
+    private final long tickMillis;
+    private final Map<SubscriptionGroup.Key, SubscriptionGroup> groups = new ConcurrentHashMap<>();
+    private final Map<String, CameraFeed> feeds = new ConcurrentHashMap<>();
+    private final BlockingQueue<Runnable> work = new LinkedBlockingQueue<>(WORK_QUEUE_CAPACITY);
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final List<TelemetrySink> sinks = new CopyOnWriteArrayList<>();
+    private PipelineMetrics metrics = new PipelineMetrics(false, 0L, 0L);
     private BroadcastServer server;
+    private Thread dispatcher;
     private volatile boolean running;
 
     public TelemetryServer(int port) {
+        this(null, port, 0, 150, 1f, 2f, 0.02f, 64, 8, 5_000L, null, 0);
+    }
+
+    /**
+     * @param trackerManager      source of published track tables for {@link #frameReady(String)}
+     * @param keyframeInterval    frames between periodic keyframes for delta clients
+     * @param positionThreshold   pixels a box must move or resize before a delta resends it
+     * @param velocityThreshold   pixels per second a velocity must change before a delta resends it
+     * @param confidenceThreshold confidence change (0..1) before a delta resends the track
+     * @param clientQueueCapacity non-frame messages (events) queued per client before dropping
+     * @param maxBufferedFrames   messages a client may have in flight before its writer waits
+     * @param slowClientTimeoutMs how long a client may stay at {@code maxBufferedFrames} before it
+     *                            is disconnected; 0 never disconnects
+     * @param compressor          offers permessage-deflate to clients when set; {@code null} never
+     *                            compresses
+     * @param aggregateHz         ticks per second at which all cameras are sent as one batch per
+     *                            client; 0 sends every frame as soon as it is published
+     */
+    public TelemetryServer(TrackerManager trackerManager,
+                           int port,
+                           int payloadLogEvery,
+                           int keyframeInterval,
+                           float positionThreshold,
+                           float velocityThreshold,
+                           float confidenceThreshold,
+                           int clientQueueCapacity,
+                           int maxBufferedFrames,
+                           long slowClientTimeoutMs,
+                           MessageCompressor compressor,
+                           int aggregateHz) {
+        this.trackerManager = trackerManager;
         this.port = port;
+        this.encoders = new TelemetryEncoders(labels, Math.max(0, payloadLogEvery),
+            keyframeInterval, positionThreshold, velocityThreshold, confidenceThreshold, compressor);
+        this.compressor = compressor;
+        this.tickMillis = aggregateHz > 0 ? Math.max(1L, Math.round(1_000.0 / aggregateHz)) : 0L;
+        this.clientQueueCapacity = clientQueueCapacity;
+        this.maxBufferedFrames = maxBufferedFrames;
+        this.slowClientTimeoutMs = slowClientTimeoutMs;
     }
 
     public synchronized void start() {
         if (running) {
             return;
         }
-        server = new BroadcastServer(new InetSocketAddress(port));
+        server = new BroadcastServer(new InetSocketAddress(port), compressor);
         server.start();
         running = true;
-        System.out.println("[Telemetry] WebSocket server listening on port " + port);
+        dispatcher = new Thread(this::dispatchLoop, "telemetry-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        System.out.println("[Telemetry] WebSocket server listening on port " + port
+            + (compressor != null ? " (permessage-deflate from " + compressor.getThresholdBytes() + " bytes)" : "")
+            + (tickMillis > 0 ? ", batching every " + tickMillis + " ms" : ""));
     }
 
     public synchronized void stop() {
         if (!running) {
             return;
         }
+        running = false;
+        dispatcher.interrupt();
         try {
             server.stop();
         } catch (InterruptedException e) {
             System.err.println("[Telemetry] Error stopping server: " + e.getMessage());
-        } finally {
-            running = false;
         }
     }
 
@@ -53,13 +168,37 @@ public class TelemetryServer implements AutoCloseable {
         return running;
     }
 
+    /**
+     * Signals that {@link TrackerManager#publish(String)} made a new table available for the
+     * camera. Never blocks; if the dispatcher is behind, only the newest table gets sent. When
+     * aggregating, the camera is only marked and picked up by the next tick.
+     */
+    public void frameReady(String cameraId) {
+        if (running && trackerManager != null) {
+            feed(cameraId).schedule();
+        }
+    }
+
+    /**
+     * Queues a packet that was not produced by the tracker (e.g. an empty frame after an error).
+     * An unsent packet of the same camera is replaced.
+     */
     public void broadcastTelemetry(TelemetryPacket packet) {
         if (!running || packet == null) {
             return;
         }
-        String payload = gson.toJson(packet);
-        System.out.println("[Telemetry] Sending packet: " + payload);
-        server.broadcast(payload);
+        CameraFeed feed = feed(packet.getCameraId());
+        feed.packet.set(packet);
+        feed.schedule();
+    }
+
+    public void broadcastEvent(TelemetryEvent event) {
+        if (!running || event == null) {
+            return;
+        }
+        if (!work.offer(() -> dispatchEvent(event)) && droppedEvents.incrementAndGet() % 100 == 1) {
+            System.err.println("[Telemetry] Dispatcher behind, dropped " + droppedEvents.get() + " events");
+        }
     }
 
     public void broadcastBatch(List<TelemetryPacket> packets) {
@@ -71,33 +210,375 @@ public class TelemetryServer implements AutoCloseable {
         }
     }
 
+    /**
+     * Registers a sink that sees every frame the dispatcher handles, such as a {@link TelemetryLog}.
+     */
+    public void addSink(TelemetrySink sink) {
+        if (sink != null) {
+            sinks.add(sink);
+        }
+    }
+
+    /**
+     * Records serialization per camera and batch assembly and sends under
+     * {@link PipelineMetrics#TELEMETRY}, and each client's delivery and render ages under its own
+     * {@code client/<address>} scope; set before {@link #start()}.
+     */
+    public void setMetrics(PipelineMetrics metrics) {
+        if (metrics != null) {
+            this.metrics = metrics;
+        }
+    }
+
+    /**
+     * Delivery counters of every connected client, with latency as of the last metrics rotation;
+     * reads no histograms, so scrapes can call it as often as they like.
+     */
+    public List<TelemetryClientStats> getClientStats() {
+        BroadcastServer current = server;
+        return current != null ? current.clientStats() : Collections.emptyList();
+    }
+
+    /**
+     * Dispatcher backlog and the delivery counters of every client, labelled by remote address.
+     */
+    @Override
+    public void writeMetrics(MetricsWriter out) {
+        out.gauge("starwatchx_telemetry_dispatch_queue_depth", "Tasks waiting for the telemetry dispatcher.")
+            .sample(work.size());
+        out.counter("starwatchx_telemetry_dropped_events_total", "Events dropped because the dispatcher was behind.")
+            .sample(droppedEvents.get());
+        List<TelemetryClientStats> clients = getClientStats();
+        out.gauge("starwatchx_telemetry_clients", "Connected telemetry clients.").sample(clients.size());
+        out.counter("starwatchx_telemetry_client_sent_messages_total", "Messages handed to the socket.");
+        for (TelemetryClientStats client : clients) {
+            out.sample(client.sentMessages(), "client", client.address(), "protocol", client.protocol());
+        }
+        out.counter("starwatchx_telemetry_client_sent_bytes_total", "Payload bytes handed to the socket, before compression.");
+        for (TelemetryClientStats client : clients) {
+            out.sample(client.sentBytes(), "client", client.address(), "protocol", client.protocol());
+        }
+        out.counter("starwatchx_telemetry_client_coalesced_frames_total", "Frames replaced by a newer frame before being sent.");
+        for (TelemetryClientStats client : clients) {
+            out.sample(client.coalescedFrames(), "client", client.address(), "protocol", client.protocol());
+        }
+        out.counter("starwatchx_telemetry_client_dropped_messages_total", "Events dropped because the client's queue was full.");
+        for (TelemetryClientStats client : clients) {
+            out.sample(client.droppedMessages(), "client", client.address(), "protocol", client.protocol());
+        }
+        out.gauge("starwatchx_telemetry_client_queue_depth", "Frames and events waiting for the client's writer.");
+        for (TelemetryClientStats client : clients) {
+            out.sample(client.queuedMessages(), "client", client.address(), "protocol", client.protocol());
+        }
+        out.gauge("starwatchx_telemetry_client_buffered_frames", "Messages waiting in the socket's outbound buffer.");
+        for (TelemetryClientStats client : clients) {
+            out.sample(client.bufferedFrames(), "client", client.address(), "protocol", client.protocol());
+        }
+    }
+
+    /**
+     * Metrics scope of a client's end-to-end latency, e.g. {@code client/10.0.0.7:51234}.
+     */
+    private static String clientScope(WebSocket conn) {
+        InetSocketAddress address = conn.getRemoteSocketAddress();
+        if (address == null) {
+            // Already disconnected; still unique, so it cannot share another client's histograms.
+            return "client/unknown-" + Integer.toHexString(System.identityHashCode(conn));
+        }
+        return "client/" + address.getHostString() + ":" + address.getPort();
+    }
+
+    private static String latencySummary(String name, PipelineMetrics.StageSummary summary) {
+        if (summary == null) {
+            return "";
+        }
+        return String.format(Locale.ROOT, ", %s p50/p99 %.1f/%.1f ms", name,
+            summary.p50Nanos() / 1_000_000.0, summary.p99Nanos() / 1_000_000.0);
+    }
+
+    private CameraFeed feed(String cameraId) {
+        return feeds.computeIfAbsent(cameraId != null ? cameraId : "", CameraFeed::new);
+    }
+
+    private void dispatchLoop() {
+        long nextTick = System.currentTimeMillis() + tickMillis;
+        while (running) {
+            Runnable task;
+            try {
+                long wait = tickMillis > 0 ? Math.max(0L, nextTick - System.currentTimeMillis()) : 1_000L;
+                task = work.poll(wait, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            try {
+                if (task != null) {
+                    task.run();
+                }
+                long now = System.currentTimeMillis();
+                if (tickMillis > 0 && now >= nextTick) {
+                    tick();
+                    // Skip ticks we are too late for rather than bursting to catch up.
+                    nextTick = Math.max(nextTick + tickMillis, now + 1);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("[Telemetry] Dispatch failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Collects the latest frame of every camera that published since the last tick and sends each
+     * client one batch.
+     */
+    private void tick() {
+        for (CameraFeed feed : feeds.values()) {
+            if (feed.queued.getAndSet(false)) {
+                feed.collect();
+            }
+        }
+        long started = System.nanoTime();
+        for (SubscriptionGroup group : groups.values()) {
+            group.flush(encoders);
+        }
+        metrics.recorder(PipelineMetrics.TELEMETRY).record(PipelineStage.SERIALIZE, started);
+    }
+
+    private void dispatchTracks(TrackTable tracks) {
+        for (SubscriptionGroup group : groups.values()) {
+            group.dispatchTracks(tracks, encoders);
+        }
+    }
+
+    private void dispatchPacket(TelemetryPacket packet) {
+        for (SubscriptionGroup group : groups.values()) {
+            group.dispatchPacket(packet, encoders);
+        }
+    }
+
+    /**
+     * Queues the latest state of the session's cameras; runs on the dispatcher after the session
+     * joined its group. Groups created for the session are first seeded from the last tables.
+     */
+    private void sendSnapshot(ClientSession session) {
+        SubscriptionGroup group = session.getGroup();
+        if (group == null) {
+            return;
+        }
+        for (CameraFeed feed : feeds.values()) {
+            if (feed.hasSnapshot) {
+                group.seed(feed.snapshot, encoders);
+            }
+        }
+        group.sendSnapshot(session, encoders);
+    }
+
+    private void dispatchEvent(TelemetryEvent event) {
+        server.dispatchMessage(event.getCameraId(), encoders.json(event));
+    }
+
+    /**
+     * Moves the session into the group matching its new subscription. Delta state restarts from
+     * keyframes because the new group has its own delta streams.
+     */
+    private void subscribe(ClientSession session, TelemetrySubscription subscription) {
+        synchronized (session) {
+            leaveGroup(session);
+            session.setSubscription(subscription);
+            session.requestResync(null);
+            SubscriptionGroup.Key key = SubscriptionGroup.Key.of(session.getFormat(), subscription);
+            session.setGroup(groups.compute(key, (k, existing) -> {
+                SubscriptionGroup group = existing != null ? existing : new SubscriptionGroup(k, tickMillis > 0);
+                group.add(session);
+                return group;
+            }));
+        }
+        // If the dispatcher is too far behind to take it, the next frames resync the client anyway.
+        work.offer(() -> sendSnapshot(session));
+    }
+
+    private void leaveGroup(ClientSession session) {
+        synchronized (session) {
+            SubscriptionGroup group = session.getGroup();
+            if (group != null) {
+                groups.computeIfPresent(group.getKey(), (k, existing) -> existing.remove(session) ? null : existing);
+                session.setGroup(null);
+            }
+        }
+    }
+
     @Override
     public void close() {
         stop();
     }
 
-    private static class BroadcastServer extends WebSocketServer {
+    /**
+     * Pending work of one camera; queued for the dispatcher at most once at a time. When
+     * aggregating, {@code queued} only marks the camera for the next tick.
+     */
+    private final class CameraFeed implements Runnable {
+        private final String cameraId;
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private final AtomicReference<TelemetryPacket> packet = new AtomicReference<>();
+        /** Copy of the last table, for groups created after it was sent; dispatcher only. */
+        private final TrackTable snapshot = new TrackTable();
+        private boolean hasSnapshot;
+        private final PipelineMetrics.Recorder stages;
+
+        CameraFeed(String cameraId) {
+            this.cameraId = cameraId;
+            this.stages = metrics.recorder(cameraId);
+        }
+
+        void schedule() {
+            if (queued.compareAndSet(false, true) && tickMillis == 0 && !work.offer(this)) {
+                queued.set(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            queued.set(false);
+            collect();
+        }
+
+        /**
+         * Hands the camera's pending table and packet to the sinks and groups; the time spent
+         * encoding them is the camera's serialize stage.
+         */
+        void collect() {
+            long started = System.nanoTime();
+            TrackTable tracks = trackerManager != null ? trackerManager.pollLatest(cameraId) : null;
+            if (tracks != null) {
+                for (TelemetrySink sink : sinks) {
+                    sink.onTracks(tracks);
+                }
+                TelemetrySentEvent event = new TelemetrySentEvent();
+                event.begin();
+                dispatchTracks(tracks);
+                event.end();
+                event.commit(cameraId, tracks.getFrameSequence(), tracks.size());
+                snapshot.copyFrom(tracks);
+                hasSnapshot = true;
+            }
+            TelemetryPacket pending = packet.getAndSet(null);
+            if (pending != null) {
+                // The table no longer shows the camera's current state.
+                hasSnapshot = false;
+                for (TelemetrySink sink : sinks) {
+                    sink.onPacket(pending);
+                }
+                dispatchPacket(pending);
+            }
+            if (tracks != null || pending != null) {
+                stages.record(PipelineStage.SERIALIZE, started);
+            }
+        }
+    }
+
+    private class BroadcastServer extends WebSocketServer {
         private final CopyOnWriteArraySet<WebSocket> connections = new CopyOnWriteArraySet<>();
 
-        BroadcastServer(InetSocketAddress address) {
-            super(address);
+        BroadcastServer(InetSocketAddress address, MessageCompressor compressor) {
+            super(address, List.of(negotiatingDraft(compressor)));
+        }
+
+        private static Draft negotiatingDraft(MessageCompressor compressor) {
+            List<IProtocol> protocols = List.of(
+                new Protocol(TelemetryProtocol.DELTA_V1),
+                new Protocol(TelemetryProtocol.BINARY_V1),
+                new Protocol(TelemetryProtocol.JSON),
+                // Clients that request no subprotocol get JSON.
+                new Protocol("")
+            );
+            List<IExtension> extensions = compressor != null
+                ? List.of(new PerMessageDeflateExtension())
+                : Collections.emptyList();
+            return new PreframedDraft(extensions, protocols);
         }
 
         @Override
         public void onOpen(WebSocket conn, ClientHandshake handshake) {
+            IProtocol protocol = conn.getProtocol();
+            WireFormat format = WireFormat.ofProtocol(protocol != null ? protocol.getProvidedProtocol() : "");
+            ClientOutbox outbox = new ClientOutbox(conn, labels, clientQueueCapacity, maxBufferedFrames,
+                slowClientTimeoutMs, metrics.recorder(PipelineMetrics.TELEMETRY), metrics.recorder(clientScope(conn), CLIENT_STAGES));
+            ClientSession session = new ClientSession(conn, format, outbox);
+            conn.setAttachment(session);
+            subscribe(session, TelemetrySubscription.ALL);
             connections.add(conn);
-            System.out.println("[Telemetry] Client connected: " + conn.getRemoteSocketAddress());
+            outbox.start("telemetry-writer-" + conn.getRemoteSocketAddress());
+            System.out.println("[Telemetry] Client connected: " + conn.getRemoteSocketAddress()
+                + " (" + format.protocol() + ")");
         }
 
         @Override
         public void onClose(WebSocket conn, int code, String reason, boolean remote) {
-            connections.remove(conn);
-            System.out.println("[Telemetry] Client disconnected: " + conn.getRemoteSocketAddress());
+            ClientSession session = conn.getAttachment();
+            if (connections.remove(conn) && session != null) {
+                leaveGroup(session);
+                ClientOutbox outbox = session.getOutbox();
+                outbox.close();
+                System.out.println("[Telemetry] Client disconnected: " + conn.getRemoteSocketAddress()
+                    + " (sent " + outbox.getSentMessages()
+                    + ", coalesced " + outbox.getCoalescedFrames()
+                    + ", dropped " + outbox.getDroppedMessages()
+                    + latencySummary("delivery", outbox.getLatency().summarize(PipelineStage.DELIVERY))
+                    + latencySummary("render", outbox.getLatency().summarize(PipelineStage.RENDER)) + ")");
+                metrics.remove(outbox.getLatency().getScope());
+            }
         }
 
         @Override
         public void onMessage(WebSocket conn, String message) {
-            // No inbound messages expected; ignore or log
+            ClientSession session = conn.getAttachment();
+            if (session == null) {
+                return;
+            }
+            try {
+                JsonElement parsed = JsonParser.parseString(message);
+                if (!parsed.isJsonObject()) {
+                    return;
+                }
+                JsonObject request = parsed.getAsJsonObject();
+                JsonElement type = request.get("type");
+                String requestType = type != null && type.isJsonPrimitive() ? type.getAsString() : "";
+                if (TelemetryProtocol.SUBSCRIBE.equals(requestType)) {
+                    TelemetrySubscription subscription = TelemetrySubscription.fromJson(request);
+                    subscribe(session, subscription);
+                    System.out.println("[Telemetry] Client " + conn.getRemoteSocketAddress() + " subscribed: " + subscription);
+                } else if (TelemetryProtocol.RESYNC.equals(requestType)) {
+                    JsonElement cameraId = request.get("cameraId");
+                    session.requestResync(cameraId != null && !cameraId.isJsonNull() ? cameraId.getAsString() : null);
+                } else if (TelemetryProtocol.LATENCY.equals(requestType)) {
+                    recordRenderAges(session, request.get("ages"));
+                }
+            } catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+                System.err.println("[Telemetry] Ignoring malformed client message: " + e.getMessage());
+            }
+        }
+
+        /**
+         * Ages are milliseconds on the client's clock; ages below zero mean the clocks disagree
+         * and count as zero, and entries that are not numbers are skipped.
+         */
+        private void recordRenderAges(ClientSession session, JsonElement ages) {
+            if (ages == null || !ages.isJsonArray()) {
+                return;
+            }
+            PipelineMetrics.Recorder latency = session.getOutbox().getLatency();
+            int recorded = 0;
+            for (JsonElement age : ages.getAsJsonArray()) {
+                if (recorded++ == MAX_REPORTED_AGES) {
+                    break;
+                }
+                if (!age.isJsonPrimitive() || !age.getAsJsonPrimitive().isNumber()) {
+                    continue;
+                }
+                double millis = age.getAsDouble();
+                if (Double.isFinite(millis)) {
+                    latency.recordNanos(PipelineStage.RENDER, Math.max(0L, Math.round(millis * 1_000_000.0)));
+                }
+            }
         }
 
         @Override
@@ -112,10 +593,41 @@ public class TelemetryServer implements AutoCloseable {
 
         @Override
         public void broadcast(String payload) {
+            dispatchMessage(null, encoders.message(ByteBuffer.wrap(payload.getBytes(StandardCharsets.UTF_8)), true));
+        }
+
+        /**
+         * Queues a message that every subscriber of the camera must receive, such as an analytics
+         * event; a {@code null} camera reaches every client.
+         */
+        void dispatchMessage(String cameraId, PreframedMessage message) {
+            for (WebSocket conn : connections) {
+                ClientSession session = conn.getAttachment();
+                if (cameraId == null || session.getSubscription().includesCamera(cameraId)) {
+                    session.getOutbox().offerMessage(message);
+                }
+            }
+        }
+
+        List<TelemetryClientStats> clientStats() {
+            List<TelemetryClientStats> stats = new ArrayList<>();
             for (WebSocket conn : connections) {
-                conn.send(payload);
+                ClientSession session = conn.getAttachment();
+                ClientOutbox outbox = session.getOutbox();
+                stats.add(new TelemetryClientStats(
+                    String.valueOf(conn.getRemoteSocketAddress()),
+                    session.getFormat().protocol(),
+                    outbox.getSentMessages(),
+                    outbox.getSentBytes(),
+                    outbox.getCoalescedFrames(),
+                    outbox.getDroppedMessages(),
+                    outbox.getQueuedMessages(),
+                    outbox.getBufferedFrames(),
+                    metrics.windowSummary(outbox.getLatency().getScope(), PipelineStage.DELIVERY),
+                    metrics.windowSummary(outbox.getLatency().getScope(), PipelineStage.RENDER)
+                ));
             }
+            return stats;
         }
     }
 }
-
@@ -0,0 +1,20 @@
+package com.starwatchx.telemetry;
+
+import com.starwatchx.tracking.TrackTable;
+
+/**
+ * Receives every frame the telemetry dispatcher sends, whether or not any client is connected.
+ * Called on the dispatcher thread, so implementations must hand heavy work to their own thread.
+ */
+public interface TelemetrySink {
+
+    /**
+     * A tracker frame; the table is only valid during the call.
+     */
+    void onTracks(TrackTable tracks);
+
+    /**
+     * A packet that did not come from the tracker, e.g. an empty frame after an error.
+     */
+    void onPacket(TelemetryPacket packet);
+}
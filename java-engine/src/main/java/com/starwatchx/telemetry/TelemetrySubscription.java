@@ -0,0 +1,76 @@
+package com.starwatchx.telemetry;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * What a client wants to receive, sent as
+ * {@code {"type":"subscribe","cameras":[...],"labels":[...],"minConfidence":0.5,"maxRate":10}}.
+ * Empty camera or label sets mean all of them, and a {@code maxRate} of 0 (updates per second per
+ * camera) means every frame.
+ */
+record TelemetrySubscription(Set<String> cameras, Set<String> labels, float minConfidence, float maxRate) {
+
+    static final TelemetrySubscription ALL = new TelemetrySubscription(Set.of(), Set.of(), 0f, 0f);
+
+    TelemetrySubscription {
+        cameras = Set.copyOf(cameras);
+        labels = Set.copyOf(labels);
+        minConfidence = Float.isFinite(minConfidence) ? Math.max(0f, minConfidence) : 0f;
+        maxRate = Float.isFinite(maxRate) ? Math.max(0f, maxRate) : 0f;
+    }
+
+    static TelemetrySubscription fromJson(JsonObject request) {
+        return new TelemetrySubscription(
+            strings(request.get("cameras")),
+            strings(request.get("labels")),
+            number(request.get("minConfidence")),
+            number(request.get("maxRate"))
+        );
+    }
+
+    boolean includesCamera(String cameraId) {
+        return cameras.isEmpty() || cameras.contains(cameraId);
+    }
+
+    /**
+     * True if some rows may be filtered out, so frames need a filtered copy of the table.
+     */
+    boolean filtersRows() {
+        return !labels.isEmpty() || minConfidence > 0f;
+    }
+
+    boolean accepts(String label, float confidence) {
+        return confidence >= minConfidence && (labels.isEmpty() || labels.contains(label));
+    }
+
+    /**
+     * Minimum spacing between frames of one camera, or 0 for every frame.
+     */
+    long minIntervalMillis() {
+        return maxRate > 0f ? (long) Math.ceil(1_000.0 / maxRate) : 0L;
+    }
+
+    private static Set<String> strings(JsonElement element) {
+        Set<String> values = new LinkedHashSet<>();
+        if (element != null && element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            for (JsonElement value : array) {
+                if (value.isJsonPrimitive()) {
+                    values.add(value.getAsString());
+                }
+            }
+        }
+        return values;
+    }
+
+    private static float number(JsonElement element) {
+        return element != null && element.isJsonPrimitive() && element.getAsJsonPrimitive().isNumber()
+            ? element.getAsFloat()
+            : 0f;
+    }
+}
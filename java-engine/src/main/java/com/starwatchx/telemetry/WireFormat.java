@@ -0,0 +1,28 @@
+package com.starwatchx.telemetry;
+
+/**
+ * Wire format a client negotiated through the WebSocket subprotocol.
+ */
+enum WireFormat {
+    JSON,
+    BINARY,
+    DELTA;
+
+    static WireFormat ofProtocol(String protocol) {
+        if (TelemetryProtocol.DELTA_V1.equals(protocol)) {
+            return DELTA;
+        }
+        if (TelemetryProtocol.BINARY_V1.equals(protocol)) {
+            return BINARY;
+        }
+        return JSON;
+    }
+
+    String protocol() {
+        return switch (this) {
+            case DELTA -> TelemetryProtocol.DELTA_V1;
+            case BINARY -> TelemetryProtocol.BINARY_V1;
+            case JSON -> TelemetryProtocol.JSON;
+        };
+    }
+}
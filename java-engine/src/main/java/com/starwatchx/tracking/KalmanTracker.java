@@ -87,6 +87,38 @@ public class KalmanTracker {
         return new TrackerState(x, y, width, height, velocityX, velocityY);
     }
 
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    public float getCenterX() {
+        return x + width / 2f;
+    }
+
+    public float getCenterY() {
+        return y + height / 2f;
+    }
+
+    public float getVelocityX() {
+        return velocityX;
+    }
+
+    public float getVelocityY() {
+        return velocityY;
+    }
+
     private void initializeFromDetection(DetectedObject detection) {
         this.x = detection.getX();
         this.y = detection.getY();
@@ -0,0 +1,170 @@
+package com.starwatchx.tracking;
+
+/**
+ * Fixed-capacity ring buffer of recent samples for a single track.
+ * Samples are stored in primitive arrays so appending never allocates; once the
+ * buffer is full the oldest sample is overwritten. Index 0 is the oldest sample
+ * and {@code size() - 1} the newest.
+ * The newest {@code fitWindow} samples are also folded into {@link TrackMoments} as they
+ * arrive, so trajectory fits over the window cost O(1) per observation.
+ */
+public class TrackHistory {
+
+    /** Bytes retained per sample: six float columns plus one long timestamp. */
+    public static final int BYTES_PER_SAMPLE = 6 * Float.BYTES + Long.BYTES;
+
+    /** Moments are recomputed around a fresh time origin after this long to bound rounding drift. */
+    private static final long MOMENT_REBASE_MS = 10_000L;
+
+    private final int capacity;
+    private final int fitWindow;
+    private final TrackMoments moments = new TrackMoments();
+    private final long[] timestamps;
+    private final float[] centerX;
+    private final float[] centerY;
+    private final float[] width;
+    private final float[] height;
+    private final float[] velocityX;
+    private final float[] velocityY;
+
+    private int head;
+    private int size;
+
+    public TrackHistory(int capacity) {
+        this(capacity, capacity);
+    }
+
+    public TrackHistory(int capacity, int fitWindow) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        if (fitWindow <= 0 || fitWindow > capacity) {
+            throw new IllegalArgumentException("fitWindow must be in 1.." + capacity);
+        }
+        this.capacity = capacity;
+        this.fitWindow = fitWindow;
+        this.timestamps = new long[capacity];
+        this.centerX = new float[capacity];
+        this.centerY = new float[capacity];
+        this.width = new float[capacity];
+        this.height = new float[capacity];
+        this.velocityX = new float[capacity];
+        this.velocityY = new float[capacity];
+    }
+
+    public void push(long timestamp,
+                     float cx,
+                     float cy,
+                     float w,
+                     float h,
+                     float vx,
+                     float vy) {
+        if (size >= fitWindow) {
+            int leaving = size - fitWindow;
+            moments.remove(getTimestamp(leaving), getCenterX(leaving), getCenterY(leaving));
+        }
+        timestamps[head] = timestamp;
+        centerX[head] = cx;
+        centerY[head] = cy;
+        width[head] = w;
+        height[head] = h;
+        velocityX[head] = vx;
+        velocityY[head] = vy;
+        head = (head + 1) % capacity;
+        if (size < capacity) {
+            size++;
+        }
+        if (moments.getCount() == 0 || timestamp - moments.getOriginTimestamp() > MOMENT_REBASE_MS) {
+            rebaseMoments();
+        } else {
+            moments.add(timestamp, cx, cy);
+        }
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        moments.reset(0L);
+    }
+
+    /**
+     * Power sums over the newest {@link #getFitWindow()} samples.
+     */
+    public TrackMoments getMoments() {
+        return moments;
+    }
+
+    public int getFitWindow() {
+        return fitWindow;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[slot(index)];
+    }
+
+    public float getCenterX(int index) {
+        return centerX[slot(index)];
+    }
+
+    public float getCenterY(int index) {
+        return centerY[slot(index)];
+    }
+
+    public float getWidth(int index) {
+        return width[slot(index)];
+    }
+
+    public float getHeight(int index) {
+        return height[slot(index)];
+    }
+
+    public float getVelocityX(int index) {
+        return velocityX[slot(index)];
+    }
+
+    public float getVelocityY(int index) {
+        return velocityY[slot(index)];
+    }
+
+    /**
+     * Milliseconds covered by the buffered samples (newest minus oldest timestamp).
+     */
+    public long getSpanMillis() {
+        if (size < 2) {
+            return 0L;
+        }
+        return getTimestamp(size - 1) - getTimestamp(0);
+    }
+
+    public static long bytesForDepth(int depth) {
+        return (long) depth * BYTES_PER_SAMPLE;
+    }
+
+    private void rebaseMoments() {
+        int first = Math.max(0, size - fitWindow);
+        moments.reset(getTimestamp(first));
+        for (int i = first; i < size; i++) {
+            moments.add(getTimestamp(i), getCenterX(i), getCenterY(i));
+        }
+    }
+
+    private int slot(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " outside history of size " + size);
+        }
+        int oldest = size < capacity ? 0 : head;
+        return (oldest + index) % capacity;
+    }
+}
@@ -0,0 +1,63 @@
+package com.starwatchx.tracking;
+
+import java.util.ArrayDeque;
+
+/**
+ * Recycles {@link TrackHistory} buffers of a fixed depth so track churn does not allocate.
+ * Not thread-safe; each camera owns its own pool.
+ */
+public class TrackHistoryPool {
+
+    private final int depth;
+    private final int fitWindow;
+    private final ArrayDeque<TrackHistory> free = new ArrayDeque<>();
+    private int allocated;
+
+    public TrackHistoryPool(int depth) {
+        this(depth, depth);
+    }
+
+    public TrackHistoryPool(int depth, int fitWindow) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("depth must be > 0");
+        }
+        this.depth = depth;
+        this.fitWindow = Math.min(depth, fitWindow);
+    }
+
+    public TrackHistory acquire() {
+        TrackHistory history = free.pollFirst();
+        if (history == null) {
+            allocated++;
+            return new TrackHistory(depth, fitWindow);
+        }
+        return history;
+    }
+
+    public void release(TrackHistory history) {
+        if (history == null || history.capacity() != depth) {
+            return;
+        }
+        history.clear();
+        free.addFirst(history);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getAllocatedCount() {
+        return allocated;
+    }
+
+    public int getFreeCount() {
+        return free.size();
+    }
+
+    /**
+     * Bytes held by every history this pool has ever handed out (live and pooled).
+     */
+    public long getRetainedBytes() {
+        return allocated * TrackHistory.bytesForDepth(depth);
+    }
+}
@@ -0,0 +1,118 @@
+package com.starwatchx.tracking;
+
+/**
+ * Running power sums of time and center position over a sliding window of track samples.
+ * Adding or removing a sample is O(1), which lets least-squares fits of position against
+ * time (linear or quadratic) be solved per frame without revisiting the window.
+ * Times are seconds relative to {@link #getOriginTimestamp()} to keep the sums well conditioned.
+ */
+public class TrackMoments {
+
+    private long originTimestamp;
+    private int count;
+    private double sumT;
+    private double sumT2;
+    private double sumT3;
+    private double sumT4;
+    private double sumX;
+    private double sumTX;
+    private double sumT2X;
+    private double sumY;
+    private double sumTY;
+    private double sumT2Y;
+
+    void reset(long originTimestamp) {
+        this.originTimestamp = originTimestamp;
+        count = 0;
+        sumT = 0d;
+        sumT2 = 0d;
+        sumT3 = 0d;
+        sumT4 = 0d;
+        sumX = 0d;
+        sumTX = 0d;
+        sumT2X = 0d;
+        sumY = 0d;
+        sumTY = 0d;
+        sumT2Y = 0d;
+    }
+
+    void add(long timestamp, float cx, float cy) {
+        accumulate(timestamp, cx, cy, 1d);
+        count++;
+    }
+
+    void remove(long timestamp, float cx, float cy) {
+        accumulate(timestamp, cx, cy, -1d);
+        count--;
+    }
+
+    private void accumulate(long timestamp, float cx, float cy, double sign) {
+        double t = toSeconds(timestamp);
+        double t2 = t * t;
+        sumT += sign * t;
+        sumT2 += sign * t2;
+        sumT3 += sign * t2 * t;
+        sumT4 += sign * t2 * t2;
+        sumX += sign * cx;
+        sumTX += sign * t * cx;
+        sumT2X += sign * t2 * cx;
+        sumY += sign * cy;
+        sumTY += sign * t * cy;
+        sumT2Y += sign * t2 * cy;
+    }
+
+    /**
+     * Converts an absolute millisecond timestamp to seconds relative to the origin.
+     */
+    public double toSeconds(long timestamp) {
+        return (timestamp - originTimestamp) / 1000d;
+    }
+
+    public long getOriginTimestamp() {
+        return originTimestamp;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getSumT() {
+        return sumT;
+    }
+
+    public double getSumT2() {
+        return sumT2;
+    }
+
+    public double getSumT3() {
+        return sumT3;
+    }
+
+    public double getSumT4() {
+        return sumT4;
+    }
+
+    public double getSumX() {
+        return sumX;
+    }
+
+    public double getSumTX() {
+        return sumTX;
+    }
+
+    public double getSumT2X() {
+        return sumT2X;
+    }
+
+    public double getSumY() {
+        return sumY;
+    }
+
+    public double getSumTY() {
+        return sumTY;
+    }
+
+    public double getSumT2Y() {
+        return sumT2Y;
+    }
+}
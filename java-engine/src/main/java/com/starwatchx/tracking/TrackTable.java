@@ -0,0 +1,378 @@
+package com.starwatchx.tracking;
+
+import java.util.Arrays;
+
+/**
+ * Flat, column-oriented view of every active track for one camera frame.
+ * Tables are reused frame after frame: {@link #reset} clears the row count but keeps the
+ * backing arrays, which only grow when a frame has more tracks than any frame before it.
+ * Predicted paths are stored alongside the rows with a fixed number of points per track.
+ */
+public class TrackTable {
+
+    private static final int INITIAL_CAPACITY = 32;
+    private static final int DEFAULT_PATH_STRIDE = 8;
+
+    private String cameraId;
+    private long timestamp;
+    private long frameSequence;
+    private double ptsMillis = Double.NaN;
+    private long captureNanos;
+    private long grabNanos;
+    private long publishedNanos;
+    private int count;
+    private int capacity;
+
+    private String[] trackIds;
+    private int[] trackNumbers;
+    private int[] classIds;
+    private String[] labels;
+    private float[] confidences;
+    private float[] x;
+    private float[] y;
+    private float[] width;
+    private float[] height;
+    private float[] velocityX;
+    private float[] velocityY;
+    private long[] lastUpdateTimestamps;
+    private TrackHistory[] histories;
+
+    private int pathStride;
+    private int[] pathLengths;
+    private float[] pathX;
+    private float[] pathY;
+    private float[] pathSeconds;
+
+    public TrackTable() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public TrackTable(int initialCapacity) {
+        this.pathStride = DEFAULT_PATH_STRIDE;
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    public void reset(String cameraId, long timestamp) {
+        reset(cameraId, timestamp, 0L);
+    }
+
+    public void reset(String cameraId, long timestamp, long frameSequence) {
+        this.cameraId = cameraId;
+        this.timestamp = timestamp;
+        this.frameSequence = frameSequence;
+        this.ptsMillis = Double.NaN;
+        this.captureNanos = 0L;
+        this.grabNanos = 0L;
+        this.publishedNanos = 0L;
+        Arrays.fill(histories, 0, count, null);
+        Arrays.fill(pathLengths, 0, count, 0);
+        this.count = 0;
+    }
+
+    /**
+     * Replaces this table's rows with a copy of {@code source}'s, so the copy stays valid after
+     * the source is reused. Histories and predicted paths are not copied.
+     */
+    public void copyFrom(TrackTable source) {
+        reset(source.cameraId, source.timestamp, source.frameSequence);
+        copyTimingFrom(source);
+        if (source.count > capacity) {
+            allocate(source.count);
+        }
+        int rows = source.count;
+        System.arraycopy(source.trackIds, 0, trackIds, 0, rows);
+        System.arraycopy(source.trackNumbers, 0, trackNumbers, 0, rows);
+        System.arraycopy(source.classIds, 0, classIds, 0, rows);
+        System.arraycopy(source.labels, 0, labels, 0, rows);
+        System.arraycopy(source.confidences, 0, confidences, 0, rows);
+        System.arraycopy(source.x, 0, x, 0, rows);
+        System.arraycopy(source.y, 0, y, 0, rows);
+        System.arraycopy(source.width, 0, width, 0, rows);
+        System.arraycopy(source.height, 0, height, 0, rows);
+        System.arraycopy(source.velocityX, 0, velocityX, 0, rows);
+        System.arraycopy(source.velocityY, 0, velocityY, 0, rows);
+        System.arraycopy(source.lastUpdateTimestamps, 0, lastUpdateTimestamps, 0, rows);
+        count = rows;
+    }
+
+    /**
+     * Stamps the table with when its frame was read: {@code ptsMillis} is the source's
+     * presentation time (NaN if it reports none), {@code captureNanos} the
+     * {@code System.nanoTime()} the read returned at, the same instant as {@link #getTimestamp()},
+     * and {@code grabNanos} how long the read took.
+     */
+    public void setCapture(double ptsMillis, long captureNanos, long grabNanos) {
+        this.ptsMillis = ptsMillis;
+        this.captureNanos = captureNanos;
+        this.grabNanos = grabNanos;
+    }
+
+    /**
+     * {@code System.nanoTime()} at which the camera thread handed the table to telemetry.
+     */
+    public void setPublishedNanos(long publishedNanos) {
+        this.publishedNanos = publishedNanos;
+    }
+
+    /**
+     * Copies the presentation time and stage timestamps of {@code source}, e.g. into a filtered view.
+     */
+    public void copyTimingFrom(TrackTable source) {
+        this.ptsMillis = source.ptsMillis;
+        this.captureNanos = source.captureNanos;
+        this.grabNanos = source.grabNanos;
+        this.publishedNanos = source.publishedNanos;
+    }
+
+    public int addRow(String trackId,
+                      int trackNumber,
+                      int classId,
+                      String label,
+                      float confidence,
+                      float rowX,
+                      float rowY,
+                      float rowWidth,
+                      float rowHeight,
+                      float rowVelocityX,
+                      float rowVelocityY,
+                      long lastUpdateTimestamp,
+                      TrackHistory history) {
+        if (count == capacity) {
+            allocate(capacity * 2);
+        }
+        int row = count++;
+        trackIds[row] = trackId;
+        trackNumbers[row] = trackNumber;
+        classIds[row] = classId;
+        labels[row] = label;
+        confidences[row] = confidence;
+        x[row] = rowX;
+        y[row] = rowY;
+        width[row] = rowWidth;
+        height[row] = rowHeight;
+        velocityX[row] = rowVelocityX;
+        velocityY[row] = rowVelocityY;
+        lastUpdateTimestamps[row] = lastUpdateTimestamp;
+        histories[row] = history;
+        pathLengths[row] = 0;
+        return row;
+    }
+
+    public String getCameraId() {
+        return cameraId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Per-camera sequence of the captured frame the table was built from; 0 if unknown.
+     */
+    public long getFrameSequence() {
+        return frameSequence;
+    }
+
+    /**
+     * Presentation time the source reported for the frame, in milliseconds; NaN if unknown.
+     */
+    public double getPtsMillis() {
+        return ptsMillis;
+    }
+
+    /**
+     * {@code System.nanoTime()} when the frame was read; 0 if the table was not stamped.
+     */
+    public long getCaptureNanos() {
+        return captureNanos;
+    }
+
+    public long getGrabNanos() {
+        return grabNanos;
+    }
+
+    /**
+     * {@code System.nanoTime()} when the table was published; 0 if not stamped.
+     */
+    public long getPublishedNanos() {
+        return publishedNanos;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public String getTrackId(int row) {
+        return trackIds[row];
+    }
+
+    /**
+     * Small per-camera integer identifying the track; cheaper than the UUID for keys and wire formats.
+     */
+    public int getTrackNumber(int row) {
+        return trackNumbers[row];
+    }
+
+    public int getClassId(int row) {
+        return classIds[row];
+    }
+
+    public String getLabel(int row) {
+        return labels[row];
+    }
+
+    public float getConfidence(int row) {
+        return confidences[row];
+    }
+
+    public float getX(int row) {
+        return x[row];
+    }
+
+    public float getY(int row) {
+        return y[row];
+    }
+
+    public float getWidth(int row) {
+        return width[row];
+    }
+
+    public float getHeight(int row) {
+        return height[row];
+    }
+
+    public float getCenterX(int row) {
+        return x[row] + width[row] / 2f;
+    }
+
+    public float getCenterY(int row) {
+        return y[row] + height[row] / 2f;
+    }
+
+    public float getVelocityX(int row) {
+        return velocityX[row];
+    }
+
+    public float getVelocityY(int row) {
+        return velocityY[row];
+    }
+
+    public long getLastUpdateTimestamp(int row) {
+        return lastUpdateTimestamps[row];
+    }
+
+    /**
+     * Live history buffer of the track. Only valid on the thread that produced this table.
+     */
+    public TrackHistory getHistory(int row) {
+        return histories[row];
+    }
+
+    public int getPathStride() {
+        return pathStride;
+    }
+
+    /**
+     * Changes the maximum number of path points stored per row. Clears existing paths.
+     */
+    public void setPathStride(int stride) {
+        if (stride <= 0) {
+            throw new IllegalArgumentException("stride must be > 0");
+        }
+        if (stride == pathStride) {
+            return;
+        }
+        pathStride = stride;
+        pathX = new float[capacity * stride];
+        pathY = new float[capacity * stride];
+        pathSeconds = new float[capacity * stride];
+        Arrays.fill(pathLengths, 0);
+    }
+
+    public int getPathLength(int row) {
+        return pathLengths[row];
+    }
+
+    public float getPathX(int row, int point) {
+        return pathX[row * pathStride + point];
+    }
+
+    public float getPathY(int row, int point) {
+        return pathY[row * pathStride + point];
+    }
+
+    public float getPathSeconds(int row, int point) {
+        return pathSeconds[row * pathStride + point];
+    }
+
+    public void setPathPoint(int row, int point, float px, float py, float seconds) {
+        if (point >= pathStride) {
+            throw new IndexOutOfBoundsException("path point " + point + " exceeds stride " + pathStride);
+        }
+        int index = row * pathStride + point;
+        pathX[index] = px;
+        pathY[index] = py;
+        pathSeconds[index] = seconds;
+    }
+
+    public void setPathLength(int row, int length) {
+        pathLengths[row] = Math.min(length, pathStride);
+    }
+
+    /**
+     * Materializes a row as an immutable snapshot. Allocates; intended for cold paths only.
+     */
+    public TrackerManager.TrackerSnapshot toSnapshot(int row) {
+        return new TrackerManager.TrackerSnapshot(
+            trackIds[row],
+            classIds[row],
+            labels[row],
+            confidences[row],
+            x[row],
+            y[row],
+            width[row],
+            height[row],
+            velocityX[row],
+            velocityY[row],
+            lastUpdateTimestamps[row]
+        );
+    }
+
+    private void allocate(int newCapacity) {
+        trackIds = grow(trackIds, new String[newCapacity]);
+        trackNumbers = trackNumbers == null ? new int[newCapacity] : Arrays.copyOf(trackNumbers, newCapacity);
+        classIds = classIds == null ? new int[newCapacity] : Arrays.copyOf(classIds, newCapacity);
+        labels = grow(labels, new String[newCapacity]);
+        confidences = growFloats(confidences, newCapacity);
+        x = growFloats(x, newCapacity);
+        y = growFloats(y, newCapacity);
+        width = growFloats(width, newCapacity);
+        height = growFloats(height, newCapacity);
+        velocityX = growFloats(velocityX, newCapacity);
+        velocityY = growFloats(velocityY, newCapacity);
+        lastUpdateTimestamps = lastUpdateTimestamps == null
+            ? new long[newCapacity]
+            : Arrays.copyOf(lastUpdateTimestamps, newCapacity);
+        histories = grow(histories, new TrackHistory[newCapacity]);
+        pathLengths = pathLengths == null ? new int[newCapacity] : Arrays.copyOf(pathLengths, newCapacity);
+        pathX = growFloats(pathX, newCapacity * pathStride);
+        pathY = growFloats(pathY, newCapacity * pathStride);
+        pathSeconds = growFloats(pathSeconds, newCapacity * pathStride);
+        capacity = newCapacity;
+    }
+
+    private static float[] growFloats(float[] source, int length) {
+        return source == null ? new float[length] : Arrays.copyOf(source, length);
+    }
+
+    private static <T> T[] grow(T[] source, T[] target) {
+        if (source != null) {
+            System.arraycopy(source, 0, target, 0, Math.min(source.length, target.length));
+        }
+        return target;
+    }
+}
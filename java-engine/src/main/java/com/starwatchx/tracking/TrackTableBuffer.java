@@ -0,0 +1,56 @@
+package com.starwatchx.tracking;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Triple buffer of {@link TrackTable}s connecting one producer (the camera thread) with
+ * one consumer on another thread. The producer fills {@link #getWriteTable()} and calls
+ * {@link #publish()}; the consumer calls {@link #pollLatest()} and reads the returned table
+ * until its next poll. Neither side blocks or copies, and the consumer always sees the most
+ * recent complete frame (older unread frames are simply overwritten).
+ */
+public class TrackTableBuffer {
+
+    private static final int INDEX_MASK = 0b011;
+    private static final int FRESH_BIT = 0b100;
+
+    private final TrackTable[] tables = {new TrackTable(), new TrackTable(), new TrackTable()};
+    private final AtomicInteger middle = new AtomicInteger(2);
+    private int writeIndex = 0;
+    private int readIndex = 1;
+
+    /**
+     * Table the producer should fill for the current frame.
+     */
+    public TrackTable getWriteTable() {
+        return tables[writeIndex];
+    }
+
+    /**
+     * Hands the write table to the consumer side and gives the producer a free table.
+     */
+    public void publish() {
+        int previous = middle.getAndSet(writeIndex | FRESH_BIT);
+        writeIndex = previous & INDEX_MASK;
+    }
+
+    /**
+     * Returns the most recently published table, or {@code null} if nothing was published
+     * since the previous poll. The returned table stays valid until the next call.
+     */
+    public TrackTable pollLatest() {
+        if ((middle.get() & FRESH_BIT) == 0) {
+            return null;
+        }
+        int previous = middle.getAndSet(readIndex);
+        readIndex = previous & INDEX_MASK;
+        return tables[readIndex];
+    }
+
+    /**
+     * Table returned by the last successful {@link #pollLatest()} (empty before the first one).
+     */
+    public TrackTable getReadTable() {
+        return tables[readIndex];
+    }
+}
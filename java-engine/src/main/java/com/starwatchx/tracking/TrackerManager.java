@@ -1,16 +1,16 @@
 package com.starwatchx.tracking;
 
 import com.starwatchx.detection.DetectedObject;
+import com.starwatchx.metrics.TrackingEvent;
 import com.starwatchx.util.MathUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Coordinates multiple trackers and associates detections to tracks.
@@ -20,55 +20,100 @@ public class TrackerManager {
     private static final float MAX_ASSOCIATION_DISTANCE = 150f;
     private static final float MIN_IOU_FOR_ASSOCIATION = 0.1f;
     private static final long TRACKER_TTL_MS = 2_000L;
+    private static final int DEFAULT_HISTORY_DEPTH = 64;
+    private static final int INDEX_MASK = 0xFFFF;
 
-    private final Map<String, List<TrackerEntry>> trackersByCamera = new HashMap<>();
+    private final Map<String, CameraTracks> tracksByCamera = new ConcurrentHashMap<>();
+    private final int historyDepth;
+    private final int fitWindow;
 
     public TrackerManager() {
+        this(DEFAULT_HISTORY_DEPTH);
     }
 
-    public List<TrackerSnapshot> update(String cameraId,
-                                        List<DetectedObject> detections,
-                                        long timestamp) {
+    public TrackerManager(int historyDepth) {
+        this(historyDepth, historyDepth);
+    }
+
+    /**
+     * @param historyDepth samples retained per track
+     * @param fitWindow    newest samples folded into each track's running fit moments
+     */
+    public TrackerManager(int historyDepth, int fitWindow) {
+        if (historyDepth <= 0) {
+            throw new IllegalArgumentException("historyDepth must be > 0");
+        }
+        if (fitWindow <= 0) {
+            throw new IllegalArgumentException("fitWindow must be > 0");
+        }
+        this.historyDepth = historyDepth;
+        this.fitWindow = Math.min(historyDepth, fitWindow);
+    }
+
+    /**
+     * Runs one tracking step and fills the camera's current {@link TrackTable}.
+     * The returned table is owned by the calling camera thread until {@link #publish(String)}
+     * hands it to the consumer side; it is reused for a later frame afterwards.
+     */
+    public TrackTable update(String cameraId,
+                             List<DetectedObject> detections,
+                             long timestamp) {
+        return update(cameraId, detections, timestamp, 0L);
+    }
+
+    /**
+     * Like {@link #update(String, List, long)}, stamping the table with the captured frame's
+     * sequence; the step is recorded as a {@link TrackingEvent}.
+     */
+    public TrackTable update(String cameraId,
+                             List<DetectedObject> detections,
+                             long timestamp,
+                             long frameSequence) {
+        TrackingEvent event = new TrackingEvent();
+        event.begin();
         List<DetectedObject> safeDetections = detections != null ? detections : Collections.emptyList();
-        List<TrackerEntry> trackers = trackersByCamera.computeIfAbsent(cameraId, key -> new ArrayList<>());
+        CameraTracks cameraTracks = tracksByCamera.computeIfAbsent(cameraId, key -> new CameraTracks(historyDepth, fitWindow));
+        List<TrackerEntry> trackers = cameraTracks.trackers;
 
         // Predict existing trackers
-        for (TrackerEntry entry : trackers) {
-            entry.tracker.predict(timestamp);
+        for (int i = 0; i < trackers.size(); i++) {
+            trackers.get(i).tracker.predict(timestamp);
         }
 
-        // Associate detections to trackers
-        boolean[] detectionMatched = new boolean[safeDetections.size()];
-        List<Association> associations = buildAssociations(trackers, safeDetections);
-        associations.sort(Comparator.comparingDouble(a -> a.distance));
-
-        for (Association association : associations) {
-            if (association.distance > MAX_ASSOCIATION_DISTANCE) {
-                continue;
-            }
-            if (detectionMatched[association.detectionIndex]) {
+        // Associate detections to trackers, closest pairs first
+        boolean[] detectionMatched = cameraTracks.detectionMatched(safeDetections.size());
+        int associationCount = buildAssociations(cameraTracks, trackers, safeDetections);
+        long[] associations = cameraTracks.associations;
+        Arrays.sort(associations, 0, associationCount);
+
+        for (int a = 0; a < associationCount; a++) {
+            long association = associations[a];
+            float distance = Float.intBitsToFloat((int) (association >>> 32));
+            int trackerIndex = (int) ((association >>> 16) & INDEX_MASK);
+            int detectionIndex = (int) (association & INDEX_MASK);
+            if (detectionMatched[detectionIndex]) {
                 continue;
             }
 
-            TrackerEntry entry = trackers.get(association.trackerIndex);
+            TrackerEntry entry = trackers.get(trackerIndex);
             if (entry.isStale(timestamp, TRACKER_TTL_MS)) {
                 continue;
             }
 
-            DetectedObject detection = safeDetections.get(association.detectionIndex);
-            float[] trackerBounds = entry.getBounds();
+            DetectedObject detection = safeDetections.get(detectionIndex);
+            KalmanTracker tracker = entry.tracker;
             float iou = MathUtils.iou(
-                trackerBounds[0], trackerBounds[1], trackerBounds[2], trackerBounds[3],
+                tracker.getX(), tracker.getY(), tracker.getWidth(), tracker.getHeight(),
                 detection.getX(), detection.getY(), detection.getWidth(), detection.getHeight());
 
-            if (iou < MIN_IOU_FOR_ASSOCIATION && association.distance > MAX_ASSOCIATION_DISTANCE / 2f) {
+            if (iou < MIN_IOU_FOR_ASSOCIATION && distance > MAX_ASSOCIATION_DISTANCE / 2f) {
                 continue;
             }
 
-            entry.tracker.update(detection);
+            tracker.update(detection);
             entry.lastUpdateTimestamp = timestamp;
             entry.lastDetection = detection;
-            detectionMatched[association.detectionIndex] = true;
+            detectionMatched[detectionIndex] = true;
         }
 
         // Create new trackers for unmatched detections
@@ -79,47 +124,92 @@ public class TrackerManager {
             DetectedObject detection = safeDetections.get(i);
             KalmanTracker tracker = new KalmanTracker();
             tracker.update(detection);
-            TrackerEntry entry = new TrackerEntry(tracker, detection, timestamp);
+            TrackerEntry entry = new TrackerEntry(
+                tracker,
+                detection,
+                timestamp,
+                cameraTracks.historyPool.acquire(),
+                cameraTracks.nextTrackNumber++
+            );
             trackers.add(entry);
         }
 
-        // Remove stale trackers
-        Iterator<TrackerEntry> iterator = trackers.iterator();
-        while (iterator.hasNext()) {
-            TrackerEntry entry = iterator.next();
+        // Remove stale trackers, returning their history buffers to the pool
+        int live = 0;
+        for (int i = 0; i < trackers.size(); i++) {
+            TrackerEntry entry = trackers.get(i);
             if (entry.isStale(timestamp, TRACKER_TTL_MS)) {
-                iterator.remove();
+                cameraTracks.historyPool.release(entry.history);
+            } else {
+                trackers.set(live++, entry);
             }
         }
+        while (trackers.size() > live) {
+            trackers.remove(trackers.size() - 1);
+        }
 
-        // Build snapshots for HUD/telemetry
-        List<TrackerSnapshot> snapshots = new ArrayList<>();
-        for (TrackerEntry entry : trackers) {
-            KalmanTracker.TrackerState state = entry.tracker.getState();
-            snapshots.add(new TrackerSnapshot(
-                entry.tracker.getTrackId(),
+        // Record history and fill the flat table for HUD/trajectory/telemetry
+        TrackTable table = cameraTracks.tables.getWriteTable();
+        table.reset(cameraId, timestamp, frameSequence);
+        for (int i = 0; i < trackers.size(); i++) {
+            TrackerEntry entry = trackers.get(i);
+            KalmanTracker tracker = entry.tracker;
+            entry.history.push(
+                timestamp,
+                tracker.getCenterX(),
+                tracker.getCenterY(),
+                tracker.getWidth(),
+                tracker.getHeight(),
+                tracker.getVelocityX(),
+                tracker.getVelocityY()
+            );
+            table.addRow(
+                tracker.getTrackId(),
+                entry.trackNumber,
                 entry.lastDetection != null ? entry.lastDetection.getClassId() : -1,
                 entry.lastDetection != null ? entry.lastDetection.getLabel() : "object",
                 entry.lastDetection != null ? entry.lastDetection.getConfidence() : 0f,
-                state.getX(),
-                state.getY(),
-                state.getWidth(),
-                state.getHeight(),
-                state.getVelocityX(),
-                state.getVelocityY(),
-                entry.lastUpdateTimestamp
-            ));
+                tracker.getX(),
+                tracker.getY(),
+                tracker.getWidth(),
+                tracker.getHeight(),
+                tracker.getVelocityX(),
+                tracker.getVelocityY(),
+                entry.lastUpdateTimestamp,
+                entry.history
+            );
         }
-        return snapshots;
+        event.end();
+        event.commit(cameraId, frameSequence, safeDetections.size(), table.size());
+        return table;
+    }
+
+    /**
+     * Publishes the table filled by the last {@link #update} call for off-thread readers.
+     */
+    public void publish(String cameraId) {
+        CameraTracks cameraTracks = tracksByCamera.get(cameraId);
+        if (cameraTracks != null) {
+            cameraTracks.tables.publish();
+        }
+    }
+
+    /**
+     * Latest published table for a camera, or {@code null} if nothing new was published
+     * since the previous call. Intended for a single consumer thread per camera.
+     */
+    public TrackTable pollLatest(String cameraId) {
+        CameraTracks cameraTracks = tracksByCamera.get(cameraId);
+        return cameraTracks != null ? cameraTracks.tables.pollLatest() : null;
     }
 
     public Collection<TrackerSnapshot> getActiveTrackers(String cameraId, long timestamp) {
-        List<TrackerEntry> entries = trackersByCamera.get(cameraId);
-        if (entries == null) {
+        CameraTracks cameraTracks = tracksByCamera.get(cameraId);
+        if (cameraTracks == null) {
             return Collections.emptyList();
         }
         List<TrackerSnapshot> snapshots = new ArrayList<>();
-        for (TrackerEntry entry : entries) {
+        for (TrackerEntry entry : cameraTracks.trackers) {
             if (entry.isStale(timestamp, TRACKER_TTL_MS)) {
                 continue;
             }
@@ -141,24 +231,64 @@ public class TrackerManager {
         return snapshots;
     }
 
-    private static List<Association> buildAssociations(List<TrackerEntry> trackers,
-                                                       List<DetectedObject> detections) {
-        List<Association> associations = new ArrayList<>();
-        for (int trackerIndex = 0; trackerIndex < trackers.size(); trackerIndex++) {
-            TrackerEntry entry = trackers.get(trackerIndex);
-            KalmanTracker.TrackerState state = entry.tracker.getState();
-            float trackerCx = state.getCenterX();
-            float trackerCy = state.getCenterY();
+    /**
+     * Returns the live history buffer for a track. The buffer is owned by the camera's
+     * processing thread and recycled once the track expires, so callers on other threads
+     * must not hold on to it.
+     */
+    public TrackHistory getHistory(String cameraId, String trackId) {
+        CameraTracks cameraTracks = tracksByCamera.get(cameraId);
+        if (cameraTracks == null || trackId == null) {
+            return null;
+        }
+        for (TrackerEntry entry : cameraTracks.trackers) {
+            if (trackId.equals(entry.tracker.getTrackId())) {
+                return entry.history;
+            }
+        }
+        return null;
+    }
+
+    public int getHistoryDepth() {
+        return historyDepth;
+    }
 
-            for (int detectionIndex = 0; detectionIndex < detections.size(); detectionIndex++) {
+    /**
+     * Bytes retained by history buffers for a camera; bounded by peak tracks x depth x sample size.
+     */
+    public long getHistoryRetainedBytes(String cameraId) {
+        CameraTracks cameraTracks = tracksByCamera.get(cameraId);
+        return cameraTracks != null ? cameraTracks.historyPool.getRetainedBytes() : 0L;
+    }
+
+    private static int buildAssociations(CameraTracks cameraTracks,
+                                         List<TrackerEntry> trackers,
+                                         List<DetectedObject> detections) {
+        int trackerCount = Math.min(trackers.size(), INDEX_MASK + 1);
+        int detectionCount = Math.min(detections.size(), INDEX_MASK + 1);
+        long[] associations = cameraTracks.associations(trackerCount * detectionCount);
+        int count = 0;
+        for (int trackerIndex = 0; trackerIndex < trackerCount; trackerIndex++) {
+            KalmanTracker tracker = trackers.get(trackerIndex).tracker;
+            float trackerCx = tracker.getCenterX();
+            float trackerCy = tracker.getCenterY();
+
+            for (int detectionIndex = 0; detectionIndex < detectionCount; detectionIndex++) {
                 DetectedObject detection = detections.get(detectionIndex);
                 float detectionCx = detection.getX() + detection.getWidth() / 2f;
                 float detectionCy = detection.getY() + detection.getHeight() / 2f;
                 float distance = distance(trackerCx, trackerCy, detectionCx, detectionCy);
-                associations.add(new Association(trackerIndex, detectionIndex, distance));
+                if (distance > MAX_ASSOCIATION_DISTANCE) {
+                    continue;
+                }
+                // Non-negative float bits sort like the floats themselves, so a plain long sort
+                // orders by distance, then tracker index, then detection index.
+                associations[count++] = ((long) Float.floatToIntBits(distance) << 32)
+                    | ((long) trackerIndex << 16)
+                    | detectionIndex;
             }
         }
-        return associations;
+        return count;
     }
 
     private static float distance(float x1, float y1, float x2, float y2) {
@@ -167,29 +297,59 @@ public class TrackerManager {
         return (float) Math.sqrt(dx * dx + dy * dy);
     }
 
+    private static class CameraTracks {
+        private final List<TrackerEntry> trackers = new ArrayList<>();
+        private final TrackHistoryPool historyPool;
+        private final TrackTableBuffer tables = new TrackTableBuffer();
+        private long[] associations = new long[256];
+        private boolean[] detectionMatched = new boolean[64];
+        private int nextTrackNumber = 1;
+
+        CameraTracks(int historyDepth, int fitWindow) {
+            this.historyPool = new TrackHistoryPool(historyDepth, fitWindow);
+        }
+
+        long[] associations(int required) {
+            if (associations.length < required) {
+                associations = new long[Math.max(required, associations.length * 2)];
+            }
+            return associations;
+        }
+
+        boolean[] detectionMatched(int required) {
+            if (detectionMatched.length < required) {
+                detectionMatched = new boolean[Math.max(required, detectionMatched.length * 2)];
+            } else {
+                Arrays.fill(detectionMatched, 0, required, false);
+            }
+            return detectionMatched;
+        }
+    }
+
     private static class TrackerEntry {
         private final KalmanTracker tracker;
+        private final TrackHistory history;
+        private final int trackNumber;
         private DetectedObject lastDetection;
         private long lastUpdateTimestamp;
 
-        TrackerEntry(KalmanTracker tracker, DetectedObject lastDetection, long timestamp) {
+        TrackerEntry(KalmanTracker tracker,
+                     DetectedObject lastDetection,
+                     long timestamp,
+                     TrackHistory history,
+                     int trackNumber) {
             this.tracker = tracker;
             this.lastDetection = lastDetection;
             this.lastUpdateTimestamp = timestamp;
+            this.history = history;
+            this.trackNumber = trackNumber;
         }
 
         boolean isStale(long timestamp, long ttlMs) {
             return lastUpdateTimestamp > 0 && (timestamp - lastUpdateTimestamp) > ttlMs;
         }
-
-        float[] getBounds() {
-            KalmanTracker.TrackerState state = tracker.getState();
-            return new float[]{state.getX(), state.getY(), state.getWidth(), state.getHeight()};
-        }
     }
 
-    private record Association(int trackerIndex, int detectionIndex, float distance) {}
-
     /**
      * Snapshot of a tracker for downstream components.
      */
@@ -1,18 +1,212 @@
 package com.starwatchx.trajectory;
 
+import com.starwatchx.tracking.TrackHistory;
+import com.starwatchx.tracking.TrackMoments;
+import com.starwatchx.tracking.TrackTable;
 import com.starwatchx.tracking.TrackerManager;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Provides basic constant-velocity trajectory prediction for tracked objects.
+ * Predicts future track positions from windowed least-squares fits over each track's history.
+ * Fits are solved from the running sums kept by {@link TrackMoments}, so a prediction costs
+ * O(1) per track regardless of window size. Each label can use its own motion model and
+ * horizons; vehicles default to a constant-acceleration fit over longer horizons.
  */
 public class TrajectoryPredictor {
 
     private static final float[] DEFAULT_HORIZONS_SECONDS = {0.5f, 1.0f};
+    private static final float[] DEFAULT_VEHICLE_HORIZONS_SECONDS = {0.5f, 1.0f, 2.0f, 3.0f};
+    private static final Set<String> VEHICLE_LABELS = Set.of(
+        "bicycle", "car", "motorcycle", "bus", "train", "truck", "boat", "airplane", "forklift"
+    );
+    private static final float DEFAULT_MAX_ACCELERATION = 1_500f;
+    private static final int MIN_SAMPLES_LINEAR = 3;
+    private static final int MIN_SAMPLES_QUADRATIC = 6;
+    private static final double MIN_FIT_SPAN_SECONDS = 0.1;
+    private static final double SINGULAR_EPSILON = 1e-9;
+    private static final int MAX_PATH_POINTS = 16;
+
+    /**
+     * Motion model used to extrapolate a track.
+     */
+    public enum Model {
+        /** Straight line using the least-squares velocity over the fit window. */
+        CONSTANT_VELOCITY,
+        /** Parabola using least-squares velocity and acceleration over the fit window. */
+        CONSTANT_ACCELERATION
+    }
+
+    private final Map<String, Profile> profilesByLabel = new ConcurrentHashMap<>();
+    private final AtomicInteger pathConsumers = new AtomicInteger();
+    private final ThreadLocal<float[][]> scratch =
+        ThreadLocal.withInitial(() -> new float[][]{new float[MAX_PATH_POINTS], new float[MAX_PATH_POINTS]});
+    private volatile Profile defaultProfile;
+    private volatile float maxAcceleration = DEFAULT_MAX_ACCELERATION;
+    private volatile int maxProfilePoints;
 
     public TrajectoryPredictor() {
+        this(DEFAULT_HORIZONS_SECONDS, DEFAULT_VEHICLE_HORIZONS_SECONDS);
+    }
+
+    public TrajectoryPredictor(float[] defaultHorizonsSeconds, float[] vehicleHorizonsSeconds) {
+        setDefaultProfile(Model.CONSTANT_VELOCITY, defaultHorizonsSeconds);
+        for (String label : VEHICLE_LABELS) {
+            setProfile(label, Model.CONSTANT_ACCELERATION, vehicleHorizonsSeconds);
+        }
+    }
+
+    public void setDefaultProfile(Model model, float[] horizonsSeconds) {
+        Profile profile = new Profile(model, horizonsSeconds);
+        this.defaultProfile = profile;
+        this.maxProfilePoints = Math.max(maxProfilePoints, profile.horizonsSeconds.length + 1);
+    }
+
+    public void setProfile(String label, Model model, float[] horizonsSeconds) {
+        Profile profile = new Profile(model, horizonsSeconds);
+        profilesByLabel.put(label, profile);
+        this.maxProfilePoints = Math.max(maxProfilePoints, profile.horizonsSeconds.length + 1);
+    }
+
+    /**
+     * Caps the fitted acceleration magnitude (px/s^2) so noisy fits cannot fling long horizons.
+     */
+    public void setMaxAcceleration(float maxAcceleration) {
+        this.maxAcceleration = Math.max(0f, maxAcceleration);
+    }
+
+    /**
+     * Registers interest in predicted paths. Paths are only computed while at least one
+     * consumer (HUD, alerting, ...) holds a registration.
+     */
+    public void retainPaths() {
+        pathConsumers.incrementAndGet();
+    }
+
+    public void releasePaths() {
+        pathConsumers.updateAndGet(count -> Math.max(0, count - 1));
+    }
+
+    public boolean isPathDemanded() {
+        return pathConsumers.get() > 0;
+    }
+
+    /**
+     * Writes the current center plus one point per horizon of the row's profile into every
+     * row of the table.
+     */
+    public void predictPaths(TrackTable table) {
+        if (table == null) {
+            return;
+        }
+        if (maxProfilePoints > table.getPathStride()) {
+            table.setPathStride(maxProfilePoints);
+        }
+        float[][] buffers = scratch.get();
+        float[] xs = buffers[0];
+        float[] ys = buffers[1];
+        for (int row = 0; row < table.size(); row++) {
+            Profile profile = profileFor(table.getLabel(row));
+            int written = predict(table, row, profile.model, profile.horizonsSeconds, xs, ys, 0);
+            for (int i = 0; i < written; i++) {
+                table.setPathPoint(row, i, xs[i], ys[i], i == 0 ? 0f : profile.horizonsSeconds[i - 1]);
+            }
+            table.setPathLength(row, written);
+        }
+    }
+
+    public void predictPaths(TrackTable table, float[] horizonsSeconds) {
+        if (table == null || horizonsSeconds == null) {
+            return;
+        }
+        int points = 1 + horizonsSeconds.length;
+        if (points > table.getPathStride()) {
+            table.setPathStride(points);
+        }
+        float[][] buffers = scratch.get();
+        float[] xs = points <= MAX_PATH_POINTS ? buffers[0] : new float[points];
+        float[] ys = points <= MAX_PATH_POINTS ? buffers[1] : new float[points];
+        for (int row = 0; row < table.size(); row++) {
+            Model model = profileFor(table.getLabel(row)).model;
+            int written = predict(table, row, model, horizonsSeconds, xs, ys, 0);
+            for (int i = 0; i < written; i++) {
+                table.setPathPoint(row, i, xs[i], ys[i], i == 0 ? 0f : horizonsSeconds[i - 1]);
+            }
+            table.setPathLength(row, written);
+        }
+    }
+
+    /**
+     * Predicts one row into caller-provided buffers: the current center at {@code offset}
+     * followed by one point per horizon.
+     *
+     * @return number of points written ({@code horizonsSeconds.length + 1})
+     */
+    public int predict(TrackTable table,
+                       int row,
+                       Model model,
+                       float[] horizonsSeconds,
+                       float[] outX,
+                       float[] outY,
+                       int offset) {
+        float currentX = table.getCenterX(row);
+        float currentY = table.getCenterY(row);
+        float vx = table.getVelocityX(row);
+        float vy = table.getVelocityY(row);
+        float ax = 0f;
+        float ay = 0f;
+
+        TrackHistory history = table.getHistory(row);
+        TrackMoments moments = history != null ? history.getMoments() : null;
+        if (moments != null && moments.getCount() >= MIN_SAMPLES_LINEAR) {
+            double tNow = moments.toSeconds(table.getTimestamp());
+            double n = moments.getCount();
+            double s1 = moments.getSumT();
+            double s2 = moments.getSumT2();
+            double variance = n * s2 - s1 * s1;
+            if (variance > SINGULAR_EPSILON && Math.sqrt(variance) / n >= MIN_FIT_SPAN_SECONDS / 4) {
+                boolean quadratic = model == Model.CONSTANT_ACCELERATION
+                    && moments.getCount() >= MIN_SAMPLES_QUADRATIC;
+                if (quadratic) {
+                    double c1x = quadraticTerm(moments, true, 1);
+                    double c2x = quadraticTerm(moments, true, 2);
+                    double c1y = quadraticTerm(moments, false, 1);
+                    double c2y = quadraticTerm(moments, false, 2);
+                    if (Double.isNaN(c2x) || Double.isNaN(c2y)) {
+                        quadratic = false;
+                    } else {
+                        vx = (float) (c1x + 2 * c2x * tNow);
+                        vy = (float) (c1y + 2 * c2y * tNow);
+                        ax = (float) (2 * c2x);
+                        ay = (float) (2 * c2y);
+                        float magnitude = (float) Math.sqrt(ax * ax + ay * ay);
+                        if (magnitude > maxAcceleration && magnitude > 0f) {
+                            float scale = maxAcceleration / magnitude;
+                            ax *= scale;
+                            ay *= scale;
+                        }
+                    }
+                }
+                if (!quadratic) {
+                    vx = (float) ((n * moments.getSumTX() - s1 * moments.getSumX()) / variance);
+                    vy = (float) ((n * moments.getSumTY() - s1 * moments.getSumY()) / variance);
+                }
+            }
+        }
+
+        outX[offset] = currentX;
+        outY[offset] = currentY;
+        for (int i = 0; i < horizonsSeconds.length; i++) {
+            float h = horizonsSeconds[i];
+            outX[offset + i + 1] = currentX + vx * h + 0.5f * ax * h * h;
+            outY[offset + i + 1] = currentY + vy * h + 0.5f * ay * h * h;
+        }
+        return horizonsSeconds.length + 1;
     }
 
     public List<Point> predictPath(TrackerManager.TrackerSnapshot snapshot) {
@@ -39,6 +233,68 @@ public class TrajectoryPredictor {
         return predictions;
     }
 
+    /**
+     * Motion model configured for a label (the default profile's model if none is set).
+     */
+    public Model getModel(String label) {
+        return profileFor(label).model;
+    }
+
+    private Profile profileFor(String label) {
+        Profile profile = label != null ? profilesByLabel.get(label) : null;
+        return profile != null ? profile : defaultProfile;
+    }
+
+    /**
+     * Solves the 3x3 normal equations for p(t) = c0 + c1 t + c2 t^2 with Cramer's rule and
+     * returns coefficient {@code term}, or NaN when the system is singular.
+     */
+    private static double quadraticTerm(TrackMoments m, boolean xAxis, int term) {
+        double n = m.getCount();
+        double s1 = m.getSumT();
+        double s2 = m.getSumT2();
+        double s3 = m.getSumT3();
+        double s4 = m.getSumT4();
+        double b0 = xAxis ? m.getSumX() : m.getSumY();
+        double b1 = xAxis ? m.getSumTX() : m.getSumTY();
+        double b2 = xAxis ? m.getSumT2X() : m.getSumT2Y();
+
+        double det = n * (s2 * s4 - s3 * s3)
+            - s1 * (s1 * s4 - s3 * s2)
+            + s2 * (s1 * s3 - s2 * s2);
+        if (Math.abs(det) <= SINGULAR_EPSILON * Math.max(1d, Math.abs(n * s2 * s4))) {
+            return Double.NaN;
+        }
+        return switch (term) {
+            case 0 -> (b0 * (s2 * s4 - s3 * s3)
+                - s1 * (b1 * s4 - s3 * b2)
+                + s2 * (b1 * s3 - s2 * b2)) / det;
+            case 1 -> (n * (b1 * s4 - b2 * s3)
+                - b0 * (s1 * s4 - s3 * s2)
+                + s2 * (s1 * b2 - b1 * s2)) / det;
+            case 2 -> (n * (s2 * b2 - s3 * b1)
+                - s1 * (s1 * b2 - b1 * s2)
+                + b0 * (s1 * s3 - s2 * s2)) / det;
+            default -> throw new IllegalArgumentException("term must be 0..2");
+        };
+    }
+
+    private static final class Profile {
+        private final Model model;
+        private final float[] horizonsSeconds;
+
+        Profile(Model model, float[] horizonsSeconds) {
+            if (model == null || horizonsSeconds == null) {
+                throw new IllegalArgumentException("model and horizons are required");
+            }
+            if (horizonsSeconds.length >= MAX_PATH_POINTS) {
+                throw new IllegalArgumentException("at most " + (MAX_PATH_POINTS - 1) + " horizons are supported");
+            }
+            this.model = model;
+            this.horizonsSeconds = horizonsSeconds.clone();
+        }
+    }
+
     /**
      * Represents a point in 2D space with optional prediction horizon metadata.
      */
@@ -1,22 +1,31 @@
 package com.starwatchx.video;
 
+import com.starwatchx.analytics.TrackAnalyzer;
 import com.starwatchx.detection.DetectedObject;
 import com.starwatchx.detection.ObjectDetector;
+import com.starwatchx.hud.AnnotatedFrameStreamer;
 import com.starwatchx.hud.HUDOverlay;
+import com.starwatchx.metrics.PipelineMetrics;
+import com.starwatchx.metrics.PipelineStage;
+import com.starwatchx.recording.SegmentedRecorder;
+import com.starwatchx.telemetry.TelemetryEvent;
 import com.starwatchx.telemetry.TelemetryPacket;
 import com.starwatchx.telemetry.TelemetryServer;
+import com.starwatchx.tracking.TrackTable;
 import com.starwatchx.tracking.TrackerManager;
 import com.starwatchx.trajectory.TrajectoryPredictor;
 import org.bytedeco.opencv.opencv_core.Mat;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Executes detection, tracking, trajectory prediction, and HUD overlay for frames.
+ * The HUD is only rendered when an annotated-frame subscriber is due for a frame or annotated
+ * recording is enabled. Each stage's latency is recorded per camera in {@link PipelineMetrics}.
  */
 public class FrameProcessor {
 
@@ -25,75 +34,181 @@ public class FrameProcessor {
     private final TrajectoryPredictor trajectoryPredictor;
     private final HUDOverlay hudOverlay;
     private final TelemetryServer telemetryServer;
+    private final AnnotatedFrameStreamer frameStreamer;
+    private final SegmentedRecorder recorder;
+    private final PipelineMetrics metrics;
+    private final List<TrackAnalyzer> analyzers = new CopyOnWriteArrayList<>();
+    private final List<Consumer<TelemetryEvent>> eventListeners = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<List<TelemetryEvent>> pendingEvents = ThreadLocal.withInitial(ArrayList::new);
 
     public FrameProcessor(ObjectDetector objectDetector,
                           TrackerManager trackerManager,
                           TrajectoryPredictor trajectoryPredictor,
                           HUDOverlay hudOverlay,
-                          TelemetryServer telemetryServer) {
+                          TelemetryServer telemetryServer,
+                          AnnotatedFrameStreamer frameStreamer,
+                          SegmentedRecorder recorder,
+                          PipelineMetrics metrics) {
         this.objectDetector = objectDetector;
         this.trackerManager = trackerManager;
         this.trajectoryPredictor = trajectoryPredictor;
         this.hudOverlay = hudOverlay;
         this.telemetryServer = telemetryServer;
+        this.frameStreamer = frameStreamer;
+        this.recorder = recorder;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Adds an analyzer that runs on every frame after tracking; its events are broadcast as telemetry.
+     */
+    public void addAnalyzer(TrackAnalyzer analyzer) {
+        if (analyzer != null) {
+            analyzers.add(analyzer);
+        }
+    }
+
+    /**
+     * Adds a listener that sees every analyzer event on the camera thread; it must not block.
+     */
+    public void addEventListener(Consumer<TelemetryEvent> listener) {
+        if (listener != null) {
+            eventListeners.add(listener);
+        }
     }
 
     public void processFrame(Mat frame, String cameraId, long timestamp) {
+        processFrame(frame, cameraId, timestamp, 0L);
+    }
+
+    /**
+     * @param frameSequence per-camera sequence of the captured frame, carried into the track
+     *                      table and the frame's Flight Recorder events
+     */
+    public void processFrame(Mat frame, String cameraId, long timestamp, long frameSequence) {
+        processFrame(frame, cameraId, timestamp, frameSequence, Double.NaN, System.nanoTime(), 0L);
+    }
+
+    /**
+     * Like {@link #processFrame(Mat, String, long, long)}, stamping the track table with the
+     * capture timing that telemetry carries to the clients for end-to-end latency.
+     *
+     * @param ptsMillis    presentation time reported by the source; NaN if unknown
+     * @param captureNanos {@code System.nanoTime()} when the read returned, i.e. at {@code timestamp}
+     * @param grabNanos    how long the read took
+     */
+    public void processFrame(Mat frame,
+                             String cameraId,
+                             long timestamp,
+                             long frameSequence,
+                             double ptsMillis,
+                             long captureNanos,
+                             long grabNanos) {
         if (frame == null || frame.empty()) {
             return;
         }
 
-        TelemetryPacket packet = null;
+        if (recorder != null && !recorder.isAnnotated() && recorder.isRecording(cameraId)) {
+            recorder.record(cameraId, frame, timestamp);
+        }
+
+        PipelineMetrics.Recorder stages = metrics.recorder(cameraId);
+        boolean published = false;
         try {
-            List<DetectedObject> detections = objectDetector.detect(frame, cameraId, timestamp);
+            List<DetectedObject> detections = objectDetector.detect(frame, cameraId, timestamp, frameSequence, stages);
             if (detections == null) {
                 detections = Collections.emptyList();
             }
 
-            List<TrackerManager.TrackerSnapshot> snapshots =
-                trackerManager.update(cameraId, detections, timestamp);
-
-            Map<String, List<TrajectoryPredictor.Point>> predictedPaths = new HashMap<>();
-            for (TrackerManager.TrackerSnapshot snapshot : snapshots) {
-                predictedPaths.put(snapshot.getTrackId(), trajectoryPredictor.predictPath(snapshot));
+            long started = System.nanoTime();
+            TrackTable tracks = trackerManager.update(cameraId, detections, timestamp, frameSequence);
+            tracks.setCapture(ptsMillis, captureNanos, grabNanos);
+            started = stages.record(PipelineStage.TRACKING, started);
+            stages.setActiveTracks(tracks.size());
+            if (trajectoryPredictor.isPathDemanded()) {
+                trajectoryPredictor.predictPaths(tracks);
+                started = stages.record(PipelineStage.TRAJECTORY, started);
+            }
+            if (renderAnnotatedFrame(frame, cameraId, timestamp, tracks)) {
+                started = stages.record(PipelineStage.HUD, started);
+            } else {
+                started = System.nanoTime();
+            }
+            if (runAnalyzers(tracks)) {
+                stages.record(PipelineStage.ANALYTICS, started);
             }
 
-            hudOverlay.draw(frame, snapshots, predictedPaths);
-
-            packet = buildTelemetryPacket(cameraId, timestamp, snapshots);
+            tracks.setPublishedNanos(System.nanoTime());
+            trackerManager.publish(cameraId);
+            published = true;
+            telemetryServer.frameReady(cameraId);
         } catch (Exception ex) {
             System.err.println("[FrameProcessor] Error processing frame for " + cameraId + ": " + ex.getMessage());
             ex.printStackTrace();
         } finally {
-            if (packet == null) {
-                packet = buildTelemetryPacket(cameraId, timestamp, Collections.emptyList());
+            if (!published) {
+                stages.skipFrame();
+                telemetryServer.broadcastTelemetry(new TelemetryPacket(cameraId, timestamp, Collections.emptyList()));
             }
-            telemetryServer.broadcastTelemetry(packet);
         }
     }
 
-    private TelemetryPacket buildTelemetryPacket(String cameraId,
-                                                 long timestamp,
-                                                 List<TrackerManager.TrackerSnapshot> snapshots) {
-        TelemetryPacket packet = new TelemetryPacket();
-        packet.setCameraId(cameraId);
-        packet.setTimestamp(timestamp);
-
-        List<TelemetryPacket.ObjectTelemetry> objects = new ArrayList<>();
-        for (TrackerManager.TrackerSnapshot snapshot : snapshots) {
-            TelemetryPacket.ObjectTelemetry objectTelemetry = new TelemetryPacket.ObjectTelemetry();
-            objectTelemetry.setId(snapshot.getTrackId());
-            objectTelemetry.setLabel(snapshot.getLabel());
-            objectTelemetry.setConfidence(snapshot.getConfidence());
-            objectTelemetry.setX(snapshot.getX());
-            objectTelemetry.setY(snapshot.getY());
-            objectTelemetry.setWidth(snapshot.getWidth());
-            objectTelemetry.setHeight(snapshot.getHeight());
-            objectTelemetry.setVx(snapshot.getVelocityX());
-            objectTelemetry.setVy(snapshot.getVelocityY());
-            objects.add(objectTelemetry);
+    /**
+     * Returns false if nobody wanted an annotated frame, so nothing was drawn.
+     */
+    private boolean renderAnnotatedFrame(Mat frame, String cameraId, long timestamp, TrackTable tracks) {
+        Mat recording = recorder != null && recorder.isAnnotated() && recorder.isRecording(cameraId)
+            ? recorder.acquireFrame(cameraId)
+            : null;
+        Mat canvas = frameStreamer != null ? frameStreamer.tryAcquireCanvas(cameraId) : null;
+        Mat target = recording != null ? recording : canvas;
+        if (target == null) {
+            return false;
+        }
+        // Borrowed buffers are cleared once submitted; whatever is left goes back to its pool.
+        try {
+            frame.copyTo(target);
+            hudOverlay.draw(target, tracks);
+            if (recording != null) {
+                if (canvas != null) {
+                    recording.copyTo(canvas);
+                }
+                recorder.submit(cameraId, recording, timestamp);
+                recording = null;
+            }
+            if (canvas != null) {
+                frameStreamer.submit(cameraId, canvas);
+                canvas = null;
+            }
+            return true;
+        } finally {
+            if (recording != null) {
+                recorder.release(cameraId, recording);
+            }
+            if (canvas != null) {
+                frameStreamer.release(cameraId, canvas);
+            }
+        }
+    }
+
+    private boolean runAnalyzers(TrackTable tracks) {
+        if (analyzers.isEmpty()) {
+            return false;
+        }
+        List<TelemetryEvent> events = pendingEvents.get();
+        try {
+            for (TrackAnalyzer analyzer : analyzers) {
+                analyzer.analyze(tracks, events);
+            }
+            for (TelemetryEvent event : events) {
+                telemetryServer.broadcastEvent(event);
+                for (Consumer<TelemetryEvent> listener : eventListeners) {
+                    listener.accept(event);
+                }
+            }
+        } finally {
+            events.clear();
         }
-        packet.setObjects(objects);
-        return packet;
+        return true;
     }
 }
@@ -1,6 +1,10 @@
 package com.starwatchx.video;
 
 import com.starwatchx.config.EngineConfig;
+import com.starwatchx.metrics.FrameCapturedEvent;
+import com.starwatchx.metrics.PipelineMetrics;
+import com.starwatchx.metrics.PipelineStage;
+import com.starwatchx.recording.ClipBuffer;
 import org.bytedeco.opencv.global.opencv_videoio;
 import org.bytedeco.opencv.opencv_core.Mat;
 import org.bytedeco.opencv.opencv_videoio.VideoCapture;
@@ -21,14 +25,32 @@ public class VideoStreamManager {
 
     private final EngineConfig engineConfig;
     private final FrameProcessor frameProcessor;
+    private final ClipBuffer clipBuffer;
+    private final PipelineMetrics metrics;
     private final ExecutorService executorService;
     private final List<CameraWorker> workers;
     private final List<Future<?>> workerFutures;
     private final AtomicBoolean running = new AtomicBoolean(false);
 
     public VideoStreamManager(EngineConfig engineConfig, FrameProcessor frameProcessor) {
+        this(engineConfig, frameProcessor, null);
+    }
+
+    public VideoStreamManager(EngineConfig engineConfig, FrameProcessor frameProcessor, ClipBuffer clipBuffer) {
+        this(engineConfig, frameProcessor, clipBuffer, new PipelineMetrics(false, 0L, 0L));
+    }
+
+    /**
+     * @param metrics receives the grab and clone latency of every camera
+     */
+    public VideoStreamManager(EngineConfig engineConfig,
+                              FrameProcessor frameProcessor,
+                              ClipBuffer clipBuffer,
+                              PipelineMetrics metrics) {
         this.engineConfig = engineConfig;
         this.frameProcessor = frameProcessor;
+        this.clipBuffer = clipBuffer;
+        this.metrics = metrics;
         this.executorService = Executors.newCachedThreadPool();
         this.workers = new ArrayList<>();
         this.workerFutures = new ArrayList<>();
@@ -136,26 +158,44 @@ public class VideoStreamManager {
                 System.out.flush();
 
                 frame = new Mat();
-                int frameCount = 0;
+                long frameCount = 0;
+                PipelineMetrics.Recorder stages = metrics.recorder(cameraConfig.getCameraId());
                 
                 while (active.get() && capture.isOpened()) {
+                    FrameCapturedEvent capturedEvent = new FrameCapturedEvent();
+                    capturedEvent.begin();
+                    long started = System.nanoTime();
                     boolean success = capture.read(frame);
+                    capturedEvent.end();
                     if (!success || frame.empty()) {
+                        stages.skipFrame();
                         System.out.println("[VideoStream] " + cameraConfig.getCameraId() + " looping video...");
                         capture.set(opencv_videoio.CAP_PROP_POS_FRAMES, 0);
                         continue;
                     }
 
+                    // A live source blocks until the next frame arrives, so the end of the read is
+                    // the closest the host gets to the capture instant; both clocks are taken there.
+                    long captured = stages.record(PipelineStage.GRAB, started);
+                    long grabNanos = captured - started;
+                    long timestamp = System.currentTimeMillis();
+                    double ptsMillis = capture.get(opencv_videoio.CAP_PROP_POS_MSEC);
                     frameCount++;
-                    if (frameCount % 30 == 1) {
+                    // The metrics report covers frame counts when it is on.
+                    if (frameCount % 30 == 1 && !metrics.isEnabled()) {
                         System.out.println("[VideoStream] " + cameraConfig.getCameraId() + " frame #" + frameCount);
                         System.out.flush();
                     }
 
                     Mat frameClone = frame.clone();
-                    long timestamp = System.currentTimeMillis();
+                    stages.record(PipelineStage.CLONE, captured);
+                    capturedEvent.commit(cameraConfig.getCameraId(), frameCount, timestamp);
+                    if (clipBuffer != null) {
+                        clipBuffer.offer(cameraConfig.getCameraId(), frame, timestamp);
+                    }
                     try {
-                        frameProcessor.processFrame(frameClone, cameraConfig.getCameraId(), timestamp);
+                        frameProcessor.processFrame(frameClone, cameraConfig.getCameraId(), timestamp, frameCount,
+                            ptsMillis >= 0 ? ptsMillis : Double.NaN, captured, grabNanos);
                     } finally {
                         frameClone.close();
                     }
@@ -0,0 +1,203 @@
+package com.starwatchx.analytics;
+
+import com.starwatchx.telemetry.TelemetryEvent;
+import com.starwatchx.tracking.TrackTable;
+import com.starwatchx.trajectory.TrajectoryPredictor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProximityAlertEngineTest {
+
+    private static final float STEP = 0.25f;
+    private static final long COOLDOWN_MS = 5_000L;
+
+    private final TrajectoryPredictor predictor = new TrajectoryPredictor();
+
+    private ProximityAlertEngine engine(ProximityRule... rules) {
+        return new ProximityAlertEngine(predictor, List.of(rules), STEP, COOLDOWN_MS);
+    }
+
+    @Test
+    void approachingPairRaisesOneAlertAtTheClosestPoint() {
+        ProximityAlertEngine engine = engine(new ProximityRule("person", "car", 50f, 2f));
+        // The person walks past the parked car, 30 px away, in 1.5 s.
+        List<TelemetryEvent> events = analyze(engine, new Scene(0L)
+            .track(1, "person", 0f, 0f, 100f, 0f)
+            .track(2, "car", 150f, 30f, 0f, 0f));
+
+        assertEquals(1, events.size());
+        TelemetryEvent event = events.get(0);
+        assertEquals(TelemetryEvent.TYPE_PROXIMITY, event.getType());
+        assertEquals(Set.of("T1", "T2"), Set.of(event.getTrackId(), event.getOtherTrackId()));
+        assertEquals(Set.of("person", "car"), Set.of(event.getLabel(), event.getOtherLabel()));
+        assertEquals(30f, event.getDistance(), 0.01f);
+        assertEquals(1.5f, event.getSecondsToClosest(), 0.01f);
+    }
+
+    @Test
+    void pairsThatStayApartOrAreNotCoveredDoNotAlert() {
+        ProximityAlertEngine engine = engine(new ProximityRule("person", "car", 50f, 2f));
+        List<TelemetryEvent> events = analyze(engine, new Scene(0L)
+            // Passes 80 px from the car.
+            .track(1, "person", 0f, 0f, 100f, 0f)
+            .track(2, "car", 150f, 80f, 0f, 0f)
+            // 60 px behind a car that drives away faster than the person follows.
+            .track(3, "person", 500f, 500f, 50f, 0f)
+            .track(4, "car", 560f, 500f, 100f, 0f)
+            // Two people about to collide; no rule covers them.
+            .track(5, "person", 800f, 100f, 50f, 0f)
+            .track(6, "person", 900f, 100f, -50f, 0f));
+        assertEquals(List.of(), events);
+    }
+
+    @Test
+    void closestApproachStopsAtTheRuleHorizon() {
+        // The truck rule makes the shared sample grid run to 2 s, past the 1.1 s car horizon.
+        ProximityRule car = new ProximityRule("person", "car", 5f, 1.1f);
+        ProximityRule truck = new ProximityRule("person", "truck", 100f, 2f);
+
+        // Reaches the car at 1.2 s: 10 px short when the horizon ends.
+        assertEquals(List.of(), analyze(engine(car, truck), new Scene(0L)
+            .track(1, "person", 0f, 0f, 100f, 0f)
+            .track(2, "car", 120f, 0f, 0f, 0f)));
+
+        List<TelemetryEvent> events = analyze(engine(car, truck), new Scene(0L)
+            .track(1, "person", 0f, 0f, 100f, 0f)
+            .track(2, "car", 112f, 0f, 0f, 0f));
+        assertEquals(1, events.size());
+        assertEquals(2f, events.get(0).getDistance(), 0.01f);
+        assertEquals(1.1f, events.get(0).getSecondsToClosest(), 0.01f);
+    }
+
+    @Test
+    void sweepAndPruneFindsExactlyTheBruteForcePairs() {
+        float distance = 60f;
+        float horizon = 2f;
+        for (long seed = 1; seed <= 5; seed++) {
+            Random random = new Random(seed);
+            Scene scene = new Scene(0L);
+            for (int i = 0; i < 80; i++) {
+                scene.track(i, i % 2 == 0 ? "person" : "car",
+                    random.nextFloat() * 1_000f, random.nextFloat() * 1_000f,
+                    (random.nextFloat() - 0.5f) * 300f, (random.nextFloat() - 0.5f) * 300f);
+            }
+            ProximityAlertEngine engine = engine(new ProximityRule("person", "car", distance, horizon),
+                new ProximityRule("person", "truck", 30f, 1f));
+
+            Set<String> expected = new HashSet<>();
+            Set<String> borderline = new HashSet<>();
+            for (int a = 0; a < scene.size(); a += 2) {
+                for (int b = 1; b < scene.size(); b += 2) {
+                    double closest = scene.closestApproach(a, b, horizon);
+                    String pair = pairKey("T" + a, "T" + b);
+                    if (Math.abs(closest - distance) < 0.05) {
+                        borderline.add(pair);
+                    } else if (closest <= distance) {
+                        expected.add(pair);
+                    }
+                }
+            }
+            Set<String> actual = new HashSet<>();
+            for (TelemetryEvent event : analyze(engine, scene)) {
+                actual.add(pairKey(event.getTrackId(), event.getOtherTrackId()));
+            }
+            actual.removeAll(borderline);
+            assertFalse(expected.isEmpty(), "seed " + seed + " should produce some pairs");
+            assertEquals(expected, actual, "seed " + seed);
+        }
+    }
+
+    @Test
+    void pairAlertsOnceUntilClearForTheCooldown() {
+        ProximityAlertEngine engine = engine(new ProximityRule("person", "car", 50f, 2f));
+        assertEquals(1, analyze(engine, close(0L)).size());
+        assertEquals(0, analyze(engine, close(100L)).size());
+        // Still close within the cooldown: no repeat, and the cooldown starts over.
+        assertEquals(0, analyze(engine, close(3_000L)).size());
+        assertEquals(0, analyze(engine, apart(7_000L)).size());
+        assertEquals(0, analyze(engine, close(7_500L)).size(), "cleared for less than the cooldown");
+        assertEquals(0, analyze(engine, apart(12_600L)).size());
+        assertEquals(1, analyze(engine, close(13_000L)).size(), "re-armed after the cooldown");
+    }
+
+    @Test
+    void camerasKeepSeparateCooldowns() {
+        ProximityAlertEngine engine = engine(new ProximityRule("person", "car", 50f, 2f));
+        assertEquals(1, analyze(engine, close(0L)).size());
+        Scene other = new Scene("CAM-2", 0L)
+            .track(1, "person", 0f, 0f, 0f, 0f)
+            .track(2, "car", 20f, 0f, 0f, 0f);
+        assertEquals(1, analyze(engine, other).size());
+    }
+
+    private static Scene close(long timestamp) {
+        return new Scene(timestamp)
+            .track(1, "person", 0f, 0f, 0f, 0f)
+            .track(2, "car", 20f, 0f, 0f, 0f);
+    }
+
+    private static Scene apart(long timestamp) {
+        return new Scene(timestamp)
+            .track(1, "person", 0f, 0f, 0f, 0f)
+            .track(2, "car", 900f, 0f, 0f, 0f);
+    }
+
+    private static List<TelemetryEvent> analyze(ProximityAlertEngine engine, Scene scene) {
+        List<TelemetryEvent> events = new ArrayList<>();
+        engine.analyze(scene.table, events);
+        return events;
+    }
+
+    private static String pairKey(String first, String second) {
+        return first.compareTo(second) < 0 ? first + "|" + second : second + "|" + first;
+    }
+
+    /**
+     * Tracks without history, so each moves in a straight line at its tracker velocity.
+     */
+    private static final class Scene {
+        private static final float SIZE = 20f;
+
+        private final TrackTable table = new TrackTable();
+
+        Scene(long timestamp) {
+            this("CAM-1", timestamp);
+        }
+
+        Scene(String cameraId, long timestamp) {
+            table.reset(cameraId, timestamp);
+        }
+
+        Scene track(int number, String label, float centerX, float centerY, float vx, float vy) {
+            table.addRow("T" + number, number, 0, label, 0.9f, centerX - SIZE / 2f, centerY - SIZE / 2f,
+                SIZE, SIZE, vx, vy, table.getTimestamp(), null);
+            return this;
+        }
+
+        int size() {
+            return table.size();
+        }
+
+        /**
+         * Closest distance of two rows within the horizon, solved analytically.
+         */
+        double closestApproach(int a, int b, double horizon) {
+            double px = table.getCenterX(a) - table.getCenterX(b);
+            double py = table.getCenterY(a) - table.getCenterY(b);
+            double vx = table.getVelocityX(a) - table.getVelocityX(b);
+            double vy = table.getVelocityY(a) - table.getVelocityY(b);
+            double speedSq = vx * vx + vy * vy;
+            double t = speedSq > 0 ? Math.max(0, Math.min(horizon, -(px * vx + py * vy) / speedSq)) : 0;
+            return Math.hypot(px + vx * t, py + vy * t);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.starwatchx.analytics;
+
+import com.starwatchx.telemetry.TelemetryEvent;
+import com.starwatchx.tracking.TrackTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZoneEngineTest {
+
+    private static Zone rectangle(String id, Zone.Kind kind, float left, float top, float right, float bottom,
+                                  long dwellMs, Set<String> labels) {
+        return new Zone(id, kind, new float[] {left, right, right, left}, new float[] {top, top, bottom, bottom},
+            dwellMs, labels);
+    }
+
+    private final ZoneEngine engine = new ZoneEngine(Map.of("CAM-1", List.of(
+        rectangle("queue", Zone.Kind.QUEUE, 100f, 100f, 300f, 300f, 2_000L, Set.of()),
+        rectangle("track-bed", Zone.Kind.NO_GO, 250f, 100f, 400f, 300f, 0L, Set.of()),
+        rectangle("loading", Zone.Kind.GENERIC, 500f, 100f, 700f, 300f, 0L, Set.of("truck"))
+    )));
+
+    @Test
+    void enterDwellExitOfOneTrack() {
+        assertEquals(List.of(), analyze(new Frame(0L).track(1, "person", 50f, 200f)));
+
+        List<TelemetryEvent> entered = analyze(new Frame(100L).track(1, "person", 150f, 200f));
+        assertEquals(List.of("zone_enter queue T1"), describe(entered));
+        assertEquals("person", entered.get(0).getLabel());
+        assertNull(entered.get(0).getDwellMillis());
+
+        assertEquals(List.of(), analyze(new Frame(1_000L).track(1, "person", 160f, 200f)));
+        List<TelemetryEvent> dwell = analyze(new Frame(2_100L).track(1, "person", 170f, 200f));
+        assertEquals(List.of("zone_dwell queue T1"), describe(dwell));
+        assertEquals(2_000L, dwell.get(0).getDwellMillis());
+        // Dwell is reported once per visit.
+        assertEquals(List.of(), analyze(new Frame(3_000L).track(1, "person", 180f, 200f)));
+
+        List<TelemetryEvent> exited = analyze(new Frame(3_100L).track(1, "person", 50f, 200f));
+        assertEquals(List.of("zone_exit queue T1"), describe(exited));
+        // From entering until last seen inside.
+        assertEquals(2_900L, exited.get(0).getDwellMillis());
+    }
+
+    @Test
+    void zonesUseTheGroundPointOfTheBox() {
+        // The box overlaps the queue, but its bottom edge is below it.
+        TrackTable table = new TrackTable();
+        table.reset("CAM-1", 0L);
+        table.addRow("T1", 1, 0, "person", 0.9f, 140f, 200f, 20f, 150f, 0f, 0f, 0L, null);
+        List<TelemetryEvent> events = new ArrayList<>();
+        engine.analyze(table, events);
+        assertEquals(List.of(), events);
+    }
+
+    @Test
+    void noGoZonesReportIntrusionsAndOverlapsReportEach() {
+        List<TelemetryEvent> events = analyze(new Frame(0L).track(1, "person", 275f, 200f));
+        assertEquals(Set.of("zone_enter queue T1", "zone_intrusion track-bed T1"), Set.copyOf(describe(events)));
+
+        // Leaving one of two overlapping zones exits only that one.
+        assertEquals(List.of("zone_exit queue T1"), describe(analyze(new Frame(100L).track(1, "person", 350f, 200f))));
+    }
+
+    @Test
+    void labelFilteredZonesIgnoreOtherLabels() {
+        assertEquals(List.of(), analyze(new Frame(0L).track(1, "person", 600f, 200f)));
+        assertEquals(List.of("zone_enter loading T2"), describe(analyze(new Frame(100L)
+            .track(1, "person", 600f, 200f)
+            .track(2, "truck", 620f, 200f))));
+    }
+
+    @Test
+    void vanishedTracksExitAndReenteringStartsANewVisit() {
+        analyze(new Frame(0L).track(1, "person", 150f, 200f));
+        List<TelemetryEvent> gone = analyze(new Frame(500L));
+        assertEquals(List.of("zone_exit queue T1"), describe(gone));
+        assertEquals(0L, gone.get(0).getDwellMillis());
+
+        assertEquals(List.of("zone_enter queue T1"), describe(analyze(new Frame(600L).track(1, "person", 150f, 200f))));
+        // Dwell counts from the new entry, not the first one.
+        assertEquals(List.of(), analyze(new Frame(2_500L).track(1, "person", 150f, 200f)));
+        assertEquals(List.of("zone_dwell queue T1"), describe(analyze(new Frame(2_600L).track(1, "person", 150f, 200f))));
+    }
+
+    @Test
+    void occupanciesStayConsistentAsTracksComeAndGo() {
+        Frame all = new Frame(0L);
+        for (int i = 1; i <= 6; i++) {
+            all.track(i, "person", 110f + i * 20f, 200f);
+        }
+        assertEquals(6, analyze(all).size());
+
+        // Tracks 2, 4 and 6 leave; the rest stay and must not be reported again.
+        Frame odd = new Frame(100L);
+        for (int i = 1; i <= 6; i += 2) {
+            odd.track(i, "person", 110f + i * 20f, 200f);
+        }
+        assertEquals(Set.of("zone_exit queue T2", "zone_exit queue T4", "zone_exit queue T6"),
+            Set.copyOf(describe(analyze(odd))));
+        assertEquals(List.of(), analyze(odd.at(200L)));
+
+        List<String> rest = describe(analyze(new Frame(300L).track(7, "person", 150f, 200f)));
+        assertEquals(4, rest.size());
+        assertTrue(rest.containsAll(List.of("zone_exit queue T1", "zone_exit queue T3", "zone_exit queue T5",
+            "zone_enter queue T7")), rest.toString());
+        assertEquals(List.of("zone_exit queue T7"), describe(analyze(new Frame(400L))));
+    }
+
+    @Test
+    void camerasWithoutZonesAreIgnored() {
+        TrackTable table = new TrackTable();
+        table.reset("CAM-9", 0L);
+        table.addRow("T1", 1, 0, "person", 0.9f, 140f, 150f, 20f, 50f, 0f, 0f, 0L, null);
+        List<TelemetryEvent> events = new ArrayList<>();
+        engine.analyze(table, events);
+        assertEquals(List.of(), events);
+        assertFalse(new ZoneEngine(Map.of("CAM-1", List.of())).hasZones());
+    }
+
+    private List<TelemetryEvent> analyze(Frame frame) {
+        List<TelemetryEvent> events = new ArrayList<>();
+        engine.analyze(frame.table, events);
+        return events;
+    }
+
+    private static List<String> describe(List<TelemetryEvent> events) {
+        List<String> described = new ArrayList<>();
+        for (TelemetryEvent event : events) {
+            described.add(event.getType() + " " + event.getZoneId() + " " + event.getTrackId());
+        }
+        return described;
+    }
+
+    /**
+     * One frame of CAM-1; tracks are placed by the bottom-center ground point zones are tested with.
+     */
+    private static final class Frame {
+        private final TrackTable table = new TrackTable();
+        private final List<float[]> rows = new ArrayList<>();
+        private final List<String> labels = new ArrayList<>();
+
+        Frame(long timestamp) {
+            table.reset("CAM-1", timestamp);
+        }
+
+        Frame track(int number, String label, float groundX, float groundY) {
+            rows.add(new float[] {number, groundX, groundY});
+            labels.add(label);
+            table.addRow("T" + number, number, 0, label, 0.9f, groundX - 10f, groundY - 40f, 20f, 40f, 0f, 0f,
+                table.getTimestamp(), null);
+            return this;
+        }
+
+        /**
+         * The same tracks at another time.
+         */
+        Frame at(long timestamp) {
+            Frame frame = new Frame(timestamp);
+            for (int i = 0; i < rows.size(); i++) {
+                float[] row = rows.get(i);
+                frame.track((int) row[0], labels.get(i), row[1], row[2]);
+            }
+            return frame;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.starwatchx.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZoneIndexTest {
+
+    private static final float CELL = 32f;
+
+    private static Zone polygon(String id, float... coordinates) {
+        float[] xs = new float[coordinates.length / 2];
+        float[] ys = new float[coordinates.length / 2];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = coordinates[2 * i];
+            ys[i] = coordinates[2 * i + 1];
+        }
+        return new Zone(id, Zone.Kind.GENERIC, xs, ys, 0L, Set.of());
+    }
+
+    private static List<Zone> zones() {
+        return List.of(
+            polygon("yard", 100f, 100f, 900f, 100f, 900f, 700f, 100f, 700f),
+            // Concave: an L around the yard's top-right corner.
+            polygon("l-shape", 700f, 20f, 980f, 20f, 980f, 400f, 850f, 400f, 850f, 150f, 700f, 150f),
+            polygon("ramp", 50f, 650f, 400f, 300f, 500f, 760f),
+            // Smaller than one cell.
+            polygon("post", 403f, 403f, 410f, 403f, 406f, 412f),
+            polygon("star", 600f, 450f, 630f, 540f, 720f, 540f, 650f, 590f, 680f, 680f,
+                600f, 625f, 520f, 680f, 550f, 590f, 480f, 540f, 570f, 540f)
+        );
+    }
+
+    @Test
+    void queryMatchesBruteForcePointInPolygon() {
+        List<Zone> zones = zones();
+        ZoneIndex index = new ZoneIndex(zones, CELL);
+        assertMatchesBruteForce(index, zones, 1_000f, 20_000, 7L);
+    }
+
+    @Test
+    void fullCellsSkipThePolygonTestAndPartialCellsRunIt() {
+        List<CountingZone> zones = List.of(
+            new CountingZone("yard", new float[] {100f, 900f, 900f, 100f}, new float[] {100f, 100f, 700f, 700f}),
+            new CountingZone("ramp", new float[] {50f, 400f, 500f}, new float[] {650f, 300f, 760f}));
+        ZoneIndex index = new ZoneIndex(new ArrayList<>(zones), CELL);
+        int[] out = new int[zones.size()];
+
+        // Deep inside the yard and away from the ramp: the cell is fully covered.
+        zones.forEach(zone -> zone.calls = 0);
+        assertEquals(1, index.query(800f, 200f, out));
+        assertEquals(0, out[0]);
+        assertEquals(0, zones.get(0).calls + zones.get(1).calls);
+
+        // Next to the ramp's long edge: the yard still covers the cell, the ramp only partly.
+        zones.forEach(zone -> zone.calls = 0);
+        int hits = index.query(448f, 530f, out);
+        assertEquals(0, zones.get(0).calls);
+        assertEquals(1, zones.get(1).calls);
+        assertEquals(zones.get(1).containsExactly(448f, 530f) ? 2 : 1, hits);
+
+        // Right on the yard's edge.
+        zones.forEach(zone -> zone.calls = 0);
+        index.query(900f, 400f, out);
+        assertEquals(1, zones.get(0).calls);
+    }
+
+    @Test
+    void hugeExtentsCoarsenTheGrid() {
+        List<Zone> zones = List.of(
+            polygon("wide", 0f, 0f, 100_000f, 0f, 100_000f, 50_000f),
+            polygon("small", 10f, 10f, 60f, 10f, 60f, 60f, 10f, 60f));
+        // A 0.5 px grid would need 2e10 cells; the index doubles the cell size until it fits.
+        ZoneIndex index = new ZoneIndex(zones, 0.5f);
+        assertMatchesBruteForce(index, zones, 100_000f, 5_000, 11L);
+    }
+
+    @Test
+    void emptyIndexFindsNothing() {
+        ZoneIndex index = new ZoneIndex(List.of(), CELL);
+        assertEquals(0, index.getZoneCount());
+        assertEquals(0, index.query(10f, 10f, new int[0]));
+    }
+
+    private static void assertMatchesBruteForce(ZoneIndex index, List<Zone> zones, float extent, int points, long seed) {
+        Random random = new Random(seed);
+        int[] out = new int[zones.size()];
+        int inside = 0;
+        for (int i = 0; i < points; i++) {
+            float x = (random.nextFloat() * 1.1f - 0.05f) * extent;
+            float y = (random.nextFloat() * 1.1f - 0.05f) * extent;
+            int[] expected = new int[zones.size()];
+            int count = 0;
+            for (int z = 0; z < zones.size(); z++) {
+                if (zones.get(z).contains(x, y)) {
+                    expected[count++] = z;
+                }
+            }
+            int[] actual = Arrays.copyOf(out, index.query(x, y, out));
+            Arrays.sort(actual);
+            assertArrayEquals(Arrays.copyOf(expected, count), actual, "at " + x + "," + y);
+            inside += count;
+        }
+        assertTrue(inside > points / 10, "too few points inside any zone: " + inside);
+    }
+
+    /**
+     * Counts exact polygon tests made after the index was built.
+     */
+    private static final class CountingZone extends Zone {
+        private int calls;
+
+        CountingZone(String id, float[] xs, float[] ys) {
+            super(id, Kind.GENERIC, xs, ys, 0L, Set.of());
+        }
+
+        @Override
+        public boolean contains(float x, float y) {
+            calls++;
+            return super.contains(x, y);
+        }
+
+        boolean containsExactly(float x, float y) {
+            return super.contains(x, y);
+        }
+    }
+}
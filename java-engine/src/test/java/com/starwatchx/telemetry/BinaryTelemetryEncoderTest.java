@@ -0,0 +1,103 @@
+package com.starwatchx.telemetry;
+
+import com.starwatchx.tracking.TrackTable;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryTelemetryEncoderTest {
+
+    private final LabelRegistry labels = new LabelRegistry();
+    private final BinaryTelemetryEncoder encoder = new BinaryTelemetryEncoder(labels, 64);
+    private final TelemetryWireDecoder decoder = new TelemetryWireDecoder();
+
+    @Test
+    void frameRoundTripsWithFullPrecision() {
+        TrackTable tracks = TestTracks.frame("CAM-1", 1_700_000_000_123L)
+            .track(7, "person", 0.5f, 10.123f, 20.456f, 30f, 60f, -1.5f, 2.25f)
+            .track(9, "car", 0.99f, 300f, 400f, 120f, 80f, 12f, 0f)
+            .table();
+        TelemetryWireDecoder.Frame frame = decoder.decode(encoder.encodeTracks(tracks, 5).toByteBuffer());
+
+        assertEquals(TelemetryProtocol.TYPE_FRAME, frame.type());
+        assertEquals("CAM-1", frame.cameraId());
+        assertEquals(1_700_000_000_123.0, frame.timestamp());
+        assertEquals(5L, frame.sequence());
+        assertEquals(Set.of(7L, 9L), frame.tracks().keySet());
+        TelemetryWireDecoder.Track person = frame.tracks().get(7L);
+        assertEquals(new TelemetryWireDecoder.Track(10.123f, 20.456f, 30f, 60f, -1.5f, 2.25f,
+            labels.idOf("person"), Math.round(0.5f * TelemetryProtocol.CONFIDENCE_SCALE)), person);
+        assertEquals(labels.idOf("car"), frame.tracks().get(9L).labelId());
+        assertNull(frame.timing());
+    }
+
+    @Test
+    void cameraIdIsPaddedSoColumnsStayAligned() {
+        for (String cameraId : List.of("", "A", "AB", "ABC", "ABCD", "CAM-é")) {
+            ByteBuffer message = encoder.encodeTracks(
+                TestTracks.frame(cameraId, 0L).track(1, 1f, 2f).table(), 1).toByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+            int cameraBytes = message.getShort(TelemetryProtocol.HEADER_BYTES) & 0xFFFF;
+            int columns = ((TelemetryProtocol.HEADER_BYTES + 2 + cameraBytes + 3) & ~3) + 16;
+            assertEquals(0, columns % 4, cameraId);
+            assertEquals(columns + BinaryTelemetryEncoder.BYTES_PER_OBJECT, message.remaining(), cameraId);
+            for (int i = TelemetryProtocol.HEADER_BYTES + 2 + cameraBytes; i < columns - 16; i++) {
+                assertEquals(0, message.get(i), cameraId + " padding");
+            }
+            assertEquals(cameraId, decoder.decode(message).cameraId());
+            assertEquals(1f, decoder.decode(message).tracks().get(1L).x(), cameraId);
+        }
+    }
+
+    @Test
+    void confidenceIsClampedToTheWireRange() {
+        TrackTable tracks = TestTracks.frame("CAM-1", 0L)
+            .track(1, "person", 1.5f, 0f, 0f, 1f, 1f, 0f, 0f)
+            .track(2, "person", -0.5f, 0f, 0f, 1f, 1f, 0f, 0f)
+            .track(3, "person", Float.NaN, 0f, 0f, 1f, 1f, 0f, 0f)
+            .table();
+        Map<Long, TelemetryWireDecoder.Track> decoded = decoder.decode(encoder.encodeTracks(tracks, 1).toByteBuffer()).tracks();
+        assertEquals(0xFFFF, decoded.get(1L).confidence());
+        assertEquals(0, decoded.get(2L).confidence());
+        assertEquals(0, decoded.get(3L).confidence());
+    }
+
+    @Test
+    void timingTrailerFollowsTheColumns() {
+        TrackTable tracks = TestTracks.frame("CAM-1", 0L)
+            .captured(17L, Double.NaN, 4_000L, 1_000L, 2_500L)
+            .track(1, 5f, 5f)
+            .table();
+        FrameTiming timing = new FrameTiming();
+        assertTrue(timing.set(tracks, System.nanoTime()));
+        TelemetryWireDecoder.Timing decoded = decoder.decode(
+            encoder.encodeTracks(tracks, 1).appendTiming(timing).toByteBuffer()).timing();
+
+        assertNotNull(decoded);
+        assertTrue(Double.isNaN(decoded.ptsMillis()));
+        assertEquals(17L, decoded.frameSequence());
+        assertEquals(1_000L, decoded.grabMicros());
+        assertEquals(2_500L, decoded.processMicros());
+        assertEquals(timing.dispatchMicros(), decoded.dispatchMicros());
+    }
+
+    @Test
+    void labelTableCarriesTheRequestedRange() {
+        labels.idOf("person");
+        labels.idOf("car");
+        labels.idOf("chariot élévateur");
+
+        assertEquals(Map.of(0, "person", 1, "car", 2, "chariot élévateur"),
+            TelemetryWireDecoder.decodeLabels(encoder.encodeLabels(0, 3).toByteBuffer()));
+        assertEquals(Map.of(2, "chariot élévateur"),
+            TelemetryWireDecoder.decodeLabels(encoder.encodeLabels(2, 3).toByteBuffer()));
+    }
+}
@@ -0,0 +1,141 @@
+package com.starwatchx.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeltaTelemetryEncoderTest {
+
+    private final LabelRegistry labels = new LabelRegistry();
+    private final TelemetryWireDecoder decoder = new TelemetryWireDecoder();
+
+    private DeltaTelemetryEncoder encoder(int keyframeInterval) {
+        return new DeltaTelemetryEncoder("CAM-1", labels, keyframeInterval, 1f, 1f, 0.01f);
+    }
+
+    @Test
+    void keyframeThenDeltaWithRemovals() {
+        DeltaTelemetryEncoder encoder = encoder(10);
+
+        TelemetryWireDecoder.Frame keyframe = decoder.decode(encoder.encode(TestTracks.frame("CAM-1", 1_000L)
+            .track(1, 10.3f, 20f)
+            .track(2, 100f, 200f)
+            .track(3, 300f, 40f)
+            .table()));
+        assertEquals(TelemetryProtocol.TYPE_KEYFRAME, keyframe.type());
+        assertEquals("CAM-1", keyframe.cameraId());
+        assertEquals(1_000.0, keyframe.timestamp());
+        assertEquals(1L, keyframe.sequence());
+        assertEquals(Set.of(1L, 2L, 3L), keyframe.tracks().keySet());
+        // Positions are sent in quarter pixels.
+        assertEquals(10.25f, keyframe.tracks().get(1L).x());
+        assertEquals(labels.idOf("person"), keyframe.tracks().get(1L).labelId());
+
+        // Track 1 moves, track 2 stays within the threshold, track 3 leaves and track 4 arrives.
+        ByteBuffer delta = encoder.encode(TestTracks.frame("CAM-1", 1_033L)
+            .track(1, 15f, 20f)
+            .track(2, 100.1f, 200f)
+            .track(4, 50f, 60f)
+            .table());
+        assertArrayEquals(new int[] {2, 1}, TelemetryWireDecoder.deltaCounts(delta));
+        TelemetryWireDecoder.Frame applied = decoder.decode(delta);
+        assertEquals(TelemetryProtocol.TYPE_DELTA, applied.type());
+        assertEquals(2L, applied.sequence());
+        assertEquals(Set.of(1L, 2L, 4L), applied.tracks().keySet());
+        assertEquals(15f, applied.tracks().get(1L).x());
+        // Unchanged tracks keep the reference value rather than drifting.
+        assertEquals(100f, applied.tracks().get(2L).x());
+        assertEquals(50f, applied.tracks().get(4L).x());
+        assertEquals(60f, applied.tracks().get(4L).y());
+    }
+
+    @Test
+    void smallMovesAccumulateAgainstTheReference() {
+        DeltaTelemetryEncoder encoder = encoder(100);
+        decoder.decode(encoder.encode(TestTracks.frame("CAM-1", 0L).track(1, 100f, 100f).table()));
+        float x = 100f;
+        int upserted = 0;
+        for (int i = 1; i <= 10; i++) {
+            x += 0.3f;
+            ByteBuffer delta = encoder.encode(TestTracks.frame("CAM-1", i).track(1, x, 100f).table());
+            int upserts = TelemetryWireDecoder.deltaCounts(delta)[0];
+            if (i == 1) {
+                assertEquals(0, upserts, "a move below the threshold is left out");
+            }
+            upserted += upserts;
+            // The client is never a threshold or more away from the truth.
+            assertTrue(Math.abs(decoder.decode(delta).tracks().get(1L).x() - x) < 1f, "drifted at frame " + i);
+        }
+        // 3 px in 0.3 px steps against a 1 px threshold.
+        assertTrue(upserted >= 2 && upserted <= 4, upserted + " upserts");
+    }
+
+    @Test
+    void gapDropsStateUntilTheNextKeyframe() {
+        DeltaTelemetryEncoder encoder = encoder(10);
+        decoder.decode(encoder.encode(TestTracks.frame("CAM-1", 0L).track(1, 10f, 10f).table()));
+        encoder.encode(TestTracks.frame("CAM-1", 33L).track(1, 20f, 10f).table());
+
+        // The client missed sequence 2, so sequence 3 does not apply.
+        assertNull(decoder.decode(encoder.encode(TestTracks.frame("CAM-1", 66L).track(1, 30f, 10f).track(2, 5f, 5f).table())));
+
+        TelemetryWireDecoder.Frame resync = decoder.decode(encoder.keyframe());
+        assertEquals(TelemetryProtocol.TYPE_KEYFRAME, resync.type());
+        assertEquals(3L, resync.sequence());
+        assertEquals(Set.of(1L, 2L), resync.tracks().keySet());
+        assertEquals(30f, resync.tracks().get(1L).x());
+
+        TelemetryWireDecoder.Frame next = decoder.decode(encoder.encode(
+            TestTracks.frame("CAM-1", 99L).track(1, 40f, 10f).table()));
+        assertEquals(4L, next.sequence());
+        assertEquals(Map.of(1L, next.tracks().get(1L)), next.tracks());
+        assertEquals(40f, next.tracks().get(1L).x());
+    }
+
+    @Test
+    void quantizationClampsToTheWireRange() {
+        DeltaTelemetryEncoder encoder = encoder(1);
+        TelemetryWireDecoder.Frame frame = decoder.decode(encoder.encode(TestTracks.frame("CAM-1", 0L)
+            .track(1, "car", 1.5f, 1e6f, -1e6f, Float.NaN, 10f, Float.POSITIVE_INFINITY, -1e5f)
+            .track(2, "car", -0.2f, 0f, 0f, 0f, 0f, 0f, 0f)
+            .table()));
+        TelemetryWireDecoder.Track big = frame.tracks().get(1L);
+        assertEquals(Short.MAX_VALUE / TelemetryProtocol.POSITION_SCALE, big.x());
+        assertEquals(Short.MIN_VALUE / TelemetryProtocol.POSITION_SCALE, big.y());
+        assertEquals(0f, big.width());
+        assertEquals(0f, big.vx());
+        assertEquals(Short.MIN_VALUE / TelemetryProtocol.VELOCITY_SCALE, big.vy());
+        assertEquals(0xFFFF, big.confidence());
+        assertEquals(0, frame.tracks().get(2L).confidence());
+    }
+
+    @Test
+    void timingTrailerFollowsTheColumns() {
+        DeltaTelemetryEncoder encoder = encoder(10);
+        ByteBuffer unstamped = encoder.encode(TestTracks.frame("CAM-1", 0L).track(1, 10f, 10f).table());
+        assertNull(decoder.decode(unstamped).timing());
+
+        ByteBuffer delta = encoder.encode(TestTracks.frame("CAM-1", 33L)
+            .captured(42L, 1_234.5, 5_000L, 2_000L, 3_000L)
+            .track(1, 20f, 10f)
+            .table());
+        TelemetryWireDecoder.Timing timing = decoder.decode(delta).timing();
+        assertNotNull(timing);
+        assertEquals(1_234.5, timing.ptsMillis());
+        assertEquals(42L, timing.frameSequence());
+        assertEquals(2_000L, timing.grabMicros());
+        assertEquals(3_000L, timing.processMicros());
+        assertTrue(timing.dispatchMicros() >= 5_000L, "dispatch " + timing.dispatchMicros());
+
+        // An on-demand keyframe carries the timing of the same frame.
+        assertEquals(timing, decoder.decode(encoder.keyframe()).timing());
+    }
+}
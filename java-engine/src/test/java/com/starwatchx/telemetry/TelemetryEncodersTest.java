@@ -0,0 +1,61 @@
+package com.starwatchx.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TelemetryEncodersTest {
+
+    private final LabelRegistry labels = new LabelRegistry();
+    private final BinaryTelemetryEncoder binary = new BinaryTelemetryEncoder(labels);
+
+    @Test
+    void binaryBatchPadsEveryMessageToFourBytes() {
+        labels.idOf("person");
+        List<ByteBuffer> parts = new ArrayList<>();
+        // Label tables have odd lengths; camera ids of 1..3 bytes move the frames' padding around.
+        parts.add(binary.encodeLabels(0, 1).toByteBuffer());
+        for (String cameraId : List.of("A", "AB", "ABC")) {
+            parts.add(binary.encodeTracks(TestTracks.frame(cameraId, 10L).track(3, 4f, 5f).table(), 2).toByteBuffer());
+        }
+        parts.add(new DeltaTelemetryEncoder("CAM-1", labels, 1, 1f, 1f, 0.01f)
+            .encode(TestTracks.frame("CAM-1", 20L).track(1, 8f, 9f).table()));
+        assertNotEquals(0, parts.get(0).remaining() % 4, "label table should need padding");
+
+        ByteBuffer batch = TelemetryEncoders.binaryBatch(parts);
+
+        assertEquals(TelemetryProtocol.TYPE_BATCH, batch.get(3));
+        assertEquals(parts.size(), batch.getShort(TelemetryProtocol.HEADER_BYTES) & 0xFFFF);
+        int offset = TelemetryProtocol.HEADER_BYTES + 4;
+        for (ByteBuffer part : parts) {
+            assertEquals(0, offset % 4);
+            int length = batch.getInt(offset);
+            assertEquals(part.remaining(), length);
+            int padded = (length + 3) & ~3;
+            for (int i = offset + 4 + length; i < offset + 4 + padded; i++) {
+                assertEquals(0, batch.get(i), "padding at " + i);
+            }
+            offset += 4 + padded;
+        }
+        assertEquals(batch.limit(), offset);
+
+        List<ByteBuffer> split = TelemetryWireDecoder.splitBatch(batch);
+        assertEquals(parts, split);
+        TelemetryWireDecoder decoder = new TelemetryWireDecoder();
+        assertEquals("person", TelemetryWireDecoder.decodeLabels(split.get(0)).get(0));
+        assertEquals("AB", decoder.decode(split.get(2)).cameraId());
+        assertEquals(8f, decoder.decode(split.get(4)).tracks().get(1L).x());
+    }
+
+    @Test
+    void emptyBatchIsJustTheHeader() {
+        ByteBuffer batch = TelemetryEncoders.binaryBatch(List.of());
+        assertEquals(TelemetryProtocol.HEADER_BYTES + 4, batch.remaining());
+        assertEquals(List.of(), TelemetryWireDecoder.splitBatch(batch));
+    }
+}
@@ -0,0 +1,134 @@
+package com.starwatchx.telemetry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryLogTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final int FRAMES = 100;
+    private static final long FRAME_MILLIS = 100L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendSeekAndRead() throws IOException {
+        writeLog();
+        assertEquals(3, TelemetryLog.segmentFiles(directory.toFile()).length, "4 s segments over 10 s");
+
+        TelemetryLogReader reader = new TelemetryLogReader(directory.toString());
+        assertEquals(START, reader.getStartMillis());
+        try (TelemetryLogReader.Cursor cursor = reader.seek(START + 5_050L)) {
+            Read read = readAll(cursor);
+            List<Long> expected = new ArrayList<>();
+            for (long timestamp = START + 5_100L; timestamp < START + FRAMES * FRAME_MILLIS; timestamp += FRAME_MILLIS) {
+                expected.add(timestamp);
+            }
+            assertEquals(expected, read.timestamps);
+            // The sync point the seek started from names every label, including those logged earlier.
+            assertTrue(read.labels.containsValue("person") && read.labels.containsValue("car"), read.labels.toString());
+        }
+    }
+
+    @Test
+    void recordsDecodeAsTheyWereLogged() throws IOException {
+        writeLog();
+        TelemetryWireDecoder decoder = new TelemetryWireDecoder();
+        Map<Integer, String> labels = new HashMap<>();
+        int frames = 0;
+        try (TelemetryLogReader.Cursor cursor = new TelemetryLogReader(directory.toString()).seek(Long.MIN_VALUE)) {
+            TelemetryLogReader.LogRecord record;
+            while ((record = cursor.next()) != null) {
+                if (record.isLabels()) {
+                    labels.putAll(TelemetryWireDecoder.decodeLabels(record.payload()));
+                    continue;
+                }
+                TelemetryWireDecoder.Frame frame = decoder.decode(record.payload());
+                assertEquals(TelemetryProtocol.TYPE_KEYFRAME, frame.type());
+                assertEquals("CAM-1", frame.cameraId());
+                assertEquals(START + frames * FRAME_MILLIS, (long) frame.timestamp());
+                assertEquals(frames, frame.tracks().get(1L).x());
+                assertEquals("person", labels.get(frame.tracks().get(1L).labelId()));
+                assertEquals(frames % 10 == 0 ? "car" : null,
+                    frame.tracks().containsKey(2L) ? labels.get(frame.tracks().get(2L).labelId()) : null);
+                // Recorded telemetry carries no timing trailer.
+                assertNull(frame.timing());
+                frames++;
+            }
+        }
+        assertEquals(FRAMES, frames);
+    }
+
+    @Test
+    void seekOutsideTheLog() throws IOException {
+        writeLog();
+        TelemetryLogReader reader = new TelemetryLogReader(directory.toString());
+        try (TelemetryLogReader.Cursor cursor = reader.seek(START - 60_000L)) {
+            assertEquals(START, readAll(cursor).timestamps.get(0));
+        }
+        try (TelemetryLogReader.Cursor cursor = reader.seek(START + 60_000L)) {
+            assertEquals(List.of(), readAll(cursor).timestamps);
+        }
+    }
+
+    @Test
+    void emptyDirectoryHasNoRecords() throws IOException {
+        File empty = directory.resolve("empty").toFile();
+        TelemetryLogReader reader = new TelemetryLogReader(empty.getPath());
+        assertEquals(Long.MIN_VALUE, reader.getStartMillis());
+        try (TelemetryLogReader.Cursor cursor = reader.seek(START)) {
+            assertNull(cursor.next());
+        }
+    }
+
+    /**
+     * Ten seconds of one camera at 10 Hz; a car joins the person every tenth frame.
+     */
+    private void writeLog() {
+        TelemetryLog log = new TelemetryLog(directory.toString(), 1L << 20, 4_000L, 0L, 0L, 1_000L, 1_024, 100L);
+        log.start();
+        try {
+            for (int i = 0; i < FRAMES; i++) {
+                TestTracks frame = TestTracks.frame("CAM-1", START + i * FRAME_MILLIS).track(1, i, 0f);
+                if (i % 10 == 0) {
+                    frame.track(2, "car", 0.8f, 50f, 50f, 100f, 60f, 0f, 0f);
+                }
+                log.onTracks(frame.table());
+            }
+        } finally {
+            log.stop();
+        }
+        assertEquals(0L, log.getDroppedRecords());
+    }
+
+    private static Read readAll(TelemetryLogReader.Cursor cursor) throws IOException {
+        Read read = new Read();
+        TelemetryLogReader.LogRecord record;
+        while ((record = cursor.next()) != null) {
+            if (record.isLabels()) {
+                read.labels.putAll(TelemetryWireDecoder.decodeLabels(record.payload()));
+            } else {
+                read.timestamps.add(record.timestamp());
+            }
+        }
+        return read;
+    }
+
+    private static final class Read {
+        private final List<Long> timestamps = new ArrayList<>();
+        private final Map<Integer, String> labels = new HashMap<>();
+    }
+}
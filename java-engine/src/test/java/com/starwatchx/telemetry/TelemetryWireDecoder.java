@@ -0,0 +1,229 @@
+package com.starwatchx.telemetry;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Independent decoder of the binary telemetry formats, written from {@link TelemetryProtocol}
+ * and following {@code dashboard/lib/wsClient.ts} step by step, so encoder tests check the wire
+ * layout rather than the encoder against itself. Keeps per-camera delta state like the dashboard.
+ */
+final class TelemetryWireDecoder {
+
+    private static final int DELTA_FIELDS = 8;
+
+    private final Map<String, DeltaState> deltaStates = new HashMap<>();
+
+    /**
+     * Decodes a frame, keyframe or delta. Keyframes and deltas update the camera's state; a delta
+     * that does not follow the previous sequence returns {@code null} and drops the state.
+     */
+    Frame decode(ByteBuffer message) {
+        ByteBuffer view = view(message);
+        checkHeader(view);
+        int type = view.get(3) & 0xFF;
+        return switch (type) {
+            case TelemetryProtocol.TYPE_FRAME -> decodeFrame(view);
+            case TelemetryProtocol.TYPE_KEYFRAME, TelemetryProtocol.TYPE_DELTA -> decodeDelta(view, type);
+            default -> throw new IllegalArgumentException("not a frame: type " + type);
+        };
+    }
+
+    /**
+     * Counts in a keyframe or delta header: {@code {upsertCount, removedCount}}.
+     */
+    static int[] deltaCounts(ByteBuffer message) {
+        ByteBuffer view = view(message);
+        int offset = columnsStart(view);
+        return new int[] {view.getShort(offset - 4) & 0xFFFF, view.getShort(offset - 2) & 0xFFFF};
+    }
+
+    /**
+     * Labels carried by a {@link TelemetryProtocol#TYPE_LABELS} message, by id.
+     */
+    static Map<Integer, String> decodeLabels(ByteBuffer message) {
+        ByteBuffer view = view(message);
+        checkHeader(view);
+        if ((view.get(3) & 0xFF) != TelemetryProtocol.TYPE_LABELS) {
+            throw new IllegalArgumentException("not a label table");
+        }
+        int count = view.getShort(4) & 0xFFFF;
+        Map<Integer, String> labels = new TreeMap<>();
+        int offset = 6;
+        for (int i = 0; i < count; i++) {
+            int id = view.getShort(offset) & 0xFFFF;
+            int length = view.get(offset + 2) & 0xFF;
+            labels.put(id, utf8(view, offset + 3, length));
+            offset += 3 + length;
+        }
+        if (offset != view.limit()) {
+            throw new IllegalArgumentException("label table has " + (view.limit() - offset) + " trailing bytes");
+        }
+        return labels;
+    }
+
+    /**
+     * Messages carried by a {@link TelemetryProtocol#TYPE_BATCH} message, in order.
+     */
+    static List<ByteBuffer> splitBatch(ByteBuffer message) {
+        ByteBuffer view = view(message);
+        checkHeader(view);
+        if ((view.get(3) & 0xFF) != TelemetryProtocol.TYPE_BATCH) {
+            throw new IllegalArgumentException("not a batch");
+        }
+        int count = view.getShort(4) & 0xFFFF;
+        List<ByteBuffer> parts = new ArrayList<>(count);
+        int offset = 8;
+        for (int i = 0; i < count; i++) {
+            int length = view.getInt(offset);
+            offset += 4;
+            parts.add(view.duplicate().position(offset).limit(offset + length).slice().order(ByteOrder.LITTLE_ENDIAN));
+            offset += (length + 3) & ~3;
+        }
+        if (offset != view.limit()) {
+            throw new IllegalArgumentException("batch has " + (view.limit() - offset) + " trailing bytes");
+        }
+        return parts;
+    }
+
+    private Frame decodeFrame(ByteBuffer view) {
+        String cameraId = utf8(view, 6, view.getShort(4) & 0xFFFF);
+        int offset = columnsStart(view);
+        double timestamp = view.getDouble(offset - 16);
+        long sequence = view.getInt(offset - 8) & 0xFFFFFFFFL;
+        int count = view.getShort(offset - 4) & 0xFFFF;
+        Map<Long, Track> tracks = new TreeMap<>();
+        for (int i = 0; i < count; i++) {
+            int column = offset + count * 4;
+            float[] values = new float[6];
+            for (int field = 0; field < values.length; field++) {
+                values[field] = view.getFloat(column + field * count * 4 + i * 4);
+            }
+            int labels = offset + count * 4 * 7;
+            tracks.put(view.getInt(offset + i * 4) & 0xFFFFFFFFL, new Track(values[0], values[1], values[2],
+                values[3], values[4], values[5], view.getShort(labels + i * 2) & 0xFFFF,
+                view.getShort(labels + count * 2 + i * 2) & 0xFFFF));
+        }
+        offset += count * BinaryTelemetryEncoder.BYTES_PER_OBJECT;
+        return new Frame(TelemetryProtocol.TYPE_FRAME, cameraId, timestamp, sequence, tracks, timing(view, offset));
+    }
+
+    private Frame decodeDelta(ByteBuffer view, int type) {
+        String cameraId = utf8(view, 6, view.getShort(4) & 0xFFFF);
+        int offset = columnsStart(view);
+        double timestamp = view.getDouble(offset - 16);
+        long sequence = view.getInt(offset - 8) & 0xFFFFFFFFL;
+        int upsertCount = view.getShort(offset - 4) & 0xFFFF;
+        int removedCount = view.getShort(offset - 2) & 0xFFFF;
+
+        DeltaState state = deltaStates.get(cameraId);
+        if (type == TelemetryProtocol.TYPE_KEYFRAME) {
+            state = new DeltaState();
+            deltaStates.put(cameraId, state);
+        } else if (state == null || sequence != ((state.sequence + 1) & 0xFFFFFFFFL)) {
+            deltaStates.remove(cameraId);
+            return null;
+        }
+        state.sequence = sequence;
+
+        int upsertIds = offset;
+        offset += upsertCount * 4;
+        for (int i = 0; i < removedCount; i++) {
+            state.tracks.remove(view.getInt(offset + i * 4) & 0xFFFFFFFFL);
+        }
+        offset += removedCount * 4;
+        for (int i = 0; i < upsertCount; i++) {
+            short[] values = new short[DELTA_FIELDS];
+            for (int field = 0; field < DELTA_FIELDS; field++) {
+                values[field] = view.getShort(offset + (field * upsertCount + i) * 2);
+            }
+            state.tracks.put(view.getInt(upsertIds + i * 4) & 0xFFFFFFFFL, values);
+        }
+        offset += upsertCount * DELTA_FIELDS * 2;
+
+        Map<Long, Track> tracks = new TreeMap<>();
+        for (Map.Entry<Long, short[]> entry : state.tracks.entrySet()) {
+            short[] values = entry.getValue();
+            tracks.put(entry.getKey(), new Track(
+                values[0] / TelemetryProtocol.POSITION_SCALE,
+                values[1] / TelemetryProtocol.POSITION_SCALE,
+                values[2] / TelemetryProtocol.POSITION_SCALE,
+                values[3] / TelemetryProtocol.POSITION_SCALE,
+                values[4] / TelemetryProtocol.VELOCITY_SCALE,
+                values[5] / TelemetryProtocol.VELOCITY_SCALE,
+                values[6] & 0xFFFF,
+                values[7] & 0xFFFF));
+        }
+        return new Frame(type, cameraId, timestamp, sequence, tracks, timing(view, offset));
+    }
+
+    /**
+     * Offset of the first column: after the camera id, its padding and the 16-byte frame prefix.
+     */
+    private static int columnsStart(ByteBuffer view) {
+        int cameraLength = view.getShort(4) & 0xFFFF;
+        return ((6 + cameraLength + 3) & ~3) + 16;
+    }
+
+    /**
+     * The timing trailer if the message continues past its columns; it must then be exactly
+     * {@value TelemetryProtocol#TIMING_BYTES} bytes.
+     */
+    private static Timing timing(ByteBuffer view, int offset) {
+        if (view.limit() == offset) {
+            return null;
+        }
+        if (view.limit() != offset + TelemetryProtocol.TIMING_BYTES) {
+            throw new IllegalArgumentException((view.limit() - offset) + " bytes after the columns");
+        }
+        return new Timing(
+            view.getDouble(offset),
+            view.getInt(offset + 8) & 0xFFFFFFFFL,
+            view.getInt(offset + 12) & 0xFFFFFFFFL,
+            view.getInt(offset + 16) & 0xFFFFFFFFL,
+            view.getInt(offset + 20) & 0xFFFFFFFFL);
+    }
+
+    private static void checkHeader(ByteBuffer view) {
+        if ((view.getShort(0) & 0xFFFF) != TelemetryProtocol.MAGIC || (view.get(2) & 0xFF) != TelemetryProtocol.VERSION) {
+            throw new IllegalArgumentException("Unsupported telemetry message header");
+        }
+    }
+
+    private static ByteBuffer view(ByteBuffer message) {
+        return message.duplicate().slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static String utf8(ByteBuffer view, int offset, int length) {
+        byte[] bytes = new byte[length];
+        view.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class DeltaState {
+        private long sequence;
+        private final Map<Long, short[]> tracks = new TreeMap<>();
+    }
+
+    /**
+     * A decoded frame; tracks are keyed and ordered by track number.
+     */
+    record Frame(int type, String cameraId, double timestamp, long sequence, Map<Long, Track> tracks, Timing timing) {
+    }
+
+    /**
+     * One track as a client sees it: pixels, pixels per second, label id and confidence scaled to
+     * 0..65535.
+     */
+    record Track(float x, float y, float width, float height, float vx, float vy, int labelId, int confidence) {
+    }
+
+    record Timing(double ptsMillis, long frameSequence, long grabMicros, long processMicros, long dispatchMicros) {
+    }
+}
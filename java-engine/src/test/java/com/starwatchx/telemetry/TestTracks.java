@@ -0,0 +1,49 @@
+package com.starwatchx.telemetry;
+
+import com.starwatchx.tracking.TrackTable;
+
+/**
+ * Builds tracker tables for encoder tests.
+ */
+final class TestTracks {
+
+    private final TrackTable table = new TrackTable();
+
+    private TestTracks(String cameraId, long timestamp) {
+        table.reset(cameraId, timestamp);
+    }
+
+    static TestTracks frame(String cameraId, long timestamp) {
+        return new TestTracks(cameraId, timestamp);
+    }
+
+    TestTracks track(int trackNumber, String label, float confidence, float x, float y, float width, float height,
+                     float vx, float vy) {
+        table.addRow("T" + trackNumber, trackNumber, 0, label, confidence, x, y, width, height, vx, vy,
+            table.getTimestamp(), null);
+        return this;
+    }
+
+    TestTracks track(int trackNumber, float x, float y) {
+        return track(trackNumber, "person", 0.9f, x, y, 40f, 80f, 0f, 0f);
+    }
+
+    /**
+     * Stamps the frame as captured {@code ageMicros} ago, read in {@code grabMicros} and handed to
+     * telemetry {@code processMicros} after capture. Call before adding tracks.
+     */
+    TestTracks captured(long frameSequence, double ptsMillis, long ageMicros, long grabMicros, long processMicros) {
+        if (!table.isEmpty()) {
+            throw new IllegalStateException("stamp the frame before adding tracks");
+        }
+        long captureNanos = System.nanoTime() - ageMicros * 1_000L;
+        table.reset(table.getCameraId(), table.getTimestamp(), frameSequence);
+        table.setCapture(ptsMillis, captureNanos, grabMicros * 1_000L);
+        table.setPublishedNanos(captureNanos + processMicros * 1_000L);
+        return this;
+    }
+
+    TrackTable table() {
+        return table;
+    }
+}
@@ -0,0 +1,92 @@
+package com.starwatchx.tracking;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrackHistoryTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void momentsCoverTheNewestFitWindow() {
+        TrackHistory history = new TrackHistory(64, 20);
+        for (int i = 0; i < 50; i++) {
+            push(history, START + i * 40L, i);
+        }
+        assertEquals(50, history.size());
+        assertMatchesWindow(history);
+    }
+
+    @Test
+    void momentsFollowTheRingOnceItWraps() {
+        TrackHistory history = new TrackHistory(16, 16);
+        for (int i = 0; i < 40; i++) {
+            push(history, START + i * 33L, i);
+        }
+        assertEquals(16, history.size());
+        assertEquals(START + 24 * 33L, history.getTimestamp(0));
+        assertMatchesWindow(history);
+    }
+
+    @Test
+    void rebaseKeepsTheSumsExact() {
+        TrackHistory history = new TrackHistory(64, 20);
+        long timestamp = START;
+        for (int i = 0; i < 300; i++) {
+            timestamp = START + i * 100L;
+            push(history, timestamp, i);
+        }
+        TrackMoments moments = history.getMoments();
+        // Thirty seconds of samples: the origin has moved on at least twice and stays near the window.
+        assertTrue(moments.getOriginTimestamp() >= START + 20_000L, "origin " + moments.getOriginTimestamp());
+        assertTrue(timestamp - moments.getOriginTimestamp() <= 12_000L, "origin " + moments.getOriginTimestamp());
+        assertMatchesWindow(history);
+    }
+
+    @Test
+    void clearForgetsTheMoments() {
+        TrackHistory history = new TrackHistory(8, 4);
+        for (int i = 0; i < 6; i++) {
+            push(history, START + i * 100L, i);
+        }
+        history.clear();
+        assertTrue(history.isEmpty());
+        assertEquals(0, history.getMoments().getCount());
+        push(history, START + 10_000L, 0);
+        assertEquals(START + 10_000L, history.getMoments().getOriginTimestamp());
+        assertMatchesWindow(history);
+    }
+
+    private static void push(TrackHistory history, long timestamp, int i) {
+        history.push(timestamp, 100f + 3.5f * i, 50f - 1.25f * i + 0.01f * i * i, 20f, 40f, 0f, 0f);
+    }
+
+    /**
+     * Compares every running sum against one computed from scratch over the newest fit window.
+     */
+    private static void assertMatchesWindow(TrackHistory history) {
+        TrackMoments moments = history.getMoments();
+        int first = Math.max(0, history.size() - history.getFitWindow());
+        double[] expected = new double[10];
+        for (int i = first; i < history.size(); i++) {
+            double t = moments.toSeconds(history.getTimestamp(i));
+            double x = history.getCenterX(i);
+            double y = history.getCenterY(i);
+            double[] terms = {t, t * t, t * t * t, t * t * t * t, x, t * x, t * t * x, y, t * y, t * t * y};
+            for (int k = 0; k < terms.length; k++) {
+                expected[k] += terms[k];
+            }
+        }
+        double[] actual = {
+            moments.getSumT(), moments.getSumT2(), moments.getSumT3(), moments.getSumT4(),
+            moments.getSumX(), moments.getSumTX(), moments.getSumT2X(),
+            moments.getSumY(), moments.getSumTY(), moments.getSumT2Y()
+        };
+        assertEquals(history.size() - first, moments.getCount());
+        for (int k = 0; k < expected.length; k++) {
+            assertEquals(expected[k], actual[k], 1e-9 * Math.max(1d, Math.abs(expected[k])), "sum " + k);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.starwatchx.trajectory;
+
+import com.starwatchx.tracking.TrackHistory;
+import com.starwatchx.tracking.TrackTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrajectoryPredictorTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final long SAMPLE_MS = 50L;
+    private static final float[] HORIZONS = {0.5f, 1.0f, 2.0f};
+    private static final float TOLERANCE_PX = 0.5f;
+
+    /** x(t) = 100 + 50 t + 20 t^2, y(t) = 400 - 30 t - 8 t^2: a constant (40, -16) px/s^2. */
+    private static double pathX(double t) {
+        return 100 + 50 * t + 20 * t * t;
+    }
+
+    private static double pathY(double t) {
+        return 400 - 30 * t - 8 * t * t;
+    }
+
+    @Test
+    void constantAccelerationFitRecoversTheParabola() {
+        assertExtrapolates(2.0);
+    }
+
+    @Test
+    void fitStaysExactAcrossMomentRebases() {
+        // Moments are rebased every 10 s; 25 s of samples crosses that twice.
+        assertExtrapolates(25.0);
+    }
+
+    @Test
+    void constantVelocityUsesTheFittedSlope() {
+        TrajectoryPredictor predictor = new TrajectoryPredictor();
+        TrackTable table = new TrackTable();
+        TrackHistory history = new TrackHistory(64, 20);
+        long end = START + 40 * SAMPLE_MS;
+        for (long timestamp = START; timestamp <= end; timestamp += SAMPLE_MS) {
+            double t = (timestamp - START) / 1000.0;
+            history.push(timestamp, (float) (10 + 60 * t), (float) (20 - 25 * t), 20f, 20f, 0f, 0f);
+        }
+        // The tracker's own velocity is deliberately wrong; the fit over the history wins.
+        addRow(table, "person", end, 10 + 60 * 2.0, 20 - 25 * 2.0, 999f, 999f, history);
+
+        float[] xs = new float[HORIZONS.length + 1];
+        float[] ys = new float[HORIZONS.length + 1];
+        predictor.predict(table, 0, predictor.getModel("person"), HORIZONS, xs, ys, 0);
+        for (int i = 0; i < HORIZONS.length; i++) {
+            assertEquals(130 + 60 * HORIZONS[i], xs[i + 1], TOLERANCE_PX, "x at " + HORIZONS[i]);
+            assertEquals(-30 - 25 * HORIZONS[i], ys[i + 1], TOLERANCE_PX, "y at " + HORIZONS[i]);
+        }
+    }
+
+    @Test
+    void accelerationIsCapped() {
+        TrajectoryPredictor predictor = new TrajectoryPredictor();
+        predictor.setMaxAcceleration(10f);
+        double seconds = 2.0;
+        TrackTable table = parabola(seconds);
+        float[] xs = new float[HORIZONS.length + 1];
+        float[] ys = new float[HORIZONS.length + 1];
+        predictor.predict(table, 0, TrajectoryPredictor.Model.CONSTANT_ACCELERATION, HORIZONS, xs, ys, 0);
+
+        double scale = 10.0 / Math.hypot(40, -16);
+        double vx = 50 + 40 * seconds;
+        double vy = -30 - 16 * seconds;
+        for (int i = 0; i < HORIZONS.length; i++) {
+            double h = HORIZONS[i];
+            assertEquals(xs[0] + vx * h + 0.5 * 40 * scale * h * h, xs[i + 1], TOLERANCE_PX, "x at " + h);
+            assertEquals(ys[0] + vy * h + 0.5 * -16 * scale * h * h, ys[i + 1], TOLERANCE_PX, "y at " + h);
+        }
+    }
+
+    @Test
+    void shortHistoryFallsBackToTheTrackerVelocity() {
+        TrajectoryPredictor predictor = new TrajectoryPredictor();
+        TrackTable table = new TrackTable();
+        TrackHistory history = new TrackHistory(8, 8);
+        history.push(START, 0f, 0f, 20f, 20f, 0f, 0f);
+        history.push(START + SAMPLE_MS, 100f, 100f, 20f, 20f, 0f, 0f);
+        addRow(table, "car", START + SAMPLE_MS, 100, 100, 10f, -5f, history);
+
+        float[] xs = new float[HORIZONS.length + 1];
+        float[] ys = new float[HORIZONS.length + 1];
+        assertEquals(HORIZONS.length + 1,
+            predictor.predict(table, 0, TrajectoryPredictor.Model.CONSTANT_ACCELERATION, HORIZONS, xs, ys, 0));
+        for (int i = 0; i < HORIZONS.length; i++) {
+            assertEquals(100 + 10 * HORIZONS[i], xs[i + 1], 1e-3f);
+            assertEquals(100 - 5 * HORIZONS[i], ys[i + 1], 1e-3f);
+        }
+    }
+
+    private static void assertExtrapolates(double seconds) {
+        TrajectoryPredictor predictor = new TrajectoryPredictor();
+        TrackTable table = parabola(seconds);
+        float[] xs = new float[HORIZONS.length + 1];
+        float[] ys = new float[HORIZONS.length + 1];
+        predictor.predict(table, 0, predictor.getModel("car"), HORIZONS, xs, ys, 0);
+        assertEquals(pathX(seconds), xs[0], TOLERANCE_PX);
+        for (int i = 0; i < HORIZONS.length; i++) {
+            double t = seconds + HORIZONS[i];
+            assertEquals(pathX(t), xs[i + 1], TOLERANCE_PX, "x at +" + HORIZONS[i]);
+            assertEquals(pathY(t), ys[i + 1], TOLERANCE_PX, "y at +" + HORIZONS[i]);
+        }
+    }
+
+    /**
+     * A car sampled along the parabola every {@value #SAMPLE_MS} ms for {@code seconds}, with a
+     * zero tracker velocity so only the fit can produce the right answer.
+     */
+    private static TrackTable parabola(double seconds) {
+        TrackHistory history = new TrackHistory(64, 20);
+        long end = START + Math.round(seconds * 1000);
+        for (long timestamp = START; timestamp <= end; timestamp += SAMPLE_MS) {
+            double t = (timestamp - START) / 1000.0;
+            history.push(timestamp, (float) pathX(t), (float) pathY(t), 20f, 20f, 0f, 0f);
+        }
+        TrackTable table = new TrackTable();
+        addRow(table, "car", end, pathX(seconds), pathY(seconds), 0f, 0f, history);
+        return table;
+    }
+
+    private static void addRow(TrackTable table, String label, long timestamp, double centerX, double centerY,
+                               float vx, float vy, TrackHistory history) {
+        table.reset("CAM-1", timestamp);
+        table.addRow("T1", 1, 0, label, 0.9f, (float) centerX - 10f, (float) centerY - 10f, 20f, 20f, vx, vy,
+            timestamp, history);
+    }
+}